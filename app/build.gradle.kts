@@ -1,3 +1,5 @@
+import com.example.zenpath.build.PackSpritesTask
+
 plugins {
     alias(libs.plugins.android.application)
 }
@@ -12,6 +14,8 @@ android {
         targetSdk = 34
         versionCode = 1
         versionName = "1.0"
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
     }
 
     buildTypes {
@@ -29,6 +33,28 @@ android {
     }
 }
 
+// Sun, moon, star and planets are packed into one atlas per density (res/drawable-*dpi/sprite_atlas.png)
+// with a generated SpriteAtlas index. Sizes are the largest on-screen size in dp, longest side.
+androidComponents {
+    onVariants { variant ->
+        val packSprites = tasks.register<PackSpritesTask>("pack${variant.name.replaceFirstChar { it.uppercase() }}Sprites") {
+            sourceDir.set(layout.projectDirectory.dir("src/sprites"))
+            packageName.set("com.example.zenpath")
+            displaySizesDp.putAll(
+                mapOf(
+                    "sun" to 270, "moon" to 250, "star" to 68,
+                    "mercury" to 64, "venus" to 80, "earth" to 84, "mars" to 72,
+                    "jupiter" to 124, "saturn" to 116, "uranus" to 104, "neptune" to 100
+                )
+            )
+            // ZoomSpaceView draws the star at its opaque bounds
+            trimmedFrames.add("star")
+        }
+        variant.sources.java?.addGeneratedSourceDirectory(packSprites) { it.javaOutputDir }
+        variant.sources.res?.addGeneratedSourceDirectory(packSprites) { it.resOutputDir }
+    }
+}
+
 dependencies {
     implementation("androidx.core:core-ktx:1.12.0")
     implementation("androidx.appcompat:appcompat:1.6.1")
@@ -39,4 +65,11 @@ dependencies {
     implementation("com.google.android.material:material:1.12.0")
     implementation("androidx.room:room-runtime:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
+
+    testImplementation("junit:junit:4.13.2")
+    // real org.json for JVM tests (android.jar only has stubs)
+    testImplementation("org.json:json:20231013")
+
+    androidTestImplementation("androidx.test.ext:junit:1.3.0")
+    androidTestImplementation("androidx.test:runner:1.7.0")
 }
@@ -0,0 +1,74 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BitmapRepository decodes at the requested size (never smaller) and shares one instance per size;
+ * the build-time sprite atlas agrees with its generated index.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BitmapRepositoryTest {
+
+    @Test
+    public void sampleSizeKeepsTheDrawnSize() {
+        // 1536 x 1024 avatar cropped into 300 x 300: short side must stay >= 300
+        assertEquals(2, BitmapRepository.sampleSize(1536, 1024, 300, 300, true));
+        // same image fitted into 300 x 300: long side must stay >= 300
+        assertEquals(4, BitmapRepository.sampleSize(1536, 1024, 300, 300, false));
+        // drawn bigger than the source
+        assertEquals(1, BitmapRepository.sampleSize(377, 379, 800, 800, false));
+    }
+
+    @Test
+    public void decodesSmallAndShares() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        BitmapRepository repo = BitmapRepository.get(context);
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        bounds.inScaled = false;
+        BitmapFactory.decodeResource(context.getResources(), R.drawable.girl, bounds);
+
+        int box = 200;
+        Bitmap a = repo.decode(R.drawable.girl, box, box, true);
+        assertNotNull(a);
+        assertTrue("decoded at full size", a.getWidth() < bounds.outWidth);
+        assertTrue("decoded smaller than drawn", Math.min(a.getWidth(), a.getHeight()) >= box);
+
+        assertSame(a, repo.decode(R.drawable.girl, box, box, true));
+    }
+
+    @Test
+    public void spriteAtlasMatchesItsIndex() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Bitmap atlas = BitmapRepository.get(context)
+                .decode(R.drawable.sprite_atlas, SpriteAtlas.WIDTH, SpriteAtlas.HEIGHT, false);
+        assertNotNull(atlas);
+
+        // the density copy is the xxxhdpi atlas scaled, never sampled down further
+        float k = (float) atlas.getWidth() / SpriteAtlas.WIDTH;
+        assertEquals(SpriteAtlas.HEIGHT * k, atlas.getHeight(), 1f);
+
+        for (int id = 0; id < SpriteAtlas.COUNT; id++) {
+            int o = id * SpriteAtlas.STRIDE;
+            int[] d = SpriteAtlas.DATA;
+            assertTrue("sprite " + id + " outside the atlas",
+                    d[o] + d[o + 2] <= SpriteAtlas.WIDTH && d[o + 1] + d[o + 3] <= SpriteAtlas.HEIGHT);
+            assertTrue("sprite " + id + " outside its frame",
+                    d[o + 6] + d[o + 2] <= d[o + 4] && d[o + 7] + d[o + 3] <= d[o + 5]);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.zenpath;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.SparseArray;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Upgrades a database seeded with the version 4 schema (including duplicate days, which that
+ * version could produce) and checks the v9 unique day indexes, the v10 search index, the v11
+ * page rows, the v12 history previews and the repository upserts.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DbMigrationTest {
+
+    private static final String DB = "zenpath-migration-test.db";
+    private static final long USER = 1;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB);
+    }
+
+    @Test
+    public void upgradeFromVersion4RemovesDuplicateDays() {
+        seedVersion4();
+
+        ZenPathDbHelper helper = new ZenPathDbHelper(context, DB, true);
+        try {
+            SQLiteDatabase db = helper.getWritableDatabase();
+            assertEquals(ZenPathDbHelper.DB_VERSION, db.getVersion());
+
+            // newest row of each day survives
+            assertEquals(1, count(db, ZenPathDbHelper.T_JOURNAL, "20260102"));
+            assertEquals(1, count(db, ZenPathDbHelper.T_JOURNAL, "20260103"));
+
+            // v11: the joined text became one row per page
+            ZenPathRepository repo = new ZenPathRepository(context, helper);
+            assertEquals(Arrays.asList("second"), repo.getDiaryPagesByDate(USER, "20260102"));
+            assertEquals(Arrays.asList("one", "", "three"), repo.getDiaryPagesByDate(USER, "20260104"));
+            assertEquals(3, repo.getDiaryEntryRef(USER, "20260104").pageCount);
+            assertEquals("", text(db, ZenPathDbHelper.T_JOURNAL, ZenPathDbHelper.J_TEXT,
+                    ZenPathDbHelper.J_DATE, "20260104"));
+
+            // v12: stored previews, newest first, equal times by date
+            ArrayList<ZenPathRepository.DiaryEntryMeta> history = repo.getDiaryHistoryPage(USER, null, 10);
+            assertEquals(3, history.size());
+            assertEquals("20260102", history.get(0).date);
+            assertEquals("second", history.get(0).preview);
+            assertEquals("20260104", history.get(1).date);
+            assertEquals("one\n\nthree", history.get(1).preview);
+            assertEquals("20260103", history.get(2).date);
+
+            assertEquals(1, count(db, ZenPathDbHelper.T_MOOD, "20260102"));
+            assertEquals("Calm", text(db, ZenPathDbHelper.T_MOOD, ZenPathDbHelper.M_TEXT,
+                    ZenPathDbHelper.M_DATE, "20260102"));
+
+            assertEquals(1, count(db, ZenPathDbHelper.T_STRESS, "20260102"));
+            assertEquals("70", text(db, ZenPathDbHelper.T_STRESS, ZenPathDbHelper.S_LEVEL,
+                    ZenPathDbHelper.S_DATE, "20260102"));
+
+            // the search index is filled from the surviving pages
+            try (Cursor c = db.rawQuery("SELECT docid FROM " + ZenPathDbHelper.T_DIARY_FTS +
+                    " WHERE " + ZenPathDbHelper.T_DIARY_FTS + " MATCH 'second OR first OR only OR three'", null)) {
+                assertEquals(3, c.getCount());
+            }
+
+            // a second row for the same day is now rejected
+            try {
+                db.insertOrThrow(ZenPathDbHelper.T_JOURNAL, null,
+                        journal("20260102", "dup", 9_000L));
+                fail("duplicate journal day was inserted");
+            } catch (SQLiteConstraintException expected) {
+                // ok
+            }
+        } finally {
+            helper.close();
+        }
+    }
+
+    @Test
+    public void upsertsKeepOneRowPerDay() {
+        seedVersion4();
+
+        ZenPathDbHelper helper = new ZenPathDbHelper(context, DB, true);
+        try {
+            ZenPathRepository repo = new ZenPathRepository(context, helper);
+            repo.open();
+
+            repo.upsertJournalEntry(USER, "20260110", "a");
+            repo.upsertJournalEntry(USER, "20260110", "b");
+
+            repo.upsertStress(USER, "20260110", 40, 0, 0, 0);
+            repo.addGamePlaytime(USER, "20260110", "PLANET", 30);
+            repo.addGamePlaytime(USER, "20260110", "PLANET", 15);
+            repo.addGamePlaytime(USER, "20260111", "STAR_SWEEP", 20);
+
+            SQLiteDatabase db = helper.getWritableDatabase();
+            assertEquals(1, count(db, ZenPathDbHelper.T_JOURNAL, "20260110"));
+            assertEquals("b", repo.getJournalTextByDate(USER, "20260110"));
+
+            assertEquals(1, count(db, ZenPathDbHelper.T_STRESS, "20260110"));
+            assertEquals("40", text(db, ZenPathDbHelper.T_STRESS, ZenPathDbHelper.S_LEVEL,
+                    ZenPathDbHelper.S_DATE, "20260110"));
+            assertEquals("45", text(db, ZenPathDbHelper.T_STRESS, ZenPathDbHelper.S_PLAY_PLANET,
+                    ZenPathDbHelper.S_DATE, "20260110"));
+            assertEquals("20", text(db, ZenPathDbHelper.T_STRESS, ZenPathDbHelper.S_PLAY_STAR,
+                    ZenPathDbHelper.S_DATE, "20260111"));
+            assertEquals("0", text(db, ZenPathDbHelper.T_STRESS, ZenPathDbHelper.S_LEVEL,
+                    ZenPathDbHelper.S_DATE, "20260111"));
+        } finally {
+            helper.close();
+        }
+    }
+
+    @Test
+    public void savingWritesOnlyTheChangedPages() {
+        ZenPathDbHelper helper = new ZenPathDbHelper(context, DB, true);
+        try {
+            ZenPathRepository repo = new ZenPathRepository(context, helper);
+            repo.open();
+
+            repo.upsertDiaryPages(USER, "2026-02-01",
+                    new ArrayList<>(Arrays.asList("morning tea", "a long walk", "rain later")));
+            long journalId = repo.getDiaryEntryRef(USER, "2026-02-01").journalId;
+            long firstPageRow = pageRowId(helper.getWritableDatabase(), journalId, 0);
+
+            // page 1 edited, page 2 dropped, page 0 not sent at all
+            SparseArray<String> changed = new SparseArray<>();
+            changed.put(1, "a short walk");
+            assertEquals(journalId, repo.saveDiaryPages(USER, "2026-02-01", changed, 2));
+
+            assertEquals(Arrays.asList("morning tea", "a short walk"), repo.getDiaryPagesByDate(USER, "2026-02-01"));
+            assertEquals(2, repo.getDiaryEntryRef(USER, "2026-02-01").pageCount);
+            assertEquals("a short walk", repo.getDiaryPage(journalId, 1));
+            assertEquals("", repo.getDiaryPage(journalId, 2));
+            assertEquals(firstPageRow, pageRowId(helper.getWritableDatabase(), journalId, 0));
+            assertEquals("morning tea\na short walk", repo.getDiaryHistoryPage(USER, null, 1).get(0).preview);
+
+            // blank pages only: kept, but no longer in the history
+            changed.put(0, " ");
+            changed.put(1, "");
+            repo.saveDiaryPages(USER, "2026-02-01", changed, 2);
+            assertTrue(repo.getDiaryHistoryPage(USER, null, 10).isEmpty());
+
+            assertEquals(1, repo.searchDiary(USER, "short", 0, 10).total);
+            assertEquals(0, repo.searchDiary(USER, "rain", 0, 10).total);
+            assertEquals(0, repo.searchDiary(USER, "long", 0, 10).total);
+        } finally {
+            helper.close();
+        }
+    }
+
+    // =========================
+    // helpers
+    // =========================
+
+    // tables as ZenPathDbHelper created them in version 4 (no indexes: the v4 table swap dropped them)
+    private void seedVersion4() {
+        SQLiteDatabase db = context.openOrCreateDatabase(DB, Context.MODE_PRIVATE, null);
+        try {
+            db.execSQL("CREATE TABLE users (_id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT UNIQUE NOT NULL, " +
+                    "created_at INTEGER NOT NULL, gender TEXT DEFAULT 'Male', avatar_res INTEGER DEFAULT 0)");
+            db.execSQL("CREATE TABLE journal (_id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER NOT NULL, " +
+                    "entry_date TEXT NOT NULL, entry_text TEXT NOT NULL, created_at INTEGER NOT NULL)");
+            db.execSQL("CREATE TABLE mood (_id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER NOT NULL, " +
+                    "mood_date TEXT NOT NULL, mood_text TEXT NOT NULL, reflection TEXT, created_at INTEGER NOT NULL)");
+            db.execSQL("CREATE TABLE stress (_id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER NOT NULL, " +
+                    "stress_date TEXT NOT NULL, stress_level INTEGER NOT NULL, " +
+                    "play_star_sweep INTEGER NOT NULL DEFAULT 0, play_lantern_release INTEGER NOT NULL DEFAULT 0, " +
+                    "play_planet INTEGER NOT NULL DEFAULT 0, created_at INTEGER NOT NULL)");
+
+            db.execSQL("INSERT INTO users (username, created_at) VALUES ('Guest', 0)");
+
+            db.insert("journal", null, journal("20260102", "first", 1_000L));
+            db.insert("journal", null, journal("20260102", "second", 2_000L));
+            db.insert("journal", null, journal("20260103", "only", 1_000L));
+            db.insert("journal", null, journal("20260104",
+                    "one" + DiaryPages.PAGE_BREAK + DiaryPages.PAGE_BREAK + "three", 1_000L));
+
+            db.execSQL("INSERT INTO mood (user_id, mood_date, mood_text, created_at) VALUES (1, '20260102', 'Angry', 1000)");
+            db.execSQL("INSERT INTO mood (user_id, mood_date, mood_text, created_at) VALUES (1, '20260102', 'Calm', 2000)");
+
+            // same created_at: the later row wins
+            db.execSQL("INSERT INTO stress (user_id, stress_date, stress_level, created_at) VALUES (1, '20260102', 30, 1000)");
+            db.execSQL("INSERT INTO stress (user_id, stress_date, stress_level, created_at) VALUES (1, '20260102', 70, 1000)");
+
+            db.setVersion(4);
+        } finally {
+            db.close();
+        }
+    }
+
+    private static ContentValues journal(String date, String text, long createdAt) {
+        ContentValues cv = new ContentValues();
+        cv.put(ZenPathDbHelper.COL_USER_ID, USER);
+        cv.put(ZenPathDbHelper.J_DATE, date);
+        cv.put(ZenPathDbHelper.J_TEXT, text);
+        cv.put(ZenPathDbHelper.J_CREATED_AT, createdAt);
+        return cv;
+    }
+
+    private static long pageRowId(SQLiteDatabase db, long journalId, int index) {
+        try (Cursor c = db.rawQuery("SELECT " + ZenPathDbHelper.JP_ID + " FROM " + ZenPathDbHelper.T_JOURNAL_PAGE +
+                " WHERE " + ZenPathDbHelper.JP_JOURNAL_ID + "=? AND " + ZenPathDbHelper.JP_INDEX + "=?",
+                new String[]{String.valueOf(journalId), String.valueOf(index)})) {
+            assertTrue(c.moveToFirst());
+            return c.getLong(0);
+        }
+    }
+
+    private static int count(SQLiteDatabase db, String table, String date) {
+        String dateCol = table.equals(ZenPathDbHelper.T_JOURNAL) ? ZenPathDbHelper.J_DATE
+                : table.equals(ZenPathDbHelper.T_MOOD) ? ZenPathDbHelper.M_DATE : ZenPathDbHelper.S_DATE;
+        try (Cursor c = db.rawQuery("SELECT COUNT(*) FROM " + table +
+                " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + dateCol + "=?",
+                new String[]{String.valueOf(USER), date})) {
+            assertTrue(c.moveToFirst());
+            return c.getInt(0);
+        }
+    }
+
+    private static String text(SQLiteDatabase db, String table, String col, String dateCol, String date) {
+        try (Cursor c = db.rawQuery("SELECT " + col + " FROM " + table +
+                " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + dateCol + "=?",
+                new String[]{String.valueOf(USER), date})) {
+            assertTrue(c.moveToFirst());
+            return c.getString(0);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Keyset history pages cover every saved entry with text once, newest first, with ties on
+ * created_at broken by the date.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DiaryHistoryPagingTest {
+
+    private static final String DB = "zenpath-history-test.db";
+    private static final long USER = 1;
+    private static final int ENTRIES = 2000;
+    private static final int PAGE = 20;
+
+    private Context context;
+    private ZenPathDbHelper helper;
+    private ZenPathRepository repo;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB);
+        helper = new ZenPathDbHelper(context, DB, true);
+        repo = new ZenPathRepository(context, helper);
+        repo.open();
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(DB);
+    }
+
+    @Test
+    public void pagesCoverEveryEntryOnceInOrder() {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < ENTRIES; i++) {
+                // every 10th entry only has blank pages and stays out of the history
+                boolean blank = i % 10 == 0;
+                ArrayList<String> pages = new ArrayList<>();
+                pages.add(blank ? " " : SampleText.page(i));
+                pages.add(blank ? "" : SampleText.page(i + 1));
+                String date = String.format(Locale.US, "%04d-%02d-%02d", 2000 + i / 336, 1 + (i / 28) % 12, 1 + i % 28);
+                repo.upsertDiaryPages(USER, date, pages);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        int withText = ENTRIES - ENTRIES / 10;
+
+        // saves in one transaction share created_at values: the date breaks the ties
+        HashSet<String> seen = new HashSet<>();
+        ZenPathRepository.DiaryEntryMeta last = null;
+        ArrayList<ZenPathRepository.DiaryEntryMeta> page;
+        do {
+            page = repo.getDiaryHistoryPage(USER, last, PAGE);
+            for (ZenPathRepository.DiaryEntryMeta m : page) {
+                assertTrue("seen twice: " + m.date, seen.add(m.date));
+                assertTrue(m.preview.length() > 0);
+                if (last != null) {
+                    assertTrue(m.createdAt < last.createdAt
+                            || (m.createdAt == last.createdAt && m.date.compareTo(last.date) < 0));
+                }
+                last = m;
+            }
+        } while (page.size() == PAGE);
+        assertEquals(withText, seen.size());
+    }
+
+    private static final class SampleText {
+        private static final String[] WORDS = {"calm", "river", "morning", "walk", "tea", "friend", "quiet",
+                "rain", "book", "light", "garden", "breath", "slow", "warm", "cloud", "music"};
+
+        static String page(int seed) {
+            StringBuilder sb = new StringBuilder();
+            for (int w = 0; w < 150; w++) {
+                if (w > 0) sb.append(' ');
+                sb.append(WORDS[(seed * 31 + w * 7) % WORDS.length]);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * diary_fts follows journal page / mood writes, and paging a search over a few thousand multi-page
+ * entries finds the same entries as the LIKE scan it replaces, best match first.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DiarySearchIndexTest {
+
+    private static final String DB = "zenpath-search-test.db";
+    private static final long USER = 1;
+    private static final long OTHER = 2;
+
+    private Context context;
+    private ZenPathDbHelper helper;
+    private ZenPathRepository repo;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB);
+        helper = new ZenPathDbHelper(context, DB, true);
+        repo = new ZenPathRepository(context, helper);
+        repo.open();
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(DB);
+    }
+
+    @Test
+    public void indexFollowsWrites() {
+        ArrayList<String> pages = new ArrayList<>();
+        pages.add("A quiet morning by the lake.");
+        pages.add("Later the lanterns drifted over the lake.");
+        repo.upsertDiaryPages(USER, "2026-01-02", pages);
+        repo.upsertJournalEntry(OTHER, "2026-01-02", "my lanterns too");
+        repo.upsertMood(USER, "20260103", "Calm", "watching lanterns calmed me");
+
+        DiarySearch.Page p = repo.searchDiary(USER, "lantern", 0, 10);
+        assertEquals(2, p.total);
+        boolean reflection = false;
+        for (DiarySearch.Hit h : p.hits) {
+            assertTrue(h.snippet, h.snippet.contains(DiarySearch.HL_START));
+            reflection |= h.isReflection();
+        }
+        assertTrue(reflection);
+
+        // an entry matching on several pages is one hit
+        assertEquals(1, repo.searchDiary(USER, "lake", 0, 10).total);
+
+        // edits replace the indexed text
+        repo.upsertJournalEntry(USER, "2026-01-02", "Only the lake now.");
+        repo.upsertMood(USER, "20260103", "Calm", "");
+        assertEquals(0, repo.searchDiary(USER, "lanterns ", 0, 10).total);
+        assertEquals(1, repo.searchDiary(USER, "lake", 0, 10).total);
+
+        helper.getWritableDatabase().delete(ZenPathDbHelper.T_JOURNAL, null, null);
+        assertEquals(0, repo.searchDiary(USER, "lake", 0, 10).total);
+    }
+
+    @Test
+    public void pagesCoverEveryMatchOnceInRankOrder() {
+        final int entries = 3000;
+        Random rng = new Random(5);
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < entries; i++) {
+                ArrayList<String> pages = new ArrayList<>();
+                for (int p = 0; p < 4; p++) pages.add(text(rng, 120, i % 50 == 0));
+                String date = String.format(Locale.US, "%04d-%02d-%02d", 2000 + i / 336, 1 + (i / 28) % 12, 1 + i % 28);
+                repo.upsertDiaryPages(USER, date, pages);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        HashSet<String> seen = new HashSet<>();
+        int offset = 0;
+        double lastScore = Double.POSITIVE_INFINITY;
+        DiarySearch.Page page;
+        do {
+            page = repo.searchDiary(USER, "aurora", offset, 20);
+            assertEquals(offset, page.offset);
+            for (DiarySearch.Hit h : page.hits) {
+                assertTrue("seen twice: " + h.date, seen.add(h.date));
+                assertTrue("ranked below the previous hit: " + h.date, h.score <= lastScore);
+                assertTrue(h.snippet, h.snippet.contains(DiarySearch.HL_START + "aurora" + DiarySearch.HL_END));
+                lastScore = h.score;
+            }
+            offset += page.hits.size();
+        } while (page.hasMore());
+
+        assertEquals(entries / 50, seen.size());
+        assertFalse(page.hasMore());
+
+        int likeCount = 0;
+        try (Cursor c = db.rawQuery("SELECT DISTINCT j." + ZenPathDbHelper.J_DATE + " FROM " + ZenPathDbHelper.T_JOURNAL + " j" +
+                " JOIN " + ZenPathDbHelper.T_JOURNAL_PAGE + " p ON p." + ZenPathDbHelper.JP_JOURNAL_ID + " = j." + ZenPathDbHelper.J_ID +
+                " WHERE j." + ZenPathDbHelper.COL_USER_ID + "=? AND p." + ZenPathDbHelper.JP_TEXT + " LIKE ?",
+                new String[]{String.valueOf(USER), "%aurora%"})) {
+            while (c.moveToNext()) likeCount++;
+        }
+        assertEquals(likeCount, seen.size());
+    }
+
+    // lower-case filler words; "aurora" only in marked entries
+    private static String text(Random rng, int words, boolean marked) {
+        String[] pool = {"calm", "river", "morning", "walk", "tea", "friend", "quiet", "rain", "book", "light",
+                "garden", "breath", "slow", "warm", "cloud", "music", "sleep", "window", "path", "stone"};
+        StringBuilder sb = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) sb.append(' ');
+            sb.append(pool[rng.nextInt(pool.length)]);
+        }
+        if (marked) sb.append(" aurora");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Draws the game views into an offscreen bitmap and checks that onDraw does not allocate
+ * once its lazy caches (shaders, pooled objects) are warm.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DrawAllocationTest {
+
+    private static final int W = 1080;
+    private static final int H = 1920;
+    private static final int WARM_UP_FRAMES = 30;
+    private static final int FRAMES = 60;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    @Test
+    public void zoomSpaceViewDrawsWithoutAllocating() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            ZoomSpaceView v = new ZoomSpaceView(context, null);
+            layout(v);
+
+            CanvasState st = new CanvasState();
+            st.inkColor = 0xFFFFFFFF;
+            st.markerSizeProgress = 40;
+            st.hasSun = true;
+            st.sunX = W / 2f;
+            st.sunY = H / 2f;
+            st.planets.add(new CanvasState.Planet("EARTH", W / 2f + 200, H / 2f));
+            st.planets.add(new CanvasState.Planet("MARS", W / 2f - 300, H / 2f + 100));
+            st.starXY = new float[]{100, 100, 400, 300, 700, 900};
+            st.linkAB = new int[]{0, 1, 1, 2};
+            v.importState(st);
+
+            assertNoDrawAllocations(v);
+        });
+    }
+
+    @Test
+    public void starSweepViewDrawsWithoutAllocating() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            StarSweepView v = new StarSweepView(context);
+            layout(v);
+            assertNoDrawAllocations(v);
+        });
+    }
+
+    @Test
+    public void lanternReleaseViewDrawsWithoutAllocating() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            LanternReleaseView v = new LanternReleaseView(context);
+            layout(v);
+
+            tap(v, W * 0.3f, H * 0.7f);
+            tap(v, W * 0.7f, H * 0.6f);
+            v.play();
+
+            assertNoDrawAllocations(v);
+        });
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private static void layout(View v) {
+        v.measure(View.MeasureSpec.makeMeasureSpec(W, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(H, View.MeasureSpec.EXACTLY));
+        v.layout(0, 0, W, H);
+    }
+
+    private static void tap(View v, float x, float y) {
+        long t = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(t, t, MotionEvent.ACTION_DOWN, x, y, 0);
+        v.dispatchTouchEvent(down);
+        down.recycle();
+    }
+
+    private static void assertNoDrawAllocations(View v) {
+        Bitmap target = Bitmap.createBitmap(W, H, Bitmap.Config.ARGB_8888);
+        try {
+            int allocs = FrameAllocTracker.countDrawAllocations(v, target, WARM_UP_FRAMES, FRAMES);
+            assertEquals(v.getClass().getSimpleName() + " allocated while drawing", 0, allocs);
+        } finally {
+            target.recycle();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.zenpath;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A Star Sweep-like glow load (star glows, constellation lines, nebulae) drawn through
+ * GlowSpriteCache: once the sprites exist, replaying the same frames renders none again and the
+ * cache stays within its byte budget. The frame time against BlurMaskFilter paints is only logged
+ * under "GlowDrawTime" (adb logcat -s GlowDrawTime), it depends too much on the device to assert.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GlowSpriteReuseTest {
+
+    private static final String TAG = "GlowDrawTime";
+
+    private static final int W = 1080;
+    private static final int H = 1920;
+    private static final int STARS = 10;
+    // one full twinkle cycle (sin period ~63 frames)
+    private static final int FRAMES = 64;
+
+    @Test
+    public void warmedUpFramesOnlyHitTheCache() {
+        float density = InstrumentationRegistry.getInstrumentation()
+                .getTargetContext().getResources().getDisplayMetrics().density;
+
+        Bitmap target = Bitmap.createBitmap(W, H, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        try {
+            Paint star = paint(Color.parseColor("#66FFFFFF"));
+            Paint line = paint(Color.parseColor("#66C6B7E2"));
+            Paint nebula = paint(Color.parseColor("#22C6B7E2"));
+            GlowSpriteCache glow = GlowSpriteCache.newForThread();
+
+            for (int f = 0; f < FRAMES; f++) drawFrame(canvas, glow, f, density, star, line, nebula);
+            int sprites = glow.getSpriteCount();
+            int misses = glow.getMissCount();
+            int hits = glow.getHitCount();
+            assertTrue(sprites > 0);
+
+            for (int f = 0; f < FRAMES; f++) drawFrame(canvas, glow, f, density, star, line, nebula);
+
+            assertEquals("a warmed-up frame rendered a sprite again", misses, glow.getMissCount());
+            assertEquals(sprites, glow.getSpriteCount());
+            assertTrue(glow.getHitCount() > hits);
+            assertTrue("cache over budget: " + glow.getBytes(), glow.getBytes() <= GlowSpriteCache.BUDGET_BYTES);
+        } finally {
+            target.recycle();
+        }
+    }
+
+    @Test
+    public void logFrameTimeAgainstBlurMaskFilter() {
+        float density = InstrumentationRegistry.getInstrumentation()
+                .getTargetContext().getResources().getDisplayMetrics().density;
+
+        Bitmap target = Bitmap.createBitmap(W, H, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        try {
+            Paint blurStar = paint(Color.parseColor("#66FFFFFF"));
+            blurStar.setMaskFilter(new BlurMaskFilter(14 * density, BlurMaskFilter.Blur.NORMAL));
+            Paint blurLine = paint(Color.parseColor("#66C6B7E2"));
+            blurLine.setStyle(Paint.Style.STROKE);
+            blurLine.setStrokeWidth(9 * density);
+            blurLine.setStrokeCap(Paint.Cap.ROUND);
+            blurLine.setMaskFilter(new BlurMaskFilter(10 * density, BlurMaskFilter.Blur.NORMAL));
+            Paint blurNebula = paint(Color.parseColor("#22C6B7E2"));
+            blurNebula.setMaskFilter(new BlurMaskFilter(90 * density, BlurMaskFilter.Blur.NORMAL));
+
+            Paint star = paint(Color.parseColor("#66FFFFFF"));
+            Paint line = paint(Color.parseColor("#66C6B7E2"));
+            Paint nebula = paint(Color.parseColor("#22C6B7E2"));
+            GlowSpriteCache glow = GlowSpriteCache.newForThread();
+
+            // warm both paths (sprite rendering, shader/JIT)
+            for (int f = 0; f < 5; f++) {
+                drawBlurFrame(canvas, f, density, blurStar, blurLine, blurNebula);
+                drawFrame(canvas, glow, f, density, star, line, nebula);
+            }
+
+            long t0 = SystemClock.elapsedRealtimeNanos();
+            for (int f = 0; f < FRAMES; f++) drawBlurFrame(canvas, f, density, blurStar, blurLine, blurNebula);
+            long t1 = SystemClock.elapsedRealtimeNanos();
+            for (int f = 0; f < FRAMES; f++) drawFrame(canvas, glow, f, density, star, line, nebula);
+            long t2 = SystemClock.elapsedRealtimeNanos();
+
+            Log.i(TAG, String.format(Locale.US,
+                    "BlurMaskFilter %.2f ms/frame, sprites %.2f ms/frame (%d sprites, %d KB)",
+                    (t1 - t0) / 1e6 / FRAMES, (t2 - t1) / 1e6 / FRAMES,
+                    glow.getSpriteCount(), glow.getBytes() / 1024));
+        } finally {
+            target.recycle();
+        }
+    }
+
+    private static void drawBlurFrame(Canvas c, int f, float d, Paint star, Paint line, Paint nebula) {
+        c.drawColor(Color.BLACK);
+        c.drawCircle(W * 0.25f, H * 0.55f, 220 * d, nebula);
+        c.drawCircle(W * 0.78f, H * 0.72f, 260 * d, nebula);
+        for (int i = 0; i < STARS; i++) {
+            float x = starX(i), y = starY(i);
+            if (i > 0) c.drawLine(starX(i - 1), starY(i - 1), x, y, line);
+            c.drawCircle(x, y, 18 * d * twinkle(f, i), star);
+        }
+    }
+
+    private static void drawFrame(Canvas c, GlowSpriteCache glow, int f, float d,
+                                  Paint star, Paint line, Paint nebula) {
+        c.drawColor(Color.BLACK);
+        glow.drawCircle(c, W * 0.25f, H * 0.55f, 220 * d, 90 * d, nebula);
+        glow.drawCircle(c, W * 0.78f, H * 0.72f, 260 * d, 90 * d, nebula);
+        for (int i = 0; i < STARS; i++) {
+            float x = starX(i), y = starY(i);
+            if (i > 0) glow.drawLine(c, starX(i - 1), starY(i - 1), x, y, 9 * d, 10 * d, line);
+            glow.drawCircle(c, x, y, 18 * d * twinkle(f, i), 14 * d, star);
+        }
+    }
+
+    private static Paint paint(int color) {
+        Paint p = new Paint(Paint.ANTI_ALIAS_FLAG);
+        p.setColor(color);
+        return p;
+    }
+
+    private static float starX(int i) { return W * (0.15f + 0.7f * ((i * 37) % 10) / 10f); }
+
+    private static float starY(int i) { return H * (0.2f + 0.6f * i / (float) STARS); }
+
+    private static float twinkle(int f, int i) { return (float) (1.0 + 0.18 * Math.sin(f * 0.1 + i)); }
+}
@@ -0,0 +1,127 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * The hot repository writes (stress slider saves + game playtime) keep one stress row per
+ * (user, day), through the single upsert statement and through the UPDATE + INSERT fallback.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StressUpsertTest {
+
+    private static final String DB = "zenpath-upsert-test.db";
+
+    private static final long USER = 1;
+    private static final int DAYS = 30;
+    private static final int OPS = 600;
+
+    private Context context;
+    private ZenPathDbHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB);
+        helper = new ZenPathDbHelper(context, DB, true);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(DB);
+    }
+
+    @Test
+    public void upsertPathFollowsTheSqliteVersion() {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        String[] v;
+        try (Cursor c = db.rawQuery("SELECT sqlite_version()", null)) {
+            c.moveToFirst();
+            v = c.getString(0).split("\\.");
+        }
+        int major = Integer.parseInt(v[0]);
+        int minor = Integer.parseInt(v[1]);
+        assertEquals(major > 3 || (major == 3 && minor >= 24), helper.supportsUpsert());
+
+        helper.disableUpsert();
+        assertFalse(helper.supportsUpsert());
+    }
+
+    @Test
+    public void mixedWritesKeepOneRowPerDay_upsert() {
+        mixedWritesKeepOneRowPerDay();
+    }
+
+    @Test
+    public void mixedWritesKeepOneRowPerDay_updateThenInsert() {
+        helper.disableUpsert();
+        mixedWritesKeepOneRowPerDay();
+    }
+
+    private void mixedWritesKeepOneRowPerDay() {
+        ZenPathRepository repo = new ZenPathRepository(context, helper);
+        repo.open();
+
+        // per day: slider save (resets the seconds), playtime, slider save, playtime, ...
+        for (int i = 0; i < OPS; i++) {
+            String date = dateOf(i);
+            if ((i & 1) == 0) repo.upsertStress(USER, date, i % 101, 0, 0, 0);
+            else repo.addGamePlaytime(USER, date, "STAR_SWEEP", 5);
+        }
+
+        // a flushed journal batch: two entries for one day add up, unknown games are skipped
+        ArrayList<PlaytimeJournal.Entry> batch = new ArrayList<>();
+        batch.add(new PlaytimeJournal.Entry(USER, dateOf(0), "LANTERN_RELEASE", 30));
+        batch.add(new PlaytimeJournal.Entry(USER, dateOf(0), "LANTERN_RELEASE", 12));
+        batch.add(new PlaytimeJournal.Entry(USER, dateOf(0), "PLANET", 7));
+        batch.add(new PlaytimeJournal.Entry(USER, dateOf(0), "NOT_A_GAME", 99));
+        repo.addGamePlaytime(batch);
+
+        SQLiteDatabase db = helper.getReadableDatabase();
+        try (Cursor c = db.rawQuery(
+                "SELECT " + ZenPathDbHelper.S_DATE + ", COUNT(*), MAX(" + ZenPathDbHelper.S_LEVEL + "), MAX(" +
+                        ZenPathDbHelper.S_PLAY_STAR + "), MAX(" + ZenPathDbHelper.S_PLAY_LANTERN + "), MAX(" +
+                        ZenPathDbHelper.S_PLAY_PLANET + ") FROM " + ZenPathDbHelper.T_STRESS +
+                        " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? GROUP BY " + ZenPathDbHelper.S_DATE +
+                        " ORDER BY " + ZenPathDbHelper.S_DATE,
+                new String[]{String.valueOf(USER)})) {
+            assertEquals(DAYS, c.getCount());
+            for (int day = 0; day < DAYS; day++) {
+                c.moveToNext();
+                assertEquals(dateOf(day * 2), c.getString(0));
+                assertEquals(1, c.getInt(1));
+                assertEquals(lastLevelOf(day), c.getInt(2));
+                assertEquals(5, c.getInt(3));
+                assertEquals(day == 0 ? 42 : 0, c.getInt(4));
+                assertEquals(day == 0 ? 7 : 0, c.getInt(5));
+            }
+        }
+    }
+
+    private static String dateOf(int i) {
+        return String.format(Locale.US, "202601%02d", 1 + (i / 2) % DAYS);
+    }
+
+    // the last even op of the day
+    private static int lastLevelOf(int day) {
+        int last = -1;
+        for (int i = 0; i < OPS; i += 2) if ((i / 2) % DAYS == day) last = i;
+        return last % 101;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ZoomSpaceView skips stars, links and planets that are outside the viewport.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ViewportCullingTest {
+
+    private static final int W = 1080;
+    private static final int H = 1920;
+
+    @Test
+    public void offscreenObjectsAreCulled() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            ZoomSpaceView v = new ZoomSpaceView(context, null);
+            v.measure(View.MeasureSpec.makeMeasureSpec(W, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(H, View.MeasureSpec.EXACTLY));
+            v.layout(0, 0, W, H);
+
+            // 2 visible stars + 1 link between them, 3 stars + 2 links + 1 planet far outside the world
+            CanvasState st = new CanvasState();
+            st.inkColor = 0xFFFFFFFF;
+            st.markerSizeProgress = 40;
+            st.starXY = new float[]{
+                    0, 0, 150, 120,
+                    20000, 20000, 20400, 20000, -20000, -20000
+            };
+            st.linkAB = new int[]{0, 1, 2, 3, 3, 4};
+            st.planets.add(new CanvasState.Planet("EARTH", -30000, 0));
+            v.importState(st);
+
+            Bitmap target = Bitmap.createBitmap(W, H, Bitmap.Config.ARGB_8888);
+            try {
+                Canvas c = new Canvas(target);
+                v.draw(c);
+
+                int culledWithObjects = v.getLastFrameCulledCount();
+
+                v.importState(new CanvasState());
+                v.draw(c);
+                int culledEmpty = v.getLastFrameCulledCount();
+
+                // background stars move between frames, so compare against an empty canvas loosely
+                assertTrue("far stars, links and planet should be culled",
+                        culledWithObjects - culledEmpty >= 5);
+            } finally {
+                target.recycle();
+            }
+        });
+    }
+}
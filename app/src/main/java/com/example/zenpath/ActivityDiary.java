@@ -16,7 +16,6 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.viewpager2.widget.ViewPager2;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Locale;
 
@@ -25,11 +24,10 @@ public class ActivityDiary extends AppCompatActivity implements DiaryPagerAdapte
     private ViewPager2 diaryPager;
     private Button btnSave;
 
-    private ZenPathRepository repo;
+    private AsyncZenPathRepository repo;
 
     // ✅ NEW: only one date (today), multiple pages
     private String currentDate;
-    private ArrayList<String> pages = new ArrayList<>();
     private DiaryPagerAdapter adapter;
 
     // intro overlay
@@ -46,7 +44,7 @@ public class ActivityDiary extends AppCompatActivity implements DiaryPagerAdapte
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main_diary);
 
-        repo = new ZenPathRepository(this);
+        repo = AsyncZenPathRepository.get(this);
 
         // ===== POPUP (UNCHANGED) =====
         ViewGroup rootView = findViewById(android.R.id.content);
@@ -130,20 +128,19 @@ public class ActivityDiary extends AppCompatActivity implements DiaryPagerAdapte
         currentDate = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault())
                 .format(Calendar.getInstance().getTime());
 
-        // ✅ Load pages for today (at least 1 page)
-        pages = repo.getDiaryPagesByDate(currentDate);
-        if (pages == null) pages = new ArrayList<>();
-        if (pages.isEmpty()) pages.add("");
-
-        adapter = new DiaryPagerAdapter(this, currentDate, pages, repo, this);
-        diaryPager.setAdapter(adapter);
         diaryPager.setOffscreenPageLimit(1);
 
         // ✅ Keep page flip animation (still feels like book)
         diaryPager.setPageTransformer(new PageFlipTransformer());
 
-        // Start at last page (most recent writing)
-        diaryPager.setCurrentItem(pages.size() - 1, false);
+        // ✅ Today's entry: only the page count here, the adapter reads pages as they are shown
+        repo.read(this, r -> r.getDiaryEntryRef(currentDate), entry -> {
+            adapter = new DiaryPagerAdapter(this, currentDate, entry, repo, this, this);
+            diaryPager.setAdapter(adapter);
+
+            // Start at last page (most recent writing)
+            diaryPager.setCurrentItem(adapter.getItemCount() - 1, false);
+        });
 
         // ✅ Save all pages
         if (btnSave != null) {
@@ -153,6 +150,7 @@ public class ActivityDiary extends AppCompatActivity implements DiaryPagerAdapte
         // ✅ Add page (manual, safe)
         if (btnAddPage != null) {
             btnAddPage.setOnClickListener(v -> {
+                if (adapter == null) return;
                 adapter.addNewPage();
                 diaryPager.setCurrentItem(adapter.getItemCount() - 1, true);
             });
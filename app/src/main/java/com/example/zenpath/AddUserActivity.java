@@ -37,6 +37,10 @@ public class AddUserActivity extends AppCompatActivity {
         imgPreview = findViewById(R.id.imgPreview);
         tvCancel = findViewById(R.id.tvCancel);
 
+        BitmapRepository bitmaps = BitmapRepository.get(this);
+        bitmaps.into(findViewById(R.id.imgOptMale), R.drawable.boy);
+        bitmaps.into(findViewById(R.id.imgOptFemale), R.drawable.girl);
+
         // Default highlight
         setSelectedGender("Male");
 
@@ -53,11 +57,11 @@ public class AddUserActivity extends AppCompatActivity {
 
         // Update preview image
         if ("Male".equals(gender)) {
-            imgPreview.setImageResource(R.drawable.boy);
+            BitmapRepository.get(this).into(imgPreview, R.drawable.boy);
             optMale.setAlpha(1f);
             optFemale.setAlpha(0.65f);
         } else {
-            imgPreview.setImageResource(R.drawable.girl);
+            BitmapRepository.get(this).into(imgPreview, R.drawable.girl);
             optMale.setAlpha(0.65f);
             optFemale.setAlpha(1f);
         }
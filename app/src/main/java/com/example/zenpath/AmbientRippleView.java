@@ -1,22 +1,19 @@
 package com.example.zenpath;
 
 import android.content.Context;
-import android.graphics.BlurMaskFilter;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.LinearGradient;
 import android.graphics.Paint;
 import android.graphics.Shader;
-import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Random;
 
-public class AmbientRippleView extends View {
+public class AmbientRippleView extends View implements GameSurfaceView.Game {
 
     // ===== Background =====
     private final Paint bgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -37,9 +34,23 @@ public class AmbientRippleView extends View {
 
     private final ArrayList<Ripple> ripples = new ArrayList<>();
 
+    // ===== Render mode =====
+    // null = drawn by onDraw; otherwise stepped and drawn on the host's render thread
+    private GameSurfaceView host;
+
+    // View mode clock (the host has its own); one step is one frame of the old 60 Hz loop
+    private final FixedStepClock clock =
+            new FixedStepClock(GameSurfaceView.STEPS_PER_SECOND, GameSurfaceView.MAX_STEPS_PER_FRAME);
+
+    private final FrameProfiler profiler = new FrameProfiler("AmbientRippleView");
+
     private final Paint ripplePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint rippleGlowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
 
+    // ✅ glow ring is a pre-rendered sprite (no BlurMaskFilter -> no software layer)
+    private GlowSpriteCache glow = GlowSpriteCache.get();
+    private float glowStroke, glowBlur;
+
     public AmbientRippleView(Context c) { super(c); init(); }
     public AmbientRippleView(Context c, AttributeSet a) { super(c, a); init(); }
     public AmbientRippleView(Context c, AttributeSet a, int d) { super(c, a, d); init(); }
@@ -52,23 +63,24 @@ public class AmbientRippleView extends View {
         ripplePaint.setStrokeCap(Paint.Cap.ROUND);
         ripplePaint.setStrokeWidth(dp(3.6f));
         ripplePaint.setColor(Color.argb(130, 196, 170, 255));
-        ripplePaint.setMaskFilter(new BlurMaskFilter(dp(1.6f), BlurMaskFilter.Blur.NORMAL));
 
-        // Glow
-        rippleGlowPaint.setStyle(Paint.Style.STROKE);
-        rippleGlowPaint.setStrokeCap(Paint.Cap.ROUND);
-        rippleGlowPaint.setStrokeWidth(dp(9.0f));
+        // Glow (ring sprite, tinted by this paint)
         rippleGlowPaint.setColor(Color.argb(30, 210, 190, 255));
-        rippleGlowPaint.setMaskFilter(new BlurMaskFilter(dp(10f), BlurMaskFilter.Blur.NORMAL));
-
-        // Needed for BlurMaskFilter
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
+        glowStroke = dp(9.0f);
+        glowBlur = dp(10f);
 
         // Don’t block touches for buttons
         setClickable(false);
         setFocusable(false);
     }
 
+    /** Hands stepping and drawing to {@code surface} (call once, before the first touch). */
+    public void setRenderHost(GameSurfaceView surface) {
+        host = surface;
+        // the shared sprite cache is main thread only
+        glow = GlowSpriteCache.newForThread();
+    }
+
     private float dp(float v) {
         return v * getResources().getDisplayMetrics().density;
     }
@@ -94,19 +106,35 @@ public class AmbientRippleView extends View {
     @Override
     protected void onSizeChanged(int width, int height, int oldw, int oldh) {
         super.onSizeChanged(width, height, oldw, oldh);
+        if (host == null) {
+            onGameSize(width, height);
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onGameSize(int width, int height) {
         w = width;
         h = height;
         ensureGradient();
-        invalidate();
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
         if (event.getAction() == MotionEvent.ACTION_DOWN) {
-            addRipple(event.getX(), event.getY());
-            return false; // don’t consume
+            onGameTouch(MotionEvent.ACTION_DOWN, event.getX(), event.getY());
         }
-        return false;
+        return false; // don’t consume
+    }
+
+    @Override
+    public boolean acceptsTouch(float x, float y) {
+        return true;
+    }
+
+    @Override
+    public void onGameTouch(int action, float x, float y) {
+        if (action == MotionEvent.ACTION_DOWN) addRipple(x, y);
     }
 
     private void addRipple(float x, float y) {
@@ -127,36 +155,60 @@ public class AmbientRippleView extends View {
         while (ripples.size() > 20) ripples.remove(0);
 
         // animate only when needed
-        postInvalidateOnAnimation();
+        if (host == null) postInvalidateOnAnimation();
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        if (host != null) return;
 
-        if (bgGradient == null) ensureGradient();
-
-        float ww = (w > 0) ? w : getWidth();
-        float hh = (h > 0) ? h : getHeight();
-
-        canvas.drawRect(0, 0, ww, hh, bgPaint);
+        profiler.beginFrame();
+        int n = clock.advance(System.nanoTime());
+        for (int i = 0; i < n; i++) step(clock.nextStep(), clock.stepSec());
+        profiler.updateDone();
 
-        if (ripples.isEmpty()) return;
+        render(canvas, clock.simTimeMs());
+        profiler.endFrame(frameObjectCount());
 
-        float t = SystemClock.uptimeMillis() / 1000f;
+        if (!ripples.isEmpty()) postInvalidateOnAnimation();
+        else clock.reset(); // idle: the next ripple starts from its own frame
+    }
 
-        Iterator<Ripple> it = ripples.iterator();
-        while (it.hasNext()) {
-            Ripple r = it.next();
+    // one fixed step (the ripples grow by a fixed amount per step)
+    @Override
+    public void step(long simTimeMs, float dtSec) {
+        for (int i = 0; i < ripples.size(); i++) {
+            Ripple r = ripples.get(i);
 
             r.r += r.speed;
             r.alpha -= 2;
             r.y -= r.driftUp;
 
             if (r.alpha <= 0 || r.r > dp(230)) {
-                it.remove();
-                continue;
+                ripples.remove(i--);
             }
+        }
+    }
+
+    @Override
+    public int frameObjectCount() {
+        return ripples.size();
+    }
+
+    @Override
+    public void render(Canvas canvas, long simTimeMs) {
+        if (bgGradient == null) ensureGradient();
+
+        float ww = (w > 0) ? w : getWidth();
+        float hh = (h > 0) ? h : getHeight();
+
+        canvas.drawRect(0, 0, ww, hh, bgPaint);
+
+        float t = simTimeMs / 1000f;
+
+        for (int i = 0; i < ripples.size(); i++) {
+            Ripple r = ripples.get(i);
 
             float wob = (float) Math.sin(t * 1.0f + r.wobblePhase) * dp(0.9f);
             float rr = r.r + wob;
@@ -164,10 +216,14 @@ public class AmbientRippleView extends View {
             rippleGlowPaint.setAlpha(Math.max(0, r.alpha / 2));
             ripplePaint.setAlpha(Math.max(0, r.alpha));
 
-            canvas.drawCircle(r.x, r.y, rr, rippleGlowPaint);
+            glow.drawRing(canvas, r.x, r.y, rr, glowStroke, glowBlur, rippleGlowPaint);
             canvas.drawCircle(r.x, r.y, rr, ripplePaint);
         }
+    }
 
-        if (!ripples.isEmpty()) postInvalidateOnAnimation();
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        FrameStatsRecorder.endSession(getContext(), profiler);
     }
 }
\ No newline at end of file
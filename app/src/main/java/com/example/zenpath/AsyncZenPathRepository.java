@@ -0,0 +1,140 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Off-main-thread access to ZenPathRepository.
+ *
+ * Writes run one at a time on a single writer thread, reads on a small pool.
+ * A read submitted while writes are still queued runs behind them on the writer,
+ * so a screen that saves and then refreshes always sees its own save.
+ *
+ * Callback results are delivered on the main thread, and dropped once the owner is destroyed
+ * (fragments should pass getViewLifecycleOwner()). Failures are logged; only a caller that passes
+ * an OnError hears about them, on the main thread as well.
+ */
+public final class AsyncZenPathRepository {
+
+    private static final String TAG = "ZenPathDb";
+    private static final int READERS = 2;
+
+    public interface Query<T> {
+        T run(ZenPathRepository repo) throws Exception;
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    public interface OnError {
+        void onError(Exception e);
+    }
+
+    private static AsyncZenPathRepository instance;
+
+    public static synchronized AsyncZenPathRepository get(Context context) {
+        if (instance == null) instance = new AsyncZenPathRepository(context.getApplicationContext());
+        return instance;
+    }
+
+    private final ZenPathRepository repo;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(named("zenpath-db-write"));
+    private final ExecutorService readers = Executors.newFixedThreadPool(READERS, named("zenpath-db-read"));
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    private AsyncZenPathRepository(Context appContext) {
+        repo = new ZenPathRepository(appContext);
+        // first open runs onCreate/onUpgrade: do it here instead of on whichever screen asks first
+        write(r -> { r.open(); return null; });
+    }
+
+    // =========================
+    // ✅ FUTURES
+    // =========================
+    public <T> Future<T> read(Query<T> query) {
+        return executorForRead().submit(() -> query.run(repo));
+    }
+
+    public <T> Future<T> write(Query<T> query) {
+        pendingWrites.incrementAndGet();
+        return writer.submit(() -> {
+            try {
+                return query.run(repo);
+            } finally {
+                pendingWrites.decrementAndGet();
+            }
+        });
+    }
+
+    // =========================
+    // ✅ CALLBACKS (main thread)
+    // =========================
+    public <T> void read(LifecycleOwner owner, Query<T> query, Callback<T> callback) {
+        read(owner, query, callback, null);
+    }
+
+    public <T> void read(LifecycleOwner owner, Query<T> query, Callback<T> callback, OnError onError) {
+        executorForRead().execute(() -> runAndDeliver(owner, query, callback, onError));
+    }
+
+    public <T> void write(LifecycleOwner owner, Query<T> query, Callback<T> callback) {
+        pendingWrites.incrementAndGet();
+        writer.execute(() -> {
+            try {
+                runAndDeliver(owner, query, callback, null);
+            } finally {
+                pendingWrites.decrementAndGet();
+            }
+        });
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private ExecutorService executorForRead() {
+        return pendingWrites.get() > 0 ? writer : readers;
+    }
+
+    private <T> void runAndDeliver(LifecycleOwner owner, Query<T> query, Callback<T> callback, OnError onError) {
+        final T result;
+        try {
+            result = query.run(repo);
+        } catch (Exception e) {
+            Log.e(TAG, "database task failed", e);
+            if (onError != null) onMain(owner, () -> onError.onError(e));
+            return;
+        }
+        if (callback == null) return;
+
+        onMain(owner, () -> callback.onResult(result));
+    }
+
+    private void onMain(LifecycleOwner owner, Runnable r) {
+        main.post(() -> {
+            if (owner != null && owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) return;
+            r.run();
+        });
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        };
+    }
+}
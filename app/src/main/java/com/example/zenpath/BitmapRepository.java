@@ -0,0 +1,197 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.view.View;
+import android.widget.ImageView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes the big drawable PNGs (sprite atlas, avatars) at the size they are shown,
+ * off the UI thread, and shares them through one LRU bounded in bytes.
+ *
+ * Everything is decoded unscaled (inScaled = false) with the largest power-of-two inSampleSize that
+ * still covers the requested box, so a 1536 px avatar shown at 100 dp costs a few hundred KB
+ * instead of 6-20 MB. The avatars sit in density-less res/drawable, which decodeResource would
+ * upscale on xhdpi+ screens. The sprite atlas comes in drawable-mdpi..xxxhdpi buckets; on a screen
+ * between buckets (e.g. 420 or 560 dpi) decodeResource would resample the chosen bucket to the
+ * screen density. Unscaled, the atlas keeps its packed pixels 1:1 and SpriteSheet scales its
+ * rects from the decoded width, so keep inScaled off for it too.
+ *
+ * load() and into() are main thread only; callbacks run on the main thread.
+ */
+public final class BitmapRepository {
+
+    public interface Callback {
+        /** {@code bmp} is null when the resource can't be decoded. */
+        void onBitmap(Bitmap bmp);
+    }
+
+    private static BitmapRepository instance;
+
+    public static synchronized BitmapRepository get(Context context) {
+        if (instance == null) instance = new BitmapRepository(context.getApplicationContext());
+        return instance;
+    }
+
+    private final Resources res;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final ExecutorService decoder = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "bitmap-decode");
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    // evicted bitmaps are not recycled: a view may still be drawing them
+    private final LruCache<String, Bitmap> cache;
+
+    // decodes in progress and who is waiting for them (main thread only)
+    private final HashMap<String, ArrayList<Callback>> inFlight = new HashMap<>();
+
+    private BitmapRepository(Context appContext) {
+        res = appContext.getResources();
+        int budget = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        cache = new LruCache<String, Bitmap>(budget) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+    }
+
+    // =========================
+    // ✅ LOAD
+    // =========================
+    /**
+     * Bitmap of {@code resId} big enough for a {@code reqW} x {@code reqH} px box: fitted inside it,
+     * or covering it when {@code crop} (ImageView centerCrop).
+     */
+    public void load(int resId, int reqW, int reqH, boolean crop, Callback cb) {
+        String key = key(resId, reqW, reqH, crop);
+        Bitmap hit = cache.get(key);
+        if (hit != null) {
+            cb.onBitmap(hit);
+            return;
+        }
+
+        ArrayList<Callback> waiting = inFlight.get(key);
+        if (waiting != null) {
+            waiting.add(cb);
+            return;
+        }
+        waiting = new ArrayList<>(1);
+        waiting.add(cb);
+        inFlight.put(key, waiting);
+
+        decoder.execute(() -> {
+            Bitmap bmp = decode(resId, reqW, reqH, crop);
+            main.post(() -> {
+                ArrayList<Callback> cbs = inFlight.remove(key);
+                if (cbs == null) return;
+                for (Callback c : cbs) c.onBitmap(bmp);
+            });
+        });
+    }
+
+    /** Sets {@code resId} on the view at the view's laid-out size (waits for layout if needed). */
+    public void into(ImageView view, int resId) {
+        view.setTag(R.id.bitmap_request, resId);
+
+        if (view.getWidth() == 0 || view.getHeight() == 0) {
+            view.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
+                @Override
+                public void onLayoutChange(View v, int l, int t, int r, int b, int ol, int ot, int or, int ob) {
+                    if (r - l == 0 || b - t == 0) return;
+                    v.removeOnLayoutChangeListener(this);
+                    if (isCurrent(view, resId)) into(view, resId);
+                }
+            });
+            return;
+        }
+
+        boolean crop = view.getScaleType() == ImageView.ScaleType.CENTER_CROP;
+        int w = Math.max(1, view.getWidth() - view.getPaddingLeft() - view.getPaddingRight());
+        int h = Math.max(1, view.getHeight() - view.getPaddingTop() - view.getPaddingBottom());
+
+        Bitmap hit = cache.get(key(resId, w, h, crop));
+        if (hit != null) {
+            view.setImageBitmap(hit);
+            return;
+        }
+
+        // a recycled view must not keep showing its previous image while this one decodes
+        view.setImageDrawable(null);
+        load(resId, w, h, crop, bmp -> {
+            // a later into() on the same view wins
+            if (bmp != null && isCurrent(view, resId)) view.setImageBitmap(bmp);
+        });
+    }
+
+    // =========================
+    // ✅ DECODE (any thread)
+    // =========================
+    Bitmap decode(int resId, int reqW, int reqH, boolean crop) {
+        String key = key(resId, reqW, reqH, crop);
+        Bitmap bmp = cache.get(key);
+        if (bmp != null) return bmp;
+
+        try {
+            BitmapFactory.Options opts = new BitmapFactory.Options();
+            opts.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(res, resId, opts);
+            if (opts.outWidth <= 0 || opts.outHeight <= 0) return null;
+
+            opts.inSampleSize = sampleSize(opts.outWidth, opts.outHeight, reqW, reqH, crop);
+            opts.inJustDecodeBounds = false;
+            opts.inScaled = false;
+            bmp = BitmapFactory.decodeResource(res, resId, opts);
+        } catch (OutOfMemoryError | RuntimeException e) {
+            return null;
+        }
+        if (bmp == null) return null;
+
+        cache.put(key, bmp);
+        return bmp;
+    }
+
+    /** Largest power of two that keeps a w x h image at least as big as it is drawn in the box. */
+    static int sampleSize(int w, int h, int reqW, int reqH, boolean crop) {
+        float sx = (float) reqW / w;
+        float sy = (float) reqH / h;
+        float drawScale = crop ? Math.max(sx, sy) : Math.min(sx, sy);
+        if (drawScale <= 0f) return 1;
+
+        int sample = 1;
+        while (sample * 2 * drawScale <= 1f) sample *= 2;
+        return sample;
+    }
+
+    // =========================
+    // ✅ STATS
+    // =========================
+    /** LruCache sizes are bytes here. */
+    public int getBytes() { return cache.size(); }
+
+    public int getBitmapCount() { return cache.snapshot().size(); }
+
+    // =========================
+    // helpers
+    // =========================
+    private static String key(int resId, int reqW, int reqH, boolean crop) {
+        return resId + ":" + reqW + "x" + reqH + (crop ? "c" : "f");
+    }
+
+    private static boolean isCurrent(ImageView view, int resId) {
+        Object tag = view.getTag(R.id.bitmap_request);
+        return tag instanceof Integer && (Integer) tag == resId;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.zenpath;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Planet-mode saves off the UI thread.
+ *
+ * The caller hands over a snapshot it no longer touches (a fresh CanvasState from
+ * ZoomSpaceView.exportState(), or a freshly rendered Bitmap), so the worker never reads live view state.
+ * State saves are coalesced: while one is waiting, newer snapshots just replace it.
+ * Results are posted back to the main thread.
+ */
+public final class CanvasSaveExecutor {
+
+    public interface Callback {
+        void onStateSaved(boolean ok, Exception error, boolean userRequested);
+        void onImageExported(Uri uri, Exception error);
+    }
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "canvas-save");
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    private final Object lock = new Object();
+    private CanvasState pendingState = null;
+    private boolean pendingUserRequested = false;
+    private boolean stateTaskQueued = false;
+
+    private Callback callback;
+
+    public void setCallback(Callback cb) {
+        callback = cb;
+    }
+
+    // =========================
+    // ✅ STATE SAVE (coalesced)
+    // =========================
+    public void saveState(CanvasState snapshot, File file, boolean userRequested) {
+        if (snapshot == null || file == null) return;
+
+        synchronized (lock) {
+            pendingState = snapshot;
+            pendingUserRequested |= userRequested;
+            if (stateTaskQueued) return; // the queued task will pick up the newest snapshot
+            stateTaskQueued = true;
+        }
+
+        worker.execute(() -> {
+            CanvasState st;
+            boolean user;
+            synchronized (lock) {
+                st = pendingState;
+                user = pendingUserRequested;
+                pendingState = null;
+                pendingUserRequested = false;
+                stateTaskQueued = false;
+            }
+            if (st == null) return;
+
+            Exception err = null;
+            try {
+                CanvasStateCodec.writeFile(st, file, true);
+            } catch (Exception e) {
+                err = e;
+            }
+
+            final Exception fErr = err;
+            main.post(() -> {
+                if (callback != null) callback.onStateSaved(fErr == null, fErr, user);
+            });
+        });
+    }
+
+    // =========================
+    // ✅ PNG EXPORT
+    // =========================
+    /** Encodes + writes the bitmap to Pictures/Asthera. The bitmap is recycled afterwards. */
+    public void exportPng(Bitmap bmp, ContentResolver resolver, String displayName) {
+        if (bmp == null || resolver == null) return;
+
+        worker.execute(() -> {
+            Uri uri = null;
+            Exception err = null;
+            try {
+                ContentValues values = new ContentValues();
+                values.put(MediaStore.Images.Media.DISPLAY_NAME, displayName);
+                values.put(MediaStore.Images.Media.MIME_TYPE, "image/png");
+                values.put(MediaStore.Images.Media.RELATIVE_PATH,
+                        Environment.DIRECTORY_PICTURES + "/Asthera");
+
+                uri = resolver.insert(MediaStore.Images.Media.EXTERNAL_CONTENT_URI, values);
+                if (uri == null) throw new IOException("MediaStore insert failed");
+
+                try (OutputStream os = resolver.openOutputStream(uri)) {
+                    if (os == null) throw new IOException("No output stream");
+                    bmp.compress(Bitmap.CompressFormat.PNG, 100, os);
+                    os.flush();
+                }
+            } catch (Exception e) {
+                err = e;
+                if (uri != null) {
+                    try { resolver.delete(uri, null, null); } catch (Exception ignored) {}
+                    uri = null;
+                }
+            } finally {
+                bmp.recycle();
+            }
+
+            final Uri fUri = uri;
+            final Exception fErr = err;
+            main.post(() -> {
+                if (callback != null) callback.onImageExported(fUri, fErr);
+            });
+        });
+    }
+
+    /** Lets already queued work finish, drops callbacks. */
+    public void shutdown() {
+        callback = null;
+        worker.shutdown();
+    }
+}
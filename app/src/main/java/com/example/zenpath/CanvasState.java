@@ -0,0 +1,107 @@
+package com.example.zenpath;
+
+import java.util.ArrayList;
+
+/**
+ * Plain (Android-free) copy of everything ZoomSpaceView persists.
+ * Dust / eraser data is kept as packed parallel arrays so it can be streamed straight to disk.
+ * Marker strokes drawn since replay was added carry a Brush instead of dust (see MarkerStroke).
+ */
+public final class CanvasState {
+
+    public int inkColor;
+    public int markerSizeProgress;
+
+    public boolean hasSun;
+    public float sunX, sunY;
+
+    public boolean hasMoon;
+    public float moonX, moonY;
+
+    public final ArrayList<Planet> planets = new ArrayList<>();
+
+    // x0,y0,x1,y1,...
+    public float[] starXY = new float[0];
+    // a0,b0,a1,b1,...
+    public int[] linkAB = new int[0];
+
+    public final ArrayList<StrokeData> strokes = new ArrayList<>();
+
+    public static final class Planet {
+        public final String body;
+        public final float x, y;
+
+        public Planet(String body, float x, float y) {
+            this.body = body;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static final class StrokeData {
+        public boolean isErase;
+
+        public int dustCount;
+        public float[] dustX, dustY, dustR;
+        public int[] coreColor, glowColor;
+        public int[] coreAlpha, glowAlpha;
+
+        public int eraserCount;
+        public float[] eraserX, eraserY, eraserR;
+
+        // replayed marker stroke (null for particle strokes from older saves and for erasers)
+        public Brush brush;
+
+        public StrokeData(boolean isErase, int dustCount, int eraserCount) {
+            this.isErase = isErase;
+
+            this.dustCount = dustCount;
+            dustX = new float[dustCount];
+            dustY = new float[dustCount];
+            dustR = new float[dustCount];
+            coreColor = new int[dustCount];
+            glowColor = new int[dustCount];
+            coreAlpha = new int[dustCount];
+            glowAlpha = new int[dustCount];
+
+            this.eraserCount = eraserCount;
+            eraserX = new float[eraserCount];
+            eraserY = new float[eraserCount];
+            eraserR = new float[eraserCount];
+        }
+
+        public long particleCount() {
+            return (long) dustCount + eraserCount;
+        }
+    }
+
+    public static final class Brush {
+        public final long seed;
+        public final int inkColor;
+        public final int sizeProgress;
+
+        public final int stampCount;
+        public final float[] stampX, stampY;
+        public final boolean[] stampHeavy;
+
+        public Brush(long seed, int inkColor, int sizeProgress, int stampCount) {
+            this.seed = seed;
+            this.inkColor = inkColor;
+            this.sizeProgress = sizeProgress;
+            this.stampCount = stampCount;
+            stampX = new float[stampCount];
+            stampY = new float[stampCount];
+            stampHeavy = new boolean[stampCount];
+        }
+    }
+
+    public int starCount() { return starXY.length / 2; }
+
+    public int linkCount() { return linkAB.length / 2; }
+
+    public long particleCount() {
+        long n = 0;
+        for (StrokeData s : strokes) n += s.particleCount();
+        return n;
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.zenpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary save format for the Planet canvas (replaces the JSON string in SharedPreferences).
+ *
+ * Layout (big endian, DataOutputStream):
+ *   int   MAGIC "ZPCS"
+ *   byte  version
+ *   byte  flags (FLAG_DEFLATE -> everything after this byte is deflated)
+ *   int inkColor, int markerSizeProgress
+ *   byte hasSun [float x, y], byte hasMoon [float x, y]
+ *   int planets  { UTF body, float x, float y }
+ *   int stars    { float x, float y }
+ *   int links    { int a, int b }
+ *   int strokes  { byte isErase,
+ *                  byte hasBrush [long seed, int ink, int size,             (v2+)
+ *                                 int k, float x[k], float y[k], byte heavy[k]],
+ *                  int n, float x[n], float y[n], float r[n],
+ *                  rgb24 core[n], rgb24 glow[n], byte coreAlpha[n], byte glowAlpha[n],
+ *                  int m, float x[m], float y[m], float r[m] }
+ *
+ * Version 1 files have no brush part; their marker strokes are plain dust.
+ * Colors are quantized to RGB888: dust colors come from Color.HSVToColor (always opaque)
+ * and their real alpha is stored separately as one byte.
+ */
+public final class CanvasStateCodec {
+
+    public static final int MAGIC = 0x5A504353; // "ZPCS"
+    public static final int VERSION = 2;
+
+    public static final int FLAG_DEFLATE = 1;
+
+    // guard against corrupt files asking for absurd allocations
+    private static final int MAX_COUNT = 8_000_000;
+
+    private CanvasStateCodec() {}
+
+    // =========================
+    // ✅ WRITE
+    // =========================
+    public static void write(CanvasState st, OutputStream rawOut, boolean deflate) throws IOException {
+        DataOutputStream header = new DataOutputStream(rawOut);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeByte(deflate ? FLAG_DEFLATE : 0);
+        header.flush();
+
+        Deflater deflater = null;
+        DeflaterOutputStream dos = null;
+        OutputStream body = rawOut;
+        if (deflate) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            dos = new DeflaterOutputStream(rawOut, deflater, 16 * 1024);
+            body = dos;
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body, 16 * 1024));
+
+        out.writeInt(st.inkColor);
+        out.writeInt(st.markerSizeProgress);
+
+        out.writeBoolean(st.hasSun);
+        if (st.hasSun) { out.writeFloat(st.sunX); out.writeFloat(st.sunY); }
+        out.writeBoolean(st.hasMoon);
+        if (st.hasMoon) { out.writeFloat(st.moonX); out.writeFloat(st.moonY); }
+
+        out.writeInt(st.planets.size());
+        for (CanvasState.Planet p : st.planets) {
+            out.writeUTF(p.body == null ? "" : p.body);
+            out.writeFloat(p.x);
+            out.writeFloat(p.y);
+        }
+
+        int stars = st.starCount();
+        out.writeInt(stars);
+        for (int i = 0; i < stars * 2; i++) out.writeFloat(st.starXY[i]);
+
+        int links = st.linkCount();
+        out.writeInt(links);
+        for (int i = 0; i < links * 2; i++) out.writeInt(st.linkAB[i]);
+
+        out.writeInt(st.strokes.size());
+        for (CanvasState.StrokeData s : st.strokes) writeStroke(out, s);
+
+        out.flush();
+        if (dos != null) {
+            dos.finish();
+            // caller owns rawOut, so only release the deflater's native buffers
+            deflater.end();
+        }
+    }
+
+    private static void writeStroke(DataOutputStream out, CanvasState.StrokeData s) throws IOException {
+        out.writeBoolean(s.isErase);
+
+        CanvasState.Brush b = s.brush;
+        out.writeBoolean(b != null);
+        if (b != null) {
+            out.writeLong(b.seed);
+            out.writeInt(b.inkColor);
+            out.writeInt(b.sizeProgress);
+            int k = b.stampCount;
+            out.writeInt(k);
+            for (int i = 0; i < k; i++) out.writeFloat(b.stampX[i]);
+            for (int i = 0; i < k; i++) out.writeFloat(b.stampY[i]);
+            for (int i = 0; i < k; i++) out.writeBoolean(b.stampHeavy[i]);
+        }
+
+        int n = s.dustCount;
+        out.writeInt(n);
+        for (int i = 0; i < n; i++) out.writeFloat(s.dustX[i]);
+        for (int i = 0; i < n; i++) out.writeFloat(s.dustY[i]);
+        for (int i = 0; i < n; i++) out.writeFloat(s.dustR[i]);
+        for (int i = 0; i < n; i++) writeRgb(out, s.coreColor[i]);
+        for (int i = 0; i < n; i++) writeRgb(out, s.glowColor[i]);
+        for (int i = 0; i < n; i++) out.writeByte(clampByte(s.coreAlpha[i]));
+        for (int i = 0; i < n; i++) out.writeByte(clampByte(s.glowAlpha[i]));
+
+        int m = s.eraserCount;
+        out.writeInt(m);
+        for (int i = 0; i < m; i++) out.writeFloat(s.eraserX[i]);
+        for (int i = 0; i < m; i++) out.writeFloat(s.eraserY[i]);
+        for (int i = 0; i < m; i++) out.writeFloat(s.eraserR[i]);
+    }
+
+    // =========================
+    // ✅ READ
+    // =========================
+    public static CanvasState read(InputStream rawIn) throws IOException {
+        DataInputStream header = new DataInputStream(rawIn);
+        if (header.readInt() != MAGIC) throw new IOException("Not a canvas state file");
+
+        int version = header.readUnsignedByte();
+        if (version < 1 || version > VERSION) throw new IOException("Unsupported canvas state version " + version);
+
+        int flags = header.readUnsignedByte();
+        Inflater inflater = ((flags & FLAG_DEFLATE) != 0) ? new Inflater() : null;
+        InputStream body = (inflater != null) ? new InflaterInputStream(rawIn, inflater, 16 * 1024) : rawIn;
+
+        try {
+            return readBody(new DataInputStream(new BufferedInputStream(body, 16 * 1024)), version);
+        } finally {
+            if (inflater != null) inflater.end();
+        }
+    }
+
+    private static CanvasState readBody(DataInputStream in, int version) throws IOException {
+        CanvasState st = new CanvasState();
+
+        st.inkColor = in.readInt();
+        st.markerSizeProgress = in.readInt();
+
+        st.hasSun = in.readBoolean();
+        if (st.hasSun) { st.sunX = in.readFloat(); st.sunY = in.readFloat(); }
+        st.hasMoon = in.readBoolean();
+        if (st.hasMoon) { st.moonX = in.readFloat(); st.moonY = in.readFloat(); }
+
+        int planets = readCount(in);
+        for (int i = 0; i < planets; i++) {
+            String name = in.readUTF();
+            float x = in.readFloat();
+            float y = in.readFloat();
+            st.planets.add(new CanvasState.Planet(name, x, y));
+        }
+
+        int stars = readCount(in);
+        st.starXY = new float[stars * 2];
+        for (int i = 0; i < stars * 2; i++) st.starXY[i] = in.readFloat();
+
+        int links = readCount(in);
+        st.linkAB = new int[links * 2];
+        for (int i = 0; i < links * 2; i++) st.linkAB[i] = in.readInt();
+
+        int strokes = readCount(in);
+        for (int i = 0; i < strokes; i++) st.strokes.add(readStroke(in, version));
+
+        return st;
+    }
+
+    private static CanvasState.StrokeData readStroke(DataInputStream in, int version) throws IOException {
+        boolean isErase = in.readBoolean();
+
+        CanvasState.Brush brush = null;
+        if (version >= 2 && in.readBoolean()) {
+            long seed = in.readLong();
+            int ink = in.readInt();
+            int size = in.readInt();
+            int k = readCount(in);
+            brush = new CanvasState.Brush(seed, ink, size, k);
+            for (int i = 0; i < k; i++) brush.stampX[i] = in.readFloat();
+            for (int i = 0; i < k; i++) brush.stampY[i] = in.readFloat();
+            for (int i = 0; i < k; i++) brush.stampHeavy[i] = in.readBoolean();
+        }
+
+        int n = readCount(in);
+        CanvasState.StrokeData s = new CanvasState.StrokeData(isErase, n, 0);
+        s.brush = brush;
+        for (int i = 0; i < n; i++) s.dustX[i] = in.readFloat();
+        for (int i = 0; i < n; i++) s.dustY[i] = in.readFloat();
+        for (int i = 0; i < n; i++) s.dustR[i] = in.readFloat();
+        for (int i = 0; i < n; i++) s.coreColor[i] = readRgb(in);
+        for (int i = 0; i < n; i++) s.glowColor[i] = readRgb(in);
+        for (int i = 0; i < n; i++) s.coreAlpha[i] = in.readUnsignedByte();
+        for (int i = 0; i < n; i++) s.glowAlpha[i] = in.readUnsignedByte();
+
+        int m = readCount(in);
+        s.eraserCount = m;
+        s.eraserX = new float[m];
+        s.eraserY = new float[m];
+        s.eraserR = new float[m];
+        for (int i = 0; i < m; i++) s.eraserX[i] = in.readFloat();
+        for (int i = 0; i < m; i++) s.eraserY[i] = in.readFloat();
+        for (int i = 0; i < m; i++) s.eraserR[i] = in.readFloat();
+        return s;
+    }
+
+    // =========================
+    // ✅ FILE HELPERS
+    // =========================
+    /** Writes to "name.tmp" first and renames, so a crash mid-save never leaves a half file. */
+    public static void writeFile(CanvasState st, File file, boolean deflate) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            write(st, fos, deflate);
+            fos.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) {
+            // some filesystems refuse to rename over an existing file
+            if (!file.delete() || !tmp.renameTo(file)) {
+                throw new IOException("Could not replace " + file.getName());
+            }
+        }
+    }
+
+    public static CanvasState readFile(File file) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            return read(fis);
+        }
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private static void writeRgb(DataOutputStream out, int color) throws IOException {
+        out.writeByte((color >> 16) & 0xFF);
+        out.writeByte((color >> 8) & 0xFF);
+        out.writeByte(color & 0xFF);
+    }
+
+    private static int readRgb(DataInputStream in) throws IOException {
+        int r = in.readUnsignedByte();
+        int g = in.readUnsignedByte();
+        int b = in.readUnsignedByte();
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private static int clampByte(int v) {
+        return v < 0 ? 0 : (v > 255 ? 255 : v);
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > MAX_COUNT) throw new IOException("Corrupt canvas state (count " + n + ")");
+        return n;
+    }
+}
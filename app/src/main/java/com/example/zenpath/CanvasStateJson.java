@@ -0,0 +1,229 @@
+package com.example.zenpath;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Legacy JSON format of the Planet canvas ("space_state_v1" in asthera_prefs).
+ * fromJson migrates old saves into {@link CanvasStateCodec}. toJson is no longer saved; it is the
+ * reference the codec tests and CanvasStateBenchmark compare the binary format against, so it
+ * writes the whole state, brush strokes included (old saves simply have none).
+ */
+public final class CanvasStateJson {
+
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private CanvasStateJson() {}
+
+    public static String toJson(CanvasState st) throws Exception {
+        JSONObject root = new JSONObject();
+
+        root.put("inkColor", st.inkColor);
+        root.put("markerSizeProgress", st.markerSizeProgress);
+
+        if (st.hasSun) {
+            JSONObject s = new JSONObject();
+            s.put("x", st.sunX);
+            s.put("y", st.sunY);
+            root.put("sun", s);
+        } else root.put("sun", JSONObject.NULL);
+
+        if (st.hasMoon) {
+            JSONObject m = new JSONObject();
+            m.put("x", st.moonX);
+            m.put("y", st.moonY);
+            root.put("moon", m);
+        } else root.put("moon", JSONObject.NULL);
+
+        JSONArray planetArr = new JSONArray();
+        for (CanvasState.Planet p : st.planets) {
+            JSONObject o = new JSONObject();
+            o.put("body", p.body);
+            o.put("x", p.x);
+            o.put("y", p.y);
+            planetArr.put(o);
+        }
+        root.put("planets", planetArr);
+
+        JSONArray starArr = new JSONArray();
+        for (int i = 0; i < st.starCount(); i++) {
+            JSONObject o = new JSONObject();
+            o.put("x", st.starXY[i * 2]);
+            o.put("y", st.starXY[i * 2 + 1]);
+            starArr.put(o);
+        }
+        root.put("stars", starArr);
+
+        JSONArray linkArr = new JSONArray();
+        for (int i = 0; i < st.linkCount(); i++) {
+            JSONObject o = new JSONObject();
+            o.put("a", st.linkAB[i * 2]);
+            o.put("b", st.linkAB[i * 2 + 1]);
+            linkArr.put(o);
+        }
+        root.put("links", linkArr);
+
+        JSONArray strokeArr = new JSONArray();
+        for (CanvasState.StrokeData s : st.strokes) {
+            JSONObject so = new JSONObject();
+            so.put("isErase", s.isErase);
+
+            JSONArray dustArr = new JSONArray();
+            for (int i = 0; i < s.dustCount; i++) {
+                JSONObject o = new JSONObject();
+                o.put("x", s.dustX[i]);
+                o.put("y", s.dustY[i]);
+                o.put("radius", s.dustR[i]);
+                o.put("coreColor", s.coreColor[i]);
+                o.put("glowColor", s.glowColor[i]);
+                o.put("coreAlpha", s.coreAlpha[i]);
+                o.put("glowAlpha", s.glowAlpha[i]);
+                dustArr.put(o);
+            }
+            so.put("dust", dustArr);
+
+            JSONArray erArr = new JSONArray();
+            for (int i = 0; i < s.eraserCount; i++) {
+                JSONObject o = new JSONObject();
+                o.put("x", s.eraserX[i]);
+                o.put("y", s.eraserY[i]);
+                o.put("r", s.eraserR[i]);
+                erArr.put(o);
+            }
+            so.put("erasers", erArr);
+
+            if (s.brush != null) so.put("brush", brushToJson(s.brush));
+
+            strokeArr.put(so);
+        }
+        root.put("strokes", strokeArr);
+
+        return root.toString();
+    }
+
+    /** Missing fields fall back to {@code defaults} (ink / marker size) like the old importer did. */
+    public static CanvasState fromJson(String json, int defaultInk, int defaultMarkerSize) throws Exception {
+        JSONObject root = new JSONObject(json);
+        CanvasState st = new CanvasState();
+
+        st.inkColor = root.optInt("inkColor", defaultInk);
+        st.markerSizeProgress = root.optInt("markerSizeProgress", defaultMarkerSize);
+
+        Object sunObj = root.opt("sun");
+        if (sunObj instanceof JSONObject) {
+            JSONObject s = (JSONObject) sunObj;
+            st.hasSun = true;
+            st.sunX = (float) s.optDouble("x", 0);
+            st.sunY = (float) s.optDouble("y", 0);
+        }
+
+        Object moonObj = root.opt("moon");
+        if (moonObj instanceof JSONObject) {
+            JSONObject m = (JSONObject) moonObj;
+            st.hasMoon = true;
+            st.moonX = (float) m.optDouble("x", 0);
+            st.moonY = (float) m.optDouble("y", 0);
+        }
+
+        JSONArray planetArr = root.optJSONArray("planets");
+        if (planetArr != null) {
+            for (int i = 0; i < planetArr.length(); i++) {
+                JSONObject o = planetArr.getJSONObject(i);
+                st.planets.add(new CanvasState.Planet(
+                        o.optString("body", ""),
+                        (float) o.optDouble("x", 0),
+                        (float) o.optDouble("y", 0)
+                ));
+            }
+        }
+
+        JSONArray starArr = root.optJSONArray("stars");
+        if (starArr != null) {
+            st.starXY = new float[starArr.length() * 2];
+            for (int i = 0; i < starArr.length(); i++) {
+                JSONObject o = starArr.getJSONObject(i);
+                st.starXY[i * 2] = (float) o.optDouble("x", 0);
+                st.starXY[i * 2 + 1] = (float) o.optDouble("y", 0);
+            }
+        }
+
+        JSONArray linkArr = root.optJSONArray("links");
+        if (linkArr != null) {
+            st.linkAB = new int[linkArr.length() * 2];
+            for (int i = 0; i < linkArr.length(); i++) {
+                JSONObject o = linkArr.getJSONObject(i);
+                st.linkAB[i * 2] = o.optInt("a", 0);
+                st.linkAB[i * 2 + 1] = o.optInt("b", 0);
+            }
+        }
+
+        JSONArray strokeArr = root.optJSONArray("strokes");
+        if (strokeArr != null) {
+            for (int i = 0; i < strokeArr.length(); i++) {
+                JSONObject so = strokeArr.getJSONObject(i);
+
+                JSONArray dustArr = so.optJSONArray("dust");
+                JSONArray erArr = so.optJSONArray("erasers");
+                int dn = dustArr == null ? 0 : dustArr.length();
+                int en = erArr == null ? 0 : erArr.length();
+
+                CanvasState.StrokeData s = new CanvasState.StrokeData(so.optBoolean("isErase", false), dn, en);
+
+                for (int j = 0; j < dn; j++) {
+                    JSONObject o = dustArr.getJSONObject(j);
+                    s.dustX[j] = (float) o.optDouble("x", 0);
+                    s.dustY[j] = (float) o.optDouble("y", 0);
+                    s.dustR[j] = (float) o.optDouble("radius", 0);
+                    s.coreColor[j] = o.optInt("coreColor", WHITE);
+                    s.glowColor[j] = o.optInt("glowColor", WHITE);
+                    s.coreAlpha[j] = o.optInt("coreAlpha", 20);
+                    s.glowAlpha[j] = o.optInt("glowAlpha", 10);
+                }
+
+                for (int j = 0; j < en; j++) {
+                    JSONObject o = erArr.getJSONObject(j);
+                    s.eraserX[j] = (float) o.optDouble("x", 0);
+                    s.eraserY[j] = (float) o.optDouble("y", 0);
+                    s.eraserR[j] = (float) o.optDouble("r", 0);
+                }
+
+                JSONObject bo = so.optJSONObject("brush");
+                if (bo != null) s.brush = brushFromJson(bo);
+
+                st.strokes.add(s);
+            }
+        }
+
+        return st;
+    }
+
+    // stamps as a flat [x, y, heavy(0/1), ...] array
+    private static JSONObject brushToJson(CanvasState.Brush b) throws Exception {
+        JSONObject o = new JSONObject();
+        o.put("seed", b.seed);
+        o.put("ink", b.inkColor);
+        o.put("size", b.sizeProgress);
+
+        JSONArray stamps = new JSONArray();
+        for (int i = 0; i < b.stampCount; i++) {
+            stamps.put(b.stampX[i]);
+            stamps.put(b.stampY[i]);
+            stamps.put(b.stampHeavy[i] ? 1 : 0);
+        }
+        o.put("stamps", stamps);
+        return o;
+    }
+
+    private static CanvasState.Brush brushFromJson(JSONObject o) throws Exception {
+        JSONArray stamps = o.optJSONArray("stamps");
+        int k = stamps == null ? 0 : stamps.length() / 3;
+
+        CanvasState.Brush b = new CanvasState.Brush(o.optLong("seed", 0L), o.optInt("ink", WHITE), o.optInt("size", 0), k);
+        for (int i = 0; i < k; i++) {
+            b.stampX[i] = (float) stamps.getDouble(i * 3);
+            b.stampY[i] = (float) stamps.getDouble(i * 3 + 1);
+            b.stampHeavy[i] = stamps.getInt(i * 3 + 2) != 0;
+        }
+        return b;
+    }
+}
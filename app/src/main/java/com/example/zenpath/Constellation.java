@@ -0,0 +1,170 @@
+package com.example.zenpath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Stars and links drawn on the Planet canvas.
+ *
+ * Stars keep a stable id for their whole life, and links point at Star objects,
+ * so removing a star only touches its own links (nothing is renumbered).
+ * Links are also kept in a hash map keyed by the ordered id pair, which makes
+ * "is this pair already linked" O(1). A SpatialGrid answers tap hit-tests.
+ * Iteration (starAt/linkAt) follows insertion order, which is also the draw order.
+ */
+final class Constellation {
+
+    static final class Star {
+        final int id;
+        float x, y;
+        final ArrayList<Link> links = new ArrayList<>(2);
+
+        // scratch: position in starAt() order, valid after indexStars()
+        int order;
+
+        Star(int id, float x, float y) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static final class Link {
+        final Star a, b;
+
+        Link(Star a, Star b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    private final ArrayList<Star> stars = new ArrayList<>();
+    private final ArrayList<Link> links = new ArrayList<>();
+    private final HashMap<Integer, Star> byId = new HashMap<>();
+    private final HashMap<Long, Link> edges = new HashMap<>();
+    private final SpatialGrid<Star> grid;
+    private final ArrayList<Star> hits = new ArrayList<>();
+
+    private int nextId = 1;
+
+    Constellation(float cellSize) {
+        grid = new SpatialGrid<>(cellSize);
+    }
+
+    // =========================
+    // ✅ READ
+    // =========================
+    int starCount() { return stars.size(); }
+
+    Star starAt(int i) { return stars.get(i); }
+
+    int linkCount() { return links.size(); }
+
+    Link linkAt(int i) { return links.get(i); }
+
+    Star star(int id) { return byId.get(id); }
+
+    boolean hasLink(int idA, int idB) {
+        return edges.containsKey(edgeKey(idA, idB));
+    }
+
+    /** Topmost (most recently added) star within {@code radius} of (x, y), or null. */
+    Star hitTest(float x, float y, float radius) {
+        hits.clear();
+        grid.query(x, y, radius, hits);
+
+        Star best = null;
+        for (int i = 0; i < hits.size(); i++) {
+            Star s = hits.get(i);
+            if (best == null || s.id > best.id) best = s;
+        }
+        hits.clear();
+        return best;
+    }
+
+    /** Fills Star.order with each star's position in iteration order (for index-based saves). */
+    void indexStars() {
+        for (int i = 0; i < stars.size(); i++) stars.get(i).order = i;
+    }
+
+    // =========================
+    // ✅ EDIT
+    // =========================
+    Star addStar(float x, float y) {
+        Star s = new Star(nextId++, x, y);
+        stars.add(s);
+        byId.put(s.id, s);
+        grid.put(s, x, y);
+        return s;
+    }
+
+    void moveStar(Star s, float x, float y) {
+        s.x = x;
+        s.y = y;
+        grid.put(s, x, y);
+    }
+
+    /** Removes the star and its links. */
+    boolean removeStar(int id) {
+        Star s = byId.remove(id);
+        if (s == null) return false;
+
+        for (int i = s.links.size() - 1; i >= 0; i--) detach(s.links.get(i));
+        grid.remove(s);
+
+        // the star being undone is normally the last one added
+        int last = stars.size() - 1;
+        if (last >= 0 && stars.get(last) == s) stars.remove(last);
+        else stars.remove(s);
+        return true;
+    }
+
+    /** Links two different stars; null if they are already linked. */
+    Link addLink(Star a, Star b) {
+        if (a == null || b == null || a == b) return null;
+        long key = edgeKey(a.id, b.id);
+        if (edges.containsKey(key)) return null;
+
+        Link l = new Link(a, b);
+        edges.put(key, l);
+        links.add(l);
+        a.links.add(l);
+        b.links.add(l);
+        return l;
+    }
+
+    boolean removeLink(int idA, int idB) {
+        Link l = edges.get(edgeKey(idA, idB));
+        if (l == null) return false;
+        detach(l);
+        return true;
+    }
+
+    void clear() {
+        stars.clear();
+        links.clear();
+        byId.clear();
+        edges.clear();
+        grid.clear();
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private void detach(Link l) {
+        edges.remove(edgeKey(l.a.id, l.b.id));
+        l.a.links.remove(l);
+        l.b.links.remove(l);
+
+        int last = links.size() - 1;
+        if (last >= 0 && links.get(last) == l) links.remove(last);
+        else links.remove(l);
+    }
+
+    /** Order-independent key for the pair (a, b). */
+    static long edgeKey(int a, int b) {
+        int lo = Math.min(a, b);
+        int hi = Math.max(a, b);
+        return ((long) lo << 32) | (hi & 0xFFFFFFFFL);
+    }
+}
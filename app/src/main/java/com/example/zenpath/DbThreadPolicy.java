@@ -0,0 +1,37 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+import android.os.StrictMode;
+import android.util.Log;
+
+/**
+ * StrictMode-style check for database access on the main thread, active in debuggable builds only.
+ * Each hit is logged under "ZenPathDb" with the caller's stack trace and also reported through
+ * StrictMode.noteSlowCall (visible when a ThreadPolicy with detectCustomSlowCalls is installed).
+ */
+public final class DbThreadPolicy {
+
+    private static final String TAG = "ZenPathDb";
+
+    private static volatile boolean installed = false;
+    private static volatile boolean enabled = false;
+
+    private DbThreadPolicy() {}
+
+    public static void install(Context context) {
+        if (installed) return;
+        enabled = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        installed = true;
+    }
+
+    /** Called by ZenPathRepository before it touches the database. */
+    public static void onDbAccess() {
+        if (!enabled || Looper.myLooper() != Looper.getMainLooper()) return;
+
+        Throwable where = new Throwable("database access on the main thread");
+        Log.w(TAG, where.getMessage(), where);
+        StrictMode.noteSlowCall("database access on the main thread");
+    }
+}
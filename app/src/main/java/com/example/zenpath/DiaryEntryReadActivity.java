@@ -8,7 +8,6 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.viewpager2.widget.ViewPager2;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.Locale;
 
@@ -20,14 +19,14 @@ public class DiaryEntryReadActivity extends AppCompatActivity {
     private TextView tvTitle;
     private ImageButton btnBack;
 
-    private ZenPathRepository repo;
+    private AsyncZenPathRepository repo;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_diary_entry_read);
 
-        repo = new ZenPathRepository(this);
+        repo = AsyncZenPathRepository.get(this);
 
         pager = findViewById(R.id.readPager);
         tvTitle = findViewById(R.id.tvReadTitle);
@@ -39,10 +38,10 @@ public class DiaryEntryReadActivity extends AppCompatActivity {
         if (tvTitle != null) tvTitle.setText(prettyDate(date));
         if (btnBack != null) btnBack.setOnClickListener(v -> finish());
 
-        ArrayList<String> pages = repo.getDiaryPagesByDate(date);
-        DiaryReadPagerAdapter adapter = new DiaryReadPagerAdapter(pages);
-        pager.setAdapter(adapter);
+        String day = date;
         pager.setOffscreenPageLimit(1);
+        repo.read(this, r -> r.getDiaryEntryRef(day),
+                entry -> pager.setAdapter(new DiaryReadPagerAdapter(entry, repo, this)));
 
         // If you already have PageFlipTransformer class, keep this (looks like a diary/book)
         pager.setPageTransformer(new PageFlipTransformer());
@@ -19,19 +19,49 @@ public class DiaryHistoryAdapter extends RecyclerView.Adapter<DiaryHistoryAdapte
         void onClick(ZenPathRepository.DiaryEntryMeta item);
     }
 
+    public interface OnNeedMore {
+        void onNeedMore(ZenPathRepository.DiaryEntryMeta last);
+    }
+
+    // ask for the next page this many items before the end
+    private static final int PREFETCH = 6;
+
     private ArrayList<ZenPathRepository.DiaryEntryMeta> items;
     private final OnClick onClick;
+    private final OnNeedMore onNeedMore;
+    private boolean hasMore;
+    private boolean requested;
 
-    public DiaryHistoryAdapter(ArrayList<ZenPathRepository.DiaryEntryMeta> items, OnClick onClick) {
+    public DiaryHistoryAdapter(ArrayList<ZenPathRepository.DiaryEntryMeta> items, OnClick onClick, OnNeedMore onNeedMore) {
         this.items = items;
         this.onClick = onClick;
+        this.onNeedMore = onNeedMore;
     }
 
-    public void setItems(ArrayList<ZenPathRepository.DiaryEntryMeta> newItems) {
+    /** First page of the history. */
+    public void setItems(ArrayList<ZenPathRepository.DiaryEntryMeta> newItems, boolean hasMore) {
         this.items = (newItems == null) ? new ArrayList<>() : newItems;
+        this.hasMore = hasMore;
+        requested = false;
         notifyDataSetChanged();
     }
 
+    /** Next page, continuing after {@code last}; a page for another list (reloaded since) is ignored. */
+    public void addItems(ZenPathRepository.DiaryEntryMeta last, ArrayList<ZenPathRepository.DiaryEntryMeta> more,
+                         boolean hasMore) {
+        if (items.isEmpty() || items.get(items.size() - 1) != last) return;
+        int start = items.size();
+        items.addAll(more);
+        this.hasMore = hasMore;
+        requested = false;
+        notifyItemRangeInserted(start, more.size());
+    }
+
+    /** The page after {@code last} could not be read: the next bind near the end asks again. */
+    public void loadFailed(ZenPathRepository.DiaryEntryMeta last) {
+        if (!items.isEmpty() && items.get(items.size() - 1) == last) requested = false;
+    }
+
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -50,6 +80,13 @@ public class DiaryHistoryAdapter extends RecyclerView.Adapter<DiaryHistoryAdapte
         h.itemView.setOnClickListener(v -> {
             if (onClick != null) onClick.onClick(item);
         });
+
+        if (hasMore && !requested && position >= items.size() - PREFETCH && onNeedMore != null) {
+            requested = true;
+            ZenPathRepository.DiaryEntryMeta last = items.get(items.size() - 1);
+            // not from inside a bind: the callback may end up changing the adapter
+            h.itemView.post(() -> onNeedMore.onNeedMore(last));
+        }
     }
 
     @Override
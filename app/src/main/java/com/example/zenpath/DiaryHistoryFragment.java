@@ -5,20 +5,32 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.EditText;
+import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
 
 public class DiaryHistoryFragment extends Fragment {
 
+    private static final int HISTORY_PAGE = 20;
+    private static final int SEARCH_PAGE = 20;
+    private static final long SEARCH_DELAY_MS = 200;
+
     private RecyclerView rv;
     private DiaryHistoryAdapter adapter;
-    private ZenPathRepository repo;
+    private DiarySearchAdapter searchAdapter;
+    private EditText etSearch;
+    private TextView tvEmpty;
+    private AsyncZenPathRepository repo;
+
+    // what the list shows; a result for an older query is dropped
+    private String activeQuery = "";
+    private final Runnable runSearch = this::search;
 
     @Nullable
     @Override
@@ -27,7 +39,7 @@ public class DiaryHistoryFragment extends Fragment {
 
         View v = inflater.inflate(R.layout.fragment_diary_history, container, false);
 
-        repo = new ZenPathRepository(requireContext());
+        repo = AsyncZenPathRepository.get(requireContext());
 
         rv = v.findViewById(R.id.rvDiaryHistory);
         rv.setLayoutManager(new androidx.recyclerview.widget.GridLayoutManager(requireContext(), 2));
@@ -37,10 +49,20 @@ public class DiaryHistoryFragment extends Fragment {
             Intent i = new Intent(requireContext(), DiaryEntryReadActivity.class);
             i.putExtra(DiaryEntryReadActivity.EXTRA_DATE, item.date);
             startActivity(i);
-        });
+        }, this::loadMoreHistory);
+
+        searchAdapter = new DiarySearchAdapter(this::openHit, this::loadMore);
 
         rv.setAdapter(adapter);
 
+        // ✅ search as you type (debounced)
+        tvEmpty = v.findViewById(R.id.tvDiarySearchEmpty);
+        etSearch = v.findViewById(R.id.etDiarySearch);
+        etSearch.addTextChangedListener(SimpleTextWatcher.afterChanged(text -> {
+            etSearch.removeCallbacks(runSearch);
+            etSearch.postDelayed(runSearch, SEARCH_DELAY_MS);
+        }));
+
         load();
         return v;
     }
@@ -48,11 +70,78 @@ public class DiaryHistoryFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        load(); // refresh after saving a diary
+        // refresh after saving a diary
+        if (activeQuery.isEmpty()) load();
+        else search();
     }
 
+    @Override
+    public void onDestroyView() {
+        etSearch.removeCallbacks(runSearch);
+        super.onDestroyView();
+    }
+
+    // first page of the history; more pages follow as the list scrolls
     private void load() {
-        ArrayList<ZenPathRepository.DiaryEntryMeta> items = repo.getSavedDiaryHistory();
-        adapter.setItems(items);
+        repo.read(getViewLifecycleOwner(),
+                r -> r.getDiaryHistoryPage(null, HISTORY_PAGE),
+                items -> adapter.setItems(items, items.size() == HISTORY_PAGE));
+    }
+
+    private void loadMoreHistory(ZenPathRepository.DiaryEntryMeta last) {
+        repo.read(getViewLifecycleOwner(),
+                r -> r.getDiaryHistoryPage(last, HISTORY_PAGE),
+                items -> adapter.addItems(last, items, items.size() == HISTORY_PAGE),
+                e -> adapter.loadFailed(last));
+    }
+
+    // =========================
+    // ✅ SEARCH
+    // =========================
+    private void search() {
+        String query = etSearch.getText().toString();
+        activeQuery = query.trim().isEmpty() ? "" : query;
+
+        if (activeQuery.isEmpty()) {
+            tvEmpty.setVisibility(View.GONE);
+            if (rv.getAdapter() != adapter) rv.setAdapter(adapter);
+            load();
+            return;
+        }
+
+        repo.read(getViewLifecycleOwner(),
+                r -> r.searchDiary(query, 0, SEARCH_PAGE),
+                page -> {
+                    if (!query.equals(activeQuery)) return;
+                    searchAdapter.setPage(page);
+                    if (rv.getAdapter() != searchAdapter) rv.setAdapter(searchAdapter);
+                    tvEmpty.setVisibility(page.total == 0 ? View.VISIBLE : View.GONE);
+                });
+    }
+
+    private void loadMore(int offset) {
+        String query = activeQuery;
+        if (query.isEmpty()) return;
+
+        repo.read(getViewLifecycleOwner(),
+                r -> r.searchDiary(query, offset, SEARCH_PAGE),
+                page -> {
+                    if (query.equals(activeQuery)) searchAdapter.addPage(page);
+                },
+                e -> {
+                    if (query.equals(activeQuery)) searchAdapter.loadFailed(offset);
+                });
+    }
+
+    private void openHit(DiarySearch.Hit hit) {
+        Intent i;
+        if (hit.isReflection()) {
+            i = new Intent(requireContext(), MoodActivity.class);
+            i.putExtra(MoodActivity.EXTRA_DATE_KEY, hit.date);
+        } else {
+            i = new Intent(requireContext(), DiaryEntryReadActivity.class);
+            i.putExtra(DiaryEntryReadActivity.EXTRA_DATE, hit.date);
+        }
+        startActivity(i);
     }
 }
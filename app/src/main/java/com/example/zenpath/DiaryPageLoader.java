@@ -0,0 +1,69 @@
+package com.example.zenpath;
+
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * The pages of one diary entry, read from journal_page one at a time as a pager binds them.
+ * get() returns null for a page that is not here yet and starts reading it; onLoaded is called
+ * (main thread) once it arrived. Pages put() by the caller win over a read still in flight.
+ */
+final class DiaryPageLoader {
+
+    interface OnLoaded {
+        void onLoaded(int index);
+    }
+
+    private final AsyncZenPathRepository repo;
+    private final LifecycleOwner owner;
+    private final OnLoaded onLoaded;
+    private long journalId;
+
+    private final SparseArray<String> pages = new SparseArray<>();
+    private final SparseBooleanArray loading = new SparseBooleanArray();
+
+    DiaryPageLoader(AsyncZenPathRepository repo, LifecycleOwner owner, long journalId, OnLoaded onLoaded) {
+        this.repo = repo;
+        this.owner = owner;
+        this.journalId = journalId;
+        this.onLoaded = onLoaded;
+    }
+
+    String get(int index) {
+        String text = pages.get(index);
+        if (text == null) load(index);
+        return text;
+    }
+
+    boolean isLoaded(int index) {
+        return pages.indexOfKey(index) >= 0;
+    }
+
+    void put(int index, String text) {
+        pages.put(index, text == null ? "" : text);
+    }
+
+    void remove(int index) {
+        pages.remove(index);
+    }
+
+    void setJournalId(long journalId) {
+        this.journalId = journalId;
+    }
+
+    private void load(int index) {
+        // nothing saved yet: every page is new and put() by the editor
+        if (journalId <= 0 || loading.get(index)) return;
+        loading.put(index, true);
+
+        long id = journalId;
+        repo.read(owner, r -> r.getDiaryPage(id, index), text -> {
+            loading.delete(index);
+            if (isLoaded(index)) return;
+            pages.put(index, text);
+            if (onLoaded != null) onLoaded.onLoaded(index);
+        });
+    }
+}
@@ -2,6 +2,8 @@ package com.example.zenpath;
 
 import android.content.Context;
 import android.text.TextUtils;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,10 +11,9 @@ import android.widget.EditText;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-
 public class DiaryPagerAdapter extends RecyclerView.Adapter<DiaryPagerAdapter.PageVH> {
 
     public interface Listener {
@@ -21,81 +22,115 @@ public class DiaryPagerAdapter extends RecyclerView.Adapter<DiaryPagerAdapter.Pa
 
     private final Context ctx;
     private final String date;                 // ✅ one date
-    private final ArrayList<String> pages;     // ✅ multiple pages
-    private final ZenPathRepository repo;
+    private final AsyncZenPathRepository repo;
+    private final LifecycleOwner owner;
     private final Listener listener;
 
-    // Keep last bound holder (for current visible page typing)
-    private PageVH lastBound;
+    // ✅ multiple pages, read as they are bound
+    private final DiaryPageLoader pages;
+    private int pageCount;
+
+    // pages typed into (or added) since the last save; only these are written
+    private final SparseBooleanArray dirty = new SparseBooleanArray();
 
-    public DiaryPagerAdapter(Context ctx, String date, ArrayList<String> pages,
-                             ZenPathRepository repo, Listener listener) {
+    public DiaryPagerAdapter(Context ctx, String date, ZenPathRepository.DiaryEntryRef entry,
+                             AsyncZenPathRepository repo, LifecycleOwner owner, Listener listener) {
         this.ctx = ctx;
         this.date = date;
-        this.pages = pages;
         this.repo = repo;
+        this.owner = owner;
         this.listener = listener;
+
+        pages = new DiaryPageLoader(repo, owner, entry.journalId, this::notifyItemChanged);
+        pageCount = entry.pageCount;
+        if (pageCount == 0) newPage();
     }
 
     @NonNull
     @Override
     public PageVH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(ctx).inflate(R.layout.item_diary_page, parent, false);
-        return new PageVH(v);
+        PageVH holder = new PageVH(v);
+        holder.etJournal.addTextChangedListener(SimpleTextWatcher.afterChanged(text -> {
+            if (holder.binding) return;
+            int pos = holder.getAdapterPosition();
+            if (pos == RecyclerView.NO_POSITION || pos >= pageCount) return;
+
+            pages.put(pos, text);
+            dirty.put(pos, true);
+        }));
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull PageVH holder, int position) {
-        String text = pages.get(position);
-        holder.bind(position + 1, text);
-        lastBound = holder;
+        holder.bind(position + 1, pages.get(position));
     }
 
     @Override
     public int getItemCount() {
-        return pages.size();
+        return pageCount;
     }
 
     // ✅ Add a new blank page
     public void addNewPage() {
-        // save current page text into list before adding, so nothing is lost
-        syncVisibleToList();
-
-        pages.add("");
-        notifyItemInserted(pages.size() - 1);
+        newPage();
+        notifyItemInserted(pageCount - 1);
     }
 
-    // ✅ Save ALL pages as one entry for the date
+    // ✅ Save the changed pages of the entry for the date
     public boolean saveAllPages() {
-        syncVisibleToList();
-
-        // Remove empty pages at the end (but keep at least 1)
-        while (pages.size() > 1) {
-            String last = pages.get(pages.size() - 1);
-            if (!TextUtils.isEmpty(safeTrim(last))) break;
-            pages.remove(pages.size() - 1);
+        // Drop empty pages at the end (but keep at least 1); a page not read yet was saved with text
+        int count = pageCount;
+        while (count > 1 && pages.isLoaded(count - 1)
+                && TextUtils.isEmpty(safeTrim(pages.get(count - 1)))) {
+            count--;
         }
 
         // Check if there's any real content
         boolean hasAny = false;
-        for (String p : pages) {
-            if (!TextUtils.isEmpty(safeTrim(p))) { hasAny = true; break; }
+        for (int i = 0; i < count; i++) {
+            if (!pages.isLoaded(i) || !TextUtils.isEmpty(safeTrim(pages.get(i)))) { hasAny = true; break; }
         }
         if (!hasAny) return false;
 
-        repo.upsertDiaryPages(date, pages);
+        SparseArray<String> changed = new SparseArray<>();
+        for (int i = 0; i < dirty.size(); i++) {
+            int index = dirty.keyAt(i);
+            if (index < count) changed.put(index, pages.get(index));
+        }
+
+        if (count < pageCount) {
+            for (int i = count; i < pageCount; i++) {
+                pages.remove(i);
+                dirty.delete(i);
+            }
+            int removed = pageCount - count;
+            pageCount = count;
+            notifyItemRangeRemoved(count, removed);
+        }
 
-        if (listener != null) listener.onSaved(date);
+        int saveCount = count;
+        repo.write(owner, r -> r.saveDiaryPages(date, changed, saveCount), journalId -> {
+            pages.setJournalId(journalId);
+            // only now are these pages saved; a failed write keeps them dirty for the next save,
+            // and a page typed into while this one ran stays dirty too
+            for (int i = 0; i < changed.size(); i++) {
+                int index = changed.keyAt(i);
+                if (pages.isLoaded(index) && TextUtils.equals(pages.get(index), changed.valueAt(i))) {
+                    dirty.delete(index);
+                }
+            }
+            if (listener != null) listener.onSaved(date);
+        });
         return true;
     }
 
-    private void syncVisibleToList() {
-        if (lastBound == null) return;
-        int pos = lastBound.getAdapterPosition();
-        if (pos == RecyclerView.NO_POSITION) return;
-        if (pos < 0 || pos >= pages.size()) return;
-
-        pages.set(pos, lastBound.etJournal.getText().toString());
+    // a page that was never saved: blank and dirty, so it gets its row
+    private void newPage() {
+        pages.put(pageCount, "");
+        dirty.put(pageCount, true);
+        pageCount++;
     }
 
     private String safeTrim(String s) {
@@ -105,6 +140,7 @@ public class DiaryPagerAdapter extends RecyclerView.Adapter<DiaryPagerAdapter.Pa
     static class PageVH extends RecyclerView.ViewHolder {
         TextView tvPageMeta;
         EditText etJournal;
+        boolean binding;
 
         PageVH(@NonNull View itemView) {
             super(itemView);
@@ -112,10 +148,14 @@ public class DiaryPagerAdapter extends RecyclerView.Adapter<DiaryPagerAdapter.Pa
             etJournal = itemView.findViewById(R.id.etJournal);
         }
 
+        // text is null while the page is still being read
         void bind(int pageNumber, String text) {
             // ✅ no date here (history already has date)
             tvPageMeta.setText("Page " + pageNumber);
-            etJournal.setText(text);
+            binding = true;
+            etJournal.setText(text == null ? "" : text);
+            binding = false;
+            etJournal.setEnabled(text != null);
         }
     }
 }
@@ -0,0 +1,75 @@
+package com.example.zenpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diary page text helpers (Android-free). split / join are the pre-v11 format, all pages of an
+ * entry as one journal text joined with PAGE_BREAK; pages now have their own journal_page rows,
+ * so these serve the migration and the single-text repository calls.
+ */
+final class DiaryPages {
+
+    static final String PAGE_BREAK = "\n<<PAGE_BREAK>>\n";
+
+    static final int PREVIEW_CHARS = 120;
+
+    private DiaryPages() {}
+
+    /**
+     * History tile text for an entry (stored in journal.preview): all pages joined by a newline,
+     * trimmed, cut after PREVIEW_CHARS. Same text the history used to cut from the joined journal.
+     */
+    static String preview(List<String> pages) {
+        if (pages == null || pages.isEmpty()) return "";
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pages.size(); i++) {
+            if (i > 0) sb.append('\n');
+            String p = pages.get(i);
+            if (p != null) sb.append(p);
+        }
+        String clean = sb.toString().trim();
+        if (clean.length() > PREVIEW_CHARS) clean = clean.substring(0, PREVIEW_CHARS).trim() + "…";
+        return clean;
+    }
+
+    /** Always at least one page; trailing empty pages are kept. */
+    static ArrayList<String> split(String raw) {
+        ArrayList<String> pages = new ArrayList<>();
+
+        if (raw == null || raw.trim().isEmpty()) {
+            pages.add("");
+            return pages;
+        }
+
+        // plain indexOf: String.split would compile the separator as a regex every call
+        int from = 0;
+        int at;
+        while ((at = raw.indexOf(PAGE_BREAK, from)) >= 0) {
+            pages.add(raw.substring(from, at));
+            from = at + PAGE_BREAK.length();
+        }
+        pages.add(raw.substring(from));
+        return pages;
+    }
+
+    /** Null pages are stored as empty ones. */
+    static String join(List<String> pages) {
+        if (pages == null || pages.isEmpty()) return "";
+
+        int len = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            String p = pages.get(i);
+            len += (p == null ? 0 : p.length()) + PAGE_BREAK.length();
+        }
+
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < pages.size(); i++) {
+            if (i > 0) sb.append(PAGE_BREAK);
+            String p = pages.get(i);
+            sb.append(p == null ? "" : p);
+        }
+        return sb.toString();
+    }
+}
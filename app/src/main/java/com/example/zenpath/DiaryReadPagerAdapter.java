@@ -7,17 +7,20 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-
 public class DiaryReadPagerAdapter extends RecyclerView.Adapter<DiaryReadPagerAdapter.VH> {
 
-    private final ArrayList<String> pages;
+    // pages are read as they are bound
+    private final DiaryPageLoader pages;
+    private final int pageCount;
 
-    public DiaryReadPagerAdapter(ArrayList<String> pages) {
-        this.pages = (pages == null) ? new ArrayList<>() : pages;
-        if (this.pages.isEmpty()) this.pages.add("");
+    public DiaryReadPagerAdapter(ZenPathRepository.DiaryEntryRef entry,
+                                 AsyncZenPathRepository repo, LifecycleOwner owner) {
+        pages = new DiaryPageLoader(repo, owner, entry.journalId, this::notifyItemChanged);
+        pageCount = Math.max(1, entry.pageCount);
+        if (entry.pageCount == 0) pages.put(0, "");
     }
 
     @NonNull
@@ -30,17 +33,23 @@ public class DiaryReadPagerAdapter extends RecyclerView.Adapter<DiaryReadPagerAd
 
     @Override
     public void onBindViewHolder(@NonNull VH h, int position) {
+        h.tvPageNum.setText("Page " + (position + 1) + " / " + pageCount);
+
         String text = pages.get(position);
+        if (text == null) {
+            // still being read
+            h.tvMeta.setText("");
+            h.tvBody.setText("");
+            return;
+        }
         if (TextUtils.isEmpty(text)) text = "(Empty page)";
-        int chars = text == null ? 0 : text.length();
-        h.tvMeta.setText(chars + " characters");
+        h.tvMeta.setText(text.length() + " characters");
         h.tvBody.setText(text);
-        h.tvPageNum.setText("Page " + (position + 1) + " / " + pages.size());
     }
 
     @Override
     public int getItemCount() {
-        return pages.size();
+        return pageCount;
     }
 
     static class VH extends RecyclerView.ViewHolder {
@@ -0,0 +1,176 @@
+package com.example.zenpath;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Diary search over the diary_fts index (Android-free parts: query building and ranking).
+ *
+ * diary_fts holds diary pages and mood reflections. A row's docid tells them apart: journal_page
+ * _id * 2 for pages, mood _id * 2 + 1 for reflections. FTS4 has no built-in rank, so matches
+ * are ranked with BM25 over the matchinfo('pcnalx') blob of each row, and an entry is as good
+ * as its best page.
+ */
+final class DiarySearch {
+
+    // snippet() highlight markers (private use chars, never typed by users)
+    static final String HL_START = "\uE000";
+    static final String HL_END = "\uE001";
+    static final String ELLIPSIS = "…";
+
+    static final int MAX_TERMS = 8;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private DiarySearch() {}
+
+    // =========================
+    // ✅ RESULTS
+    // =========================
+    public static final class Hit {
+        final long docId;
+        public final String date;      // yyyy-MM-dd for entries, yyyyMMdd for reflections
+        public final double score;
+        public final String snippet;   // matches wrapped in HL_START / HL_END
+
+        Hit(long docId, String date, double score, String snippet) {
+            this.docId = docId;
+            this.date = date;
+            this.score = score;
+            this.snippet = snippet;
+        }
+
+        public boolean isReflection() {
+            return (docId & 1) == 1;
+        }
+
+        Hit withSnippet(String s) {
+            return new Hit(docId, date, score, s);
+        }
+    }
+
+    public static final class Page {
+        public final List<Hit> hits;
+        public final int offset;
+        public final int total;        // matches over all pages
+
+        Page(List<Hit> hits, int offset, int total) {
+            this.hits = hits;
+            this.offset = offset;
+            this.total = total;
+        }
+
+        public boolean hasMore() {
+            return offset + hits.size() < total;
+        }
+
+        static Page empty(int offset) {
+            return new Page(Collections.<Hit>emptyList(), offset, 0);
+        }
+    }
+
+    static long pageDocId(long pageId) {
+        return pageId * 2;
+    }
+
+    static long reflectionDocId(long moodId) {
+        return moodId * 2 + 1;
+    }
+
+    // =========================
+    // ✅ QUERY
+    // =========================
+    /**
+     * MATCH expression for what the user typed, or null when there is nothing to search.
+     * Every word must match; the word being typed (no trailing space) matches as a prefix.
+     * Words are quoted, so FTS operators and punctuation in the input are plain text.
+     */
+    static String matchQuery(String input) {
+        if (input == null) return null;
+
+        ArrayList<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= input.length(); i++) {
+            char ch = i < input.length() ? input.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                word.append(ch);
+            } else if (word.length() > 0) {
+                if (terms.size() < MAX_TERMS) terms.add(word.toString().toLowerCase(Locale.ROOT));
+                word.setLength(0);
+            }
+        }
+        if (terms.isEmpty()) return null;
+
+        char last = input.charAt(input.length() - 1);
+        boolean typing = Character.isLetterOrDigit(last);
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) sb.append(' ');
+            sb.append('"').append(terms.get(i));
+            if (typing && i == terms.size() - 1) sb.append('*');
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    // =========================
+    // ✅ RANK
+    // =========================
+    /** BM25 of one row for {@code column}, from matchinfo(fts, 'pcnalx'). Higher is better. */
+    static double bm25(byte[] matchinfo, int column) {
+        IntBuffer mi = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = mi.get(0);
+        int columns = mi.get(1);
+        int rows = mi.get(2);
+        double avgLen = Math.max(1, mi.get(3 + column));
+        double len = mi.get(3 + columns + column);
+        int hits = 3 + 2 * columns;
+
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            int x = hits + 3 * (column + p * columns);
+            double tf = mi.get(x);
+            double df = mi.get(x + 2);
+            if (tf <= 0) continue;
+
+            // a term in more than half the rows gets a tiny positive weight instead of a negative one
+            double idf = Math.max(1e-6, Math.log((rows - df + 0.5) / (df + 0.5)));
+            score += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * len / avgLen));
+        }
+        return score;
+    }
+
+    /** One hit per entry or reflection (there is one of each per day): its best scoring page. */
+    static ArrayList<Hit> bestPerEntry(List<Hit> hits) {
+        LinkedHashMap<String, Hit> best = new LinkedHashMap<>();
+        for (Hit h : hits) {
+            String key = (h.isReflection() ? "r" : "e") + h.date;
+            Hit seen = best.get(key);
+            if (seen == null || h.score > seen.score) best.put(key, h);
+        }
+        return new ArrayList<>(best.values());
+    }
+
+    /** Best first; equal scores newest first. */
+    static void sort(List<Hit> hits) {
+        Collections.sort(hits, (a, b) -> {
+            int c = Double.compare(b.score, a.score);
+            if (c != 0) return c;
+            c = normalizedDate(b.date).compareTo(normalizedDate(a.date));
+            return c != 0 ? c : Long.compare(b.docId, a.docId);
+        });
+    }
+
+    // entries use yyyy-MM-dd, reflections yyyyMMdd
+    private static String normalizedDate(String date) {
+        return date == null ? "" : date.replace("-", "");
+    }
+}
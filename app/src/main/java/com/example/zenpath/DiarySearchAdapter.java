@@ -0,0 +1,140 @@
+package com.example.zenpath;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.StyleSpan;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/** Diary search results, same tiles as DiaryHistoryAdapter, loaded a page at a time. */
+public class DiarySearchAdapter extends RecyclerView.Adapter<DiaryHistoryAdapter.VH> {
+
+    public interface OnClick {
+        void onClick(DiarySearch.Hit hit);
+    }
+
+    public interface OnNeedMore {
+        void onNeedMore(int offset);
+    }
+
+    // ask for the next page this many items before the end
+    private static final int PREFETCH = 6;
+
+    private final ArrayList<DiarySearch.Hit> hits = new ArrayList<>();
+    private final OnClick onClick;
+    private final OnNeedMore onNeedMore;
+    private boolean hasMore;
+    private boolean requested;
+
+    public DiarySearchAdapter(OnClick onClick, OnNeedMore onNeedMore) {
+        this.onClick = onClick;
+        this.onNeedMore = onNeedMore;
+    }
+
+    /** First page of a new search. */
+    public void setPage(DiarySearch.Page page) {
+        hits.clear();
+        hits.addAll(page.hits);
+        hasMore = page.hasMore();
+        requested = false;
+        notifyDataSetChanged();
+    }
+
+    /** Next page of the current search; pages for another offset (an older search) are ignored. */
+    public void addPage(DiarySearch.Page page) {
+        if (page.offset != hits.size()) return;
+        int start = hits.size();
+        hits.addAll(page.hits);
+        hasMore = page.hasMore();
+        requested = false;
+        notifyItemRangeInserted(start, page.hits.size());
+    }
+
+    /** The page at {@code offset} could not be read: the next bind near the end asks again. */
+    public void loadFailed(int offset) {
+        if (offset == hits.size()) requested = false;
+    }
+
+    @NonNull
+    @Override
+    public DiaryHistoryAdapter.VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View v = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_diary_history_entry, parent, false);
+        return new DiaryHistoryAdapter.VH(v);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull DiaryHistoryAdapter.VH h, int position) {
+        DiarySearch.Hit hit = hits.get(position);
+
+        String date = prettyDate(hit.date, hit.isReflection() ? "yyyyMMdd" : "yyyy-MM-dd");
+        h.tvDate.setText(hit.isReflection() ? "Reflection · " + date : date);
+        h.tvPreview.setText(highlight(hit.snippet));
+
+        h.itemView.setOnClickListener(v -> {
+            if (onClick != null) onClick.onClick(hit);
+        });
+
+        if (hasMore && !requested && position >= hits.size() - PREFETCH && onNeedMore != null) {
+            requested = true;
+            // not from inside a bind: the callback may end up changing the adapter
+            h.itemView.post(() -> onNeedMore.onNeedMore(hits.size()));
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return hits.size();
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    // snippet markers -> bold + soft highlight
+    static CharSequence highlight(String snippet) {
+        if (snippet == null) return "";
+        SpannableStringBuilder sb = new SpannableStringBuilder();
+        List<int[]> marks = new ArrayList<>();
+
+        int from = 0;
+        int start;
+        while ((start = snippet.indexOf(DiarySearch.HL_START, from)) >= 0) {
+            int end = snippet.indexOf(DiarySearch.HL_END, start);
+            if (end < 0) break;
+            sb.append(snippet, from, start);
+            int s = sb.length();
+            sb.append(snippet, start + DiarySearch.HL_START.length(), end);
+            marks.add(new int[]{s, sb.length()});
+            from = end + DiarySearch.HL_END.length();
+        }
+        sb.append(snippet.substring(from).replace(DiarySearch.HL_START, "").replace(DiarySearch.HL_END, ""));
+
+        for (int[] m : marks) {
+            sb.setSpan(new StyleSpan(Typeface.BOLD), m[0], m[1], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            sb.setSpan(new BackgroundColorSpan(0x40B39DDB), m[0], m[1], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return sb;
+    }
+
+    private static String prettyDate(String raw, String pattern) {
+        try {
+            Date d = new SimpleDateFormat(pattern, Locale.getDefault()).parse(raw);
+            return new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault()).format(d);
+        } catch (Exception e) {
+            return raw;
+        }
+    }
+}
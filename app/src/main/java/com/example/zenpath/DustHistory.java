@@ -0,0 +1,138 @@
+package com.example.zenpath;
+
+import java.util.ArrayList;
+
+/**
+ * Undo history for the marker/eraser dust layer.
+ * Keeps rasterized checkpoints every {@code interval} strokes so an undo only has to
+ * replay the strokes after the nearest checkpoint instead of the whole drawing.
+ * Checkpoints are kept under a byte budget (oldest dropped first).
+ *
+ * No Android types in here: the view plugs in the actual raster through {@link Raster}.
+ */
+public final class DustHistory<T> {
+
+    public interface Raster<T> {
+        /** Copy of the current raster (strokes 0..n-1 already drawn). */
+        T capture();
+
+        /** Memory held by a checkpoint, used for the budget. */
+        long sizeOf(T checkpoint);
+
+        /** Replace the current raster with a checkpoint; null means "empty layer". */
+        void restore(T checkpoint);
+
+        /** Draw stroke #index on top of the current raster. */
+        void replay(int strokeIndex);
+
+        /** Checkpoint is no longer needed. */
+        void release(T checkpoint);
+    }
+
+    private static final class Checkpoint<T> {
+        final int strokeCount;
+        final T data;
+        final long bytes;
+
+        Checkpoint(int strokeCount, T data, long bytes) {
+            this.strokeCount = strokeCount;
+            this.data = data;
+            this.bytes = bytes;
+        }
+    }
+
+    private final Raster<T> raster;
+    private final int interval;
+    private final long budgetBytes;
+
+    // sorted by strokeCount (ascending)
+    private final ArrayList<Checkpoint<T>> checkpoints = new ArrayList<>();
+    private long usedBytes = 0L;
+
+    public DustHistory(Raster<T> raster, int interval, long budgetBytes) {
+        this.raster = raster;
+        this.interval = Math.max(1, interval);
+        this.budgetBytes = Math.max(0L, budgetBytes);
+    }
+
+    // =========================
+    // ✅ CALLED BEFORE A NEW STROKE STARTS
+    // =========================
+    /**
+     * @param completedStrokes strokes already drawn on the raster (i.e. strokes.size() before adding)
+     */
+    public void beforeStroke(int completedStrokes) {
+        dropAfter(completedStrokes);
+        if (completedStrokes <= 0) return;
+
+        int last = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).strokeCount;
+        if (completedStrokes - last < interval) return;
+
+        T data = raster.capture();
+        if (data == null) return;
+
+        long bytes = Math.max(0L, raster.sizeOf(data));
+        if (bytes > budgetBytes) {
+            raster.release(data);
+            return;
+        }
+
+        checkpoints.add(new Checkpoint<>(completedStrokes, data, bytes));
+        usedBytes += bytes;
+
+        // over budget -> drop oldest first (undo far back just replays a bit more)
+        while (usedBytes > budgetBytes && checkpoints.size() > 1) {
+            Checkpoint<T> old = checkpoints.remove(0);
+            usedBytes -= old.bytes;
+            raster.release(old.data);
+        }
+    }
+
+    // =========================
+    // ✅ UNDO
+    // =========================
+    /**
+     * Brings the raster back to the first {@code strokeCount} strokes.
+     * @return how many strokes had to be replayed
+     */
+    public int rollbackTo(int strokeCount) {
+        if (strokeCount < 0) strokeCount = 0;
+        dropAfter(strokeCount);
+
+        Checkpoint<T> base = checkpoints.isEmpty() ? null : checkpoints.get(checkpoints.size() - 1);
+        int from = (base == null) ? 0 : base.strokeCount;
+
+        raster.restore(base == null ? null : base.data);
+        for (int i = from; i < strokeCount; i++) raster.replay(i);
+
+        return strokeCount - from;
+    }
+
+    /** Drop everything (load, clear, snapshot restore). */
+    public void reset() {
+        for (Checkpoint<T> c : checkpoints) raster.release(c.data);
+        checkpoints.clear();
+        usedBytes = 0L;
+    }
+
+    // =========================
+    // ✅ STATS
+    // =========================
+    public int getCheckpointCount() { return checkpoints.size(); }
+
+    public long getCheckpointBytes() { return usedBytes; }
+
+    public int getInterval() { return interval; }
+
+    public long getBudgetBytes() { return budgetBytes; }
+
+    private void dropAfter(int strokeCount) {
+        for (int i = checkpoints.size() - 1; i >= 0; i--) {
+            Checkpoint<T> c = checkpoints.get(i);
+            if (c.strokeCount <= strokeCount) break;
+            checkpoints.remove(i);
+            usedBytes -= c.bytes;
+            raster.release(c.data);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.zenpath;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * Sparse dust layer for the Planet canvas.
+ * The layer is split into TILE x TILE bitmaps that are only allocated when a stamp touches them
+ * and dropped again once an eraser clears them completely.
+ * Coordinates are layer (bitmap) coordinates: 0..width, 0..height.
+ */
+public final class DustTileLayer {
+
+    public static final int TILE = 256;
+
+    private final int width;
+    private final int height;
+    private final int cols;
+    private final int rows;
+
+    // extra margin around a circle for blur mask filters (glow spills past the radius)
+    private final float pad;
+
+    private final Bitmap[] tiles;
+    private final Canvas[] tileCanvases;
+
+    private int allocatedTiles = 0;
+    private long allocatedBytes = 0L;
+
+    public DustTileLayer(int width, int height, float pad) {
+        this.width = width;
+        this.height = height;
+        this.pad = pad;
+        this.cols = (width + TILE - 1) / TILE;
+        this.rows = (height + TILE - 1) / TILE;
+        this.tiles = new Bitmap[cols * rows];
+        this.tileCanvases = new Canvas[cols * rows];
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    // =========================
+    // ✅ DRAW (allocates touched tiles)
+    // =========================
+    public void drawCircle(float cx, float cy, float r, Paint paint) {
+        float reach = r + pad;
+        int c0 = Math.max(0, colOf(cx - reach)), c1 = Math.min(cols - 1, colOf(cx + reach));
+        int r0 = Math.max(0, rowOf(cy - reach)), r1 = Math.min(rows - 1, rowOf(cy + reach));
+        if (c0 > c1 || r0 > r1) return;
+
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int i = row * cols + col;
+                Canvas tc = tileCanvases[i];
+                if (tc == null) tc = allocate(i, col, row);
+                if (tc == null) continue;
+
+                float tx = col * TILE;
+                float ty = row * TILE;
+                tc.drawCircle(cx - tx, cy - ty, r, paint);
+            }
+        }
+    }
+
+    /** Soft glow stamp (a sprite of {@code glow}, tinted by the paint color / alpha). */
+    public void drawGlow(GlowSpriteCache glow, float cx, float cy, float r, float blur, Paint paint) {
+        float reach = r + pad;
+        int c0 = Math.max(0, colOf(cx - reach)), c1 = Math.min(cols - 1, colOf(cx + reach));
+        int r0 = Math.max(0, rowOf(cy - reach)), r1 = Math.min(rows - 1, rowOf(cy + reach));
+        if (c0 > c1 || r0 > r1) return;
+
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int i = row * cols + col;
+                Canvas tc = tileCanvases[i];
+                if (tc == null) tc = allocate(i, col, row);
+                if (tc == null) continue;
+
+                glow.drawCircle(tc, cx - col * TILE, cy - row * TILE, r, blur, paint);
+            }
+        }
+    }
+
+    // =========================
+    // ✅ ERASE (frees fully cleared tiles)
+    // =========================
+    public void clearCircle(float cx, float cy, float r, Paint clearPaint) {
+        int c0 = Math.max(0, colOf(cx - r)), c1 = Math.min(cols - 1, colOf(cx + r));
+        int r0 = Math.max(0, rowOf(cy - r)), r1 = Math.min(rows - 1, rowOf(cy + r));
+        if (c0 > c1 || r0 > r1) return;
+
+        float r2 = r * r;
+
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int i = row * cols + col;
+                if (tiles[i] == null) continue;
+
+                float left = col * TILE;
+                float top = row * TILE;
+                float right = left + tiles[i].getWidth();
+                float bottom = top + tiles[i].getHeight();
+
+                // circle is convex: if all 4 corners are inside, the whole tile is gone
+                if (inside(left, top, cx, cy, r2) && inside(right, top, cx, cy, r2)
+                        && inside(left, bottom, cx, cy, r2) && inside(right, bottom, cx, cy, r2)) {
+                    free(i);
+                } else {
+                    tileCanvases[i].drawCircle(cx - left, cy - top, r, clearPaint);
+                }
+            }
+        }
+    }
+
+    public void clearAll() {
+        for (int i = 0; i < tiles.length; i++) free(i);
+    }
+
+    // =========================
+    // ✅ COMPOSITE (only tiles inside the visible rect)
+    // =========================
+    /**
+     * Draws allocated tiles that intersect [visLeft..visRight] x [visTop..visBottom] (layer coords).
+     * originX/originY is where layer (0,0) lands on the target canvas.
+     */
+    public int draw(Canvas canvas, float originX, float originY,
+                    float visLeft, float visTop, float visRight, float visBottom, Paint paint) {
+        int c0 = Math.max(0, colOf(visLeft)), c1 = Math.min(cols - 1, colOf(visRight));
+        int r0 = Math.max(0, rowOf(visTop)), r1 = Math.min(rows - 1, rowOf(visBottom));
+        if (c0 > c1 || r0 > r1) return 0;
+
+        int drawn = 0;
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                Bitmap b = tiles[row * cols + col];
+                if (b == null) continue;
+                canvas.drawBitmap(b, originX + col * TILE, originY + row * TILE, paint);
+                drawn++;
+            }
+        }
+        return drawn;
+    }
+
+    // =========================
+    // ✅ CHECKPOINTS (used by DustHistory)
+    // =========================
+    public static final class Snapshot {
+        final Bitmap[] tiles;
+        final long bytes;
+
+        Snapshot(Bitmap[] tiles, long bytes) {
+            this.tiles = tiles;
+            this.bytes = bytes;
+        }
+
+        public long getBytes() { return bytes; }
+    }
+
+    /** Copies only the allocated tiles. Returns null if a copy could not be made. */
+    public Snapshot snapshot() {
+        Bitmap[] copy = new Bitmap[tiles.length];
+        long bytes = 0L;
+        try {
+            for (int i = 0; i < tiles.length; i++) {
+                if (tiles[i] == null) continue;
+                copy[i] = tiles[i].copy(Bitmap.Config.ARGB_8888, false);
+                if (copy[i] == null) throw new OutOfMemoryError();
+                bytes += copy[i].getByteCount();
+            }
+        } catch (OutOfMemoryError oom) {
+            release(new Snapshot(copy, 0L));
+            return null;
+        }
+        return new Snapshot(copy, bytes);
+    }
+
+    /** Replaces the layer content with the snapshot (snapshot stays valid). null = empty layer. */
+    public void restore(Snapshot s) {
+        clearAll();
+        if (s == null || s.tiles.length != tiles.length) return;
+
+        for (int i = 0; i < tiles.length; i++) {
+            Bitmap src = s.tiles[i];
+            if (src == null || src.isRecycled()) continue;
+
+            Canvas tc = allocate(i, i % cols, i / cols);
+            if (tc == null) continue;
+            tc.drawBitmap(src, 0, 0, null);
+        }
+    }
+
+    public static void release(Snapshot s) {
+        if (s == null) return;
+        for (int i = 0; i < s.tiles.length; i++) {
+            if (s.tiles[i] != null) s.tiles[i].recycle();
+            s.tiles[i] = null;
+        }
+    }
+
+    // =========================
+    // ✅ STATS
+    // =========================
+    public int getAllocatedTileCount() { return allocatedTiles; }
+
+    public long getAllocatedBytes() { return allocatedBytes; }
+
+    /** Bytes a single full-size ARGB_8888 bitmap would take (what this layer replaces). */
+    public long getFullBitmapBytes() { return (long) width * height * 4L; }
+
+    // =========================
+    // helpers
+    // =========================
+    private Canvas allocate(int i, int col, int row) {
+        int tw = Math.min(TILE, width - col * TILE);
+        int th = Math.min(TILE, height - row * TILE);
+        if (tw <= 0 || th <= 0) return null;
+
+        Bitmap b;
+        try {
+            b = Bitmap.createBitmap(tw, th, Bitmap.Config.ARGB_8888);
+        } catch (OutOfMemoryError oom) {
+            return null;
+        }
+        tiles[i] = b;
+        tileCanvases[i] = new Canvas(b);
+        allocatedTiles++;
+        allocatedBytes += b.getByteCount();
+        return tileCanvases[i];
+    }
+
+    private void free(int i) {
+        Bitmap b = tiles[i];
+        if (b == null) return;
+        allocatedTiles--;
+        allocatedBytes -= b.getByteCount();
+        tiles[i] = null;
+        tileCanvases[i] = null;
+        b.recycle();
+    }
+
+    // tile index for a coordinate; -1 / cols (rows) mark "outside", so a range can come out empty
+    private int colOf(float x) {
+        if (x < 0) return x < -0.5f ? -1 : 0;
+        return Math.min(cols, (int) (x / TILE));
+    }
+
+    private int rowOf(float y) {
+        if (y < 0) return y < -0.5f ? -1 : 0;
+        return Math.min(rows, (int) (y / TILE));
+    }
+
+    private static boolean inside(float px, float py, float cx, float cy, float r2) {
+        float dx = px - cx;
+        float dy = py - cy;
+        return dx * dx + dy * dy <= r2;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.zenpath;
+
+/**
+ * Fixed-timestep accumulator shared by the View (onDraw) and render-thread game loops.
+ *
+ * Each frame calls advance(now) and runs that many steps (nextStep() + one simulation step), so the
+ * simulation sees the same sequence of steps whatever the frame rate or the thread drawing it.
+ * Game time (simTimeMs) only moves by whole steps, which keeps animations in both modes identical.
+ */
+final class FixedStepClock {
+
+    private final long stepNanos;
+    private final int maxStepsPerFrame;
+
+    private long lastNanos = -1L;
+    private long accumulatorNanos = 0L;
+    private long steps = 0L;
+
+    FixedStepClock(int stepsPerSecond, int maxStepsPerFrame) {
+        if (stepsPerSecond <= 0) throw new IllegalArgumentException("stepsPerSecond must be > 0");
+        this.stepNanos = 1_000_000_000L / stepsPerSecond;
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+    }
+
+    /** Step length in seconds (what each simulation step should advance by). */
+    float stepSec() {
+        return stepNanos / 1e9f;
+    }
+
+    /** Number of steps to simulate for a frame at {@code nowNanos}; time beyond the cap is dropped. */
+    int advance(long nowNanos) {
+        if (lastNanos < 0L) {
+            lastNanos = nowNanos;
+            return 0;
+        }
+
+        long elapsed = nowNanos - lastNanos;
+        lastNanos = nowNanos;
+        if (elapsed <= 0L) return 0;
+
+        accumulatorNanos += elapsed;
+        int n = (int) Math.min(maxStepsPerFrame, accumulatorNanos / stepNanos);
+
+        // after a long stall (pause, GC, backgrounded) don't try to catch up on the missed time
+        if (n == maxStepsPerFrame) accumulatorNanos = 0L;
+        else accumulatorNanos -= n * stepNanos;
+        return n;
+    }
+
+    /** Moves game time forward by one step and returns it (call once per step from advance()). */
+    long nextStep() {
+        steps++;
+        return simTimeMs();
+    }
+
+    /** Forget the last frame time (call on resume so the paused time is not simulated). */
+    void reset() {
+        lastNanos = -1L;
+        accumulatorNanos = 0L;
+    }
+
+    long simTimeMs() {
+        return steps * stepNanos / 1_000_000L;
+    }
+}
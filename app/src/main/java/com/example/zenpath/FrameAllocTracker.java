@@ -0,0 +1,44 @@
+package com.example.zenpath;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.view.View;
+
+/**
+ * Counts Java heap allocations made by the current thread while drawing a view.
+ * Used by the draw-allocation instrumentation test to keep onDraw allocation free.
+ *
+ * Debug.startAllocCounting() is deprecated but still implemented by ART, and it is the only
+ * per-thread allocation counter available without a profiler attached.
+ */
+@SuppressWarnings("deprecation")
+public final class FrameAllocTracker {
+
+    private FrameAllocTracker() {}
+
+    /** Runs {@code work} and returns how many objects the calling thread allocated meanwhile. */
+    public static int countAllocations(Runnable work) {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            work.run();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        return Debug.getThreadAllocCount();
+    }
+
+    /**
+     * Draws {@code view} into {@code target} {@code warmUpFrames} times (lazy caches get built),
+     * then {@code frames} more times and returns the allocations of those measured frames.
+     */
+    public static int countDrawAllocations(View view, Bitmap target, int warmUpFrames, int frames) {
+        final Canvas canvas = new Canvas(target);
+        for (int i = 0; i < warmUpFrames; i++) view.draw(canvas);
+
+        return countAllocations(() -> {
+            for (int i = 0; i < frames; i++) view.draw(canvas);
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.zenpath;
+
+import java.util.Arrays;
+
+/**
+ * Always-on frame timing for one custom view (or render thread).
+ *
+ * Per frame: beginFrame(), optionally updateDone() once the simulation part is over, then
+ * endFrame(objects). Recording is a few field writes and never locks or allocates:
+ * the last RING_SIZE frames go into a ring buffer (single writer, published through a
+ * volatile counter), and every frame of the session also lands in a fixed 0.25 ms histogram,
+ * so endSession() can give p50/p95/p99 over the whole session, not just the ring.
+ *
+ * Times are CPU time spent in the frame callback (not vsync-to-vsync); a frame over
+ * JANK_BUDGET_NANOS (one 60 Hz frame) counts as jank.
+ */
+public final class FrameProfiler {
+
+    static final int RING_SIZE = 512;                      // power of two
+    static final long JANK_BUDGET_NANOS = 16_666_667L;
+
+    private static final int BUCKET_US = 250;
+    private static final int BUCKETS = 800;                // 0..200 ms, last bucket = overflow
+
+    /** One finished session (what gets stored in the frame_stats table). */
+    public static final class Summary {
+        public final String name;
+        public final long startedAt, endedAt;             // wall clock ms
+        public final int frames, jankFrames;
+        public final int p50Us, p95Us, p99Us, maxUs;
+        public final int avgUpdateUs, avgDrawUs, avgObjects;
+
+        Summary(String name, long startedAt, long endedAt, int frames, int jankFrames,
+                int p50Us, int p95Us, int p99Us, int maxUs,
+                int avgUpdateUs, int avgDrawUs, int avgObjects) {
+            this.name = name;
+            this.startedAt = startedAt;
+            this.endedAt = endedAt;
+            this.frames = frames;
+            this.jankFrames = jankFrames;
+            this.p50Us = p50Us;
+            this.p95Us = p95Us;
+            this.p99Us = p99Us;
+            this.maxUs = maxUs;
+            this.avgUpdateUs = avgUpdateUs;
+            this.avgDrawUs = avgDrawUs;
+            this.avgObjects = avgObjects;
+        }
+    }
+
+    private final String name;
+
+    // ring of recent frames (writer: the drawing thread)
+    private final int[] ringUpdateUs = new int[RING_SIZE];
+    private final int[] ringDrawUs = new int[RING_SIZE];
+    private final int[] ringObjects = new int[RING_SIZE];
+    private volatile long written = 0L;
+
+    // session accumulators
+    private final int[] histogram = new int[BUCKETS];
+    private long sessionStart = 0L;
+    private int frames, jankFrames, maxUs;
+    private long sumUpdateUs, sumDrawUs, sumObjects;
+
+    // current frame
+    private long frameStartNanos = -1L;
+    private long updateEndNanos = -1L;
+
+    public FrameProfiler(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    // =========================
+    // ✅ RECORD (drawing thread)
+    // =========================
+    public void beginFrame() {
+        frameStartNanos = System.nanoTime();
+        updateEndNanos = -1L;
+    }
+
+    /** Everything since beginFrame() is update time; the rest of the frame is draw time. */
+    public void updateDone() {
+        updateEndNanos = System.nanoTime();
+    }
+
+    public void endFrame(int objects) {
+        if (frameStartNanos < 0L) return;
+        long end = System.nanoTime();
+        long updateNanos = updateEndNanos < 0L ? 0L : updateEndNanos - frameStartNanos;
+        record(updateNanos, end - frameStartNanos - updateNanos, objects);
+        frameStartNanos = -1L;
+    }
+
+    /** Adds one frame with explicit timings (endFrame() ends up here). */
+    void record(long updateNanos, long drawNanos, int objects) {
+        if (frames == 0) sessionStart = System.currentTimeMillis();
+
+        int updateUs = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, updateNanos) / 1000L);
+        int drawUs = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, drawNanos) / 1000L);
+        int totalUs = (int) Math.min(Integer.MAX_VALUE, (long) updateUs + drawUs);
+
+        long w = written;
+        int slot = (int) (w & (RING_SIZE - 1));
+        ringUpdateUs[slot] = updateUs;
+        ringDrawUs[slot] = drawUs;
+        ringObjects[slot] = objects;
+        written = w + 1; // publish after the slot is filled
+
+        histogram[Math.min(BUCKETS - 1, totalUs / BUCKET_US)]++;
+        frames++;
+        if (totalUs * 1000L > JANK_BUDGET_NANOS) jankFrames++;
+        if (totalUs > maxUs) maxUs = totalUs;
+        sumUpdateUs += updateUs;
+        sumDrawUs += drawUs;
+        sumObjects += objects;
+    }
+
+    // =========================
+    // ✅ READ
+    // =========================
+    /** Frames recorded since the profiler was created (keeps counting across sessions). */
+    public long getRecordedFrames() {
+        return written;
+    }
+
+    /**
+     * Copies up to RING_SIZE most recent frames, oldest first; returns how many were copied.
+     * Safe from any thread: a frame written while copying may show up torn, never out of bounds.
+     */
+    public int copyRecent(int[] updateUs, int[] drawUs, int[] objects) {
+        long end = written;
+        int n = (int) Math.min(end, Math.min(RING_SIZE, updateUs.length));
+        long start = end - n;
+        for (int i = 0; i < n; i++) {
+            int slot = (int) ((start + i) & (RING_SIZE - 1));
+            updateUs[i] = ringUpdateUs[slot];
+            drawUs[i] = ringDrawUs[slot];
+            objects[i] = ringObjects[slot];
+        }
+        return n;
+    }
+
+    /**
+     * Closes the current session and starts a new one; null if nothing was drawn.
+     * Call from the drawing thread, or once it has stopped.
+     */
+    public Summary endSession() {
+        if (frames == 0) return null;
+
+        Summary s = new Summary(name, sessionStart, System.currentTimeMillis(), frames, jankFrames,
+                percentileUs(0.50), percentileUs(0.95), percentileUs(0.99), maxUs,
+                (int) (sumUpdateUs / frames), (int) (sumDrawUs / frames), (int) (sumObjects / frames));
+
+        Arrays.fill(histogram, 0);
+        frames = jankFrames = maxUs = 0;
+        sumUpdateUs = sumDrawUs = sumObjects = 0L;
+        sessionStart = 0L;
+        return s;
+    }
+
+    // upper edge of the bucket holding the p-th frame (never above the real max)
+    private int percentileUs(double p) {
+        int rank = (int) Math.ceil(p * frames);
+        if (rank < 1) rank = 1;
+
+        int seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histogram[b];
+            if (seen < rank) continue;
+            // the overflow bucket has no upper edge
+            return b == BUCKETS - 1 ? maxUs : Math.min(maxUs, (b + 1) * BUCKET_US);
+        }
+        return maxUs;
+    }
+}
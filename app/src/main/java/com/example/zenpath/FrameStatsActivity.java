@@ -0,0 +1,79 @@
+package com.example.zenpath;
+
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.CompoundButton;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Hidden debug screen (long-press the date on the home screen): recent frame profiler
+ * sessions per view, plus the render-thread switch for the games.
+ */
+public class FrameStatsActivity extends AppCompatActivity {
+
+    private static final int ROWS = 100;
+
+    private TextView tvStats;
+    private AsyncZenPathRepository repo;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_frame_stats);
+
+        repo = AsyncZenPathRepository.get(this);
+        tvStats = findViewById(R.id.tvFrameStats);
+
+        CompoundButton swRenderThread = findViewById(R.id.swRenderThread);
+        swRenderThread.setChecked(GameRenderMode.isRenderThreadEnabled(this));
+        swRenderThread.setOnCheckedChangeListener((b, checked) ->
+                GameRenderMode.setRenderThreadEnabled(this, checked));
+
+        Button btnClear = findViewById(R.id.btnClearFrameStats);
+        btnClear.setOnClickListener(v ->
+                repo.write(this, r -> { r.clearFrameStats(); return null; }, ignored -> load()));
+
+        findViewById(R.id.btnCloseFrameStats).setOnClickListener(v -> finish());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        load();
+    }
+
+    private void load() {
+        repo.read(this, r -> r.getRecentFrameStats(ROWS), this::bind);
+    }
+
+    private void bind(ArrayList<ZenPathRepository.FrameStatsRow> rows) {
+        if (rows == null || rows.isEmpty()) {
+            tvStats.setText("No sessions yet. Play a game, then come back.");
+            return;
+        }
+
+        SimpleDateFormat fmt = new SimpleDateFormat("MM-dd HH:mm", Locale.US);
+        StringBuilder sb = new StringBuilder();
+        for (ZenPathRepository.FrameStatsRow row : rows) {
+            FrameProfiler.Summary s = row.stats;
+            sb.append(fmt.format(new Date(s.startedAt)))
+                    .append("  ").append(s.name)
+                    .append("  v").append(row.appVersion == null ? "?" : row.appVersion)
+                    .append('\n');
+            sb.append(String.format(Locale.US,
+                    "  %d frames, jank %d (%.1f%%)%n  p50 %.2f  p95 %.2f  p99 %.2f  max %.2f ms%n" +
+                            "  update %.2f  draw %.2f ms, %d objects%n%n",
+                    s.frames, s.jankFrames, s.frames == 0 ? 0f : 100f * s.jankFrames / s.frames,
+                    s.p50Us / 1000f, s.p95Us / 1000f, s.p99Us / 1000f, s.maxUs / 1000f,
+                    s.avgUpdateUs / 1000f, s.avgDrawUs / 1000f, s.avgObjects));
+        }
+        tvStats.setText(sb.toString());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+
+import androidx.core.content.pm.PackageInfoCompat;
+
+/**
+ * Saves FrameProfiler sessions to the frame_stats table (on the repository's writer thread).
+ * Views call endSession() when they leave the screen.
+ */
+public final class FrameStatsRecorder {
+
+    // shorter sessions are mostly first-frame setup and would only add noise
+    private static final int MIN_FRAMES = 30;
+
+    private static volatile String appVersion;
+
+    private FrameStatsRecorder() {}
+
+    public static void endSession(Context context, FrameProfiler profiler) {
+        if (context == null || profiler == null) return;
+
+        final FrameProfiler.Summary s = profiler.endSession();
+        if (s == null || s.frames < MIN_FRAMES) return;
+
+        final String version = appVersion(context);
+        AsyncZenPathRepository.get(context).write(r -> r.insertFrameStats(s, version));
+    }
+
+    static String appVersion(Context context) {
+        String v = appVersion;
+        if (v != null) return v;
+
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            v = info.versionName + " (" + PackageInfoCompat.getLongVersionCode(info) + ")";
+        } catch (Exception e) {
+            v = "?";
+        }
+        appVersion = v;
+        return v;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.zenpath;
+
+import android.content.Context;
+
+/**
+ * Opt-in switch for drawing the games on their own render thread (GameSurfaceView)
+ * instead of View.onDraw. Off by default; read when a game screen is created.
+ */
+public final class GameRenderMode {
+
+    private static final String PREFS = "zenpath_render";
+    private static final String KEY_RENDER_THREAD = "render_thread";
+
+    private GameRenderMode() {}
+
+    public static boolean isRenderThreadEnabled(Context ctx) {
+        return ctx.getSharedPreferences(PREFS, Context.MODE_PRIVATE)
+                .getBoolean(KEY_RENDER_THREAD, false);
+    }
+
+    public static void setRenderThreadEnabled(Context ctx, boolean enabled) {
+        ctx.getSharedPreferences(PREFS, Context.MODE_PRIVATE)
+                .edit()
+                .putBoolean(KEY_RENDER_THREAD, enabled)
+                .apply();
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Process;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Opt-in render-thread host for a game canvas (see GameRenderMode).
+ *
+ * The game runs its fixed-timestep simulation and draws into this SurfaceView's surface on a
+ * dedicated thread, so layout, text input and touch handling on the UI thread never wait on it.
+ * Touches are copied into a TouchQueue and replayed on the render thread before the next step;
+ * anything else that changes game state from the UI thread goes through queueEvent().
+ *
+ * Lifecycle: the thread runs while the surface exists; setPaused() stops stepping (the last
+ * frame stays on screen), onPause()/onResume() follow the activity. Queued events still run
+ * while the activity is paused, so a save in onPause() can read the game through the thread.
+ */
+public class GameSurfaceView extends SurfaceView implements SurfaceHolder.Callback {
+
+    /** A game that can be driven by this host or by its own View.onDraw (same steps either way). */
+    public interface Game {
+        /** Surface / view size in px. Called on the thread that steps the game. */
+        void onGameSize(int w, int h);
+
+        /** UI thread: should this touch go to the game (false lets views underneath get it). */
+        boolean acceptsTouch(float x, float y);
+
+        void onGameTouch(int action, float x, float y);
+
+        /** One fixed step of {@code dtSec}; {@code simTimeMs} is game time after the step. */
+        void step(long simTimeMs, float dtSec);
+
+        void render(Canvas c, long simTimeMs);
+
+        /** Things simulated/drawn this frame (for FrameProfiler). */
+        int frameObjectCount();
+    }
+
+    private static final String TAG = "GameSurfaceView";
+
+    static final int STEPS_PER_SECOND = 60;
+    static final int MAX_STEPS_PER_FRAME = 5;
+
+    private final Game game;
+    private final TouchQueue touches = new TouchQueue(64, MotionEvent.ACTION_MOVE);
+    private final FixedStepClock clock = new FixedStepClock(STEPS_PER_SECOND, MAX_STEPS_PER_FRAME);
+    private final FrameProfiler profiler;
+
+    // guarded by lock
+    private final Object lock = new Object();
+    private final ArrayList<Runnable> events = new ArrayList<>();
+    private boolean hasSurface = false;
+    private boolean paused = false;
+    private boolean resumed = true;
+    private boolean needsFrame = false;
+    private int surfaceW, surfaceH;
+    private boolean sizeChanged = false;
+
+    private RenderThread thread;
+
+    public GameSurfaceView(Context context, Game game) {
+        super(context);
+        this.game = game;
+        this.profiler = new FrameProfiler(game.getClass().getSimpleName() + "@render");
+        getHolder().addCallback(this);
+        setFocusable(true);
+    }
+
+    /** Puts a new GameSurfaceView where {@code placeholder} is (same parent, index and layout params). */
+    public static GameSurfaceView replace(View placeholder, Game game) {
+        ViewGroup parent = (ViewGroup) placeholder.getParent();
+        GameSurfaceView surface = new GameSurfaceView(placeholder.getContext(), game);
+        surface.setId(placeholder.getId());
+
+        int index = parent.indexOfChild(placeholder);
+        ViewGroup.LayoutParams lp = placeholder.getLayoutParams();
+        parent.removeViewAt(index);
+        parent.addView(surface, index, lp);
+        return surface;
+    }
+
+    // =========================
+    // ✅ CONTROL (UI thread)
+    // =========================
+    public void setPaused(boolean p) {
+        synchronized (lock) {
+            paused = p;
+            needsFrame = true;
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isPaused() {
+        synchronized (lock) {
+            return paused;
+        }
+    }
+
+    /** Runs {@code r} on the render thread before the next step (or inline if no thread is running). */
+    public void queueEvent(Runnable r) {
+        synchronized (lock) {
+            if (thread != null) {
+                events.add(r);
+                needsFrame = true;
+                lock.notifyAll();
+                return;
+            }
+        }
+        r.run();
+    }
+
+    /** queueEvent() that returns once {@code r} has run (UI thread reads of game state, e.g. a save). */
+    public void queueEventAndWait(Runnable r) {
+        CountDownLatch done = new CountDownLatch(1);
+        queueEvent(() -> {
+            try {
+                r.run();
+            } finally {
+                done.countDown();
+            }
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void onResume() {
+        synchronized (lock) {
+            resumed = true;
+            needsFrame = true;
+            lock.notifyAll();
+        }
+    }
+
+    public void onPause() {
+        synchronized (lock) {
+            resumed = false;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        float x = event.getX();
+        float y = event.getY();
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN && !game.acceptsTouch(x, y)) return false;
+
+        if (touches.offer(event.getActionMasked(), x, y)) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+        return true;
+    }
+
+    // =========================
+    // ✅ SURFACE
+    // =========================
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        synchronized (lock) {
+            hasSurface = true;
+            needsFrame = true;
+            if (thread == null) {
+                thread = new RenderThread(holder);
+                thread.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        synchronized (lock) {
+            surfaceW = width;
+            surfaceH = height;
+            sizeChanged = true;
+            needsFrame = true;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        RenderThread t;
+        synchronized (lock) {
+            hasSurface = false;
+            t = thread;
+            thread = null;
+            if (t != null) t.running = false;
+            lock.notifyAll();
+        }
+
+        // the surface must not be used after this returns
+        if (t != null) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // events queued after the thread stopped still have to happen
+        runQueuedEvents();
+
+        // the render thread is gone, so reading its profiler here is safe
+        FrameStatsRecorder.endSession(getContext(), profiler);
+    }
+
+    // =========================
+    // ✅ RENDER THREAD
+    // =========================
+    private final class RenderThread extends Thread implements TouchQueue.Sink {
+        private final SurfaceHolder holder;
+        volatile boolean running = true;
+
+        RenderThread(SurfaceHolder holder) {
+            super("GameRender");
+            this.holder = holder;
+        }
+
+        @Override
+        public void run() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_DISPLAY);
+
+            while (true) {
+                boolean stepping;
+                int w = 0, h = 0;
+                boolean resized;
+
+                synchronized (lock) {
+                    while (running && !canRun()) {
+                        // paused or hidden: don't simulate the time spent waiting
+                        clock.reset();
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    if (!running) return;
+
+                    stepping = !paused && resumed;
+                    resized = sizeChanged;
+                    if (resized) {
+                        w = surfaceW;
+                        h = surfaceH;
+                        sizeChanged = false;
+                    }
+                    needsFrame = false;
+                }
+
+                if (resized) game.onGameSize(w, h);
+                runQueuedEvents();
+                touches.drain(this);
+
+                profiler.beginFrame();
+                if (stepping) {
+                    int n = clock.advance(System.nanoTime());
+                    float dt = clock.stepSec();
+                    for (int i = 0; i < n; i++) game.step(clock.nextStep(), dt);
+                }
+                profiler.updateDone();
+
+                drawFrame();
+            }
+        }
+
+        private boolean canRun() {
+            if (!hasSurface) return false;
+            if (!events.isEmpty()) return true;
+            if (!resumed) return false;
+            return !paused || needsFrame || touches.size() > 0;
+        }
+
+        private void drawFrame() {
+            Canvas c = null;
+            try {
+                // unlockCanvasAndPost blocks on the buffer queue, which paces the loop to the display
+                c = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                        ? holder.lockHardwareCanvas()
+                        : holder.lockCanvas();
+                if (c == null) return;
+                game.render(c, clock.simTimeMs());
+                // stop timing before unlockCanvasAndPost, which waits for a free buffer
+                profiler.endFrame(game.frameObjectCount());
+            } catch (Exception e) {
+                Log.w(TAG, "render failed", e);
+            } finally {
+                if (c != null) {
+                    try { holder.unlockCanvasAndPost(c); } catch (Exception ignored) {}
+                }
+            }
+        }
+
+        @Override
+        public void onTouch(int action, float x, float y) {
+            game.onGameTouch(action, x, y);
+        }
+    }
+
+    private void runQueuedEvents() {
+        Runnable[] todo;
+        synchronized (lock) {
+            if (events.isEmpty()) return;
+            todo = events.toArray(new Runnable[0]);
+            events.clear();
+        }
+        for (Runnable r : todo) r.run();
+    }
+}
@@ -40,8 +40,6 @@ public class GameTimeTracker {
         long userId = currentUserId(ctx);
         if (userId <= 0) return;
 
-        ZenPathRepository repo = new ZenPathRepository(ctx);
-
         String gameKey;
         if ("Star Sweep".equalsIgnoreCase(gameName)) {
             gameKey = "STAR_SWEEP";
@@ -53,8 +51,8 @@ public class GameTimeTracker {
             return;
         }
 
-        // ✅ matches repository signature
-        repo.addGamePlaytime(userId, dateKey, gameKey, seconds);
+        // ✅ journaled right away, written to the db in batches off the main thread (game screens call this from onPause)
+        PlaytimeRecorder.get(ctx).add(userId, dateKey, gameKey, seconds);
     }
 
     private long currentUserId(Context ctx) {
@@ -0,0 +1,313 @@
+package com.example.zenpath;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.util.LruCache;
+
+/**
+ * Pre-rendered soft glows shared by the game views (replaces BlurMaskFilter paints).
+ *
+ * Every glow (circle, ring, line, shooting-star streak) is blurred once into a small ALPHA_8 mask.
+ * drawBitmap tints ALPHA_8 bitmaps with the paint color and alpha, so one sprite serves every color
+ * and callers keep animating alpha/color through their own Paint.
+ * Sizes are snapped to ~10% buckets and the sprite is scaled to the exact size when drawn.
+ * Big sprites are rendered at reduced resolution (a wide blur has no detail to lose).
+ *
+ * Main thread only (lookups reuse one probe key and scratch rects, so drawing never allocates).
+ * A game drawing on its own render thread uses a private cache from newForThread().
+ */
+public final class GlowSpriteCache {
+
+    private static final int KIND_CIRCLE = 0;
+    private static final int KIND_RING = 1;
+    private static final int KIND_STREAK = 2;
+
+    private static final float BUCKET_STEP = 1.10f;
+    private static final double LOG_STEP = Math.log(BUCKET_STEP);
+
+    // longest sprite side in pixels; larger glows are rendered smaller and scaled up
+    private static final int MAX_SIDE = 512;
+    static final int BUDGET_BYTES = 4 * 1024 * 1024;
+
+    // a NORMAL blur fades out at roughly 3 sigma (sigma ~ 0.58 * radius)
+    private static final float BLUR_REACH = 1.8f;
+
+    private static GlowSpriteCache instance;
+
+    public static GlowSpriteCache get() {
+        if (instance == null) instance = new GlowSpriteCache();
+        return instance;
+    }
+
+    /** Separate cache for one render thread (the shared one is main thread only). */
+    public static GlowSpriteCache newForThread() {
+        return new GlowSpriteCache();
+    }
+
+    private static final class Key {
+        int kind;
+        int bucket;
+        int strokePx;
+        int blurPx;
+
+        Key set(int kind, int bucket, int strokePx, int blurPx) {
+            this.kind = kind;
+            this.bucket = bucket;
+            this.strokePx = strokePx;
+            this.blurPx = blurPx;
+            return this;
+        }
+
+        Key copy() {
+            return new Key().set(kind, bucket, strokePx, blurPx);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return kind == k.kind && bucket == k.bucket && strokePx == k.strokePx && blurPx == k.blurPx;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = kind;
+            h = h * 31 + bucket;
+            h = h * 31 + strokePx;
+            h = h * 31 + blurPx;
+            return h;
+        }
+    }
+
+    private static final class Sprite {
+        final Bitmap bitmap;
+        // size the sprite was rendered for: circle/ring radius, or streak length
+        final float size;
+        // half of the sprite extent in the same units as size (x and y)
+        final float halfW, halfH;
+
+        Sprite(Bitmap bitmap, float size, float halfW, float halfH) {
+            this.bitmap = bitmap;
+            this.size = size;
+            this.halfW = halfW;
+            this.halfH = halfH;
+        }
+    }
+
+    // evicted sprites are not recycled: a display list may still reference them this frame
+    private final LruCache<Key, Sprite> sprites = new LruCache<Key, Sprite>(BUDGET_BYTES) {
+        @Override
+        protected int sizeOf(Key key, Sprite value) {
+            return value.bitmap.getByteCount();
+        }
+    };
+
+    private final Key probe = new Key();
+    private final Paint maskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Rect src = new Rect();
+    private final RectF dst = new RectF();
+
+    private GlowSpriteCache() {}
+
+    // =========================
+    // ✅ DRAW
+    // =========================
+    /** Blurred filled circle, same look as drawCircle with a BlurMaskFilter(blur, NORMAL) paint. */
+    public void drawCircle(Canvas c, float cx, float cy, float radius, float blur, Paint paint) {
+        if (radius <= 0f) return;
+        Sprite s = circle(radius, blur);
+        if (s == null) return;
+
+        float k = radius / s.size;
+        float hw = s.halfW * k;
+        dst.set(cx - hw, cy - hw, cx + hw, cy + hw);
+        draw(c, s.bitmap, null, dst, paint);
+    }
+
+    /** Blurred stroked circle; strokeWidth and blur stay fixed while the radius animates. */
+    public void drawRing(Canvas c, float cx, float cy, float radius, float strokeWidth, float blur, Paint paint) {
+        if (radius <= 0f) return;
+        int bucket = bucketOf(radius);
+        Sprite s = lookup(KIND_RING, bucket, Math.round(strokeWidth), Math.round(blur));
+        if (s == null) s = render(KIND_RING, bucket, strokeWidth, blur);
+        if (s == null) return;
+
+        float k = radius / s.size;
+        float hw = s.halfW * k;
+        dst.set(cx - hw, cy - hw, cx + hw, cy + hw);
+        draw(c, s.bitmap, null, dst, paint);
+    }
+
+    /** Blurred round-capped line: two caps from a glow dot plus its center column stretched. */
+    public void drawLine(Canvas c, float ax, float ay, float bx, float by, float strokeWidth, float blur, Paint paint) {
+        float dx = bx - ax;
+        float dy = by - ay;
+        float len = (float) Math.sqrt(dx * dx + dy * dy);
+
+        float radius = strokeWidth * 0.5f;
+        Sprite s = circle(radius, blur);
+        if (s == null) return;
+
+        Bitmap b = s.bitmap;
+        int mid = b.getWidth() / 2;
+        float h = s.halfW * (radius / s.size);
+
+        c.save();
+        c.translate(ax, ay);
+        c.rotate((float) Math.toDegrees(Math.atan2(dy, dx)));
+
+        src.set(0, 0, mid, b.getHeight());
+        dst.set(-h, -h, 0f, h);
+        draw(c, b, src, dst, paint);
+
+        if (len > 0f) {
+            src.set(mid, 0, mid + 1, b.getHeight());
+            dst.set(0f, -h, len, h);
+            draw(c, b, src, dst, paint);
+        }
+
+        src.set(mid, 0, b.getWidth(), b.getHeight());
+        dst.set(len, -h, len + h, h);
+        draw(c, b, src, dst, paint);
+
+        c.restore();
+    }
+
+    /**
+     * Shooting-star glow along +x from 0 (transparent end) to length (bright head),
+     * in the caller's local frame. The fade profile is baked into the sprite.
+     */
+    public void drawStreak(Canvas c, float length, float strokeWidth, float blur, Paint paint) {
+        if (length <= 0f) return;
+        int bucket = bucketOf(length);
+        int strokePx = Math.round(strokeWidth);
+        Sprite s = lookup(KIND_STREAK, bucket, strokePx, Math.round(blur));
+        if (s == null) s = render(KIND_STREAK, bucket, strokeWidth, blur);
+        if (s == null) return;
+
+        float kx = length / s.size;
+        float pad = s.halfW - s.size * 0.5f;
+        dst.set(-pad * kx, -s.halfH, length + pad * kx, s.halfH);
+        draw(c, s.bitmap, null, dst, paint);
+    }
+
+    /** How far past its radius a glow with this blur spills. */
+    public static float reachOf(float blur) {
+        return Math.max(0f, blur) * BLUR_REACH + 2f;
+    }
+
+    // =========================
+    // ✅ STATS
+    // =========================
+    public int getSpriteCount() { return sprites.snapshot().size(); }
+
+    /** LruCache sizes are bytes here. */
+    public int getBytes() { return sprites.size(); }
+
+    public int getHitCount() { return sprites.hitCount(); }
+
+    public int getMissCount() { return sprites.missCount(); }
+
+    public void clear() { sprites.evictAll(); }
+
+    // =========================
+    // helpers
+    // =========================
+    private Sprite circle(float radius, float blur) {
+        int bucket = bucketOf(radius);
+        Sprite s = lookup(KIND_CIRCLE, bucket, 0, Math.round(blur));
+        if (s == null) s = render(KIND_CIRCLE, bucket, 0f, blur);
+        return s;
+    }
+
+    private Sprite lookup(int kind, int bucket, int strokePx, int blurPx) {
+        return sprites.get(probe.set(kind, bucket, strokePx, blurPx));
+    }
+
+    private static int bucketOf(float size) {
+        return (int) Math.round(Math.log(Math.max(0.5f, size)) / LOG_STEP);
+    }
+
+    private static float sizeOf(int bucket) {
+        return (float) Math.pow(BUCKET_STEP, bucket);
+    }
+
+    private Sprite render(int kind, int bucket, float stroke, float blur) {
+        float size = sizeOf(bucket);
+        float reach = reachOf(blur);
+
+        float halfW, halfH;
+        if (kind == KIND_STREAK) {
+            halfW = size * 0.5f + stroke * 0.5f + reach;
+            halfH = stroke * 0.5f + reach;
+        } else {
+            halfW = size + stroke * 0.5f + reach;
+            halfH = halfW;
+        }
+
+        float scale = Math.min(1f, MAX_SIDE / (2f * Math.max(halfW, halfH)));
+        int bw = Math.max(1, (int) Math.ceil(2f * halfW * scale));
+        int bh = Math.max(1, (int) Math.ceil(2f * halfH * scale));
+
+        Bitmap bmp;
+        try {
+            bmp = Bitmap.createBitmap(bw, bh, Bitmap.Config.ALPHA_8);
+        } catch (OutOfMemoryError oom) {
+            return null;
+        }
+
+        Canvas c = new Canvas(bmp);
+        c.scale(bw / (2f * halfW), bh / (2f * halfH));
+        c.translate(halfW, halfH);
+
+        maskPaint.reset();
+        maskPaint.setAntiAlias(true);
+        maskPaint.setColor(Color.WHITE);
+        if (blur > 0f) maskPaint.setMaskFilter(new BlurMaskFilter(blur, BlurMaskFilter.Blur.NORMAL));
+
+        if (kind == KIND_CIRCLE) {
+            maskPaint.setStyle(Paint.Style.FILL);
+            c.drawCircle(0f, 0f, size, maskPaint);
+        } else if (kind == KIND_RING) {
+            maskPaint.setStyle(Paint.Style.STROKE);
+            maskPaint.setStrokeWidth(stroke);
+            c.drawCircle(0f, 0f, size, maskPaint);
+        } else {
+            float x0 = -size * 0.5f;
+            float x1 = size * 0.5f;
+            maskPaint.setStyle(Paint.Style.STROKE);
+            maskPaint.setStrokeWidth(stroke);
+            maskPaint.setStrokeCap(Paint.Cap.ROUND);
+            maskPaint.setShader(new LinearGradient(
+                    x0, 0f, x1, 0f,
+                    new int[]{
+                            Color.argb(0, 255, 255, 255),
+                            Color.argb(195, 255, 255, 255),
+                            Color.argb(255, 255, 255, 255)
+                    },
+                    new float[]{0f, 0.65f, 1f},
+                    Shader.TileMode.CLAMP
+            ));
+            c.drawLine(x0, 0f, x1, 0f, maskPaint);
+        }
+        maskPaint.setMaskFilter(null);
+        maskPaint.setShader(null);
+
+        Sprite s = new Sprite(bmp, size, halfW, halfH);
+        sprites.put(probe.copy(), s);
+        return s;
+    }
+
+    private static void draw(Canvas c, Bitmap b, Rect srcRect, RectF dstRect, Paint paint) {
+        // sprites are almost always scaled: keep them smooth
+        if (!paint.isFilterBitmap()) paint.setFilterBitmap(true);
+        c.drawBitmap(b, srcRect, dstRect, paint);
+    }
+}
@@ -34,6 +34,9 @@ public class HomeLoginActivity extends AppCompatActivity {
 
         // ✅ IMPORTANT: this id must exist in activity_login.xml
 
+        // ✅ open (and migrate) the database on its writer thread while the ambient preview runs
+        AsyncZenPathRepository.get(this);
+
         // OPTIONAL: Delay before going to Login screen (visual effect)
         // Set to 0 if you want instant navigation
         handler.postDelayed(() -> {
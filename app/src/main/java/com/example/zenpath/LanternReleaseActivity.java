@@ -11,6 +11,8 @@ import androidx.appcompat.app.AppCompatActivity;
 public class LanternReleaseActivity extends AppCompatActivity {
 
     private LanternReleaseView lanternView;
+    // ✅ opt-in render thread (null = the view draws itself in onDraw)
+    private GameSurfaceView gameSurface;
     private TextView tvTotal, tvBadge, tvMessage;
 
     private GameTimeTracker playTracker;
@@ -31,6 +33,10 @@ public class LanternReleaseActivity extends AppCompatActivity {
         setContentView(R.layout.activity_lantern_release);
 
         lanternView = findViewById(R.id.lanternView);
+        if (lanternView != null && GameRenderMode.isRenderThreadEnabled(this)) {
+            gameSurface = GameSurfaceView.replace(lanternView, lanternView);
+            lanternView.setRenderHost(gameSurface);
+        }
         tvTotal = findViewById(R.id.tvTotal);
         tvBadge = findViewById(R.id.tvBadge);
         tvMessage = findViewById(R.id.tvMessage);
@@ -120,6 +126,7 @@ public class LanternReleaseActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+        if (gameSurface != null) gameSurface.onResume();
         if (playTracker == null) playTracker = new GameTimeTracker("Lantern Release");
         playTracker.start();
 
@@ -129,6 +136,7 @@ public class LanternReleaseActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         super.onPause();
+        if (gameSurface != null) gameSurface.onPause();
         if (playTracker != null) playTracker.stopAndSave(this);
 
         // if leaving the activity, fallback to main
@@ -3,7 +3,8 @@ package com.example.zenpath;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.graphics.*;
-import android.os.SystemClock;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.InputType;
 import android.text.TextPaint;
 import android.util.AttributeSet;
@@ -17,7 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-public class LanternReleaseView extends View {
+public class LanternReleaseView extends View implements GameSurfaceView.Game {
 
     // =========================
     // UI listener (matches your Activity)
@@ -33,6 +34,25 @@ public class LanternReleaseView extends View {
         pushUi();
     }
 
+    // =========================
+    // Render mode
+    // =========================
+    // null = drawn by onDraw; otherwise stepped and drawn on the host's render thread
+    private GameSurfaceView host;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // View mode clock (the host has its own); both step at the same fixed rate
+    private final FixedStepClock clock =
+            new FixedStepClock(GameSurfaceView.STEPS_PER_SECOND, GameSurfaceView.MAX_STEPS_PER_FRAME);
+    private long simNow = 0;
+
+    private int gameW, gameH;
+
+    /** Hands stepping and drawing to {@code surface} (call once, before the game starts). */
+    public void setRenderHost(GameSurfaceView surface) {
+        host = surface;
+    }
+
     // =========================
     // Lantern model
     // =========================
@@ -47,13 +67,32 @@ public class LanternReleaseView extends View {
 
         long glowEndMs = 0;
         final RectF bounds = new RectF();
+
+        // laid out when the message is saved (and on size changes), never while drawing
+        MessageLayout layout = null;
+    }
+
+    // Immutable wrapped message: lines ready for drawText
+    private static final class MessageLayout {
+        final String[] lines;
+        final float width;
+
+        MessageLayout(String[] lines, float width) {
+            this.lines = lines;
+            this.width = width;
+        }
     }
 
+    private static final int MESSAGE_MAX_LINES = 5;
+
     private final List<Lantern> lanterns = new ArrayList<>();
+
+    private final FrameProfiler profiler = new FrameProfiler("LanternReleaseView");
     private final Random rng = new Random();
 
-    private boolean running = false;
-    private boolean finished = false;
+    // written by the game (render thread in host mode), read by the Activity
+    private volatile boolean running = false;
+    private volatile boolean finished = false;
 
     private int totalScore = 0;
     private String badge = "—";
@@ -87,9 +126,37 @@ public class LanternReleaseView extends View {
     private final Paint shadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
 
     private final TextPaint msgPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint msgShadowPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
 
-    // timing
-    private long lastMs = 0;
+    private final MessageWrap.Measurer msgMeasurer = new MessageWrap.Measurer() {
+        @Override
+        public float width(CharSequence text, int start, int end) {
+            return msgPaint.measureText(text, start, end);
+        }
+
+        @Override
+        public int fit(CharSequence text, int start, int end, float maxWidth) {
+            return msgPaint.breakText(text, start, end, true, maxWidth, null);
+        }
+    };
+
+    // ✅ per-frame objects, allocated once (lanterns are drawn in their own local space)
+    private final Paint paperFill = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paperShade = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint rimFill = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint seamPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint flamePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint flameDotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bubblePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private final RectF paperRect = new RectF();
+    private final RectF rimRect = new RectF();
+    private final RectF shadowRect = new RectF();
+    private final RectF msgRect = new RectF();
+
+    // shaders depend only on lantern size (same for every lantern) -> built once per size
+    private float shaderW = -1f, shaderH = -1f;
+    private Shader glowShader, paperShader, flameShader;
 
     public LanternReleaseView(Context c) { super(c); init(); }
     public LanternReleaseView(Context c, @Nullable AttributeSet a) { super(c, a); init(); }
@@ -126,6 +193,22 @@ public class LanternReleaseView extends View {
         msgPaint.setTextSize(sp(12));
         msgPaint.setTypeface(Typeface.create(Typeface.SANS_SERIF, Typeface.BOLD));
 
+        msgShadowPaint.set(msgPaint);
+        msgShadowPaint.setColor(Color.argb(140, 0, 0, 0));
+
+        paperFill.setStyle(Paint.Style.FILL);
+        paperFill.setColor(Color.argb(235, 246, 234, 205));
+
+        rimFill.setColor(Color.argb(255, 210, 195, 165));
+
+        seamPaint.setStyle(Paint.Style.STROKE);
+        seamPaint.setStrokeWidth(dp(1.4f));
+        seamPaint.setColor(Color.argb(110, 90, 70, 45));
+
+        flameDotPaint.setColor(Color.argb(230, 255, 175, 90));
+
+        bubblePaint.setColor(Color.argb(140, 0, 0, 0));
+
         // stars
         starPaint.setColor(Color.WHITE);
         starPaint.setStyle(Paint.Style.FILL);
@@ -143,6 +226,10 @@ public class LanternReleaseView extends View {
     public boolean isFinished() { return finished; }
 
     public void play() {
+        onGame(this::playNow);
+    }
+
+    private void playNow() {
         if (lanterns.isEmpty()) {
             hudMessage = "Place a lantern first ✨";
             pushUi();
@@ -162,10 +249,17 @@ public class LanternReleaseView extends View {
             l.vy = -dp(55) - rng.nextFloat() * dp(18);
         }
 
-        invalidate();
+        if (host == null) {
+            clock.reset();
+            invalidate();
+        }
     }
 
     public void playAgain() {
+        onGame(this::playAgainNow);
+    }
+
+    private void playAgainNow() {
         running = false;
         finished = false;
         hudMessage = "Tap to place a lantern ✨";
@@ -178,10 +272,14 @@ public class LanternReleaseView extends View {
             l.glowEndMs = 0;
         }
 
-        invalidate();
+        if (host == null) invalidate();
     }
 
     public void resetToday() {
+        onGame(this::resetTodayNow);
+    }
+
+    private void resetTodayNow() {
         lanterns.clear();
         totalScore = 0;
         badge = "—";
@@ -189,7 +287,7 @@ public class LanternReleaseView extends View {
         finished = false;
         hudMessage = "Tap to place a lantern ✨";
         pushUi();
-        invalidate();
+        if (host == null) invalidate();
     }
 
     // ✅ Compatibility: some versions of your Activity called this
@@ -202,42 +300,51 @@ public class LanternReleaseView extends View {
     // =========================
     @Override
     public boolean onTouchEvent(MotionEvent e) {
-        if (e.getAction() != MotionEvent.ACTION_DOWN) return true;
+        onGameTouch(e.getActionMasked(), e.getX(), e.getY());
+        return true;
+    }
 
-        float x = e.getX();
-        float y = e.getY();
+    @Override
+    public boolean acceptsTouch(float x, float y) {
+        return true;
+    }
+
+    @Override
+    public void onGameTouch(int action, float x, float y) {
+        if (action != MotionEvent.ACTION_DOWN) return;
 
         Lantern hit = findLanternAt(x, y);
 
         if (!running) {
             // Before Play: tap lantern = edit message; tap empty = place
             if (hit != null) {
-                openMessageDialog(hit);
+                String message = hit.message;
+                onMain(() -> openMessageDialog(hit, message));
             } else {
                 placeLantern(x, y);
                 hudMessage = "Tap a lantern to add a message ✨";
                 pushUi();
-                invalidate();
+                if (host == null) invalidate();
             }
-            return true;
+            return;
         }
 
         // During flight: tap lantern = glow + reveal message
         if (hit != null) {
             hit.glowing = true;
             hit.messageVisible = true;
-            hit.glowEndMs = SystemClock.uptimeMillis() + 2500;
+            // game time, so the glow lasts the same number of steps in both render modes
+            hit.glowEndMs = simNow + 2500;
             totalScore += 10;
             updateBadge();
             hudMessage = "Glow ✨";
             pushUi();
-            invalidate();
+            if (host == null) invalidate();
         }
-
-        return true;
     }
 
-    private void openMessageDialog(Lantern lantern) {
+    // UI thread; the lantern itself is only changed by the game (see onGame)
+    private void openMessageDialog(Lantern lantern, String current) {
         EditText input = new EditText(getContext());
         input.setInputType(
                 InputType.TYPE_CLASS_TEXT
@@ -246,7 +353,7 @@ public class LanternReleaseView extends View {
         );
         input.setMinLines(2);
         input.setMaxLines(8);
-        input.setText(lantern.message == null ? "" : lantern.message);
+        input.setText(current == null ? "" : current);
         input.setSelection(input.getText().length());
 
         new AlertDialog.Builder(getContext())
@@ -254,10 +361,14 @@ public class LanternReleaseView extends View {
                 .setMessage("This stays hidden until the lantern glows.")
                 .setView(input)
                 .setPositiveButton("Save", (d, which) -> {
-                    lantern.message = input.getText().toString();
-                    hudMessage = "Saved ✨ Press Play when ready";
-                    pushUi();
-                    invalidate();
+                    String message = input.getText().toString();
+                    onGame(() -> {
+                        lantern.message = message;
+                        lantern.layout = layoutMessage(message, messageWidth(lantern));
+                        hudMessage = "Saved ✨ Press Play when ready";
+                        pushUi();
+                        if (host == null) invalidate();
+                    });
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
@@ -270,8 +381,8 @@ public class LanternReleaseView extends View {
         l.w = dp(72);
         l.h = dp(120);
 
-        l.x = clamp(x, l.w * 0.6f, getWidth() - l.w * 0.6f);
-        l.y = clamp(y, l.h * 0.6f, getHeight() - l.h * 0.6f);
+        l.x = clamp(x, l.w * 0.6f, gameW - l.w * 0.6f);
+        l.y = clamp(y, l.h * 0.6f, gameH - l.h * 0.6f);
 
         l.released = false;
         l.glowing = false;
@@ -295,53 +406,80 @@ public class LanternReleaseView extends View {
     @Override
     protected void onDraw(Canvas c) {
         super.onDraw(c);
+        if (host != null) return;
 
-        long now = SystemClock.uptimeMillis();
-        if (lastMs == 0) lastMs = now;
-        float dt = (now - lastMs) / 1000f;
-        lastMs = now;
-        if (dt > 0.05f) dt = 0.05f;
-
-        // ✅ Background first
-        drawNightBackground(c, now);
+        profiler.beginFrame();
 
-        // ✅ Update flight
+        // same fixed steps as the render thread; the sky only moves while lanterns fly
         if (running) {
-            boolean anyStillOnScreen = false;
+            int n = clock.advance(System.nanoTime());
+            float dt = clock.stepSec();
+            for (int i = 0; i < n; i++) step(clock.nextStep(), dt);
+        }
+        profiler.updateDone();
 
-            for (Lantern l : lanterns) {
-                if (!l.released) continue;
+        render(c, clock.simTimeMs());
+        profiler.endFrame(frameObjectCount());
 
-                l.y += l.vy * dt;
+        if (running) postInvalidateOnAnimation();
+    }
 
-                // stop glow after time
-                if (l.glowing && now > l.glowEndMs) {
-                    l.glowing = false;
-                    l.messageVisible = false; // message hidden again
-                }
+    // ✅ Update flight (one fixed step)
+    @Override
+    public void step(long now, float dt) {
+        simNow = now;
+        if (!running) return;
 
-                if (l.y + l.h > -dp(40)) anyStillOnScreen = true;
-            }
+        boolean anyStillOnScreen = false;
 
-            if (!anyStillOnScreen) {
-                running = false;
-                finished = true;
-                hudMessage = "Done ✨ Press Play Again";
-                pushUi();
-            } else {
-                postInvalidateOnAnimation();
+        for (int i = 0; i < lanterns.size(); i++) {
+            Lantern l = lanterns.get(i);
+            if (!l.released) continue;
+
+            l.y += l.vy * dt;
+
+            // stop glow after time
+            if (l.glowing && now > l.glowEndMs) {
+                l.glowing = false;
+                l.messageVisible = false; // message hidden again
             }
+
+            if (l.y + l.h > -dp(40)) anyStillOnScreen = true;
         }
 
+        if (!anyStillOnScreen) {
+            running = false;
+            finished = true;
+            hudMessage = "Done ✨ Press Play Again";
+            pushUi();
+        }
+    }
+
+    @Override
+    public void render(Canvas c, long now) {
+        // ✅ Background first
+        drawNightBackground(c, now);
+
         // ✅ Draw lanterns
-        for (Lantern l : lanterns) {
-            drawSkyLantern(c, l);
+        for (int i = 0; i < lanterns.size(); i++) {
+            drawSkyLantern(c, lanterns.get(i));
         }
     }
 
+    @Override
+    public int frameObjectCount() {
+        return lanterns.size();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        FrameStatsRecorder.endSession(getContext(), profiler);
+    }
+
     private void drawNightBackground(Canvas c, long now) {
-        int w = getWidth();
-        int h = getHeight();
+        int w = gameW;
+        int h = gameH;
         if (w <= 0 || h <= 0) return;
 
         // rebuild if size changed
@@ -380,7 +518,8 @@ public class LanternReleaseView extends View {
         float t = (now % 5000L) / 5000f; // 0..1
         float tw = (float) Math.sin(t * 6.283f);
 
-        for (Star s : stars) {
+        for (int i = 0; i < stars.size(); i++) {
+            Star s = stars.get(i);
             float alpha = 120 + 60f * (float) Math.sin(s.twinklePhase + tw * 1.5f);
             alpha = clamp(alpha, 60, 200);
 
@@ -400,184 +539,152 @@ public class LanternReleaseView extends View {
      * No gameplay logic changed.
      */
     // ✅ Real sky lantern (paper lantern + flame glow)
+    // Drawn around (0,0) after translating to the lantern, so shaders can be shared and built once.
     private void drawSkyLantern(Canvas c, Lantern l) {
-        float x = l.x;
-        float y = l.y;
         float w = l.w;
         float h = l.h;
 
+        ensureLanternShaders(w, h);
+
+        c.save();
+        c.translate(l.x, l.y);
+
         // Main paper body (rounded top)
-        RectF paper = new RectF(
-                x - w * 0.40f,
-                y - h * 0.48f,
-                x + w * 0.40f,
-                y + h * 0.35f
-        );
+        paperRect.set(-w * 0.40f, -h * 0.48f, w * 0.40f, h * 0.35f);
         float rTop = w * 0.50f;
 
         // Bottom rim
-        RectF rim = new RectF(
-                x - w * 0.30f,
-                y + h * 0.25f,
-                x + w * 0.30f,
-                y + h * 0.38f
-        );
+        rimRect.set(-w * 0.30f, h * 0.25f, w * 0.30f, h * 0.38f);
         float rimR = w * 0.18f;
 
         // Shadow
-        c.drawRoundRect(
-                new RectF(paper.left + dp(3), paper.top + dp(7), paper.right + dp(3), paper.bottom + dp(10)),
-                rTop, rTop, shadowPaint
-        );
+        shadowRect.set(paperRect.left + dp(3), paperRect.top + dp(7), paperRect.right + dp(3), paperRect.bottom + dp(10));
+        c.drawRoundRect(shadowRect, rTop, rTop, shadowPaint);
 
         // Glow halo (only when glowing)
         if (l.glowing) {
             float glowR = Math.max(w, h) * 0.90f;
-            lanternGlow.setShader(new RadialGradient(
-                    x, y + h * 0.10f, glowR,
-                    new int[]{
-                            Color.argb(220, 255, 210, 130),
-                            Color.argb(90, 255, 170, 90),
-                            Color.argb(0, 255, 170, 90)
-                    },
-                    new float[]{0f, 0.6f, 1f},
-                    Shader.TileMode.CLAMP
-            ));
-            c.drawCircle(x, y, glowR, lanternGlow);
-            lanternGlow.setShader(null);
+            lanternGlow.setShader(glowShader);
+            c.drawCircle(0f, 0f, glowR, lanternGlow);
         }
 
-        // Paper fill (warm paper)
-        Paint paperFill = new Paint(Paint.ANTI_ALIAS_FLAG);
-        paperFill.setStyle(Paint.Style.FILL);
-        paperFill.setColor(Color.argb(235, 246, 234, 205));
-
-        // Paper gradient shading
-        Paint paperShade = new Paint(Paint.ANTI_ALIAS_FLAG);
-        paperShade.setShader(new LinearGradient(
-                paper.left, paper.top, paper.right, paper.top,
-                new int[]{
-                        Color.argb(240, 252, 244, 220),
-                        Color.argb(240, 235, 220, 190),
-                        Color.argb(240, 252, 244, 220)
-                },
-                new float[]{0f, 0.5f, 1f},
-                Shader.TileMode.CLAMP
-        ));
-
-        c.drawRoundRect(paper, rTop, rTop, paperFill);
-        c.drawRoundRect(paper, rTop, rTop, paperShade);
-        paperShade.setShader(null);
+        // Paper fill (warm paper) + gradient shading
+        c.drawRoundRect(paperRect, rTop, rTop, paperFill);
+        paperShade.setShader(paperShader);
+        c.drawRoundRect(paperRect, rTop, rTop, paperShade);
 
         // Rim (a bit darker)
-        Paint rimFill = new Paint(Paint.ANTI_ALIAS_FLAG);
-        rimFill.setColor(Color.argb(255, 210, 195, 165));
-        c.drawRoundRect(rim, rimR, rimR, rimFill);
+        c.drawRoundRect(rimRect, rimR, rimR, rimFill);
 
         // Seams (paper lines)
-        Paint seam = new Paint(Paint.ANTI_ALIAS_FLAG);
-        seam.setStyle(Paint.Style.STROKE);
-        seam.setStrokeWidth(dp(1.4f));
-        seam.setColor(Color.argb(110, 90, 70, 45));
-
-        c.drawLine(x - w * 0.16f, paper.top + h * 0.10f, x - w * 0.11f, paper.bottom - h * 0.10f, seam);
-        c.drawLine(x + w * 0.16f, paper.top + h * 0.10f, x + w * 0.11f, paper.bottom - h * 0.10f, seam);
+        c.drawLine(-w * 0.16f, paperRect.top + h * 0.10f, -w * 0.11f, paperRect.bottom - h * 0.10f, seamPaint);
+        c.drawLine(w * 0.16f, paperRect.top + h * 0.10f, w * 0.11f, paperRect.bottom - h * 0.10f, seamPaint);
 
         // Inner flame glow (only when glowing)
         if (l.glowing) {
-            Paint flame = new Paint(Paint.ANTI_ALIAS_FLAG);
-            flame.setShader(new RadialGradient(
-                    x, y + h * 0.22f, w * 0.55f,
-                    new int[]{
-                            Color.argb(230, 255, 245, 190),
-                            Color.argb(120, 255, 205, 120),
-                            Color.argb(0, 255, 205, 120)
-                    },
-                    new float[]{0f, 0.65f, 1f},
-                    Shader.TileMode.CLAMP
-            ));
-            c.drawCircle(x, y + h * 0.20f, w * 0.52f, flame);
-            flame.setShader(null);
-
-            Paint flameDot = new Paint(Paint.ANTI_ALIAS_FLAG);
-            flameDot.setColor(Color.argb(230, 255, 175, 90));
-            c.drawCircle(x, y + h * 0.29f, dp(4.5f), flameDot);
+            flamePaint.setShader(flameShader);
+            c.drawCircle(0f, h * 0.20f, w * 0.52f, flamePaint);
+            c.drawCircle(0f, h * 0.29f, dp(4.5f), flameDotPaint);
         }
 
         // Message area (hidden until glow)
-        RectF msgArea = new RectF(
-                paper.left + w * 0.12f,
-                paper.top + h * 0.20f,
-                paper.right - w * 0.12f,
-                paper.bottom - h * 0.22f
+        msgRect.set(
+                paperRect.left + w * 0.12f,
+                paperRect.top + h * 0.20f,
+                paperRect.right - w * 0.12f,
+                paperRect.bottom - h * 0.22f
         );
 
-        if (l.messageVisible && l.message != null && !l.message.trim().isEmpty()) {
-            drawMessageInsideGlass(c, l.message.trim(), msgArea);
+        if (l.messageVisible && l.layout != null) {
+            drawMessageInsideGlass(c, l.layout, msgRect);
         }
+
+        c.restore();
+    }
+
+    private void ensureLanternShaders(float w, float h) {
+        if (w == shaderW && h == shaderH && glowShader != null) return;
+        shaderW = w;
+        shaderH = h;
+
+        float glowR = Math.max(w, h) * 0.90f;
+        glowShader = new RadialGradient(
+                0f, h * 0.10f, glowR,
+                new int[]{
+                        Color.argb(220, 255, 210, 130),
+                        Color.argb(90, 255, 170, 90),
+                        Color.argb(0, 255, 170, 90)
+                },
+                new float[]{0f, 0.6f, 1f},
+                Shader.TileMode.CLAMP
+        );
+
+        paperShader = new LinearGradient(
+                -w * 0.40f, 0f, w * 0.40f, 0f,
+                new int[]{
+                        Color.argb(240, 252, 244, 220),
+                        Color.argb(240, 235, 220, 190),
+                        Color.argb(240, 252, 244, 220)
+                },
+                new float[]{0f, 0.5f, 1f},
+                Shader.TileMode.CLAMP
+        );
+
+        flameShader = new RadialGradient(
+                0f, h * 0.22f, w * 0.55f,
+                new int[]{
+                        Color.argb(230, 255, 245, 190),
+                        Color.argb(120, 255, 205, 120),
+                        Color.argb(0, 255, 205, 120)
+                },
+                new float[]{0f, 0.65f, 1f},
+                Shader.TileMode.CLAMP
+        );
     }
 
 
-    // Draw wrapped message inside lantern glass
-    private void drawMessageInsideGlass(Canvas c, String msg, RectF glass) {
-        Paint bubble = new Paint(Paint.ANTI_ALIAS_FLAG);
-        bubble.setColor(Color.argb(140, 0, 0, 0));
-        c.drawRoundRect(new RectF(glass.left, glass.top, glass.right, glass.bottom), dp(10), dp(10), bubble);
+    // Draw the pre-wrapped message inside lantern glass
+    private void drawMessageInsideGlass(Canvas c, MessageLayout layout, RectF glass) {
+        c.drawRoundRect(glass, dp(10), dp(10), bubblePaint);
 
-        float maxW = glass.width() - dp(10);
         float x = glass.left + dp(5);
         float y = glass.top + dp(16);
 
-        String[] lines = wrapText(msg, maxW, 5); // allow 5 lines
-        for (String line : lines) {
-            if (line == null) break;
-            c.drawText(line, x + dp(1.2f), y + dp(1.2f), shadowText());
-            c.drawText(line, x, y, msgPaint);
+        String[] lines = layout.lines;
+        for (int i = 0; i < lines.length; i++) {
+            c.drawText(lines[i], x + dp(1.2f), y + dp(1.2f), msgShadowPaint);
+            c.drawText(lines[i], x, y, msgPaint);
             y += dp(14);
         }
     }
 
-    private TextPaint shadowText() {
-        TextPaint tp = new TextPaint(msgPaint);
-        tp.setColor(Color.argb(140, 0, 0, 0));
-        return tp;
+    // text width inside the glass (msgRect in drawLantern, minus the bubble padding)
+    private float messageWidth(Lantern l) {
+        return l.w * 0.56f - dp(10);
     }
 
-    private String[] wrapText(String text, float maxWidth, int maxLines) {
-        String[] out = new String[maxLines];
-        String[] words = text.replace("\n", " ").split("\\s+");
-
-        StringBuilder line = new StringBuilder();
-        int lineIndex = 0;
-
-        for (String w : words) {
-            String test = (line.length() == 0) ? w : (line + " " + w);
-            if (msgPaint.measureText(test) <= maxWidth) {
-                line.setLength(0);
-                line.append(test);
-            } else {
-                out[lineIndex++] = line.toString();
-                if (lineIndex >= maxLines) break;
-                line.setLength(0);
-                line.append(w);
-            }
-        }
-
-        if (lineIndex < maxLines && line.length() > 0) {
-            out[lineIndex] = line.toString();
-        }
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (host == null) onGameSize(w, h);
+    }
 
-        // ellipsis if too long
-        if (lineIndex >= maxLines) {
-            String last = out[maxLines - 1];
-            if (last == null) last = "";
-            while (last.length() > 0 && msgPaint.measureText(last + "…") > maxWidth) {
-                last = last.substring(0, last.length() - 1);
-            }
-            out[maxLines - 1] = last + "…";
+    @Override
+    public void onGameSize(int w, int h) {
+        gameW = w;
+        gameH = h;
+        for (int i = 0; i < lanterns.size(); i++) {
+            Lantern l = lanterns.get(i);
+            if (l.layout == null) continue;
+            float maxW = messageWidth(l);
+            if (maxW != l.layout.width) l.layout = layoutMessage(l.message, maxW);
         }
+    }
 
-        return out;
+    // Returns null for an empty message (see MessageWrap).
+    private MessageLayout layoutMessage(String message, float maxWidth) {
+        String[] lines = MessageWrap.wrap(message, maxWidth, MESSAGE_MAX_LINES, msgMeasurer);
+        return lines == null ? null : new MessageLayout(lines, maxWidth);
     }
 
     // =========================
@@ -591,7 +698,24 @@ public class LanternReleaseView extends View {
     }
 
     private void pushUi() {
-        if (uiListener != null) uiListener.onUpdate(totalScore, badge, hudMessage);
+        final int total = totalScore;
+        final String b = badge;
+        final String message = hudMessage;
+        onMain(() -> {
+            if (uiListener != null) uiListener.onUpdate(total, b, message);
+        });
+    }
+
+    // changes to the game run where it is stepped (the render thread in host mode)
+    private void onGame(Runnable r) {
+        if (host != null) host.queueEvent(r);
+        else r.run();
+    }
+
+    // UI callbacks and dialogs always run on the main thread
+    private void onMain(Runnable r) {
+        if (Looper.myLooper() == Looper.getMainLooper()) r.run();
+        else mainHandler.post(r);
     }
 
     // =========================
@@ -187,7 +187,7 @@ public class LoginActivity extends AppCompatActivity {
         if (imgAvatarLogin == null) return;
 
         String g = prefs.getString(KEY_GENDER, "Male");
-        if ("Female".equalsIgnoreCase(g)) imgAvatarLogin.setImageResource(R.drawable.girl);
-        else imgAvatarLogin.setImageResource(R.drawable.boy);
+        int res = "Female".equalsIgnoreCase(g) ? R.drawable.girl : R.drawable.boy;
+        BitmapRepository.get(this).into(imgAvatarLogin, res);
     }
 }
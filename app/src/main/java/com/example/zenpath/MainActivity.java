@@ -4,8 +4,6 @@ import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.view.MotionEvent;
@@ -69,8 +67,8 @@ public class MainActivity extends AppCompatActivity {
     private TextView tvStreak;
     private TextView tvWeeklyReflection;
 
-    // ✅ Repo
-    private ZenPathRepository repo;
+    // ✅ Repo (async, results come back on the main thread)
+    private AsyncZenPathRepository repo;
 
     // prefs
     private static final String PREFS = "zen_path_prefs";
@@ -109,7 +107,7 @@ public class MainActivity extends AppCompatActivity {
         setContentView(R.layout.activity_main);
 
         // ✅ Repo
-        repo = new ZenPathRepository(this);
+        repo = AsyncZenPathRepository.get(this);
 
         // ===== Bind views =====
         btnMenu = findViewById(R.id.btnMenu);
@@ -190,6 +188,12 @@ public class MainActivity extends AppCompatActivity {
             String pretty = new SimpleDateFormat("MMMM dd", Locale.getDefault())
                     .format(Calendar.getInstance().getTime());
             tvDate.setText(pretty);
+
+            // hidden: frame profiler sessions + render mode switch
+            tvDate.setOnLongClickListener(v -> {
+                startActivity(new Intent(this, FrameStatsActivity.class));
+                return true;
+            });
         }
 
         // ===== Book overlay views =====
@@ -211,21 +215,22 @@ public class MainActivity extends AppCompatActivity {
         String current = prefs.getString("current_user", null);
 
         String displayName = "User";
+        long nameUserId = -1;
         if (!TextUtils.isEmpty(current)) {
             try {
-                long userId = Long.parseLong(current);
-                String nameFromDb = repo.getUsernameById(userId);
-                if (!TextUtils.isEmpty(nameFromDb)) displayName = nameFromDb;
+                nameUserId = Long.parseLong(current);
             } catch (NumberFormatException ignored) {
                 displayName = current;
             }
         }
 
-        TextView tvUsername = findViewById(R.id.tvUsername);
-        TextView tvHelloUser = findViewById(R.id.tvHelloUser);
-
-        if (tvUsername != null) tvUsername.setText(displayName.toUpperCase());
-        if (tvHelloUser != null) tvHelloUser.setText("Hello, " + displayName + "!");
+        setDisplayName(displayName);
+        if (nameUserId > 0) {
+            final long uid = nameUserId;
+            repo.read(this, r -> r.getUsernameById(uid), nameFromDb -> {
+                if (!TextUtils.isEmpty(nameFromDb)) setDisplayName(nameFromDb);
+            });
+        }
 
         // ✅ Identity line (Panel B)
         if (tvIdentity != null) {
@@ -384,20 +389,15 @@ public class MainActivity extends AppCompatActivity {
         }
 
         // ✅ IMPORTANT: compute currentRec right away (not only onResume)
-        refreshWindDownSuggestion();
-
-        // ✅ Also refresh progress widgets once immediately
-        refreshProgressWidgets();
-        refreshTodayCheckInCard();
+        // (also fills the check-in card and progress widgets)
+        refreshHomeCards();
     }
 
     @Override
     protected void onResume() {
         super.onResume();
         applyAvatarFromGender(); // ✅ ensure it updates if user switched
-        refreshTodayCheckInCard();
-        refreshWindDownSuggestion();
-        refreshProgressWidgets();
+        refreshHomeCards();
         MusicController.play(this, MusicService.TRACK_MAIN);
     }
 
@@ -419,11 +419,8 @@ public class MainActivity extends AppCompatActivity {
     private void setAvatar(String gender) {
         if (imgProfileAvatar == null) return;
 
-        if ("Female".equalsIgnoreCase(gender)) {
-            imgProfileAvatar.setImageResource(R.drawable.girl);
-        } else {
-            imgProfileAvatar.setImageResource(R.drawable.boy);
-        }
+        int res = "Female".equalsIgnoreCase(gender) ? R.drawable.girl : R.drawable.boy;
+        BitmapRepository.get(this).into(imgProfileAvatar, res);
     }
 
     // =========================
@@ -552,19 +549,64 @@ public class MainActivity extends AppCompatActivity {
         try { return Long.parseLong(s); } catch (Exception e) { return -1; }
     }
 
-    private void refreshTodayCheckInCard() {
-        String key = todayDateKey();
+    // ✅ everything the home cards need, read off the main thread in one task
+    private static class HomeData {
+        String moodText = "";
+        int stress = 50;
+        int streak = 0;
+        int reflections = 0;
+    }
+
+    private static HomeData loadHomeData(ZenPathRepository r, long userId, String key) {
+        HomeData d = new HomeData();
+
+        String[] moodData = r.getMoodByDate(userId, key);
+        if (moodData != null && moodData[0] != null) d.moodText = moodData[0];
+
+        ZenPathRepository.StressRange sr = r.getStressRange(userId, key, key);
+        if (sr != null && sr.has[0]) d.stress = sr.level[0];
+
+        // persisted summary (kept by upsertMood), no per-day queries
+        d.streak = r.getCurrentMoodStreak(userId, key);
+        d.reflections = r.getWeeklyReflectionCount(userId);
+        return d;
+    }
+
+    private void refreshHomeCards() {
         long userId = currentUserId();
+        if (userId <= 0 || repo == null) {
+            bindHomeCards(null);
+            return;
+        }
+
+        String key = todayDateKey();
+        repo.read(this, r -> loadHomeData(r, userId, key), this::bindHomeCards);
+    }
 
-        if (userId <= 0) {
+    // data == null: nobody signed in
+    private void bindHomeCards(HomeData data) {
+        refreshTodayCheckInCard(data);
+        refreshWindDownSuggestion(data);
+        refreshProgressWidgets(data);
+    }
+
+    private void setDisplayName(String displayName) {
+        TextView tvUsername = findViewById(R.id.tvUsername);
+        TextView tvHelloUser = findViewById(R.id.tvHelloUser);
+
+        if (tvUsername != null) tvUsername.setText(displayName.toUpperCase());
+        if (tvHelloUser != null) tvHelloUser.setText("Hello, " + displayName + "!");
+    }
+
+    private void refreshTodayCheckInCard(HomeData data) {
+        if (data == null) {
             if (tvCheckInMood != null) tvCheckInMood.setText("Mood: —");
             if (tvCheckInStress != null) tvCheckInStress.setText("Stress: —");
             if (btnCheckInNow != null) btnCheckInNow.setText("Check in");
             return;
         }
 
-        String[] moodData = (repo != null) ? repo.getMoodByDate(userId, key) : null;
-        String moodText = (moodData != null) ? moodData[0] : "";
+        String moodText = data.moodText;
 
         if (tvCheckInMood != null) {
             tvCheckInMood.setText(TextUtils.isEmpty(moodText)
@@ -572,35 +614,13 @@ public class MainActivity extends AppCompatActivity {
                     : "Mood: " + moodText);
         }
 
-        int stress = getStressLevel(userId, key);
-        if (tvCheckInStress != null) tvCheckInStress.setText("Stress: " + stress + "%");
+        if (tvCheckInStress != null) tvCheckInStress.setText("Stress: " + data.stress + "%");
 
         if (btnCheckInNow != null) {
             btnCheckInNow.setText(TextUtils.isEmpty(moodText) ? "Check in" : "Edit check-in");
         }
     }
 
-    private int getStressLevel(long userId, String dateKey) {
-        int out = 50;
-
-        ZenPathDbHelper helper = new ZenPathDbHelper(this);
-        try (SQLiteDatabase db = helper.getReadableDatabase()) {
-
-            String sql =
-                    "SELECT " + ZenPathDbHelper.S_LEVEL +
-                            " FROM " + ZenPathDbHelper.T_STRESS +
-                            " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.S_DATE + "=? " +
-                            " ORDER BY " + ZenPathDbHelper.S_CREATED_AT + " DESC LIMIT 1";
-
-            try (Cursor c = db.rawQuery(sql, new String[]{String.valueOf(userId), dateKey})) {
-                if (c.moveToFirst()) out = c.getInt(0);
-            }
-
-        } catch (Exception ignored) { }
-
-        return out;
-    }
-
     private int moodTextToLevel(String moodText) {
         if (TextUtils.isEmpty(moodText)) return 3;
 
@@ -620,54 +640,27 @@ public class MainActivity extends AppCompatActivity {
         return 3;
     }
 
-    private void refreshProgressWidgets() {
-        long userId = currentUserId();
-        if (userId <= 0 || repo == null) {
+    private void refreshProgressWidgets(HomeData data) {
+        if (data == null) {
             if (tvStreak != null) tvStreak.setText("🔥 0-day check-in streak");
             if (tvWeeklyReflection != null) tvWeeklyReflection.setText("📝 You reflected 0x this week");
             return;
         }
 
-        int streak = computeMoodStreak(userId);
-        int reflections = repo.getWeeklyReflectionCount(userId);
-
-        if (tvStreak != null) tvStreak.setText("🔥 " + streak + "-day check-in streak");
-        if (tvWeeklyReflection != null) tvWeeklyReflection.setText("📝 You reflected " + reflections + "x this week");
-    }
-
-    private int computeMoodStreak(long userId) {
-        if (repo == null) return 0;
-
-        Calendar cal = Calendar.getInstance();
-        int streak = 0;
-
-        for (int i = 0; i < 365; i++) {
-            String key = new SimpleDateFormat("yyyyMMdd", Locale.getDefault()).format(cal.getTime());
-
-            if (repo.hasMoodOnDate(userId, key)) {
-                streak++;
-                cal.add(Calendar.DAY_OF_MONTH, -1);
-            } else {
-                break;
-            }
-        }
-        return streak;
+        if (tvStreak != null) tvStreak.setText("🔥 " + data.streak + "-day check-in streak");
+        if (tvWeeklyReflection != null) tvWeeklyReflection.setText("📝 You reflected " + data.reflections + "x this week");
     }
 
-    private void refreshWindDownSuggestion() {
-        String key = todayDateKey();
-        long userId = currentUserId();
-
+    private void refreshWindDownSuggestion(HomeData data) {
         if (tvWindDownSuggestion == null) return;
 
-        if (userId <= 0 || repo == null) {
+        if (data == null) {
             tvWindDownSuggestion.setText("Suggestion: Check in whenever you can — even a quick one helps.");
             currentRec = null;
             return;
         }
 
-        String[] moodData = repo.getMoodByDate(userId, key);
-        String moodText = (moodData != null) ? moodData[0] : "";
+        String moodText = data.moodText;
 
         if (TextUtils.isEmpty(moodText)) {
             tvWindDownSuggestion.setText("Suggestion: If you have energy, do a quick check-in first. If not, it’s okay.");
@@ -676,7 +669,7 @@ public class MainActivity extends AppCompatActivity {
         }
 
         int moodLevel = moodTextToLevel(moodText);
-        int stress = getStressLevel(userId, key);
+        int stress = data.stress;
 
         SharedPreferences sp = getSharedPreferences(PREFS, MODE_PRIVATE);
         String lastGame = sp.getString("last_game", null);
@@ -0,0 +1,129 @@
+package com.example.zenpath;
+
+import java.util.Random;
+
+/**
+ * Particle math of the Planet marker brush (ZoomSpaceView.stampMarker), Android-free.
+ *
+ * The HSV helpers follow Skia's SkRGBToHSV / SkHSVToColor (what android.graphics.Color
+ * calls), rounding included, and don't allocate, so a stamp costs no garbage per particle.
+ */
+final class MarkerBrush {
+
+    /** Receives the particles of one stamp, in generation order. */
+    interface Sink {
+        void dust(float x, float y, float r, int coreColor, int glowColor, int coreAlpha, int glowAlpha);
+    }
+
+    private MarkerBrush() {}
+
+    static float sizeMul(int sizeProgress) {
+        return 0.45f + (sizeProgress / 100f) * 1.35f;
+    }
+
+    /**
+     * Sprays one stamp of gaussian dust around (x, y) in world units.
+     * {@code inkHsv} is the ink color from colorToHsv(); returns the particle count.
+     */
+    static int stamp(Random rng, float x, float y, int sizeProgress, boolean heavier,
+                     float[] inkHsv, Sink out) {
+        float sizeMul = sizeMul(sizeProgress);
+
+        float base = 55f * sizeMul;
+        float spread = heavier ? 1.2f : 1.0f;
+        int count = (int) ((heavier ? 70 : 35) * (0.75f + sizeMul * 0.55f));
+
+        for (int i = 0; i < count; i++) {
+            float ox = (float) (rng.nextGaussian() * base * spread);
+            float oy = (float) (rng.nextGaussian() * base * 0.55f * spread);
+
+            float r = (6f + rng.nextFloat() * (heavier ? 20f : 14f)) * sizeMul;
+
+            float hue = (inkHsv[0] + (rng.nextFloat() * 10f - 5f) + 360f) % 360f;
+            float sat = clamp(inkHsv[1] * (0.35f + rng.nextFloat() * 0.45f), 0f, 1f);
+            float val = clamp(0.80f + rng.nextFloat() * 0.18f, 0f, 1f);
+
+            int core = hsvToColor(hue, sat, val);
+            int glow = hsvToColor(hue, clamp(sat * 0.85f, 0f, 1f), clamp(val * 0.90f, 0f, 1f));
+
+            int coreA = 18 + rng.nextInt(40);
+            int glowA = 10 + rng.nextInt(22);
+
+            out.dust(x + ox, y + oy, r, core, glow, coreA, glowA);
+        }
+        return count;
+    }
+
+    // =========================
+    // ✅ HSV (same results as Color.colorToHSV / Color.HSVToColor)
+    // =========================
+    static void colorToHsv(int color, float[] hsv) {
+        int r = (color >> 16) & 0xFF;
+        int g = (color >> 8) & 0xFF;
+        int b = color & 0xFF;
+
+        int min = Math.min(r, Math.min(g, b));
+        int max = Math.max(r, Math.max(g, b));
+        int delta = max - min;
+
+        float v = max / 255f;
+        if (delta == 0) {
+            hsv[0] = 0f;
+            hsv[1] = 0f;
+            hsv[2] = v;
+            return;
+        }
+
+        float s = (float) delta / max;
+        float h;
+        if (r == max) h = (float) (g - b) / delta;
+        else if (g == max) h = 2f + (float) (b - r) / delta;
+        else h = 4f + (float) (r - g) / delta;
+
+        h *= 60f;
+        if (h < 0f) h += 360f;
+
+        hsv[0] = h;
+        hsv[1] = s;
+        hsv[2] = v;
+    }
+
+    /** Opaque color for (h, s, v); h in [0, 360), s and v are clamped to [0, 1]. */
+    static int hsvToColor(float h, float s, float v) {
+        s = clamp(s, 0f, 1f);
+        v = clamp(v, 0f, 1f);
+        int vByte = round(v * 255f);
+
+        if (Math.abs(s) <= 1f / (1 << 12)) {
+            return 0xFF000000 | (vByte << 16) | (vByte << 8) | vByte;
+        }
+
+        float hx = (h < 0f || h >= 360f) ? 0f : h / 60f;
+        float w = (float) Math.floor(hx);
+        float f = hx - w;
+
+        int p = round((1f - s) * v * 255f);
+        int q = round((1f - (s * f)) * v * 255f);
+        int t = round((1f - (s * (1f - f))) * v * 255f);
+
+        int r, g, b;
+        switch ((int) w) {
+            case 0: r = vByte; g = t; b = p; break;
+            case 1: r = q; g = vByte; b = p; break;
+            case 2: r = p; g = vByte; b = t; break;
+            case 3: r = p; g = q; b = vByte; break;
+            case 4: r = t; g = p; b = vByte; break;
+            default: r = vByte; g = p; b = q; break;
+        }
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    // SkScalarRoundToInt
+    private static int round(float x) {
+        return (int) Math.floor(x + 0.5f);
+    }
+
+    private static float clamp(float v, float mn, float mx) {
+        return Math.max(mn, Math.min(mx, v));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.zenpath;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A marker stroke stored as its input instead of its particles: the stamp points (the touch path
+ * after ZoomSpaceView's resampling), the brush settings and one RNG seed. replay() regenerates
+ * exactly the particles stamp() produced while drawing (java.util.Random and MarkerBrush are
+ * fully specified, so the output is the same on every device). That is 9 bytes per stamp
+ * instead of 35-120 particles.
+ *
+ * Append-only; copy() shares the stamp arrays until one side adds a stamp.
+ */
+final class MarkerStroke {
+
+    private static final MarkerBrush.Sink NO_OUTPUT = (x, y, r, core, glow, coreA, glowA) -> {};
+
+    final long seed;
+    final int inkColor;
+    final int sizeProgress;
+    private final float[] inkHsv = new float[3];
+
+    private float[] xy = new float[16];          // x0, y0, x1, y1, ...
+    private boolean[] heavy = new boolean[8];
+    private int count;
+    private boolean shared;
+
+    // generator of live drawing and how many stamps it has produced
+    private Random liveRng;
+    private int liveRngStamps = -1;
+
+    MarkerStroke(long seed, int inkColor, int sizeProgress) {
+        this.seed = seed;
+        this.inkColor = inkColor;
+        this.sizeProgress = sizeProgress;
+        MarkerBrush.colorToHsv(inkColor, inkHsv);
+    }
+
+    int stampCount() { return count; }
+
+    float stampX(int i) { return xy[i * 2]; }
+
+    float stampY(int i) { return xy[i * 2 + 1]; }
+
+    boolean isHeavy(int i) { return heavy[i]; }
+
+    /** Adds a stamp and sends its particles to {@code out}; returns the particle count. */
+    int stamp(float x, float y, boolean heavier, MarkerBrush.Sink out) {
+        Random rng = liveRng();
+        addStamp(x, y, heavier);
+        int n = MarkerBrush.stamp(rng, x, y, sizeProgress, heavier, inkHsv, out);
+        liveRngStamps = count;
+        return n;
+    }
+
+    /** Adds a stamp without generating it (loading a saved stroke). */
+    void addStamp(float x, float y, boolean heavier) {
+        if (shared || count == heavy.length) {
+            int cap = count == heavy.length ? count * 2 : heavy.length;
+            xy = Arrays.copyOf(xy, cap * 2);
+            heavy = Arrays.copyOf(heavy, cap);
+            shared = false;
+        }
+        xy[count * 2] = x;
+        xy[count * 2 + 1] = y;
+        heavy[count] = heavier;
+        count++;
+    }
+
+    /** Every particle of the stroke, in the order stamp() produced them; returns the count. */
+    int replay(MarkerBrush.Sink out) {
+        Random rng = new Random(seed);
+        int particles = 0;
+        for (int i = 0; i < count; i++) {
+            particles += MarkerBrush.stamp(rng, xy[i * 2], xy[i * 2 + 1], sizeProgress, heavy[i], inkHsv, out);
+        }
+        return particles;
+    }
+
+    MarkerStroke copy() {
+        MarkerStroke c = new MarkerStroke(seed, inkColor, sizeProgress);
+        c.xy = xy;
+        c.heavy = heavy;
+        c.count = count;
+        c.shared = shared = true;
+        return c;
+    }
+
+    /** Bytes held by the stamp arrays. */
+    long bytes() {
+        return (long) xy.length * 4 + heavy.length;
+    }
+
+    private Random liveRng() {
+        if (liveRng == null || liveRngStamps != count) {
+            // loaded or copied stroke: run a fresh generator past the existing stamps
+            liveRng = new Random(seed);
+            for (int i = 0; i < count; i++) {
+                MarkerBrush.stamp(liveRng, xy[i * 2], xy[i * 2 + 1], sizeProgress, heavy[i], inkHsv, NO_OUTPUT);
+            }
+            liveRngStamps = count;
+        }
+        return liveRng;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.zenpath;
+
+/**
+ * Greedy word wrap for the lantern messages, measured through a Measurer so it runs without
+ * a Paint (LanternReleaseView passes one backed by its TextPaint).
+ */
+final class MessageWrap {
+
+    interface Measurer {
+        float width(CharSequence text, int start, int end);
+
+        /** How many chars of [start, end) fit into {@code maxWidth}. */
+        int fit(CharSequence text, int start, int end, float maxWidth);
+    }
+
+    private static final String ELLIPSIS = "…";
+
+    private MessageWrap() {}
+
+    /**
+     * One pass: each word is measured once and lines are cut with fit().
+     * Words wider than a line are broken; the last line gets an ellipsis when text is left over.
+     * Returns null for an empty message.
+     */
+    static String[] wrap(String message, float maxWidth, int maxLines, Measurer m) {
+        if (message == null) return null;
+        String text = message.trim();
+        if (text.isEmpty() || maxWidth <= 0f) return null;
+
+        String[] out = new String[maxLines];
+        int count = 0;
+
+        StringBuilder line = new StringBuilder();
+        float lineW = 0f;
+        float spaceW = m.width(" ", 0, 1);
+
+        int n = text.length();
+        int i = 0;
+        boolean truncated = false;
+
+        while (i < n) {
+            // next word [i, end)
+            while (i < n && Character.isWhitespace(text.charAt(i))) i++;
+            if (i >= n) break;
+            int end = i;
+            while (end < n && !Character.isWhitespace(text.charAt(end))) end++;
+
+            float wordW = m.width(text, i, end);
+            float needed = (line.length() == 0) ? wordW : lineW + spaceW + wordW;
+
+            if (needed <= maxWidth) {
+                if (line.length() > 0) line.append(' ');
+                line.append(text, i, end);
+                lineW = needed;
+                i = end;
+                continue;
+            }
+
+            if (line.length() > 0) {
+                // flush the line, retry the word on the next one
+                out[count++] = line.toString();
+                line.setLength(0);
+                lineW = 0f;
+                if (count == maxLines) {
+                    truncated = true;
+                    break;
+                }
+                continue;
+            }
+
+            // a single word wider than the line: take what fits
+            int fit = Math.max(1, m.fit(text, i, end, maxWidth));
+            out[count++] = text.substring(i, i + fit);
+            i += fit;
+            if (count == maxLines) {
+                truncated = i < n;
+                break;
+            }
+        }
+
+        if (!truncated && line.length() > 0) out[count++] = line.toString();
+
+        if (truncated) {
+            String last = out[count - 1];
+            float room = maxWidth - m.width(ELLIPSIS, 0, ELLIPSIS.length());
+            int fit = room <= 0f ? 0 : m.fit(last, 0, last.length(), room);
+            out[count - 1] = last.substring(0, fit) + ELLIPSIS;
+        }
+
+        String[] lines = new String[count];
+        System.arraycopy(out, 0, lines, 0, count);
+        return lines;
+    }
+}
@@ -57,7 +57,7 @@ public class MoodActivity extends AppCompatActivity {
     private boolean weekDragging = false;
 
     // ✅ DB repo
-    private ZenPathRepository repo;
+    private AsyncZenPathRepository repo;
 
     private static final String[] MOOD_LABELS = new String[]{
             "Sad", "Angry", "Okay", "Good", "Happy"
@@ -82,7 +82,7 @@ public class MoodActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_mood_mt);
 
-        repo = new ZenPathRepository(this);
+        repo = AsyncZenPathRepository.get(this);
 
         // ===== Settings Popup Overlay =====
         ViewGroup rootView = findViewById(android.R.id.content);
@@ -349,14 +349,25 @@ public class MoodActivity extends AppCompatActivity {
             return;
         }
 
-        // LOAD MOOD
-        String[] moodData = repo.getMoodByDate(userId, dateKey);
+        // LOAD MOOD + STRESS (off the main thread)
+        repo.read(this, r -> {
+            DayData d = new DayData();
+            d.mood = r.getMoodByDate(userId, dateKey);
+            d.stress = getStressRow(r, userId, dateKey);
+            return d;
+        }, d -> {
+            // the user may have picked another day meanwhile
+            if (dateKey.equals(selectedDateKey)) bindDay(d);
+        });
+    }
+
+    private void bindDay(DayData d) {
+        String[] moodData = d.mood;
         String moodText = moodData != null ? moodData[0] : "";
         String reflection = moodData != null ? moodData[1] : "";
         selectedMoodIndex = moodTextToIndex(moodText);
 
-        // LOAD STRESS
-        StressRow sr = getStressRow(userId, dateKey);
+        StressRow sr = d.stress;
 
         isLoading = true;
 
@@ -419,12 +430,12 @@ public class MoodActivity extends AppCompatActivity {
         long userId = currentUserId();
         if (userId <= 0) return;
 
+        String dateKey = selectedDateKey;
         String moodText = indexToMoodText(selectedMoodIndex);
         String reflection = etReflection != null ? etReflection.getText().toString() : "";
-        repo.upsertMood(userId, selectedDateKey, moodText, reflection);
 
-        // make dot become filled immediately
-        refreshWeekDots();
+        // make dot become filled as soon as the save lands
+        repo.write(this, r -> r.upsertMood(userId, dateKey, moodText, reflection), id -> refreshWeekDots());
     }
 
     // ===================== SWIPE WEEK (on dot row) =====================
@@ -506,10 +517,13 @@ public class MoodActivity extends AppCompatActivity {
         long userId = currentUserId();
         if (userId <= 0) return;
 
-        StressRow sr = getStressRow(userId, selectedDateKey);
-        repo.upsertStress(userId, selectedDateKey, stress, sr.starSec, sr.lanternSec, sr.planetSec);
+        String dateKey = selectedDateKey;
 
-        refreshWeekDots();
+        // read-modify-write stays on the writer thread, so it cannot interleave with playtime saves
+        repo.write(this, r -> {
+            StressRow sr = getStressRow(r, userId, dateKey);
+            return r.upsertStress(userId, dateKey, stress, sr.starSec, sr.lanternSec, sr.planetSec);
+        }, id -> refreshWeekDots());
     }
 
     // ===================== REFLECTION =====================
@@ -607,9 +621,24 @@ public class MoodActivity extends AppCompatActivity {
         end.add(Calendar.DAY_OF_MONTH, 6);
         if (tvWeekLabel != null) tvWeekLabel.setText(shortDate(weekStartMon) + " – " + shortDate(end));
 
+        // ✅ whole week in one query
+        long userId = currentUserId();
+        if (userId <= 0) {
+            bindWeekDots(null);
+            return;
+        }
+
+        String from = dateKey(0);
+        String to = dateKey(6);
+        repo.read(this, r -> r.getMoodRange(userId, from, to), range -> {
+            // ignore a late answer for a week the user already swiped away from
+            if (from.equals(dateKey(0))) bindWeekDots(range);
+        });
+    }
+
+    private void bindWeekDots(ZenPathRepository.MoodRange range) {
         for (int i = 0; i < 7; i++) {
-            String dk = dateKey(i);
-            boolean hasData = hasMoodOrNote(dk);
+            boolean hasData = hasMoodOrNote(range, i);
             boolean sel = (i == selectedIndex);
 
             if (dots[i] == null) continue;
@@ -620,15 +649,9 @@ public class MoodActivity extends AppCompatActivity {
         }
     }
 
-    private boolean hasMoodOrNote(String dk) {
-        long userId = currentUserId();
-        if (userId > 0) {
-            String[] data = repo.getMoodByDate(userId, dk);
-            boolean hasMood = data != null && !TextUtils.isEmpty(data[0]);
-            boolean hasNote = data != null && data.length > 1 && !TextUtils.isEmpty(data[1]);
-            return hasMood || hasNote;
-        }
-        return false;
+    private boolean hasMoodOrNote(ZenPathRepository.MoodRange range, int idx) {
+        if (range == null || idx >= range.size()) return false;
+        return !TextUtils.isEmpty(range.moodText[idx]) || !TextUtils.isEmpty(range.reflection[idx]);
     }
 
     private Calendar getMonday(Calendar c) {
@@ -654,41 +677,26 @@ public class MoodActivity extends AppCompatActivity {
     }
 
     // ===================== STRESS ROW LOADER =====================
-    private StressRow getStressRow(long userId, String dateKey) {
+    // runs on a database thread
+    private static StressRow getStressRow(ZenPathRepository r, long userId, String dateKey) {
         StressRow out = new StressRow();
 
-        ZenPathDbHelper helper = new ZenPathDbHelper(this);
-        try (android.database.sqlite.SQLiteDatabase db = helper.getReadableDatabase()) {
-
-            String sql =
-                    "SELECT " +
-                            ZenPathDbHelper.S_LEVEL + ", " +
-                            ZenPathDbHelper.S_PLAY_STAR + ", " +
-                            ZenPathDbHelper.S_PLAY_LANTERN + ", " +
-                            ZenPathDbHelper.S_PLAY_PLANET +
-                            " FROM " + ZenPathDbHelper.T_STRESS +
-                            " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.S_DATE + "=? " +
-                            " ORDER BY " + ZenPathDbHelper.S_CREATED_AT + " DESC LIMIT 1";
-
-            try (android.database.Cursor c = db.rawQuery(sql,
-                    new String[]{String.valueOf(userId), dateKey})) {
-
-                if (c.moveToFirst()) {
-                    out.level = c.getInt(0);
-                    out.starSec = c.getInt(1);
-                    out.lanternSec = c.getInt(2);
-                    out.planetSec = c.getInt(3);
-                } else {
-                    out.level = 50;
-                }
-            }
-        } catch (Exception e) {
-            out.level = 50;
+        ZenPathRepository.StressRange range = r.getStressRange(userId, dateKey, dateKey);
+        if (range != null && range.has[0]) {
+            out.level = range.level[0];
+            out.starSec = range.starSec[0];
+            out.lanternSec = range.lanternSec[0];
+            out.planetSec = range.planetSec[0];
         }
 
         return out;
     }
 
+    private static class DayData {
+        String[] mood;
+        StressRow stress;
+    }
+
     private static class StressRow {
         int level = 50;
         int starSec = 0;
@@ -27,7 +27,8 @@ public class MoodHistoryFragment extends Fragment {
     private static String noteKey(String d) { return "note_" + d; }
 
     private SharedPreferences prefs;
-    private ZenPathRepository repo;
+    private AsyncZenPathRepository repo;
+    private int refreshGen = 0; // only the newest refresh binds
 
     private View[] dots = new View[7];               // Mon..Sun
     private TextView[] emojis = new TextView[5];
@@ -54,7 +55,7 @@ public class MoodHistoryFragment extends Fragment {
         View v = inflater.inflate(R.layout.fragment_mood_history, container, false);
 
         prefs = requireContext().getSharedPreferences(PREFS, 0);
-        repo = new ZenPathRepository(requireContext());
+        repo = AsyncZenPathRepository.get(requireContext());
 
         dots[0] = v.findViewById(R.id.dot0);
         dots[1] = v.findViewById(R.id.dot1);
@@ -119,10 +120,27 @@ public class MoodHistoryFragment extends Fragment {
         end.add(Calendar.DAY_OF_MONTH, 6);
         if (tvWeekLabel != null) tvWeekLabel.setText(shortDate(weekStartMon) + " – " + shortDate(end));
 
+        // ✅ whole week in one query
+        String[] keys = new String[7];
+        for (int i = 0; i < 7; i++) keys[i] = dateKey(i);
+
+        int gen = ++refreshGen;
+        long userId = currentUserId();
+        if (userId <= 0) {
+            bind(keys, null);
+            return;
+        }
+
+        repo.read(getViewLifecycleOwner(), r -> r.getMoodRange(userId, keys[0], keys[6]), range -> {
+            if (gen == refreshGen) bind(keys, range);
+        });
+    }
+
+    private void bind(String[] keys, ZenPathRepository.MoodRange range) {
         // dots state
         for (int i = 0; i < 7; i++) {
-            String dk = dateKey(i);
-            boolean hasData = hasMoodOrNote(dk);
+            String dk = keys[i];
+            boolean hasData = hasMoodOrNote(range, i, dk);
             boolean sel = (i == selectedIndex);
 
             if (dots[i] == null) continue;
@@ -131,10 +149,10 @@ public class MoodHistoryFragment extends Fragment {
             else dots[i].setBackgroundResource(R.drawable.dot_empty);
         }
 
-        String dk = dateKey(selectedIndex);
+        String dk = keys[selectedIndex];
         if (tvSelectedDayLabel != null) tvSelectedDayLabel.setText(prettyDate(dk));
 
-        MoodRow row = loadMoodRow(dk);
+        MoodRow row = loadMoodRow(range, selectedIndex, dk);
 
         // emojis highlight
         for (int i = 0; i < emojis.length; i++) {
@@ -153,16 +171,12 @@ public class MoodHistoryFragment extends Fragment {
         }
     }
 
-    private MoodRow loadMoodRow(String dk) {
+    private MoodRow loadMoodRow(ZenPathRepository.MoodRange range, int idx, String dk) {
         MoodRow out = new MoodRow();
 
-        long userId = currentUserId();
-        if (userId > 0) {
-            String[] data = repo.getMoodByDate(userId, dk); // [moodText, reflection]
-            if (data != null) {
-                out.moodIndex = moodTextToIndex(data[0]);
-                out.reflection = (data.length > 1 && data[1] != null) ? data[1] : "";
-            }
+        if (range != null && idx < range.size() && range.has[idx]) {
+            out.moodIndex = moodTextToIndex(range.moodText[idx]);
+            out.reflection = range.reflection[idx];
         }
 
         // fallback to old prefs if DB empty
@@ -176,13 +190,11 @@ public class MoodHistoryFragment extends Fragment {
         return out;
     }
 
-    private boolean hasMoodOrNote(String dk) {
+    private boolean hasMoodOrNote(ZenPathRepository.MoodRange range, int idx, String dk) {
         // DB first
-        long userId = currentUserId();
-        if (userId > 0) {
-            String[] data = repo.getMoodByDate(userId, dk);
-            boolean hasMood = data != null && !TextUtils.isEmpty(data[0]);
-            boolean hasNote = data != null && data.length > 1 && !TextUtils.isEmpty(data[1]);
+        if (range != null && idx < range.size()) {
+            boolean hasMood = !TextUtils.isEmpty(range.moodText[idx]);
+            boolean hasNote = !TextUtils.isEmpty(range.reflection[idx]);
             if (hasMood || hasNote) return true;
         }
 
@@ -0,0 +1,162 @@
+package com.example.zenpath;
+
+import java.util.Arrays;
+
+/**
+ * Append-only particle store of one Planet stroke: x / y / radius as float columns and, for dust,
+ * core and glow colors with the particle alpha packed into the alpha byte (ARGB, ready for
+ * Paint.setColor). About 20 bytes per dust particle and 12 per eraser dot, no object per particle.
+ *
+ * Columns live in chunks of CHUNK_SIZE; the first one starts small and grows, since most strokes
+ * are only a few stamps. copy() is O(1): both buffers share the chunks and whichever side appends
+ * next copies what it is about to write (the chunk table and the partly filled last chunk; full
+ * chunks are never written again, so they stay shared).
+ */
+final class ParticleBuffer {
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;   // particles per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int FIRST_CAPACITY = 64;
+
+    private static final Chunk[] NO_CHUNKS = new Chunk[0];
+
+    private static final class Chunk {
+        final float[] x, y, r;
+        final int[] core, glow;     // null for eraser buffers
+
+        Chunk(int capacity, boolean colored) {
+            x = new float[capacity];
+            y = new float[capacity];
+            r = new float[capacity];
+            core = colored ? new int[capacity] : null;
+            glow = colored ? new int[capacity] : null;
+        }
+
+        Chunk(Chunk src, int capacity) {
+            x = Arrays.copyOf(src.x, capacity);
+            y = Arrays.copyOf(src.y, capacity);
+            r = Arrays.copyOf(src.r, capacity);
+            core = src.core == null ? null : Arrays.copyOf(src.core, capacity);
+            glow = src.glow == null ? null : Arrays.copyOf(src.glow, capacity);
+        }
+
+        int capacity() { return x.length; }
+    }
+
+    private final boolean colored;
+    private Chunk[] chunks = NO_CHUNKS;
+    private int size;
+
+    // set on both sides by copy(), cleared by the first append
+    private boolean chunksShared;
+    private boolean tailShared;
+
+    ParticleBuffer(boolean colored) {
+        this.colored = colored;
+    }
+
+    int size() { return size; }
+
+    boolean isColored() { return colored; }
+
+    // =========================
+    // ✅ WRITE
+    // =========================
+    /** Dust particle; the alphas replace the colors' own alpha. */
+    void add(float x, float y, float r, int coreColor, int glowColor, int coreAlpha, int glowAlpha) {
+        if (!colored) throw new IllegalStateException("eraser buffer has no colors");
+        Chunk c = tailForWrite();
+        int i = size & CHUNK_MASK;
+        c.x[i] = x;
+        c.y[i] = y;
+        c.r[i] = r;
+        c.core[i] = withAlpha(coreColor, coreAlpha);
+        c.glow[i] = withAlpha(glowColor, glowAlpha);
+        size++;
+    }
+
+    /** Eraser dot (or a dust particle without colors). */
+    void add(float x, float y, float r) {
+        Chunk c = tailForWrite();
+        int i = size & CHUNK_MASK;
+        c.x[i] = x;
+        c.y[i] = y;
+        c.r[i] = r;
+        size++;
+    }
+
+    void clear() {
+        chunks = NO_CHUNKS;
+        size = 0;
+        chunksShared = false;
+        tailShared = false;
+    }
+
+    /** Shares everything with this buffer until one of them appends. */
+    ParticleBuffer copy() {
+        ParticleBuffer c = new ParticleBuffer(colored);
+        c.chunks = chunks;
+        c.size = size;
+        if (size > 0) {
+            chunksShared = tailShared = true;
+            c.chunksShared = c.tailShared = true;
+        }
+        return c;
+    }
+
+    private Chunk tailForWrite() {
+        int ci = size >> CHUNK_SHIFT;
+        int off = size & CHUNK_MASK;
+
+        if (off == 0) {
+            // starting a new chunk: only the chunk table changes
+            if (ci == chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(4, chunks.length * 2));
+            } else if (chunksShared) {
+                chunks = chunks.clone();
+            }
+            chunksShared = false;
+            tailShared = false;
+            return chunks[ci] = new Chunk(ci == 0 ? FIRST_CAPACITY : CHUNK_SIZE, colored);
+        }
+
+        Chunk tail = chunks[ci];
+        boolean full = off == tail.capacity();   // only the first chunk grows
+        if (tailShared || full) {
+            if (chunksShared) chunks = chunks.clone();
+            chunksShared = false;
+            tail = chunks[ci] = new Chunk(tail, full ? Math.min(CHUNK_SIZE, off * 2) : tail.capacity());
+            tailShared = false;
+        }
+        return tail;
+    }
+
+    // =========================
+    // ✅ READ
+    // =========================
+    float x(int i) { return chunks[i >> CHUNK_SHIFT].x[i & CHUNK_MASK]; }
+
+    float y(int i) { return chunks[i >> CHUNK_SHIFT].y[i & CHUNK_MASK]; }
+
+    float radius(int i) { return chunks[i >> CHUNK_SHIFT].r[i & CHUNK_MASK]; }
+
+    /** Core color with the particle's alpha in the alpha byte. */
+    int coreArgb(int i) { return chunks[i >> CHUNK_SHIFT].core[i & CHUNK_MASK]; }
+
+    /** Glow color with the particle's alpha in the alpha byte. */
+    int glowArgb(int i) { return chunks[i >> CHUNK_SHIFT].glow[i & CHUNK_MASK]; }
+
+    /** Bytes held by the chunks (shared chunks count for every buffer that sees them). */
+    long bytes() {
+        long slots = 0;
+        int used = (size + CHUNK_MASK) >> CHUNK_SHIFT;
+        for (int i = 0; i < used; i++) slots += chunks[i].capacity();
+        return slots * (colored ? 20 : 12);
+    }
+
+    static int withAlpha(int color, int alpha) {
+        int a = Math.max(0, Math.min(255, alpha));
+        return (a << 24) | (color & 0x00FFFFFF);
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.zenpath;
 
-import android.content.ContentValues;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
 import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.net.Uri;
 import android.os.Bundle;
-import android.os.Environment;
-import android.provider.MediaStore;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ImageButton;
@@ -23,14 +23,17 @@ import androidx.activity.OnBackPressedCallback;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.io.OutputStream;
+import java.io.File;
 
 public class PlanetActivity extends AppCompatActivity {
 
     private static final String PREFS = "asthera_prefs";
-    private static final String KEY_STATE = "space_state_v1";
+    private static final String KEY_STATE = "space_state_v1"; // legacy JSON, migrated to STATE_FILE
+    private static final String STATE_FILE = "planet_state_v2.bin";
 
     private ZoomSpaceView spaceView;
+    // ✅ opt-in render thread (null = the view draws itself in onDraw)
+    private GameSurfaceView gameSurface;
 
     private Button btnMove, btnStars, btnUndo, btnTool, btnMarkerTool, btnEraserTool;
     private Button btnClearAll, btnClearObject;
@@ -70,6 +73,12 @@ public class PlanetActivity extends AppCompatActivity {
     // Keep animation state when pausing
     private boolean planetsPlayingBeforePause = false;
 
+    // ✅ Background save / export (never blocks a frame)
+    private static final long AUTOSAVE_DELAY_MS = 2000L;
+    private final CanvasSaveExecutor saver = new CanvasSaveExecutor();
+    private final Handler ui = new Handler(Looper.getMainLooper());
+    private final Runnable autosaveRunnable = () -> saveState(false);
+
     // ✅ Play time tracker
     private GameTimeTracker playTracker;
     private boolean playTimeSaved = false;
@@ -88,17 +97,23 @@ public class PlanetActivity extends AppCompatActivity {
         setupPlanetButtons();
         setupSwatchesAndSeekBars();
 
-        loadStateFromPrefs();
+        loadState();
+        setupBackgroundSaving();
 
         // Show instructions first time
         if (savedInstanceState == null && instructionsOverlay != null) {
-            if (spaceView != null) spaceView.postDelayed(() -> showInstructionsOverlay(false), 250);
+            // (spaceView is off screen when the render thread draws the canvas)
+            if (spaceView != null) ui.postDelayed(() -> showInstructionsOverlay(false), 250);
             else showInstructionsOverlay(false);
         }
     }
 
     private void bindViews() {
         spaceView = findViewById(R.id.spaceView);
+        if (spaceView != null && GameRenderMode.isRenderThreadEnabled(this)) {
+            gameSurface = GameSurfaceView.replace(spaceView, spaceView);
+            spaceView.setRenderHost(gameSurface);
+        }
 
         ImageButton btnInfo = findViewById(R.id.btnInfo);
         ImageButton btnSave = findViewById(R.id.btnSave);
@@ -140,7 +155,7 @@ public class PlanetActivity extends AppCompatActivity {
 
         if (btnInfo != null) btnInfo.setOnClickListener(v -> showInstructionsOverlay(true));
         if (btnSave != null) btnSave.setOnClickListener(v -> {
-            saveStateToPrefs(false);
+            saveState(false);
             saveDesignToGallery();
         });
         if (menuIcon != null) menuIcon.setOnClickListener(v -> showPause());
@@ -178,6 +193,41 @@ public class PlanetActivity extends AppCompatActivity {
         });
     }
 
+    private void setupBackgroundSaving() {
+        saver.setCallback(new CanvasSaveExecutor.Callback() {
+            @Override
+            public void onStateSaved(boolean ok, Exception error, boolean userRequested) {
+                if (isFinishing() || isDestroyed()) return;
+                if (!ok) {
+                    String msg = (error == null) ? "" : error.getMessage();
+                    Toast.makeText(PlanetActivity.this, getString(R.string.save_state_error, msg), Toast.LENGTH_LONG).show();
+                } else if (userRequested) {
+                    Toast.makeText(PlanetActivity.this, R.string.work_saved, Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onImageExported(Uri uri, Exception error) {
+                if (isFinishing() || isDestroyed()) return;
+                if (error != null) {
+                    Toast.makeText(PlanetActivity.this, getString(R.string.save_error, error.getMessage()), Toast.LENGTH_LONG).show();
+                } else if (uri == null) {
+                    Toast.makeText(PlanetActivity.this, R.string.save_failed, Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(PlanetActivity.this, R.string.saved_to_gallery, Toast.LENGTH_LONG).show();
+                }
+            }
+        });
+
+        // debounced autosave: every edit pushes the save back, so a drawing session saves once it pauses
+        if (spaceView != null) {
+            spaceView.setOnCanvasChangedListener(() -> {
+                ui.removeCallbacks(autosaveRunnable);
+                ui.postDelayed(autosaveRunnable, AUTOSAVE_DELAY_MS);
+            });
+        }
+    }
+
     private void setupVolumeSeekIfPresent() {
         if (seekVolume == null) return;
 
@@ -241,6 +291,14 @@ public class PlanetActivity extends AppCompatActivity {
             });
         }
 
+        // debug builds: long-press Move toggles the drawn / culled overlay
+        if (btnMove != null && (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            btnMove.setOnLongClickListener(v -> {
+                if (spaceView != null) spaceView.setDebugOverlayEnabled(!spaceView.isDebugOverlayEnabled());
+                return true;
+            });
+        }
+
         if (btnStars != null) {
             btnStars.setOnClickListener(v -> {
                 setActive(btnStars);
@@ -358,6 +416,7 @@ public class PlanetActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+        if (gameSurface != null) gameSurface.onResume();
         playTimeSaved = false;
         if (playTracker == null) playTracker = new GameTimeTracker("Planet");
         playTracker.start();
@@ -368,7 +427,9 @@ public class PlanetActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         super.onPause();
-        saveStateToPrefs(false);
+        ui.removeCallbacks(autosaveRunnable);
+        saveState(false);
+        if (gameSurface != null) gameSurface.onPause();
         savePlayTimeOnce();
 
         // ⚠️ don’t always force main here if you're just opening overlays.
@@ -376,6 +437,13 @@ public class PlanetActivity extends AppCompatActivity {
         playMusic(MusicService.TRACK_MAIN);
     }
 
+    @Override
+    protected void onDestroy() {
+        ui.removeCallbacks(autosaveRunnable);
+        saver.shutdown(); // queued saves still finish
+        super.onDestroy();
+    }
+
     // =========================
     // Pause UX
     // =========================
@@ -528,24 +596,33 @@ public class PlanetActivity extends AppCompatActivity {
     // =========================
     // State persistence
     // =========================
-    private void saveStateToPrefs(boolean showToast) {
-        try {
-            if (spaceView == null) return;
-            String state = spaceView.exportStateJson();
-            SharedPreferences sp = getSharedPreferences(PREFS, MODE_PRIVATE);
-            sp.edit().putString(KEY_STATE, state).apply();
-            if (showToast) Toast.makeText(this, R.string.work_saved, Toast.LENGTH_SHORT).show();
-        } catch (Exception e) {
-            Toast.makeText(this, getString(R.string.save_state_error, e.getMessage()), Toast.LENGTH_LONG).show();
-        }
+    // Binary file in app storage (CanvasStateCodec). The old JSON in prefs is migrated once.
+    private File stateFile() {
+        return new File(getFilesDir(), STATE_FILE);
     }
 
-    private void loadStateFromPrefs() {
+    private void saveState(boolean showToast) {
+        if (spaceView == null) return;
+        // snapshot is taken here (between frames in render-thread mode); encoding + disk I/O happen on the saver thread
+        saver.saveState(spaceView.exportState(), stateFile(), showToast);
+    }
+
+    private void loadState() {
+        if (spaceView == null) return;
         try {
+            File f = stateFile();
+            if (f.exists()) {
+                spaceView.importState(CanvasStateCodec.readFile(f));
+                return;
+            }
+
+            // ✅ one-time migration from the old JSON string
             SharedPreferences sp = getSharedPreferences(PREFS, MODE_PRIVATE);
             String state = sp.getString(KEY_STATE, null);
-            if (state != null && !state.trim().isEmpty() && spaceView != null) {
+            if (state != null && !state.trim().isEmpty()) {
                 spaceView.importStateJson(state);
+                CanvasStateCodec.writeFile(spaceView.exportState(), f, true);
+                sp.edit().remove(KEY_STATE).apply();
             }
         } catch (Exception e) {
             Toast.makeText(this, getString(R.string.load_state_error, e.getMessage()), Toast.LENGTH_LONG).show();
@@ -605,34 +682,12 @@ public class PlanetActivity extends AppCompatActivity {
     // Save image
     // =========================
     private void saveDesignToGallery() {
+        if (spaceView == null) return;
         try {
-            if (spaceView == null) return;
+            // only the render happens here; PNG encoding + MediaStore write run in the background
             Bitmap bmp = spaceView.exportBitmap();
-
             String name = "Asthera_" + System.currentTimeMillis() + ".png";
-
-            ContentValues values = new ContentValues();
-            values.put(MediaStore.Images.Media.DISPLAY_NAME, name);
-            values.put(MediaStore.Images.Media.MIME_TYPE, "image/png");
-            values.put(MediaStore.Images.Media.RELATIVE_PATH,
-                    Environment.DIRECTORY_PICTURES + "/Asthera");
-
-            Uri uri = getContentResolver().insert(MediaStore.Images.Media.EXTERNAL_CONTENT_URI, values);
-            if (uri == null) {
-                Toast.makeText(this, R.string.save_failed, Toast.LENGTH_SHORT).show();
-                return;
-            }
-
-            try (OutputStream os = getContentResolver().openOutputStream(uri)) {
-                if (os == null) {
-                    Toast.makeText(this, R.string.save_failed, Toast.LENGTH_SHORT).show();
-                    return;
-                }
-                bmp.compress(Bitmap.CompressFormat.PNG, 100, os);
-                os.flush();
-            }
-
-            Toast.makeText(this, R.string.saved_to_gallery, Toast.LENGTH_LONG).show();
+            saver.exportPng(bmp, getContentResolver(), name);
         } catch (Exception e) {
             Toast.makeText(this, getString(R.string.save_error, e.getMessage()), Toast.LENGTH_LONG).show();
         }
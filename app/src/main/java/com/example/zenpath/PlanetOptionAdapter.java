@@ -44,8 +44,14 @@ public class PlanetOptionAdapter extends RecyclerView.Adapter<PlanetOptionAdapte
     public void onBindViewHolder(@NonNull VH h, int position) {
         h.tvPlanet.setText(labels[position]);
 
-        int icon = getIconRes(bodies[position]);
-        if (icon != 0) h.ivPlanet.setImageResource(icon);
+        int sprite = ZoomSpaceView.spriteFor(bodies[position]);
+        h.ivPlanet.setTag(R.id.bitmap_request, sprite);
+        h.ivPlanet.setImageDrawable(null);
+        SpriteSheet.load(context, sheet -> {
+            // a recycled holder may have been rebound while the atlas decoded
+            Object tag = h.ivPlanet.getTag(R.id.bitmap_request);
+            if (tag instanceof Integer && (Integer) tag == sprite) h.ivPlanet.setImageDrawable(sheet.drawable(sprite));
+        });
 
         // ✅ selection highlight
         h.root.setSelected(position == selectedPos);
@@ -78,20 +84,4 @@ public class PlanetOptionAdapter extends RecyclerView.Adapter<PlanetOptionAdapte
             tvPlanet = itemView.findViewById(R.id.tvPlanet);
         }
     }
-
-    private int getIconRes(ZoomSpaceView.Body body) {
-        switch (body) {
-            case SUN: return R.drawable.sun;
-            case MOON: return R.drawable.moon;
-            case MERCURY: return R.drawable.mercury;
-            case VENUS: return R.drawable.venus;
-            case EARTH: return R.drawable.earth;
-            case MARS: return R.drawable.mars;
-            case JUPITER: return R.drawable.jupiter;
-            case SATURN: return R.drawable.saturn;
-            case URANUS: return R.drawable.uranus;
-            case NEPTUNE: return R.drawable.neptune;
-            default: return 0;
-        }
-    }
 }
\ No newline at end of file
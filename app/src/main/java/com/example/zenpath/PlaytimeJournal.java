@@ -0,0 +1,132 @@
+package com.example.zenpath;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Game playtime not yet written to the stress table, summed per (user, day, game).
+ *
+ * Every add() appends one line to an append-only journal file first, so seconds recorded
+ * right before the process dies are picked up again by the next constructor. commit() removes
+ * what reached the database and rewrites the journal with whatever is still pending.
+ */
+final class PlaytimeJournal {
+
+    static final class Entry {
+        final long userId;
+        final String date;      // yyyyMMdd
+        final String gameKey;   // STAR_SWEEP / LANTERN_RELEASE / PLANET
+        final int seconds;
+
+        Entry(long userId, String date, String gameKey, int seconds) {
+            this.userId = userId;
+            this.date = date;
+            this.gameKey = gameKey;
+            this.seconds = seconds;
+        }
+
+        String key() {
+            return userId + "\t" + date + "\t" + gameKey;
+        }
+    }
+
+    private final File file;
+    private final LinkedHashMap<String, Entry> pending = new LinkedHashMap<>();
+
+    PlaytimeJournal(File file) {
+        this.file = file;
+        load();
+    }
+
+    synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    synchronized void add(long userId, String date, String gameKey, int seconds) throws IOException {
+        if (seconds <= 0) return;
+        Entry e = new Entry(userId, date, gameKey, seconds);
+
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            out.write(line(e).getBytes(StandardCharsets.UTF_8));
+        }
+        merge(e, 1);
+    }
+
+    /** Pending totals; pass the same list to commit() once they are in the database. */
+    synchronized List<Entry> snapshot() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /** Forgets {@code flushed} (seconds added since snapshot() stay pending). */
+    synchronized void commit(List<Entry> flushed) throws IOException {
+        for (Entry e : flushed) merge(e, -1);
+
+        if (pending.isEmpty()) {
+            if (file.exists() && !file.delete()) throw new IOException("can't delete " + file);
+            return;
+        }
+
+        // rewrite through a temp file so a crash leaves either the old or the new journal
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            StringBuilder sb = new StringBuilder();
+            for (Entry e : pending.values()) sb.append(line(e));
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) throw new IOException("can't replace " + file);
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private void merge(Entry e, int sign) {
+        String key = e.key();
+        Entry old = pending.get(key);
+        int total = (old == null ? 0 : old.seconds) + sign * e.seconds;
+        if (total <= 0) pending.remove(key);
+        else pending.put(key, new Entry(e.userId, e.date, e.gameKey, total));
+    }
+
+    private static String line(Entry e) {
+        return e.key() + "\t" + e.seconds + "\n";
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Entry e = parse(line);
+                if (e != null) merge(e, 1);
+            }
+        } catch (IOException ignored) {
+            // keep what was read; a torn tail only loses its last line
+        }
+    }
+
+    // null for a torn or malformed line
+    private static Entry parse(String line) {
+        String[] f = line.split("\t");
+        if (f.length != 4) return null;
+        try {
+            long userId = Long.parseLong(f[0]);
+            int seconds = Integer.parseInt(f[3]);
+            if (userId <= 0 || seconds <= 0 || f[1].length() != 8) return null;
+            return new Entry(userId, f[1], f[2], seconds);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects game playtime in a PlaytimeJournal and writes it to the stress table in batches.
+ *
+ * add() appends the journal line on the calling thread, so the seconds are on disk by the time
+ * onPause returns; only the database write runs on a background thread. A flush runs
+ * FLUSH_DELAY_MS after the first unflushed add, which coalesces
+ * quick pause/resume cycles into one transaction. Playtime left in the journal by a killed
+ * process is flushed when the recorder is first created.
+ */
+public final class PlaytimeRecorder {
+
+    private static final String TAG = "ZenPathDb";
+    private static final String JOURNAL_FILE = "playtime.journal";
+    private static final long FLUSH_DELAY_MS = 5_000L;
+    private static final long RETRY_DELAY_MS = 30_000L;
+
+    private static PlaytimeRecorder instance;
+
+    public static synchronized PlaytimeRecorder get(Context context) {
+        if (instance == null) instance = new PlaytimeRecorder(context.getApplicationContext());
+        return instance;
+    }
+
+    private final Context appContext;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "zenpath-playtime");
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    private final PlaytimeJournal journal;   // synchronized, shared with the worker
+    private boolean flushScheduled;          // worker thread only
+
+    private PlaytimeRecorder(Context appContext) {
+        this.appContext = appContext;
+        journal = new PlaytimeJournal(new File(appContext.getFilesDir(), JOURNAL_FILE));
+        if (!journal.isEmpty()) worker.execute(() -> scheduleFlush(0));
+    }
+
+    public void add(long userId, String date, String gameKey, int seconds) {
+        if (userId <= 0 || seconds <= 0) return;
+
+        try {
+            journal.add(userId, date, gameKey, seconds);
+        } catch (Exception e) {
+            // no journal line: still written to the database, just not crash-safe
+            Log.w(TAG, "playtime journal append failed", e);
+            addWithoutJournal(userId, date, gameKey, seconds);
+            return;
+        }
+        worker.execute(() -> scheduleFlush(FLUSH_DELAY_MS));
+    }
+
+    // =========================
+    // helpers (worker thread, except addWithoutJournal)
+    // =========================
+    private void scheduleFlush(long delayMs) {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        worker.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        flushScheduled = false;
+
+        List<PlaytimeJournal.Entry> batch = journal.snapshot();
+        if (batch.isEmpty()) return;
+
+        try {
+            AsyncZenPathRepository.get(appContext).write(r -> {
+                r.addGamePlaytime(batch);
+                return null;
+            }).get();
+        } catch (Exception e) {
+            Log.e(TAG, "playtime flush failed, retrying later", e);
+            scheduleFlush(RETRY_DELAY_MS);
+            return;
+        }
+
+        try {
+            journal.commit(batch);
+        } catch (Exception e) {
+            // the rows are in; a stale journal would add them again on the next start
+            Log.e(TAG, "playtime journal commit failed", e);
+        }
+    }
+
+    private void addWithoutJournal(long userId, String date, String gameKey, int seconds) {
+        AsyncZenPathRepository.get(appContext).write(r -> {
+            r.addGamePlaytime(userId, date, gameKey, seconds);
+            return null;
+        });
+    }
+}
@@ -22,6 +22,9 @@ public class RippleOverlayView extends View {
     }
 
     private final ArrayList<Ripple> ripples = new ArrayList<>();
+
+    // update and draw are one loop here, so only whole-frame time is meaningful
+    private final FrameProfiler profiler = new FrameProfiler("RippleOverlayView");
     private final Paint ringPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint glowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint sparklePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -74,6 +77,7 @@ public class RippleOverlayView extends View {
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        profiler.beginFrame();
 
         float t = SystemClock.uptimeMillis() / 1000f;
 
@@ -120,8 +124,16 @@ public class RippleOverlayView extends View {
             }
         }
 
+        profiler.endFrame(ripples.size());
+
         if (!ripples.isEmpty()) {
             postInvalidateOnAnimation();
         }
     }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        FrameStatsRecorder.endSession(getContext(), profiler);
+    }
 }
\ No newline at end of file
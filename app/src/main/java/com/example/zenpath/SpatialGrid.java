@@ -0,0 +1,122 @@
+package com.example.zenpath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Uniform grid over world coordinates for point hit-testing (ZoomSpaceView stars and planets).
+ *
+ * Items are points bucketed by cell, so a query only looks at the cells overlapping the search
+ * circle: a tap costs O(items near the finger) instead of O(all items).
+ * Items are compared by identity/equals, like HashMap keys. UI thread only.
+ */
+final class SpatialGrid<T> {
+
+    private static final class Entry<T> {
+        final T item;
+        float x, y;
+        long cell;
+
+        Entry(T item) { this.item = item; }
+    }
+
+    private final float cellSize;
+    private final HashMap<Long, ArrayList<Entry<T>>> cells = new HashMap<>();
+    private final HashMap<T, Entry<T>> entries = new HashMap<>();
+
+    SpatialGrid(float cellSize) {
+        if (!(cellSize > 0f)) throw new IllegalArgumentException("cellSize must be > 0");
+        this.cellSize = cellSize;
+    }
+
+    int size() { return entries.size(); }
+
+    /** Inserts the item, or moves it if it is already in the grid. */
+    void put(T item, float x, float y) {
+        long cell = key(cellCoord(x), cellCoord(y));
+        Entry<T> e = entries.get(item);
+
+        if (e == null) {
+            e = new Entry<>(item);
+            entries.put(item, e);
+        } else if (e.cell == cell) {
+            e.x = x;
+            e.y = y;
+            return;
+        } else {
+            unlink(e);
+        }
+
+        e.x = x;
+        e.y = y;
+        e.cell = cell;
+        ArrayList<Entry<T>> bucket = cells.get(cell);
+        if (bucket == null) {
+            bucket = new ArrayList<>(4);
+            cells.put(cell, bucket);
+        }
+        bucket.add(e);
+    }
+
+    boolean remove(T item) {
+        Entry<T> e = entries.remove(item);
+        if (e == null) return false;
+        unlink(e);
+        return true;
+    }
+
+    void clear() {
+        cells.clear();
+        entries.clear();
+    }
+
+    /** Appends every item within {@code radius} of (x, y) to {@code out} (out is not cleared). */
+    void query(float x, float y, float radius, ArrayList<T> out) {
+        if (entries.isEmpty() || !(radius >= 0f)) return;
+        float r2 = radius * radius;
+
+        int c0 = cellCoord(x - radius), c1 = cellCoord(x + radius);
+        int r0 = cellCoord(y - radius), r1 = cellCoord(y + radius);
+
+        // a huge radius would walk mostly empty cells: scan the occupied ones instead
+        long span = (long) (c1 - c0 + 1) * (long) (r1 - r0 + 1);
+        if (span > cells.size()) {
+            for (ArrayList<Entry<T>> bucket : cells.values()) collect(bucket, x, y, r2, out);
+            return;
+        }
+
+        for (int cy = r0; cy <= r1; cy++) {
+            for (int cx = c0; cx <= c1; cx++) {
+                ArrayList<Entry<T>> bucket = cells.get(key(cx, cy));
+                if (bucket != null) collect(bucket, x, y, r2, out);
+            }
+        }
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private void collect(ArrayList<Entry<T>> bucket, float x, float y, float r2, ArrayList<T> out) {
+        for (int i = 0; i < bucket.size(); i++) {
+            Entry<T> e = bucket.get(i);
+            float dx = e.x - x;
+            float dy = e.y - y;
+            if (dx * dx + dy * dy <= r2) out.add(e.item);
+        }
+    }
+
+    private void unlink(Entry<T> e) {
+        ArrayList<Entry<T>> bucket = cells.get(e.cell);
+        if (bucket == null) return;
+        bucket.remove(e);
+        if (bucket.isEmpty()) cells.remove(e.cell);
+    }
+
+    private int cellCoord(float v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
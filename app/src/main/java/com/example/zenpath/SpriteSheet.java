@@ -0,0 +1,129 @@
+package com.example.zenpath;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+
+/**
+ * The sun, moon, star and planet sprites, drawn from the one atlas bitmap packed at build time
+ * (see PackSpritesTask and the generated SpriteAtlas).
+ *
+ * A sprite is drawn into its frame: the rectangle the original image covered. Only its opaque part
+ * is stored in the atlas, so draw() places that part at its offset inside the frame.
+ *
+ * Main thread only.
+ */
+final class SpriteSheet {
+
+    interface Callback {
+        void onSheet(SpriteSheet sheet);
+    }
+
+    private static SpriteSheet shared;
+
+    /** The sheet, once the atlas is decoded (immediately when it is already cached). */
+    static void load(Context context, Callback cb) {
+        // requesting the full atlas size keeps inSampleSize at 1
+        BitmapRepository.get(context).load(R.drawable.sprite_atlas, SpriteAtlas.WIDTH, SpriteAtlas.HEIGHT, false, bmp -> {
+            if (bmp == null) return;
+            if (shared == null || shared.atlas != bmp) shared = new SpriteSheet(bmp);
+            cb.onSheet(shared);
+        });
+    }
+
+    private final Bitmap atlas;
+    private final Rect[] src = new Rect[SpriteAtlas.COUNT];
+    private final RectF tmpDst = new RectF();
+
+    private SpriteSheet(Bitmap atlas) {
+        this.atlas = atlas;
+
+        // lower densities are scaled copies of the xxxhdpi atlas
+        float k = (float) atlas.getWidth() / SpriteAtlas.WIDTH;
+        for (int id = 0; id < SpriteAtlas.COUNT; id++) {
+            int o = id * SpriteAtlas.STRIDE;
+            int x = SpriteAtlas.DATA[o];
+            int y = SpriteAtlas.DATA[o + 1];
+            src[id] = new Rect(Math.round(x * k), Math.round(y * k),
+                    Math.round((x + SpriteAtlas.DATA[o + 2]) * k), Math.round((y + SpriteAtlas.DATA[o + 3]) * k));
+        }
+    }
+
+    /** Frame width / height. */
+    static float aspect(int id) {
+        int o = id * SpriteAtlas.STRIDE;
+        return (float) SpriteAtlas.DATA[o + 4] / SpriteAtlas.DATA[o + 5];
+    }
+
+    void draw(Canvas c, int id, RectF frame, Paint paint) {
+        int o = id * SpriteAtlas.STRIDE;
+        float sx = frame.width() / SpriteAtlas.DATA[o + 4];
+        float sy = frame.height() / SpriteAtlas.DATA[o + 5];
+
+        float left = frame.left + SpriteAtlas.DATA[o + 6] * sx;
+        float top = frame.top + SpriteAtlas.DATA[o + 7] * sy;
+        tmpDst.set(left, top, left + SpriteAtlas.DATA[o + 2] * sx, top + SpriteAtlas.DATA[o + 3] * sy);
+        c.drawBitmap(atlas, src[id], tmpDst, paint);
+    }
+
+    /** For ImageViews: intrinsic size is the frame at the atlas density. */
+    Drawable drawable(int id) {
+        return new SpriteDrawable(this, id);
+    }
+
+    private static final class SpriteDrawable extends Drawable {
+        private final SpriteSheet sheet;
+        private final int id;
+        private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        private final RectF frame = new RectF();
+
+        SpriteDrawable(SpriteSheet sheet, int id) {
+            this.sheet = sheet;
+            this.id = id;
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+            frame.set(getBounds());
+            sheet.draw(canvas, id, frame, paint);
+        }
+
+        @Override
+        public int getIntrinsicWidth() {
+            return frameSize(4);
+        }
+
+        @Override
+        public int getIntrinsicHeight() {
+            return frameSize(5);
+        }
+
+        private int frameSize(int field) {
+            float k = (float) sheet.atlas.getWidth() / SpriteAtlas.WIDTH;
+            return Math.max(1, Math.round(SpriteAtlas.DATA[id * SpriteAtlas.STRIDE + field] * k));
+        }
+
+        @Override
+        public void setAlpha(int alpha) {
+            paint.setAlpha(alpha);
+            invalidateSelf();
+        }
+
+        @Override
+        public void setColorFilter(ColorFilter colorFilter) {
+            paint.setColorFilter(colorFilter);
+            invalidateSelf();
+        }
+
+        @Override
+        public int getOpacity() {
+            return PixelFormat.TRANSLUCENT;
+        }
+    }
+}
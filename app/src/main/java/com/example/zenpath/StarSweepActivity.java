@@ -15,6 +15,8 @@ public class StarSweepActivity extends AppCompatActivity
         implements StarSweepView.HudListener {
 
     private StarSweepView starSweepView;
+    // ✅ opt-in render thread (null = the view draws itself in onDraw)
+    private GameSurfaceView gameSurface;
 
     private TextView tvBreath, tvStarsLeft, tvStreakGame, tvFact;
     private ProgressBar progressStars;
@@ -44,6 +46,10 @@ public class StarSweepActivity extends AppCompatActivity
 
         // ✅ View references
         starSweepView = findViewById(R.id.starSweepView);
+        if (GameRenderMode.isRenderThreadEnabled(this)) {
+            gameSurface = GameSurfaceView.replace(starSweepView, starSweepView);
+            starSweepView.setRenderHost(gameSurface);
+        }
 
         tvBreath = findViewById(R.id.tvBreath);
         tvStarsLeft = findViewById(R.id.tvStarsLeft);
@@ -194,6 +200,7 @@ public class StarSweepActivity extends AppCompatActivity
     @Override
     protected void onPause() {
         super.onPause();
+        if (gameSurface != null) gameSurface.onPause();
         if (playTracker != null) playTracker.stopAndSave(this);
 
         // ⚠️ Don't force TRACK_MAIN here.
@@ -204,6 +211,7 @@ public class StarSweepActivity extends AppCompatActivity
     @Override
     protected void onResume() {
         super.onResume();
+        if (gameSurface != null) gameSurface.onResume();
         if (playTracker == null) playTracker = new GameTimeTracker("Star Sweep");
         playTracker.start();
 
@@ -2,7 +2,8 @@ package com.example.zenpath;
 
 import android.content.Context;
 import android.graphics.*;
-import android.os.SystemClock;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
@@ -10,7 +11,7 @@ import android.view.View;
 import java.util.ArrayList;
 import java.util.Random;
 
-public class StarSweepView extends View {
+public class StarSweepView extends View implements GameSurfaceView.Game {
 
     // ================= HUD =================
     public interface HudListener {
@@ -27,11 +28,39 @@ public class StarSweepView extends View {
         pushHud();
     }
 
+    // ================= RENDER MODE =================
+    // null = drawn by onDraw; otherwise stepped and drawn on the host's render thread
+    private GameSurfaceView host;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // View mode clock (the host has its own); both step at the same fixed rate
+    private final FixedStepClock clock =
+            new FixedStepClock(GameSurfaceView.STEPS_PER_SECOND, GameSurfaceView.MAX_STEPS_PER_FRAME);
+    private long simNow = 0;
+
+    private int gameW, gameH;
+
+    private final FrameProfiler profiler = new FrameProfiler("StarSweepView");
+
+    /** Hands stepping and drawing to {@code surface} (call once, before the game starts). */
+    public void setRenderHost(GameSurfaceView surface) {
+        host = surface;
+        // the shared sprite cache is main thread only
+        glow = GlowSpriteCache.newForThread();
+    }
+
     // ================= PAUSE =================
-    private boolean paused = false;
+    private volatile boolean paused = false;
     public void setPaused(boolean p) {
         paused = p;
-        if (!paused) postInvalidateOnAnimation();
+        if (host != null) {
+            host.setPaused(p);
+            return;
+        }
+        if (!paused) {
+            clock.reset();
+            postInvalidateOnAnimation();
+        }
     }
 
     // ================= CONFIG =================
@@ -97,12 +126,41 @@ public class StarSweepView extends View {
         float tail;
         float curve;
         float wobble;
+        boolean celebration;
     }
     private final ArrayList<ShootingStar> shootingStars = new ArrayList<>();
+    // ✅ recycled shooting stars (no allocation while the game runs)
+    private final ArrayList<ShootingStar> shootingPool = new ArrayList<>();
     private final Paint shootingHeadPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint shootingTailPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint shootingGlowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    // ✅ reused per frame: tail path + tail gradients (built along +x, indexed by [celebration][life bucket])
+    private static final int TAIL_LIFE_BUCKETS = 16;
+    private final Shader[][] tailShaders = new Shader[2][TAIL_LIFE_BUCKETS + 1];
+    private final Path tailPath = new Path();
+
+    // ✅ 5-point star: reused path + unit vertex table (outer, inner, outer, ...)
+    private static final int STAR_POINTS = 5;
+    private static final float[] STAR_COS = new float[STAR_POINTS * 2];
+    private static final float[] STAR_SIN = new float[STAR_POINTS * 2];
+    static {
+        double angle = -Math.PI / 2.0;
+        double step = Math.PI / STAR_POINTS;
+        for (int i = 0; i < STAR_POINTS * 2; i++) {
+            STAR_COS[i] = (float) Math.cos(angle);
+            STAR_SIN[i] = (float) Math.sin(angle);
+            angle += step;
+        }
+    }
+    private final Path starPath = new Path();
 
-    private long lastFrameMs = 0;
+    private final RectF titleRect = new RectF();
+
+    // ✅ pre-rendered soft glows (blur radii in px)
+    private GlowSpriteCache glow = GlowSpriteCache.get();
+    private float glowBlurLine, glowBlurStar, glowBlurHint, glowBlurHintRing;
+    private float glowBlurNebula, glowBlurHead, glowBlurTail;
     private long nextBgSpawnMs = 0;
 
     private long celebrationStartMs = 0;
@@ -137,18 +195,25 @@ public class StarSweepView extends View {
     private float topInsetPx() { return dp(210); }
     private float bottomInsetPx() { return dp(120); }
 
-    private float mapX(float nx) { return nx * getWidth(); }
+    private float mapX(float nx) { return nx * gameW; }
 
     private float mapY(float ny) {
         float top = topInsetPx();
         float bottom = bottomInsetPx();
-        float usable = Math.max(1f, getHeight() - top - bottom);
+        float usable = Math.max(1f, gameH - top - bottom);
         return top + (ny * usable);
     }
 
     // ================= INIT =================
     private void init() {
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
+        // glows come from GlowSpriteCache instead of BlurMaskFilter, so no software layer is needed
+        glowBlurLine = dp(10);
+        glowBlurStar = dp(14);
+        glowBlurHint = dp(18);
+        glowBlurHintRing = dp(6);
+        glowBlurNebula = dp(90);
+        glowBlurHead = dp(10);
+        glowBlurTail = dp(12);
 
         bag = new int[Constellations.ALL.length];
 
@@ -166,7 +231,6 @@ public class StarSweepView extends View {
         lineGlowPaint.setStrokeWidth(dp(9));
         lineGlowPaint.setStrokeCap(Paint.Cap.ROUND);
         lineGlowPaint.setStrokeJoin(Paint.Join.ROUND);
-        lineGlowPaint.setMaskFilter(new BlurMaskFilter(dp(10), BlurMaskFilter.Blur.NORMAL));
 
         // user-connected main line
         linePaint.setColor(Color.parseColor("#C6B7E2"));
@@ -181,7 +245,6 @@ public class StarSweepView extends View {
         guideGlowPaint.setStrokeWidth(dp(10));
         guideGlowPaint.setStrokeCap(Paint.Cap.ROUND);
         guideGlowPaint.setStrokeJoin(Paint.Join.ROUND);
-        guideGlowPaint.setMaskFilter(new BlurMaskFilter(dp(12), BlurMaskFilter.Blur.NORMAL));
 
         guidePathPaint.setColor(Color.parseColor("#AAFFFFFF"));
         guidePathPaint.setStyle(Paint.Style.STROKE);
@@ -198,7 +261,6 @@ public class StarSweepView extends View {
 
         starGlowPaint.setColor(Color.parseColor("#66FFFFFF"));
         starGlowPaint.setStyle(Paint.Style.FILL);
-        starGlowPaint.setMaskFilter(new BlurMaskFilter(dp(14), BlurMaskFilter.Blur.NORMAL));
 
         starCorePaint.setColor(Color.WHITE);
         starCorePaint.setStyle(Paint.Style.FILL);
@@ -206,12 +268,10 @@ public class StarSweepView extends View {
         // ✅ NEXT STAR GUIDE GLOW (strong + visible)
         nextHintGlowPaint.setColor(Color.parseColor("#99C6B7E2"));
         nextHintGlowPaint.setStyle(Paint.Style.FILL);
-        nextHintGlowPaint.setMaskFilter(new BlurMaskFilter(dp(18), BlurMaskFilter.Blur.NORMAL));
 
         nextHintRingPaint.setColor(Color.parseColor("#C6B7E2"));
         nextHintRingPaint.setStyle(Paint.Style.STROKE);
         nextHintRingPaint.setStrokeWidth(dp(2.5f));
-        nextHintRingPaint.setMaskFilter(new BlurMaskFilter(dp(6), BlurMaskFilter.Blur.NORMAL));
 
         // unused number paints (disabled)
         guideTextPaint.setColor(Color.WHITE);
@@ -239,18 +299,17 @@ public class StarSweepView extends View {
 
         nebulaPaint.setStyle(Paint.Style.FILL);
         nebulaPaint.setColor(Color.parseColor("#22C6B7E2"));
-        nebulaPaint.setMaskFilter(new BlurMaskFilter(dp(90), BlurMaskFilter.Blur.NORMAL));
 
         // shooting stars
         shootingHeadPaint.setStyle(Paint.Style.FILL);
         shootingHeadPaint.setColor(Color.WHITE);
-        shootingHeadPaint.setMaskFilter(new BlurMaskFilter(dp(10), BlurMaskFilter.Blur.NORMAL));
 
         shootingTailPaint.setStyle(Paint.Style.STROKE);
         shootingTailPaint.setStrokeCap(Paint.Cap.ROUND);
         shootingTailPaint.setStrokeJoin(Paint.Join.ROUND);
         shootingTailPaint.setColor(Color.WHITE);
-        shootingTailPaint.setMaskFilter(new BlurMaskFilter(dp(12), BlurMaskFilter.Blur.NORMAL));
+
+        shootingGlowPaint.setColor(Color.WHITE);
 
         loadNextShape();
         pushHud();
@@ -258,11 +317,11 @@ public class StarSweepView extends View {
 
     // ================= BACKGROUND =================
     private void ensureUniverseBackground() {
-        if (bgGenerated || getWidth() <= 0 || getHeight() <= 0) return;
+        if (bgGenerated || gameW <= 0 || gameH <= 0) return;
 
         bgStars.clear();
-        int count = Math.min(340, Math.max(200, (getWidth() * getHeight()) / 6000));
-        float hudCut = topInsetPx() / Math.max(1f, getHeight());
+        int count = Math.min(340, Math.max(200, (gameW * gameH) / 6000));
+        float hudCut = topInsetPx() / Math.max(1f, gameH);
 
         for (int i = 0; i < count; i++) {
             float x = rng.nextFloat();
@@ -283,20 +342,27 @@ public class StarSweepView extends View {
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
+        if (host == null) onGameSize(w, h);
+    }
+
+    @Override
+    public void onGameSize(int w, int h) {
+        gameW = w;
+        gameH = h;
         bgGenerated = false;
     }
 
     private void drawUniverseBackground(Canvas canvas, long now) {
         ensureUniverseBackground();
 
-        canvas.drawCircle(getWidth() * 0.25f, getHeight() * 0.55f, dp(220), nebulaPaint);
-        canvas.drawCircle(getWidth() * 0.78f, getHeight() * 0.72f, dp(260), nebulaPaint);
+        glow.drawCircle(canvas, gameW * 0.25f, gameH * 0.55f, dp(220), glowBlurNebula, nebulaPaint);
+        glow.drawCircle(canvas, gameW * 0.78f, gameH * 0.72f, dp(260), glowBlurNebula, nebulaPaint);
 
         for (int i = 0; i < bgStars.size(); i++) {
             BgStar s = bgStars.get(i);
 
-            float x = s.x * getWidth();
-            float y = s.y * getHeight();
+            float x = s.x * gameW;
+            float y = s.y * gameH;
 
             float tw = (float) (0.55 + 0.45 * Math.sin((now * 0.002f * s.tw) + i));
             int a = (int) (40 + 210 * tw);
@@ -322,11 +388,14 @@ public class StarSweepView extends View {
     }
 
     private void spawnShootingStar(boolean celebration) {
-        if (getWidth() <= 0 || getHeight() <= 0) return;
+        if (gameW <= 0 || gameH <= 0) return;
 
-        ShootingStar s = new ShootingStar();
+        ShootingStar s = shootingPool.isEmpty()
+                ? new ShootingStar()
+                : shootingPool.remove(shootingPool.size() - 1);
+        s.celebration = celebration;
 
-        s.x = rng.nextFloat() * getWidth() * 0.85f;
+        s.x = rng.nextFloat() * gameW * 0.85f;
         s.y = -dp(80) - rng.nextFloat() * dp(200);
 
         float speed = celebration ? dp(520) : dp(320);
@@ -342,10 +411,10 @@ public class StarSweepView extends View {
         s.wobble = 0.7f + rng.nextFloat() * 1.2f;
 
         shootingStars.add(s);
-        if (shootingStars.size() > 10) shootingStars.remove(0);
+        if (shootingStars.size() > 10) shootingPool.add(shootingStars.remove(0));
     }
 
-    private void updateAndDrawShootingStars(Canvas canvas, long now, float dtSec) {
+    private void updateShootingStars(float dtSec) {
         for (int i = shootingStars.size() - 1; i >= 0; i--) {
             ShootingStar s = shootingStars.get(i);
 
@@ -354,10 +423,15 @@ public class StarSweepView extends View {
 
             s.life -= dtSec * 0.33f;
 
-            if (s.life <= 0f || s.x > getWidth() + dp(520) || s.y > getHeight() + dp(520)) {
-                shootingStars.remove(i);
-                continue;
+            if (s.life <= 0f || s.x > gameW + dp(520) || s.y > gameH + dp(520)) {
+                shootingPool.add(shootingStars.remove(i));
             }
+        }
+    }
+
+    private void drawShootingStars(Canvas canvas, long now) {
+        for (int i = shootingStars.size() - 1; i >= 0; i--) {
+            ShootingStar s = shootingStars.get(i);
 
             float dx = s.vx;
             float dy = s.vy;
@@ -368,18 +442,51 @@ public class StarSweepView extends View {
             float tx = s.x - ux * s.tail;
             float ty = s.y - uy * s.tail;
 
-            float px = -uy;
-            float py = ux;
             float wob = (float) Math.sin(now * 0.0015f * s.wobble + i) * 0.35f;
 
-            float cx = (s.x + tx) * 0.5f + px * (s.curve * wob);
-            float cy = (s.y + ty) * 0.5f + py * (s.curve * wob);
-
-            int aTail = (int) (40 + 155 * s.life);
             int aHead = (int) (150 + 105 * s.life);
 
-            Shader tailShader = new LinearGradient(
-                    tx, ty, s.x, s.y,
+            shootingTailPaint.setShader(tailShader(s));
+
+            // soft halo comes from a sprite; the path itself is only the crisp core
+            float w = s.size * (1.8f + 0.7f * s.life);
+            shootingTailPaint.setStrokeWidth(w * 0.5f);
+            shootingGlowPaint.setAlpha(aHead);
+
+            // draw in the tail's own frame: origin at the tail end, +x towards the head
+            // (the bend is perpendicular to the flight direction, same as before)
+            tailPath.rewind();
+            tailPath.moveTo(0f, 0f);
+            tailPath.quadTo(s.tail * 0.5f, s.curve * wob, s.tail, 0f);
+
+            canvas.save();
+            canvas.translate(tx, ty);
+            canvas.rotate((float) Math.toDegrees(Math.atan2(uy, ux)));
+            glow.drawStreak(canvas, s.tail, s.size * 2.5f, glowBlurTail, shootingGlowPaint);
+            canvas.drawPath(tailPath, shootingTailPaint);
+            canvas.restore();
+
+            shootingHeadPaint.setAlpha(aHead);
+            glow.drawCircle(canvas, s.x, s.y, s.size * 1.9f, glowBlurHead, shootingHeadPaint);
+            glow.drawCircle(canvas, s.x, s.y, s.size * 1.1f, glowBlurHead, shootingHeadPaint);
+
+            shootingTailPaint.setShader(null);
+        }
+    }
+
+    // Tail gradient along +x (0..tail). Alpha depends on life, so it is bucketed and cached.
+    private Shader tailShader(ShootingStar s) {
+        int kind = s.celebration ? 1 : 0;
+        int bucket = Math.round(Math.max(0f, Math.min(1f, s.life)) * TAIL_LIFE_BUCKETS);
+
+        Shader sh = tailShaders[kind][bucket];
+        if (sh == null) {
+            float life = bucket / (float) TAIL_LIFE_BUCKETS;
+            int aTail = (int) (40 + 155 * life);
+            int aHead = (int) (150 + 105 * life);
+
+            sh = new LinearGradient(
+                    0f, 0f, s.tail, 0f,
                     new int[]{
                             Color.argb(0, 255, 255, 255),
                             Color.argb(Math.min(255, aTail), 255, 255, 255),
@@ -388,27 +495,18 @@ public class StarSweepView extends View {
                     new float[]{0f, 0.65f, 1f},
                     Shader.TileMode.CLAMP
             );
-            shootingTailPaint.setShader(tailShader);
-
-            float w = s.size * (1.8f + 0.7f * s.life);
-            shootingTailPaint.setStrokeWidth(w);
-
-            Path p = new Path();
-            p.moveTo(tx, ty);
-            p.quadTo(cx, cy, s.x, s.y);
-
-            canvas.drawPath(p, shootingTailPaint);
-
-            shootingHeadPaint.setAlpha(aHead);
-            canvas.drawCircle(s.x, s.y, s.size * 1.9f, shootingHeadPaint);
-            canvas.drawCircle(s.x, s.y, s.size * 1.1f, shootingHeadPaint);
-
-            shootingTailPaint.setShader(null);
+            tailShaders[kind][bucket] = sh;
         }
+        return sh;
     }
 
     // ================= GAME FLOW =================
     public void resetGame() {
+        if (host != null) host.queueEvent(this::resetGameNow);
+        else resetGameNow();
+    }
+
+    private void resetGameNow() {
         finished = false;
         flashing = false;
         flashStartMs = 0;
@@ -416,7 +514,7 @@ public class StarSweepView extends View {
 
         loadNextShape();
         pushHud();
-        invalidate();
+        if (host == null) invalidate();
     }
 
     private int pickRandomShapeIndex() {
@@ -463,26 +561,50 @@ public class StarSweepView extends View {
     }
 
     private void pushHud() {
-        if (hudListener != null) {
-            hudListener.onBreathText("Tonight: " + constellationName + " ✨");
-            hudListener.onFactText(constellationFact);
-            hudListener.onProgress(tapStep, Math.max(1, GOAL));
-        }
+        final String name = constellationName;
+        final String fact = constellationFact;
+        final int step = tapStep;
+        final int goal = Math.max(1, GOAL);
+        onHud(() -> {
+            hudListener.onBreathText("Tonight: " + name + " ✨");
+            hudListener.onFactText(fact);
+            hudListener.onProgress(step, goal);
+        });
+    }
+
+    // HUD callbacks always run on the main thread (game events fire on the render thread in host mode)
+    private void onHud(Runnable r) {
+        if (hudListener == null) return;
+        if (Looper.myLooper() == Looper.getMainLooper()) r.run();
+        else mainHandler.post(() -> { if (hudListener != null) r.run(); });
     }
 
     // ================= DRAW =================
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        if (host != null) return;
 
-        long now = SystemClock.uptimeMillis();
-        canvas.drawRect(0, 0, getWidth(), getHeight(), bgPaint);
+        profiler.beginFrame();
 
-        drawUniverseBackground(canvas, now);
+        // same fixed steps as the render thread, just driven by vsync on the UI thread
+        if (!paused) {
+            int n = clock.advance(System.nanoTime());
+            float dt = clock.stepSec();
+            for (int i = 0; i < n; i++) step(clock.nextStep(), dt);
+        }
+        profiler.updateDone();
+
+        render(canvas, clock.simTimeMs());
+        profiler.endFrame(frameObjectCount());
+
+        if (!paused) postInvalidateOnAnimation();
+    }
 
-        if (lastFrameMs == 0) lastFrameMs = now;
-        float dt = Math.min(0.05f, (now - lastFrameMs) / 1000f);
-        lastFrameMs = now;
+    // ================= SIMULATION (one fixed step) =================
+    @Override
+    public void step(long now, float dtSec) {
+        simNow = now;
 
         maybeSpawnBackgroundShootingStar(now);
 
@@ -490,21 +612,32 @@ public class StarSweepView extends View {
             if (rng.nextFloat() < 0.10f) spawnShootingStar(true);
         }
 
-        updateAndDrawShootingStars(canvas, now, dt);
-
-        if (paused) {
-            drawConstellation(canvas, now);
-            return;
-        }
+        updateShootingStars(dtSec);
 
         if (flashing && now - flashStartMs >= FLASH_DURATION_MS) {
             flashing = false;
             finished = true;
-            if (hudListener != null) hudListener.onFinishedReady();
+            onHud(() -> hudListener.onFinishedReady());
         }
+    }
+
+    @Override
+    public int frameObjectCount() {
+        return bgStars.size() + shootingStars.size() + stars.size();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        FrameStatsRecorder.endSession(getContext(), profiler);
+    }
 
+    @Override
+    public void render(Canvas canvas, long now) {
+        canvas.drawRect(0, 0, gameW, gameH, bgPaint);
+        drawUniverseBackground(canvas, now);
+        drawShootingStars(canvas, now);
         drawConstellation(canvas, now);
-        postInvalidateOnAnimation();
     }
 
     private void drawConstellation(Canvas canvas, long now) {
@@ -521,8 +654,8 @@ public class StarSweepView extends View {
                 float glowR = dp(26) + dp(14) * pulse;
                 float ringR = dp(18) + dp(10) * pulse;
 
-                canvas.drawCircle(hx, hy, glowR, nextHintGlowPaint);
-                canvas.drawCircle(hx, hy, ringR, nextHintRingPaint);
+                glow.drawCircle(canvas, hx, hy, glowR, glowBlurHint, nextHintGlowPaint);
+                glow.drawRing(canvas, hx, hy, ringR, nextHintRingPaint.getStrokeWidth(), glowBlurHintRing, nextHintRingPaint);
             }
         }
 
@@ -541,7 +674,7 @@ public class StarSweepView extends View {
 
             float twinkle = (float) (1.0 + 0.18 * Math.sin(now * 0.006 + i));
 
-            canvas.drawCircle(x, y, dp(18) * twinkle, starGlowPaint);
+            glow.drawCircle(canvas, x, y, dp(18) * twinkle, glowBlurStar, starGlowPaint);
             drawStar(canvas, x, y, dp(10) * twinkle, mainPaint);
             canvas.drawCircle(x, y, dp(2.8f) * twinkle, starCorePaint);
 
@@ -551,9 +684,9 @@ public class StarSweepView extends View {
         }
 
         if (finished) {
-            canvas.drawText("Completed ✨", getWidth() / 2f, dp(155), msgPaint);
+            canvas.drawText("Completed ✨", gameW / 2f, dp(155), msgPaint);
         } else if (flashing) {
-            canvas.drawText("✨ Beautiful ✨", getWidth() / 2f, dp(155), msgPaint);
+            canvas.drawText("✨ Beautiful ✨", gameW / 2f, dp(155), msgPaint);
         }
     }
 
@@ -581,7 +714,7 @@ public class StarSweepView extends View {
                 float ax = mapX(sa.x), ay = mapY(sa.y);
                 float bx = mapX(sb.x), by = mapY(sb.y);
 
-                canvas.drawLine(ax, ay, bx, by, lineGlowPaint);
+                glow.drawLine(canvas, ax, ay, bx, by, lineGlowPaint.getStrokeWidth(), glowBlurLine, lineGlowPaint);
                 canvas.drawLine(ax, ay, bx, by, linePaint);
             }
         }
@@ -589,89 +722,82 @@ public class StarSweepView extends View {
 
     // 5-point star
     private void drawStar(Canvas canvas, float cx, float cy, float outerRadius, Paint paint) {
-        Path path = new Path();
-
-        int points = 5;
-        double angle = -Math.PI / 2.0;
-        double step = Math.PI / points;
-
         float innerRadius = outerRadius * 0.45f;
 
-        path.moveTo(
-                (float) (cx + Math.cos(angle) * outerRadius),
-                (float) (cy + Math.sin(angle) * outerRadius)
-        );
+        starPath.rewind();
+        starPath.moveTo(cx + STAR_COS[0] * outerRadius, cy + STAR_SIN[0] * outerRadius);
 
-        for (int i = 0; i < points; i++) {
-            path.lineTo(
-                    (float) (cx + Math.cos(angle) * outerRadius),
-                    (float) (cy + Math.sin(angle) * outerRadius)
-            );
-            angle += step;
-
-            path.lineTo(
-                    (float) (cx + Math.cos(angle) * innerRadius),
-                    (float) (cy + Math.sin(angle) * innerRadius)
-            );
-            angle += step;
+        for (int i = 0; i < STAR_POINTS * 2; i++) {
+            float r = (i % 2 == 0) ? outerRadius : innerRadius;
+            starPath.lineTo(cx + STAR_COS[i] * r, cy + STAR_SIN[i] * r);
         }
 
-        path.close();
-        canvas.drawPath(path, paint);
+        starPath.close();
+        canvas.drawPath(starPath, paint);
     }
 
     private void drawTitleBadge(Canvas canvas) {
         String title = constellationName;
-        float cx = getWidth() / 2f;
+        float cx = gameW / 2f;
         float y = dp(85);
 
         float w = titlePaint.measureText(title);
-        RectF r = new RectF(cx - w / 2f - dp(18), y - dp(26), cx + w / 2f + dp(18), y + dp(10));
-        canvas.drawRoundRect(r, dp(18), dp(18), titleBgPaint);
+        titleRect.set(cx - w / 2f - dp(18), y - dp(26), cx + w / 2f + dp(18), y + dp(10));
+        canvas.drawRoundRect(titleRect, dp(18), dp(18), titleBgPaint);
         canvas.drawText(title, cx, y, titlePaint);
     }
 
     // ================= INPUT =================
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        // ✅ Allow HUD buttons (like Settings) to receive touches
-        if (event.getY() < topInsetPx()) return false;
+        if (!acceptsTouch(event.getX(), event.getY())) return false;
 
-        if (finished || flashing || paused) return true;
+        onGameTouch(event.getActionMasked(), event.getX(), event.getY());
+        return true;
+    }
 
-        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+    @Override
+    public boolean acceptsTouch(float x, float y) {
+        // ✅ Allow HUD buttons (like Settings) to receive touches
+        return y >= topInsetPx();
+    }
 
-            if (tapOrder == null || tapOrder.length == 0) return true;
-            if (tapStep >= tapOrder.length) return true;
+    @Override
+    public void onGameTouch(int action, float x, float y) {
+        if (finished || flashing || paused) return;
+        if (action != MotionEvent.ACTION_DOWN) return;
 
-            int targetIndex = tapOrder[tapStep]; // ✅ next required star
-            if (targetIndex < 0 || targetIndex >= stars.size()) return true;
+        if (tapOrder == null || tapOrder.length == 0) return;
+        if (tapStep >= tapOrder.length) return;
 
-            Star t = stars.get(targetIndex);
-            float tx = mapX(t.x);
-            float ty = mapY(t.y);
+        int targetIndex = tapOrder[tapStep]; // ✅ next required star
+        if (targetIndex < 0 || targetIndex >= stars.size()) return;
 
-            float dx = event.getX() - tx;
-            float dy = event.getY() - ty;
+        Star t = stars.get(targetIndex);
+        float tx = mapX(t.x);
+        float ty = mapY(t.y);
 
-            float tap = dp(36);
-            if (dx * dx + dy * dy < tap * tap) {
-                tapStep++;
+        float dx = x - tx;
+        float dy = y - ty;
 
-                if (hudListener != null) hudListener.onProgress(tapStep, Math.max(1, GOAL));
+        float tap = dp(36);
+        if (dx * dx + dy * dy < tap * tap) {
+            tapStep++;
 
-                if (tapStep >= GOAL) {
-                    flashing = true;
-                    flashStartMs = SystemClock.uptimeMillis();
-                    celebrationStartMs = flashStartMs;
-                    if (hudListener != null) hudListener.onFinishFlashStarted();
-                }
+            final int step = tapStep;
+            final int goal = Math.max(1, GOAL);
+            onHud(() -> hudListener.onProgress(step, goal));
 
-                invalidate();
+            if (tapStep >= GOAL) {
+                flashing = true;
+                // game time, so the flash lasts the same number of steps in both render modes
+                flashStartMs = simNow;
+                celebrationStartMs = flashStartMs;
+                onHud(() -> hudListener.onFinishFlashStarted());
             }
-        }
 
-        return true;
+            if (host == null) invalidate();
+        }
     }
 
     // ================= DATA TYPES =================
@@ -16,9 +16,7 @@ import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.List;
 import java.util.Locale;
 
 public class StressHistoryFragment extends Fragment {
@@ -35,7 +33,8 @@ public class StressHistoryFragment extends Fragment {
     }
 
     private SharedPreferences prefs;
-    private ZenPathRepository repo;
+    private AsyncZenPathRepository repo;
+    private int refreshGen = 0; // only the newest refresh binds
 
     private View[] dots = new View[7]; // Mon..Sun
     private TextView tvSelectedDate, tvStressPercent;
@@ -65,7 +64,7 @@ public class StressHistoryFragment extends Fragment {
         View v = inflater.inflate(R.layout.fragment_stress_history, container, false);
 
         prefs = requireContext().getSharedPreferences(PREFS, 0);
-        repo = new ZenPathRepository(requireContext());
+        repo = AsyncZenPathRepository.get(requireContext());
 
         dots[0] = v.findViewById(R.id.dot0);
         dots[1] = v.findViewById(R.id.dot1);
@@ -148,9 +147,34 @@ public class StressHistoryFragment extends Fragment {
             tvWeekLabel.setText(shortDate(weekStartMon) + " – " + shortDate(end));
         }
 
+        // ✅ whole week in one query, then everything below reads from week[]
+        String[] keys = new String[7];
+        for (int i = 0; i < 7; i++) keys[i] = dateKey(i);
+
+        int gen = ++refreshGen;
+        long userId = currentUserId();
+        if (userId <= 0) {
+            bind(keys, null);
+            return;
+        }
+
+        repo.read(getViewLifecycleOwner(), r -> {
+            try {
+                return r.getStressRange(userId, keys[0], keys[6]);
+            } catch (Exception ignored) {
+                return null; // prefs fallback below
+            }
+        }, range -> {
+            if (gen == refreshGen) bind(keys, range);
+        });
+    }
+
+    private void bind(String[] keys, ZenPathRepository.StressRange range) {
+        StressRow[] week = new StressRow[7];
+        for (int i = 0; i < 7; i++) week[i] = loadStressRow(range, i, keys[i]);
+
         for (int i = 0; i < 7; i++) {
-            String dk = dateKey(i);
-            boolean hasData = hasStressOrPlay(dk);
+            boolean hasData = hasStressOrPlay(week[i], keys[i]);
             boolean sel = (i == selectedIndex);
 
             if (dots[i] == null) continue;
@@ -159,10 +183,10 @@ public class StressHistoryFragment extends Fragment {
             else dots[i].setBackgroundResource(R.drawable.dot_empty);
         }
 
-        String dk = dateKey(selectedIndex);
+        String dk = keys[selectedIndex];
         if (tvSelectedDate != null) tvSelectedDate.setText(prettyDate(dk));
 
-        StressRow row = loadStressRow(dk);
+        StressRow row = week[selectedIndex];
 
         int stress = row.level;
 
@@ -191,10 +215,10 @@ public class StressHistoryFragment extends Fragment {
 
         long weekTotalMs = 0L;
         for (int i = 0; i < 7; i++) {
-            weekTotalMs += loadStressRow(dateKey(i)).totalMs;
+            weekTotalMs += week[i].totalMs;
         }
 
-        TrendResult trend = computeWeeklyTrend();
+        TrendResult trend = computeWeeklyTrend(week, keys);
 
         if (tvTotalToday != null) tvTotalToday.setText("Total today: " + formatHoursMinutes(totalMsToday));
         if (tvThisWeek != null) tvThisWeek.setText("This week: " + formatHoursMinutes(weekTotalMs));
@@ -203,47 +227,20 @@ public class StressHistoryFragment extends Fragment {
         if (dividerGames != null) dividerGames.setVisibility(View.VISIBLE);
     }
 
-    private StressRow loadStressRow(String dk) {
+    private StressRow loadStressRow(ZenPathRepository.StressRange range, int idx, String dk) {
         StressRow out = new StressRow();
 
-        long userId = currentUserId();
-
         // --- DB first ---
-        if (userId > 0) {
-            ZenPathDbHelper helper = new ZenPathDbHelper(requireContext());
-            try (android.database.sqlite.SQLiteDatabase db = helper.getReadableDatabase()) {
-
-                String sql =
-                        "SELECT " +
-                                ZenPathDbHelper.S_LEVEL + ", " +
-                                ZenPathDbHelper.S_PLAY_STAR + ", " +
-                                ZenPathDbHelper.S_PLAY_LANTERN + ", " +
-                                ZenPathDbHelper.S_PLAY_PLANET +
-                                " FROM " + ZenPathDbHelper.T_STRESS +
-                                " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.S_DATE + "=? " +
-                                " ORDER BY " + ZenPathDbHelper.S_CREATED_AT + " DESC LIMIT 1";
-
-                try (android.database.Cursor c = db.rawQuery(sql,
-                        new String[]{ String.valueOf(userId), dk })) {
-
-                    if (c.moveToFirst()) {
-                        out.level = c.getInt(0);
-
-                        // DB stores seconds -> convert to ms for your UI formatting
-                        int starSec = c.getInt(1);
-                        int lanternSec = c.getInt(2);
-                        int planetSec = c.getInt(3);
-
-                        out.starMs = starSec * 1000L;
-                        out.lanternMs = lanternSec * 1000L;
-                        out.planetMs = planetSec * 1000L;
-
-                        out.totalMs = out.starMs + out.lanternMs + out.planetMs;
-                        out.hasDb = true;
-                    }
-                }
-
-            } catch (Exception ignored) {}
+        if (range != null && idx < range.size() && range.has[idx]) {
+            out.level = range.level[idx];
+
+            // DB stores seconds -> convert to ms for your UI formatting
+            out.starMs = range.starSec[idx] * 1000L;
+            out.lanternMs = range.lanternSec[idx] * 1000L;
+            out.planetMs = range.planetSec[idx] * 1000L;
+
+            out.totalMs = out.starMs + out.lanternMs + out.planetMs;
+            out.hasDb = true;
         }
 
         // --- fallback to old prefs ---
@@ -272,19 +269,9 @@ public class StressHistoryFragment extends Fragment {
         if (tvTime != null) tvTime.setText(formatMinutes0Ok(ms));
     }
 
-    private boolean hasStressOrPlay(String dk) {
-        // DB quick check
-        long userId = currentUserId();
-        if (userId > 0) {
-            ZenPathDbHelper helper = new ZenPathDbHelper(requireContext());
-            try (android.database.sqlite.SQLiteDatabase db = helper.getReadableDatabase()) {
-                String sql = "SELECT 1 FROM " + ZenPathDbHelper.T_STRESS +
-                        " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.S_DATE + "=? LIMIT 1";
-                try (android.database.Cursor c = db.rawQuery(sql, new String[]{ String.valueOf(userId), dk })) {
-                    if (c.moveToFirst()) return true;
-                }
-            } catch (Exception ignored) {}
-        }
+    private boolean hasStressOrPlay(StressRow row, String dk) {
+        // DB row for that day
+        if (row.hasDb) return true;
 
         // prefs fallback
         boolean hasStress = prefs.contains(stressKey(dk));
@@ -294,68 +281,26 @@ public class StressHistoryFragment extends Fragment {
 
     // ---------------- Trend logic (week only, skip missing stress days) ----------------
 
-    private TrendResult computeWeeklyTrend() {
-        List<Float> xs = new ArrayList<>(); // stress
-        List<Float> ys = new ArrayList<>(); // play minutes
+    private TrendResult computeWeeklyTrend(StressRow[] week, String[] keys) {
+        float[] xs = new float[7]; // stress
+        float[] ys = new float[7]; // play minutes
+        int n = 0;
 
         for (int i = 0; i < 7; i++) {
-            String dk = dateKey(i);
-            StressRow row = loadStressRow(dk);
+            String dk = keys[i];
+            StressRow row = week[i];
 
             // skip missing stress days (stress not saved)
             // DB: we treat "hasDb" as saved; Prefs: contains(stressKey)
             boolean stressSaved = row.hasDb || prefs.contains(stressKey(dk));
             if (!stressSaved) continue;
 
-            xs.add((float) row.level);
-            ys.add((float) (row.totalMs / 60000f));
-        }
-
-        int n = xs.size();
-        if (n < 3) return new TrendResult("Not enough data this week (need 3+ days with stress saved).");
-
-        float r = pearson(xs, ys);
-
-        float abs = Math.abs(r);
-        String strength;
-        if (abs < 0.25f) strength = "No clear relationship";
-        else if (abs < 0.60f) strength = "Mild relationship";
-        else strength = "Strong relationship";
-
-        String direction;
-        if (abs < 0.25f) direction = "this week";
-        else if (r > 0) direction = "higher stress ↔ more playtime";
-        else direction = "higher stress ↔ less playtime";
-
-        String msg = (abs < 0.25f)
-                ? (strength + " " + direction + " (" + n + " days).")
-                : (strength + ": " + direction + " (" + n + " days).");
-
-        return new TrendResult(msg);
-    }
-
-    private float pearson(List<Float> xs, List<Float> ys) {
-        int n = xs.size();
-        float sumX = 0, sumY = 0;
-        for (int i = 0; i < n; i++) {
-            sumX += xs.get(i);
-            sumY += ys.get(i);
-        }
-        float meanX = sumX / n;
-        float meanY = sumY / n;
-
-        float num = 0, denX = 0, denY = 0;
-        for (int i = 0; i < n; i++) {
-            float dx = xs.get(i) - meanX;
-            float dy = ys.get(i) - meanY;
-            num += dx * dy;
-            denX += dx * dx;
-            denY += dy * dy;
+            xs[n] = row.level;
+            ys[n] = row.totalMs / 60000f;
+            n++;
         }
 
-        float den = (float) Math.sqrt(denX * denY);
-        if (den == 0) return 0f;
-        return num / den;
+        return new TrendResult(WeeklyTrend.message(xs, ys, n));
     }
 
     // ---------------- Date helpers ----------------
@@ -0,0 +1,114 @@
+package com.example.zenpath;
+
+/**
+ * Touch events handed from the UI thread to a game's render thread.
+ *
+ * offer() copies action/x/y into a fixed ring (no MotionEvent is kept, nothing is allocated),
+ * drain() delivers them in order on the consuming thread. When the ring is full, queued MOVEs
+ * are the first thing to go; DOWN/UP are never dropped while there is a MOVE to replace.
+ */
+final class TouchQueue {
+
+    interface Sink {
+        void onTouch(int action, float x, float y);
+    }
+
+    private final int[] actions;
+    private final float[] xs, ys;
+    private int head = 0, size = 0;
+
+    // drain() copies here under the lock, then dispatches without holding it
+    private final int[] outActions;
+    private final float[] outXs, outYs;
+
+    private final int moveAction;
+
+    /** @param moveAction the action value that may be coalesced (MotionEvent.ACTION_MOVE) */
+    TouchQueue(int capacity, int moveAction) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        actions = new int[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        outActions = new int[capacity];
+        outXs = new float[capacity];
+        outYs = new float[capacity];
+        this.moveAction = moveAction;
+    }
+
+    /** Returns false if the event was dropped. */
+    synchronized boolean offer(int action, float x, float y) {
+        int cap = actions.length;
+
+        if (size > 0 && action == moveAction) {
+            // consecutive moves: only the latest position matters
+            int last = (head + size - 1) % cap;
+            if (actions[last] == moveAction) {
+                xs[last] = x;
+                ys[last] = y;
+                return true;
+            }
+        }
+
+        if (size == cap && !dropOldestMove()) return false;
+
+        int i = (head + size) % cap;
+        actions[i] = action;
+        xs[i] = x;
+        ys[i] = y;
+        size++;
+        return true;
+    }
+
+    /** Delivers everything queued so far to {@code sink} (on the calling thread); returns the count. */
+    int drain(Sink sink) {
+        int n;
+        synchronized (this) {
+            n = size;
+            int cap = actions.length;
+            for (int k = 0; k < n; k++) {
+                int i = (head + k) % cap;
+                outActions[k] = actions[i];
+                outXs[k] = xs[i];
+                outYs[k] = ys[i];
+            }
+            head = 0;
+            size = 0;
+        }
+
+        // only the consuming thread touches out*, so reading them unlocked is fine
+        for (int k = 0; k < n; k++) sink.onTouch(outActions[k], outXs[k], outYs[k]);
+        return n;
+    }
+
+    synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private boolean dropOldestMove() {
+        int cap = actions.length;
+        for (int k = 0; k < size; k++) {
+            int i = (head + k) % cap;
+            if (actions[i] != moveAction) continue;
+
+            // shift the later events back by one
+            for (int j = k; j < size - 1; j++) {
+                int from = (head + j + 1) % cap;
+                int to = (head + j) % cap;
+                actions[to] = actions[from];
+                xs[to] = xs[from];
+                ys[to] = ys[from];
+            }
+            size--;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.zenpath;
+
+/**
+ * Stress vs. playtime trend line of the stress history week card (Android-free, see the
+ * benchmark module). Pairs are (stress level, play minutes) of the days that have stress saved.
+ */
+final class WeeklyTrend {
+
+    static final int MIN_DAYS = 3;
+
+    private WeeklyTrend() {}
+
+    /** The text shown after "Trend: " for the first {@code n} pairs. */
+    static String message(float[] stress, float[] playMinutes, int n) {
+        if (n < MIN_DAYS) return "Not enough data this week (need 3+ days with stress saved).";
+
+        float r = pearson(stress, playMinutes, n);
+
+        float abs = Math.abs(r);
+        String strength;
+        if (abs < 0.25f) strength = "No clear relationship";
+        else if (abs < 0.60f) strength = "Mild relationship";
+        else strength = "Strong relationship";
+
+        String direction;
+        if (abs < 0.25f) direction = "this week";
+        else if (r > 0) direction = "higher stress ↔ more playtime";
+        else direction = "higher stress ↔ less playtime";
+
+        return (abs < 0.25f)
+                ? (strength + " " + direction + " (" + n + " days).")
+                : (strength + ": " + direction + " (" + n + " days).");
+    }
+
+    /** Pearson correlation of the first {@code n} pairs; 0 when either side is constant. */
+    static float pearson(float[] xs, float[] ys, int n) {
+        float sumX = 0, sumY = 0;
+        for (int i = 0; i < n; i++) {
+            sumX += xs[i];
+            sumY += ys[i];
+        }
+        float meanX = sumX / n;
+        float meanY = sumY / n;
+
+        float num = 0, denX = 0, denY = 0;
+        for (int i = 0; i < n; i++) {
+            float dx = xs[i] - meanX;
+            float dy = ys[i] - meanY;
+            num += dx * dy;
+            denX += dx * dx;
+            denY += dy * dy;
+        }
+
+        float den = (float) Math.sqrt(denX * denY);
+        if (den == 0) return 0f;
+        return num / den;
+    }
+}
@@ -5,11 +5,15 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
 
 public class ZenPathDbHelper extends SQLiteOpenHelper {
 
     public static final String DB_NAME = "zenpath.db";
-    public static final int DB_VERSION = 5;
+    public static final int DB_VERSION = 12;
 
     // ===== USERS TABLE =====
     public static final String T_USERS = "users";
@@ -28,8 +32,17 @@ public class ZenPathDbHelper extends SQLiteOpenHelper {
     public static final String T_JOURNAL = "journal";
     public static final String J_ID = "_id";
     public static final String J_DATE = "entry_date";
-    public static final String J_TEXT = "entry_text";
+    public static final String J_TEXT = "entry_text";       // legacy, pages joined by PAGE_BREAK; empty since v11
     public static final String J_CREATED_AT = "created_at";
+    public static final String J_PREVIEW = "preview";          // start of the entry's pages, joined
+    public static final String J_HAS_CONTENT = "has_content";  // 1 when some page has text
+
+    // ===== JOURNAL PAGES (one row per diary page, UNIQUE (journal_id, page_index)) =====
+    public static final String T_JOURNAL_PAGE = "journal_page";
+    public static final String JP_ID = "_id";
+    public static final String JP_JOURNAL_ID = "journal_id";
+    public static final String JP_INDEX = "page_index";       // 0..n-1, no gaps
+    public static final String JP_TEXT = "page_text";
 
     // ===== MOOD =====
     public static final String T_MOOD = "mood";
@@ -49,8 +62,96 @@ public class ZenPathDbHelper extends SQLiteOpenHelper {
     public static final String S_PLAY_PLANET = "play_planet";            // seconds
     public static final String S_CREATED_AT = "created_at";
 
-    public ZenPathDbHelper(Context context) {
-        super(context, DB_NAME, null, DB_VERSION);
+    // ===== MOOD STREAK (one summary row per user, kept by upsertMood) =====
+    public static final String T_MOOD_STREAK = "mood_streak";
+    public static final String MS_CURRENT = "current_streak";   // days in the run ending at MS_LAST_DATE
+    public static final String MS_BEST = "best_streak";
+    public static final String MS_LAST_DATE = "last_date";      // yyyyMMdd, latest check-in
+    public static final String MS_UPDATED_AT = "updated_at";
+
+    // ===== DIARY SEARCH (FTS4 over journal pages + mood reflections, kept by triggers; see DiarySearch) =====
+    public static final String T_DIARY_FTS = "diary_fts";
+    public static final String F_BODY = "body";               // indexed text
+    public static final String F_DATE = "day";                // not indexed, the source row's date
+
+    // ===== FRAME STATS (one row per view session, written by FrameStatsRecorder) =====
+    public static final String T_FRAME_STATS = "frame_stats";
+    public static final String FS_ID = "_id";
+    public static final String FS_VIEW = "view_name";
+    public static final String FS_APP_VERSION = "app_version";
+    public static final String FS_STARTED_AT = "started_at";
+    public static final String FS_ENDED_AT = "ended_at";
+    public static final String FS_FRAMES = "frames";
+    public static final String FS_JANK = "jank_frames";
+    public static final String FS_P50_US = "p50_us";
+    public static final String FS_P95_US = "p95_us";
+    public static final String FS_P99_US = "p99_us";
+    public static final String FS_MAX_US = "max_us";
+    public static final String FS_AVG_UPDATE_US = "avg_update_us";
+    public static final String FS_AVG_DRAW_US = "avg_draw_us";
+    public static final String FS_AVG_OBJECTS = "avg_objects";
+
+    private static ZenPathDbHelper instance;
+
+    // compiled statements for the hot upserts, keyed by SQL (see statement())
+    private final HashMap<String, SQLiteStatement> statements = new HashMap<>();
+
+    // INSERT ... ON CONFLICT DO UPDATE needs SQLite 3.24 (Android 11+), set in onOpen
+    private volatile boolean upsertSupported = false;
+    private volatile boolean upsertDisabled = false;
+
+    /** One helper (one connection pool) for the whole process. */
+    public static synchronized ZenPathDbHelper getInstance(Context context) {
+        if (instance == null) instance = new ZenPathDbHelper(context.getApplicationContext(), DB_NAME, true);
+        return instance;
+    }
+
+    // separate files for tests/benchmarks; wal=false keeps the old rollback journal
+    ZenPathDbHelper(Context context, String name, boolean wal) {
+        super(context, name, null, DB_VERSION);
+        setWriteAheadLoggingEnabled(wal);
+    }
+
+    /**
+     * Compiled statement for {@code sql}, created once per open database.
+     * A statement holds its bindings, so callers bind + execute while synchronized on it.
+     */
+    SQLiteStatement statement(String sql) {
+        SQLiteDatabase db = getWritableDatabase();
+        synchronized (statements) {
+            SQLiteStatement st = statements.get(sql);
+            if (st == null) {
+                st = db.compileStatement(sql);
+                statements.put(sql, st);
+            }
+            return st;
+        }
+    }
+
+    /** True when the open database understands INSERT ... ON CONFLICT DO UPDATE. */
+    boolean supportsUpsert() {
+        getWritableDatabase();
+        return upsertSupported && !upsertDisabled;
+    }
+
+    // tests: take the UPDATE + INSERT fallback even where SQLite has upserts
+    void disableUpsert() {
+        upsertDisabled = true;
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        upsertSupported = sqliteAtLeast(db, 3, 24);
+    }
+
+    @Override
+    public synchronized void close() {
+        synchronized (statements) {
+            for (SQLiteStatement st : statements.values()) st.close();
+            statements.clear();
+        }
+        super.close();
     }
 
     @Override
@@ -71,7 +172,9 @@ public class ZenPathDbHelper extends SQLiteOpenHelper {
                         COL_USER_ID + " INTEGER NOT NULL, " +
                         J_DATE + " TEXT NOT NULL, " +
                         J_TEXT + " TEXT NOT NULL, " +
-                        J_CREATED_AT + " INTEGER NOT NULL" +
+                        J_CREATED_AT + " INTEGER NOT NULL, " +
+                        J_PREVIEW + " TEXT NOT NULL DEFAULT '', " +
+                        J_HAS_CONTENT + " INTEGER NOT NULL DEFAULT 0" +
                         ");";
 
         String createMood =
@@ -100,12 +203,13 @@ public class ZenPathDbHelper extends SQLiteOpenHelper {
         db.execSQL(createJournal);
         db.execSQL(createMood);
         db.execSQL(createStress);
+        createMoodStreakTable(db);
+        createFrameStatsTable(db);
 
-        // indexes
-        db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_username ON " + T_USERS + "(" + U_USERNAME + ")");
-        db.execSQL("CREATE INDEX IF NOT EXISTS idx_journal_user_date ON " + T_JOURNAL + "(" + COL_USER_ID + "," + J_DATE + ")");
-        db.execSQL("CREATE INDEX IF NOT EXISTS idx_mood_user_date ON " + T_MOOD + "(" + COL_USER_ID + "," + M_DATE + ")");
-        db.execSQL("CREATE INDEX IF NOT EXISTS idx_stress_user_date ON " + T_STRESS + "(" + COL_USER_ID + "," + S_DATE + ")");
+        createIndexes(db);
+        createDiarySearch(db);
+        createJournalPages(db);
+        createJournalSummary(db);
 
         createGuestIfNeeded(db);
     }
@@ -212,10 +316,254 @@ public class ZenPathDbHelper extends SQLiteOpenHelper {
             db.execSQL("DROP TABLE stress_old");
         }
 
+        // ✅ 5) v5 -> v6: the v4 table swap dropped the user/date indexes (range queries need them)
+        if (oldVersion < 6) {
+            createIndexes(db);
+        }
+
+        // ✅ 6) v6 -> v7: streak summary (rows are backfilled per user on first read)
+        if (oldVersion < 7) {
+            createMoodStreakTable(db);
+        }
+
+        // ✅ 7) v7 -> v8: frame profiler sessions
+        if (oldVersion < 8) {
+            createFrameStatsTable(db);
+        }
+
+        // ✅ 8) v8 -> v9: one journal / mood / stress row per user and day (older dbs may have duplicates)
+        if (oldVersion < 9) {
+            createDayIndexes(db);
+        }
+
+        // ✅ 9) v9 -> v10: diary search index, filled from the existing entries and reflections
+        if (oldVersion < 10) {
+            createDiarySearch(db);
+        }
+
+        // ✅ 10) v10 -> v11: diary pages move out of the joined entry_text into their own rows
+        if (oldVersion < 11) {
+            createJournalPages(db);
+        }
+
+        // ✅ 11) v11 -> v12: stored history previews + the index the history pages are read from
+        if (oldVersion < 12) {
+            createJournalSummary(db);
+        }
+
         // ✅ Always ensure guest exists at end
         createGuestIfNeeded(db);
     }
 
+    private void createMoodStreakTable(SQLiteDatabase db) {
+        db.execSQL(
+                "CREATE TABLE IF NOT EXISTS " + T_MOOD_STREAK + " (" +
+                        COL_USER_ID + " INTEGER PRIMARY KEY, " +
+                        MS_CURRENT + " INTEGER NOT NULL DEFAULT 0, " +
+                        MS_BEST + " INTEGER NOT NULL DEFAULT 0, " +
+                        MS_LAST_DATE + " TEXT, " +
+                        MS_UPDATED_AT + " INTEGER NOT NULL" +
+                        ");"
+        );
+    }
+
+    private void createFrameStatsTable(SQLiteDatabase db) {
+        db.execSQL(
+                "CREATE TABLE IF NOT EXISTS " + T_FRAME_STATS + " (" +
+                        FS_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        FS_VIEW + " TEXT NOT NULL, " +
+                        FS_APP_VERSION + " TEXT, " +
+                        FS_STARTED_AT + " INTEGER NOT NULL, " +
+                        FS_ENDED_AT + " INTEGER NOT NULL, " +
+                        FS_FRAMES + " INTEGER NOT NULL, " +
+                        FS_JANK + " INTEGER NOT NULL, " +
+                        FS_P50_US + " INTEGER NOT NULL, " +
+                        FS_P95_US + " INTEGER NOT NULL, " +
+                        FS_P99_US + " INTEGER NOT NULL, " +
+                        FS_MAX_US + " INTEGER NOT NULL, " +
+                        FS_AVG_UPDATE_US + " INTEGER NOT NULL, " +
+                        FS_AVG_DRAW_US + " INTEGER NOT NULL, " +
+                        FS_AVG_OBJECTS + " INTEGER NOT NULL" +
+                        ");"
+        );
+    }
+
+    private void createIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_username ON " + T_USERS + "(" + U_USERNAME + ")");
+        createDayIndexes(db);
+    }
+
+    /**
+     * UNIQUE (user_id, date) on journal, mood and stress, the conflict target of the repository upserts.
+     * Duplicate days are removed first, keeping the newest row (the one the screens were showing).
+     */
+    private void createDayIndexes(SQLiteDatabase db) {
+        createDayIndex(db, T_JOURNAL, J_ID, J_DATE, J_CREATED_AT, "journal");
+        createDayIndex(db, T_MOOD, M_ID, M_DATE, M_CREATED_AT, "mood");
+        createDayIndex(db, T_STRESS, S_ID, S_DATE, S_CREATED_AT, "stress");
+    }
+
+    private void createDayIndex(SQLiteDatabase db, String table, String id, String date, String createdAt, String prefix) {
+        db.execSQL(
+                "DELETE FROM " + table + " WHERE EXISTS (" +
+                        "SELECT 1 FROM " + table + " n" +
+                        " WHERE n." + COL_USER_ID + " = " + table + "." + COL_USER_ID +
+                        " AND n." + date + " = " + table + "." + date +
+                        " AND (n." + createdAt + " > " + table + "." + createdAt +
+                        " OR (n." + createdAt + " = " + table + "." + createdAt + " AND n." + id + " > " + table + "." + id + ")))"
+        );
+
+        // the unique index replaces the plain one from v6
+        db.execSQL("DROP INDEX IF EXISTS idx_" + prefix + "_user_date");
+        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS ux_" + prefix + "_user_date ON " + table +
+                "(" + COL_USER_ID + "," + date + ")");
+    }
+
+    /**
+     * diary_fts and the triggers that keep it in step with mood, then a backfill; journal pages are
+     * indexed by createJournalPages. docid is journal_page _id * 2 or mood _id * 2 + 1 (DiarySearch).
+     * Empty pages and reflections get no row. user_id and day are stored for filtering, not searched.
+     */
+    private void createDiarySearch(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + T_DIARY_FTS + " USING fts4(" +
+                F_BODY + ", " + COL_USER_ID + ", " + F_DATE + ", " +
+                "notindexed=" + COL_USER_ID + ", notindexed=" + F_DATE + ", tokenize=porter)");
+
+        String moodRow = "INSERT INTO " + T_DIARY_FTS + " (docid, " + F_BODY + ", " + COL_USER_ID + ", " + F_DATE + ") " +
+                "SELECT new." + M_ID + " * 2 + 1, new." + M_REFLECTION + ", new." + COL_USER_ID + ", new." + M_DATE +
+                " WHERE length(trim(COALESCE(new." + M_REFLECTION + ", ''))) > 0; ";
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS mood_fts_ai AFTER INSERT ON " + T_MOOD +
+                " BEGIN " + moodRow + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS mood_fts_au AFTER UPDATE OF " +
+                M_REFLECTION + ", " + M_DATE + ", " + COL_USER_ID + " ON " + T_MOOD +
+                " BEGIN DELETE FROM " + T_DIARY_FTS + " WHERE docid = old." + M_ID + " * 2 + 1; " + moodRow + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS mood_fts_ad AFTER DELETE ON " + T_MOOD +
+                " BEGIN DELETE FROM " + T_DIARY_FTS + " WHERE docid = old." + M_ID + " * 2 + 1; END");
+
+        db.execSQL("DELETE FROM " + T_DIARY_FTS);
+        db.execSQL("INSERT INTO " + T_DIARY_FTS + " (docid, " + F_BODY + ", " + COL_USER_ID + ", " + F_DATE + ") " +
+                "SELECT " + M_ID + " * 2 + 1, " + M_REFLECTION + ", " + COL_USER_ID + ", " + M_DATE + " FROM " + T_MOOD +
+                " WHERE length(trim(COALESCE(" + M_REFLECTION + ", ''))) > 0");
+        db.execSQL("INSERT INTO " + T_DIARY_FTS + "(" + T_DIARY_FTS + ") VALUES ('optimize')");
+    }
+
+    /**
+     * journal_page, its search triggers and a cleanup trigger for deleted entries, then the legacy
+     * entry_text of every entry is split into page rows (and cleared). A v10 db indexed whole entries:
+     * those triggers and rows go first, the page inserts index the text again.
+     */
+    private void createJournalPages(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS journal_fts_ai");
+        db.execSQL("DROP TRIGGER IF EXISTS journal_fts_au");
+        db.execSQL("DROP TRIGGER IF EXISTS journal_fts_ad");
+        db.execSQL("DELETE FROM " + T_DIARY_FTS + " WHERE docid % 2 = 0");
+
+        db.execSQL(
+                "CREATE TABLE IF NOT EXISTS " + T_JOURNAL_PAGE + " (" +
+                        JP_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        JP_JOURNAL_ID + " INTEGER NOT NULL, " +
+                        JP_INDEX + " INTEGER NOT NULL, " +
+                        JP_TEXT + " TEXT NOT NULL, " +
+                        "UNIQUE (" + JP_JOURNAL_ID + ", " + JP_INDEX + ")" +
+                        ");"
+        );
+
+        String pageRow = "INSERT INTO " + T_DIARY_FTS + " (docid, " + F_BODY + ", " + COL_USER_ID + ", " + F_DATE + ") " +
+                "SELECT new." + JP_ID + " * 2, new." + JP_TEXT + ", j." + COL_USER_ID + ", j." + J_DATE +
+                " FROM " + T_JOURNAL + " j WHERE j." + J_ID + " = new." + JP_JOURNAL_ID +
+                " AND length(trim(new." + JP_TEXT + ")) > 0; ";
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS journal_page_fts_ai AFTER INSERT ON " + T_JOURNAL_PAGE +
+                " BEGIN " + pageRow + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS journal_page_fts_au AFTER UPDATE OF " + JP_TEXT + " ON " + T_JOURNAL_PAGE +
+                " BEGIN DELETE FROM " + T_DIARY_FTS + " WHERE docid = old." + JP_ID + " * 2; " + pageRow + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS journal_page_fts_ad AFTER DELETE ON " + T_JOURNAL_PAGE +
+                " BEGIN DELETE FROM " + T_DIARY_FTS + " WHERE docid = old." + JP_ID + " * 2; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS journal_pages_ad AFTER DELETE ON " + T_JOURNAL +
+                " BEGIN DELETE FROM " + T_JOURNAL_PAGE + " WHERE " + JP_JOURNAL_ID + " = old." + J_ID + "; END");
+
+        SQLiteStatement insert = db.compileStatement(
+                "INSERT INTO " + T_JOURNAL_PAGE + " (" + JP_JOURNAL_ID + ", " + JP_INDEX + ", " + JP_TEXT + ") VALUES (?, ?, ?)");
+        try (Cursor c = db.rawQuery("SELECT " + J_ID + ", " + J_TEXT + " FROM " + T_JOURNAL +
+                " WHERE " + J_TEXT + " <> ''", null)) {
+            while (c.moveToNext()) {
+                ArrayList<String> pages = DiaryPages.split(c.getString(1));
+                for (int i = 0; i < pages.size(); i++) {
+                    insert.bindLong(1, c.getLong(0));
+                    insert.bindLong(2, i);
+                    insert.bindString(3, pages.get(i));
+                    insert.executeInsert();
+                }
+            }
+        } finally {
+            insert.close();
+        }
+        db.execSQL("UPDATE " + T_JOURNAL + " SET " + J_TEXT + " = '' WHERE " + J_TEXT + " <> ''");
+        db.execSQL("INSERT INTO " + T_DIARY_FTS + "(" + T_DIARY_FTS + ") VALUES ('optimize')");
+    }
+
+    /**
+     * journal.preview / has_content (kept by ZenPathRepository.saveDiaryPages), filled from the
+     * pages, and the history index: (user_id, has_content, created_at) plus the columns a history
+     * tile shows, so a page of history is read from the index alone. entry_date is unique per user,
+     * which makes (created_at, entry_date) the keyset the pages continue from.
+     */
+    private void createJournalSummary(SQLiteDatabase db) {
+        safeAddColumn(db, T_JOURNAL, J_PREVIEW, "TEXT NOT NULL DEFAULT ''");
+        safeAddColumn(db, T_JOURNAL, J_HAS_CONTENT, "INTEGER NOT NULL DEFAULT 0");
+
+        SQLiteStatement update = db.compileStatement(
+                "UPDATE " + T_JOURNAL + " SET " + J_PREVIEW + " = ?, " + J_HAS_CONTENT + " = 1 WHERE " + J_ID + " = ?");
+        // every page of the entries with any text, one entry after the other
+        try (Cursor c = db.rawQuery("SELECT " + JP_JOURNAL_ID + ", " + JP_TEXT + " FROM " + T_JOURNAL_PAGE +
+                " WHERE " + JP_JOURNAL_ID + " IN (SELECT " + JP_JOURNAL_ID + " FROM " + T_JOURNAL_PAGE +
+                " WHERE length(trim(" + JP_TEXT + ")) > 0)" +
+                " ORDER BY " + JP_JOURNAL_ID + ", " + JP_INDEX, null)) {
+            ArrayList<String> pages = new ArrayList<>();
+            long journalId = -1;
+            while (c.moveToNext()) {
+                if (c.getLong(0) != journalId) {
+                    if (journalId >= 0) updatePreview(update, journalId, pages);
+                    journalId = c.getLong(0);
+                    pages.clear();
+                }
+                pages.add(c.getString(1));
+            }
+            if (journalId >= 0) updatePreview(update, journalId, pages);
+        } finally {
+            update.close();
+        }
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_journal_history ON " + T_JOURNAL + "(" +
+                COL_USER_ID + ", " + J_HAS_CONTENT + ", " + J_CREATED_AT + ", " + J_DATE + ", " + J_PREVIEW + ")");
+    }
+
+    private static void updatePreview(SQLiteStatement update, long journalId, ArrayList<String> pages) {
+        update.bindString(1, DiaryPages.preview(pages));
+        update.bindLong(2, journalId);
+        update.executeUpdateDelete();
+    }
+
+    private static boolean sqliteAtLeast(SQLiteDatabase db, int major, int minor) {
+        String v;
+        try (Cursor c = db.rawQuery("SELECT sqlite_version()", null)) {
+            if (!c.moveToFirst()) return false;
+            v = c.getString(0);
+        } catch (Exception e) {
+            return false;
+        }
+
+        String[] parts = v.split("\\.");
+        try {
+            int ma = Integer.parseInt(parts[0]);
+            int mi = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return ma > major || (ma == major && mi >= minor);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     private void safeAddColumn(SQLiteDatabase db, String table, String col, String typeSql) {
         try {
             if (!hasColumn(db, table, col)) {
@@ -5,8 +5,13 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.LongSparseArray;
+import android.util.SparseArray;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class ZenPathRepository {
 
@@ -17,8 +22,234 @@ public class ZenPathRepository {
     private static final String KEY_CURRENT_USER = "current_user"; // stores userId as String
 
     public ZenPathRepository(Context context) {
+        this(context, ZenPathDbHelper.getInstance(context));
+    }
+
+    ZenPathRepository(Context context, ZenPathDbHelper helper) {
         this.context = context.getApplicationContext();
-        helper = new ZenPathDbHelper(this.context);
+        DbThreadPolicy.install(this.context);
+        this.helper = helper;
+    }
+
+    // =========================
+    // ✅ DB access (checked in debug builds)
+    // =========================
+    private SQLiteDatabase writableDb() {
+        DbThreadPolicy.onDbAccess();
+        return helper.getWritableDatabase();
+    }
+
+    private SQLiteDatabase readableDb() {
+        DbThreadPolicy.onDbAccess();
+        return helper.getReadableDatabase();
+    }
+
+    /** Opens the database (and runs any pending migration) without doing anything else. */
+    void open() {
+        writableDb();
+    }
+
+    // =========================
+    // ✅ Compiled statements (hot upserts)
+    // =========================
+    // Each write is an *_UPSERT (INSERT ... ON CONFLICT on the UNIQUE (user_id, date) index) where
+    // SQLite supports it, else the *_UPDATE + *_INSERT pair (see upsert()). Bind order: user, date, values...
+    private static final String SQL_JOURNAL_INSERT =
+            "INSERT INTO " + ZenPathDbHelper.T_JOURNAL + " (" +
+                    ZenPathDbHelper.COL_USER_ID + "," + ZenPathDbHelper.J_DATE + "," +
+                    ZenPathDbHelper.J_TEXT + "," + ZenPathDbHelper.J_CREATED_AT +
+                    ") VALUES (?,?,?,?)";
+
+    private static final String SQL_JOURNAL_UPSERT = SQL_JOURNAL_INSERT +
+            onConflict(ZenPathDbHelper.J_DATE) +
+            ZenPathDbHelper.J_TEXT + "=excluded." + ZenPathDbHelper.J_TEXT + ", " +
+            ZenPathDbHelper.J_CREATED_AT + "=excluded." + ZenPathDbHelper.J_CREATED_AT;
+
+    private static final String SQL_JOURNAL_UPDATE =
+            "UPDATE " + ZenPathDbHelper.T_JOURNAL +
+                    " SET " + ZenPathDbHelper.J_TEXT + "=?, " + ZenPathDbHelper.J_CREATED_AT + "=?" +
+                    whereDay(ZenPathDbHelper.J_DATE);
+
+    // journal_page rows, keyed on (journal_id, page_index). Bind order: journal, index, text
+    private static final String SQL_PAGE_INSERT =
+            "INSERT INTO " + ZenPathDbHelper.T_JOURNAL_PAGE + " (" +
+                    ZenPathDbHelper.JP_JOURNAL_ID + "," + ZenPathDbHelper.JP_INDEX + "," + ZenPathDbHelper.JP_TEXT +
+                    ") VALUES (?,?,?)";
+
+    private static final String SQL_PAGE_UPSERT = SQL_PAGE_INSERT +
+            " ON CONFLICT(" + ZenPathDbHelper.JP_JOURNAL_ID + "," + ZenPathDbHelper.JP_INDEX + ") DO UPDATE SET " +
+            ZenPathDbHelper.JP_TEXT + "=excluded." + ZenPathDbHelper.JP_TEXT;
+
+    // bind order: text, journal, index
+    private static final String SQL_PAGE_UPDATE =
+            "UPDATE " + ZenPathDbHelper.T_JOURNAL_PAGE +
+                    " SET " + ZenPathDbHelper.JP_TEXT + "=?" + wherePage("=");
+
+    // bind order: journal, first index to drop
+    private static final String SQL_PAGE_TRIM =
+            "DELETE FROM " + ZenPathDbHelper.T_JOURNAL_PAGE + wherePage(">=");
+
+    // bind order: preview, has_content, journal
+    private static final String SQL_JOURNAL_SUMMARY =
+            "UPDATE " + ZenPathDbHelper.T_JOURNAL +
+                    " SET " + ZenPathDbHelper.J_PREVIEW + "=?, " + ZenPathDbHelper.J_HAS_CONTENT + "=?" +
+                    " WHERE " + ZenPathDbHelper.J_ID + "=?";
+
+    private static final String SQL_JOURNAL_ID =
+            "SELECT " + ZenPathDbHelper.J_ID + " FROM " + ZenPathDbHelper.T_JOURNAL + whereDay(ZenPathDbHelper.J_DATE);
+
+    private static final String SQL_MOOD_INSERT =
+            "INSERT INTO " + ZenPathDbHelper.T_MOOD + " (" +
+                    ZenPathDbHelper.COL_USER_ID + "," + ZenPathDbHelper.M_DATE + "," +
+                    ZenPathDbHelper.M_TEXT + "," + ZenPathDbHelper.M_REFLECTION + "," + ZenPathDbHelper.M_CREATED_AT +
+                    ") VALUES (?,?,?,?,?)";
+
+    private static final String SQL_MOOD_UPSERT = SQL_MOOD_INSERT +
+            onConflict(ZenPathDbHelper.M_DATE) +
+            ZenPathDbHelper.M_TEXT + "=excluded." + ZenPathDbHelper.M_TEXT + ", " +
+            ZenPathDbHelper.M_REFLECTION + "=excluded." + ZenPathDbHelper.M_REFLECTION + ", " +
+            ZenPathDbHelper.M_CREATED_AT + "=excluded." + ZenPathDbHelper.M_CREATED_AT;
+
+    private static final String SQL_MOOD_UPDATE =
+            "UPDATE " + ZenPathDbHelper.T_MOOD +
+                    " SET " + ZenPathDbHelper.M_TEXT + "=?, " + ZenPathDbHelper.M_REFLECTION + "=?, " +
+                    ZenPathDbHelper.M_CREATED_AT + "=?" +
+                    whereDay(ZenPathDbHelper.M_DATE);
+
+    private static final String SQL_STRESS_INSERT =
+            "INSERT INTO " + ZenPathDbHelper.T_STRESS + " (" +
+                    ZenPathDbHelper.COL_USER_ID + "," + ZenPathDbHelper.S_DATE + "," + ZenPathDbHelper.S_LEVEL + "," +
+                    ZenPathDbHelper.S_PLAY_STAR + "," + ZenPathDbHelper.S_PLAY_LANTERN + "," +
+                    ZenPathDbHelper.S_PLAY_PLANET + "," + ZenPathDbHelper.S_CREATED_AT +
+                    ") VALUES (?,?,?,?,?,?,?)";
+
+    private static final String SQL_STRESS_UPSERT = SQL_STRESS_INSERT +
+            onConflict(ZenPathDbHelper.S_DATE) +
+            ZenPathDbHelper.S_LEVEL + "=excluded." + ZenPathDbHelper.S_LEVEL + ", " +
+            ZenPathDbHelper.S_PLAY_STAR + "=excluded." + ZenPathDbHelper.S_PLAY_STAR + ", " +
+            ZenPathDbHelper.S_PLAY_LANTERN + "=excluded." + ZenPathDbHelper.S_PLAY_LANTERN + ", " +
+            ZenPathDbHelper.S_PLAY_PLANET + "=excluded." + ZenPathDbHelper.S_PLAY_PLANET + ", " +
+            ZenPathDbHelper.S_CREATED_AT + "=excluded." + ZenPathDbHelper.S_CREATED_AT;
+
+    private static final String SQL_STRESS_UPDATE =
+            "UPDATE " + ZenPathDbHelper.T_STRESS +
+                    " SET " + ZenPathDbHelper.S_LEVEL + "=?, " + ZenPathDbHelper.S_PLAY_STAR + "=?, " +
+                    ZenPathDbHelper.S_PLAY_LANTERN + "=?, " + ZenPathDbHelper.S_PLAY_PLANET + "=?, " +
+                    ZenPathDbHelper.S_CREATED_AT + "=?" +
+                    whereDay(ZenPathDbHelper.S_DATE);
+
+    // playtime: a new day starts at stress level 0, an existing one gets the seconds added
+    private static final String SQL_PLAY_INSERT =
+            "INSERT INTO " + ZenPathDbHelper.T_STRESS + " (" +
+                    ZenPathDbHelper.COL_USER_ID + "," + ZenPathDbHelper.S_DATE + "," + ZenPathDbHelper.S_LEVEL + "," +
+                    ZenPathDbHelper.S_PLAY_STAR + "," + ZenPathDbHelper.S_PLAY_LANTERN + "," +
+                    ZenPathDbHelper.S_PLAY_PLANET + "," + ZenPathDbHelper.S_CREATED_AT +
+                    ") VALUES (?,?,0,?,?,?,?)";
+
+    private static final String SQL_PLAY_UPSERT = SQL_PLAY_INSERT +
+            onConflict(ZenPathDbHelper.S_DATE) +
+            playAdd(ZenPathDbHelper.S_PLAY_STAR, "excluded." + ZenPathDbHelper.S_PLAY_STAR) + ", " +
+            playAdd(ZenPathDbHelper.S_PLAY_LANTERN, "excluded." + ZenPathDbHelper.S_PLAY_LANTERN) + ", " +
+            playAdd(ZenPathDbHelper.S_PLAY_PLANET, "excluded." + ZenPathDbHelper.S_PLAY_PLANET) + ", " +
+            ZenPathDbHelper.S_CREATED_AT + "=excluded." + ZenPathDbHelper.S_CREATED_AT;
+
+    private static final String SQL_PLAY_UPDATE =
+            "UPDATE " + ZenPathDbHelper.T_STRESS +
+                    " SET " + playAdd(ZenPathDbHelper.S_PLAY_STAR, "?") + ", " +
+                    playAdd(ZenPathDbHelper.S_PLAY_LANTERN, "?") + ", " +
+                    playAdd(ZenPathDbHelper.S_PLAY_PLANET, "?") + ", " +
+                    ZenPathDbHelper.S_CREATED_AT + "=?" +
+                    whereDay(ZenPathDbHelper.S_DATE);
+
+    private static String onConflict(String dateCol) {
+        return " ON CONFLICT(" + ZenPathDbHelper.COL_USER_ID + "," + dateCol + ") DO UPDATE SET ";
+    }
+
+    private static String whereDay(String dateCol) {
+        return " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + dateCol + "=?";
+    }
+
+    private static String wherePage(String indexOp) {
+        return " WHERE " + ZenPathDbHelper.JP_JOURNAL_ID + "=? AND " + ZenPathDbHelper.JP_INDEX + indexOp + "?";
+    }
+
+    private static String playAdd(String col, String value) {
+        return col + "=" + col + "+" + value;
+    }
+
+    /**
+     * Writes one (user, day) row: a single upsert statement where SQLite has them (3.24+, Android 11+),
+     * else UPDATE and, when no row matched, INSERT in one transaction.
+     * {@code values} are the non-key columns in INSERT order. Returns a positive value when a row was written.
+     */
+    private long upsert(String upsertSql, String updateSql, String insertSql,
+                        long userId, String date, Object... values) {
+        Object[] insertArgs = new Object[values.length + 2];
+        insertArgs[0] = userId;
+        insertArgs[1] = date;
+        System.arraycopy(values, 0, insertArgs, 2, values.length);
+
+        if (helper.supportsUpsert()) return execUpdate(upsertSql, insertArgs);
+
+        Object[] updateArgs = Arrays.copyOf(values, values.length + 2);
+        updateArgs[values.length] = userId;
+        updateArgs[values.length + 1] = date;
+
+        SQLiteDatabase db = writableDb();
+        db.beginTransaction();
+        try {
+            long result = execUpdate(updateSql, updateArgs);
+            if (result == 0) result = execInsert(insertSql, insertArgs);
+            db.setTransactionSuccessful();
+            return result;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private long queryLong(String sql, Object... args) {
+        SQLiteStatement st = helper.statement(sql);
+        synchronized (st) {
+            try {
+                bindAll(st, args);
+                return st.simpleQueryForLong();
+            } finally {
+                st.clearBindings();
+            }
+        }
+    }
+
+    private long execInsert(String sql, Object... args) {
+        SQLiteStatement st = helper.statement(sql);
+        synchronized (st) {
+            try {
+                bindAll(st, args);
+                return st.executeInsert();
+            } finally {
+                st.clearBindings();
+            }
+        }
+    }
+
+    private int execUpdate(String sql, Object... args) {
+        SQLiteStatement st = helper.statement(sql);
+        synchronized (st) {
+            try {
+                bindAll(st, args);
+                return st.executeUpdateDelete();
+            } finally {
+                st.clearBindings();
+            }
+        }
+    }
+
+    private static void bindAll(SQLiteStatement st, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            Object a = args[i];
+            if (a == null) st.bindNull(i + 1);
+            else if (a instanceof Number) st.bindLong(i + 1, ((Number) a).longValue());
+            else st.bindString(i + 1, a.toString());
+        }
     }
 
     // =========================
@@ -56,7 +287,7 @@ public class ZenPathRepository {
         username = username.trim();
         if (username.isEmpty()) return -1;
 
-        SQLiteDatabase db = helper.getWritableDatabase();
+        SQLiteDatabase db = writableDb();
 
         ContentValues cv = new ContentValues();
         cv.put(ZenPathDbHelper.U_USERNAME, username);
@@ -70,7 +301,7 @@ public class ZenPathRepository {
         username = username.trim();
         if (username.isEmpty()) return false;
 
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
 
         Cursor c = db.query(
                 ZenPathDbHelper.T_USERS,
@@ -90,7 +321,7 @@ public class ZenPathRepository {
     public boolean userIdExists(long userId) {
         if (userId <= 0) return false;
 
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
         Cursor c = db.query(
                 ZenPathDbHelper.T_USERS,
                 new String[]{ZenPathDbHelper.U_ID},
@@ -110,7 +341,7 @@ public class ZenPathRepository {
         username = username.trim();
         if (username.isEmpty()) return -1;
 
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
 
         Cursor c = db.query(
                 ZenPathDbHelper.T_USERS,
@@ -133,7 +364,7 @@ public class ZenPathRepository {
     }
 
     public String getUsernameById(long userId) {
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
 
         Cursor c = db.query(
                 ZenPathDbHelper.T_USERS,
@@ -155,7 +386,7 @@ public class ZenPathRepository {
     public void updateUserGender(long userId, String gender) {
         if (userId <= 0) return;
 
-        SQLiteDatabase db = helper.getWritableDatabase();
+        SQLiteDatabase db = writableDb();
         ContentValues cv = new ContentValues();
         cv.put("gender", gender == null ? "" : gender);
 
@@ -174,64 +405,145 @@ public class ZenPathRepository {
     // =========================
     // ===== DIARY PAGES =======
     // =========================
+    /** A day's diary entry: its journal row (-1 when nothing was saved yet) and its page count. */
+    public static class DiaryEntryRef {
+        public final long journalId;
+        public final int pageCount;
+
+        public DiaryEntryRef(long journalId, int pageCount) {
+            this.journalId = journalId;
+            this.pageCount = pageCount;
+        }
+    }
+
+    public DiaryEntryRef getDiaryEntryRef(String date) {
+        long userId = currentUserId();
+        return getDiaryEntryRef(userId, date);
+    }
+
+    public DiaryEntryRef getDiaryEntryRef(long userId, String date) {
+        SQLiteDatabase db = readableDb();
+        try (Cursor c = db.rawQuery(
+                "SELECT j." + ZenPathDbHelper.J_ID + ", (SELECT COALESCE(MAX(p." + ZenPathDbHelper.JP_INDEX + ") + 1, 0)" +
+                        " FROM " + ZenPathDbHelper.T_JOURNAL_PAGE + " p" +
+                        " WHERE p." + ZenPathDbHelper.JP_JOURNAL_ID + " = j." + ZenPathDbHelper.J_ID + ")" +
+                        " FROM " + ZenPathDbHelper.T_JOURNAL + " j" +
+                        " WHERE j." + ZenPathDbHelper.COL_USER_ID + "=? AND j." + ZenPathDbHelper.J_DATE + "=?",
+                new String[]{String.valueOf(userId), date})) {
+            if (!c.moveToFirst()) return new DiaryEntryRef(-1, 0);
+            return new DiaryEntryRef(c.getLong(0), c.getInt(1));
+        }
+    }
+
+    /** Text of one page, "" when the page has no row. */
+    public String getDiaryPage(long journalId, int index) {
+        SQLiteDatabase db = readableDb();
+        try (Cursor c = db.query(
+                ZenPathDbHelper.T_JOURNAL_PAGE,
+                new String[]{ZenPathDbHelper.JP_TEXT},
+                ZenPathDbHelper.JP_JOURNAL_ID + "=? AND " + ZenPathDbHelper.JP_INDEX + "=?",
+                new String[]{String.valueOf(journalId), String.valueOf(index)},
+                null, null, null)) {
+            return c.moveToFirst() ? c.getString(0) : "";
+        }
+    }
+
+    /** Every page of the day's entry, at least one. */
     public ArrayList<String> getDiaryPagesByDate(String date) {
         long userId = currentUserId();
         return getDiaryPagesByDate(userId, date);
     }
 
     public ArrayList<String> getDiaryPagesByDate(long userId, String date) {
-        String raw = getJournalTextByDate(userId, date);
         ArrayList<String> pages = new ArrayList<>();
-
-        if (raw == null || raw.trim().isEmpty()) {
-            pages.add("");
-            return pages;
+        SQLiteDatabase db = readableDb();
+        try (Cursor c = db.rawQuery(
+                "SELECT p." + ZenPathDbHelper.JP_INDEX + ", p." + ZenPathDbHelper.JP_TEXT +
+                        " FROM " + ZenPathDbHelper.T_JOURNAL + " j JOIN " + ZenPathDbHelper.T_JOURNAL_PAGE + " p" +
+                        " ON p." + ZenPathDbHelper.JP_JOURNAL_ID + " = j." + ZenPathDbHelper.J_ID +
+                        " WHERE j." + ZenPathDbHelper.COL_USER_ID + "=? AND j." + ZenPathDbHelper.J_DATE + "=?" +
+                        " ORDER BY p." + ZenPathDbHelper.JP_INDEX,
+                new String[]{String.valueOf(userId), date})) {
+            while (c.moveToNext()) {
+                int index = c.getInt(0);
+                while (pages.size() < index) pages.add("");
+                pages.add(c.getString(1));
+            }
         }
-
-        String[] parts = raw.split("\n<<PAGE_BREAK>>\n", -1);
-        for (String p : parts) pages.add(p);
-
         if (pages.isEmpty()) pages.add("");
         return pages;
     }
 
-    public void upsertDiaryPages(String date, ArrayList<String> pages) {
+    /**
+     * Saves a day's entry as {@code pageCount} pages, writing only the {@code changed} ones
+     * (index -> text) and dropping the pages past the end, then refreshes the entry's stored
+     * preview. A changed page must be given for every index that was never saved. Returns the
+     * journal row id.
+     */
+    public long saveDiaryPages(String date, SparseArray<String> changed, int pageCount) {
         long userId = currentUserId();
-        upsertDiaryPages(userId, date, pages);
+        return saveDiaryPages(userId, date, changed, pageCount);
     }
 
-    public void upsertDiaryPages(long userId, String date, ArrayList<String> pages) {
-        if (pages == null || pages.isEmpty()) {
-            upsertJournalEntry(userId, date, "");
-            return;
+    public long saveDiaryPages(long userId, String date, SparseArray<String> changed, int pageCount) {
+        SQLiteDatabase db = writableDb();
+        boolean upsert = helper.supportsUpsert();
+        db.beginTransaction();
+        try {
+            upsert(SQL_JOURNAL_UPSERT, SQL_JOURNAL_UPDATE, SQL_JOURNAL_INSERT,
+                    userId, date, "", System.currentTimeMillis());
+            long journalId = queryLong(SQL_JOURNAL_ID, userId, date);
+
+            for (int i = 0; i < changed.size(); i++) {
+                int index = changed.keyAt(i);
+                if (index >= pageCount) continue;
+                String text = changed.valueAt(i) == null ? "" : changed.valueAt(i);
+
+                if (upsert) execInsert(SQL_PAGE_UPSERT, journalId, index, text);
+                else if (execUpdate(SQL_PAGE_UPDATE, text, journalId, index) == 0) {
+                    execInsert(SQL_PAGE_INSERT, journalId, index, text);
+                }
+            }
+            execUpdate(SQL_PAGE_TRIM, journalId, pageCount);
+
+            // history tile: from all pages, listed once any of them has text
+            ArrayList<String> pages = new ArrayList<>();
+            boolean hasContent = false;
+            try (Cursor c = db.rawQuery(
+                    "SELECT " + ZenPathDbHelper.JP_TEXT + " FROM " + ZenPathDbHelper.T_JOURNAL_PAGE +
+                            " WHERE " + ZenPathDbHelper.JP_JOURNAL_ID + "=? ORDER BY " + ZenPathDbHelper.JP_INDEX,
+                    new String[]{String.valueOf(journalId)})) {
+                while (c.moveToNext()) {
+                    String text = c.getString(0);
+                    pages.add(text);
+                    if (text != null && !text.trim().isEmpty()) hasContent = true;
+                }
+            }
+            execUpdate(SQL_JOURNAL_SUMMARY, DiaryPages.preview(pages), hasContent ? 1 : 0, journalId);
+
+            db.setTransactionSuccessful();
+            return journalId;
+        } finally {
+            db.endTransaction();
         }
+    }
 
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < pages.size(); i++) {
-            if (i > 0) sb.append("\n<<PAGE_BREAK>>\n");
-            sb.append(pages.get(i) == null ? "" : pages.get(i));
-        }
+    public void upsertDiaryPages(String date, ArrayList<String> pages) {
+        long userId = currentUserId();
+        upsertDiaryPages(userId, date, pages);
+    }
 
-        upsertJournalEntry(userId, date, sb.toString());
+    public long upsertDiaryPages(long userId, String date, ArrayList<String> pages) {
+        SparseArray<String> all = new SparseArray<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) all.put(i, pages.get(i));
+        return saveDiaryPages(userId, date, all, pages.size());
     }
 
     // =========================
     // ===== JOURNAL (PER USER) =
     // =========================
-    public long addJournalEntry(long userId, String date, String text) {
-        SQLiteDatabase db = helper.getWritableDatabase();
-
-        ContentValues cv = new ContentValues();
-        cv.put(ZenPathDbHelper.COL_USER_ID, userId);
-        cv.put(ZenPathDbHelper.J_DATE, date);
-        cv.put(ZenPathDbHelper.J_TEXT, text);
-        cv.put(ZenPathDbHelper.J_CREATED_AT, System.currentTimeMillis());
-
-        return db.insert(ZenPathDbHelper.T_JOURNAL, null, cv);
-    }
-
     public boolean hasJournalEntry(long userId, String date) {
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
 
         Cursor c = db.query(
                 ZenPathDbHelper.T_JOURNAL,
@@ -247,47 +559,13 @@ public class ZenPathRepository {
         return exists;
     }
 
-    public int updateJournalEntry(long userId, String date, String text) {
-        SQLiteDatabase db = helper.getWritableDatabase();
-
-        ContentValues cv = new ContentValues();
-        cv.put(ZenPathDbHelper.J_TEXT, text);
-        cv.put(ZenPathDbHelper.J_CREATED_AT, System.currentTimeMillis());
-
-        return db.update(
-                ZenPathDbHelper.T_JOURNAL,
-                cv,
-                ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.J_DATE + "=?",
-                new String[]{String.valueOf(userId), date}
-        );
-    }
-
+    /** Saves {@code text} (pages joined by DiaryPages.PAGE_BREAK) as the day's entry. */
     public long upsertJournalEntry(long userId, String date, String text) {
-        if (hasJournalEntry(userId, date)) {
-            updateJournalEntry(userId, date, text);
-            return 1L;
-        } else {
-            return addJournalEntry(userId, date, text);
-        }
+        return upsertDiaryPages(userId, date, DiaryPages.split(text));
     }
 
     public String getJournalTextByDate(long userId, String date) {
-        SQLiteDatabase db = helper.getReadableDatabase();
-
-        Cursor c = db.query(
-                ZenPathDbHelper.T_JOURNAL,
-                new String[]{ZenPathDbHelper.J_TEXT},
-                ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.J_DATE + "=?",
-                new String[]{String.valueOf(userId), date},
-                null, null,
-                ZenPathDbHelper.J_CREATED_AT + " DESC",
-                "1"
-        );
-
-        String text = "";
-        if (c.moveToFirst()) text = c.getString(0);
-        c.close();
-        return text;
+        return DiaryPages.join(getDiaryPagesByDate(userId, date));
     }
 
     // =========================
@@ -305,45 +583,106 @@ public class ZenPathRepository {
         }
     }
 
-    public ArrayList<DiaryEntryMeta> getSavedDiaryHistory() {
+    // newest first; (created_at, entry_date) is the keyset, entry_date being unique per user
+    private static final String SQL_HISTORY =
+            "SELECT " + ZenPathDbHelper.J_DATE + ", " + ZenPathDbHelper.J_PREVIEW + ", " + ZenPathDbHelper.J_CREATED_AT +
+                    " FROM " + ZenPathDbHelper.T_JOURNAL +
+                    " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.J_HAS_CONTENT + "=1";
+
+    private static final String SQL_HISTORY_ORDER =
+            " ORDER BY " + ZenPathDbHelper.J_CREATED_AT + " DESC, " + ZenPathDbHelper.J_DATE + " DESC LIMIT ?";
+
+    private static final String SQL_HISTORY_FIRST = SQL_HISTORY + SQL_HISTORY_ORDER;
+
+    private static final String SQL_HISTORY_AFTER = SQL_HISTORY +
+            " AND " + ZenPathDbHelper.J_CREATED_AT + "<=?" +
+            " AND (" + ZenPathDbHelper.J_CREATED_AT + "<? OR " + ZenPathDbHelper.J_DATE + "<?)" +
+            SQL_HISTORY_ORDER;
+
+    /**
+     * Up to {@code limit} saved entries (with text), newest first, continuing after {@code after}
+     * (null for the first page). Read from idx_journal_history alone; fewer than {@code limit}
+     * means this was the last page.
+     */
+    public ArrayList<DiaryEntryMeta> getDiaryHistoryPage(DiaryEntryMeta after, int limit) {
         long userId = currentUserId();
-        return getSavedDiaryHistory(userId);
+        return getDiaryHistoryPage(userId, after, limit);
     }
 
-    public ArrayList<DiaryEntryMeta> getSavedDiaryHistory(long userId) {
-        ArrayList<DiaryEntryMeta> list = new ArrayList<>();
-        SQLiteDatabase db = helper.getReadableDatabase();
+    public ArrayList<DiaryEntryMeta> getDiaryHistoryPage(long userId, DiaryEntryMeta after, int limit) {
+        ArrayList<DiaryEntryMeta> list = new ArrayList<>(Math.max(0, limit));
+        if (limit <= 0) return list;
 
-        String where =
-                ZenPathDbHelper.COL_USER_ID + "=? AND " +
-                        ZenPathDbHelper.J_TEXT + " IS NOT NULL AND length(trim(" + ZenPathDbHelper.J_TEXT + ")) > 0";
+        String[] args = after == null
+                ? new String[]{String.valueOf(userId), String.valueOf(limit)}
+                : new String[]{String.valueOf(userId), String.valueOf(after.createdAt), String.valueOf(after.createdAt),
+                after.date, String.valueOf(limit)};
 
-        Cursor c = db.query(
-                ZenPathDbHelper.T_JOURNAL,
-                new String[]{ZenPathDbHelper.J_DATE, ZenPathDbHelper.J_TEXT, ZenPathDbHelper.J_CREATED_AT},
-                where,
-                new String[]{String.valueOf(userId)},
-                null, null,
-                ZenPathDbHelper.J_CREATED_AT + " DESC"
-        );
+        SQLiteDatabase db = readableDb();
+        try (Cursor c = db.rawQuery(after == null ? SQL_HISTORY_FIRST : SQL_HISTORY_AFTER, args)) {
+            while (c.moveToNext()) {
+                list.add(new DiaryEntryMeta(c.getString(0), c.getString(1), c.getLong(2)));
+            }
+        }
+        return list;
+    }
 
-        while (c.moveToNext()) {
-            String date = c.getString(0);
-            String text = c.getString(1);
-            long createdAt = c.getLong(2);
+    // =========================
+    // ===== DIARY SEARCH ======
+    // =========================
+    // every match of the user, ranked in Java (matchinfo only, no text is read)
+    private static final String SQL_SEARCH_RANK =
+            "SELECT docid, " + ZenPathDbHelper.F_DATE + ", matchinfo(" + ZenPathDbHelper.T_DIARY_FTS + ", 'pcnalx')" +
+                    " FROM " + ZenPathDbHelper.T_DIARY_FTS +
+                    " WHERE " + ZenPathDbHelper.T_DIARY_FTS + " MATCH ?" +
+                    // user_id is stored as an integer and FTS columns have no affinity
+                    " AND " + ZenPathDbHelper.COL_USER_ID + " = CAST(? AS INTEGER)";
+
+    /**
+     * One page of diary entries and mood reflections matching {@code query} (words, the last one
+     * as a prefix), best match first. Snippets are only built for the rows of the page, from the
+     * best matching page of each entry.
+     */
+    public DiarySearch.Page searchDiary(String query, int offset, int limit) {
+        long userId = currentUserId();
+        return searchDiary(userId, query, offset, limit);
+    }
+
+    public DiarySearch.Page searchDiary(long userId, String query, int offset, int limit) {
+        String match = DiarySearch.matchQuery(query);
+        if (userId <= 0 || match == null || limit <= 0) return DiarySearch.Page.empty(offset);
 
-            list.add(new DiaryEntryMeta(date, makePreview(text), createdAt));
+        SQLiteDatabase db = readableDb();
+
+        ArrayList<DiarySearch.Hit> matches = new ArrayList<>();
+        try (Cursor c = db.rawQuery(SQL_SEARCH_RANK, new String[]{match, String.valueOf(userId)})) {
+            while (c.moveToNext()) {
+                matches.add(new DiarySearch.Hit(c.getLong(0), c.getString(1), DiarySearch.bm25(c.getBlob(2), 0), ""));
+            }
+        }
+        ArrayList<DiarySearch.Hit> ranked = DiarySearch.bestPerEntry(matches);
+        if (offset >= ranked.size()) return new DiarySearch.Page(new ArrayList<>(), offset, ranked.size());
+        DiarySearch.sort(ranked);
+
+        List<DiarySearch.Hit> page = ranked.subList(offset, Math.min(ranked.size(), offset + limit));
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) ids.append(',');
+            ids.append(page.get(i).docId);
         }
 
-        c.close();
-        return list;
-    }
+        LongSparseArray<String> snippets = new LongSparseArray<>(page.size());
+        try (Cursor c = db.rawQuery(
+                "SELECT docid, snippet(" + ZenPathDbHelper.T_DIARY_FTS + ", ?, ?, ?, 0, 16)" +
+                        " FROM " + ZenPathDbHelper.T_DIARY_FTS +
+                        " WHERE " + ZenPathDbHelper.T_DIARY_FTS + " MATCH ? AND docid IN (" + ids + ")",
+                new String[]{DiarySearch.HL_START, DiarySearch.HL_END, DiarySearch.ELLIPSIS, match})) {
+            while (c.moveToNext()) snippets.put(c.getLong(0), c.getString(1));
+        }
 
-    private String makePreview(String raw) {
-        if (raw == null) return "";
-        String clean = raw.replace("\n<<PAGE_BREAK>>\n", "\n").trim();
-        if (clean.length() > 120) clean = clean.substring(0, 120).trim() + "…";
-        return clean;
+        ArrayList<DiarySearch.Hit> hits = new ArrayList<>(page.size());
+        for (DiarySearch.Hit h : page) hits.add(h.withSnippet(snippets.get(h.docId, "")));
+        return new DiarySearch.Page(hits, offset, ranked.size());
     }
 
     // =========================
@@ -352,7 +691,7 @@ public class ZenPathRepository {
     public boolean hasMoodOnDate(long userId, String dateKey) {
         if (userId <= 0) return false;
 
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
         Cursor c = db.query(
                 ZenPathDbHelper.T_MOOD,
                 new String[]{ZenPathDbHelper.M_ID},
@@ -374,12 +713,12 @@ public class ZenPathRepository {
 
         long since = System.currentTimeMillis() - (7L * 24 * 60 * 60 * 1000);
 
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
         Cursor c = db.rawQuery(
                 "SELECT COUNT(*) FROM " + ZenPathDbHelper.T_JOURNAL +
                         " WHERE " + ZenPathDbHelper.COL_USER_ID + "=? " +
-                        " AND " + ZenPathDbHelper.J_CREATED_AT + ">=? " +
-                        " AND " + ZenPathDbHelper.J_TEXT + " IS NOT NULL AND length(trim(" + ZenPathDbHelper.J_TEXT + "))>0",
+                        " AND " + ZenPathDbHelper.J_HAS_CONTENT + "=1" +
+                        " AND " + ZenPathDbHelper.J_CREATED_AT + ">=? ",
                 new String[]{String.valueOf(userId), String.valueOf(since)}
         );
 
@@ -397,35 +736,21 @@ public class ZenPathRepository {
     public long upsertMood(long userId, String date, String moodText, String reflection) {
         if (userId <= 0) return -1;
 
-        SQLiteDatabase db = helper.getWritableDatabase();
-
-        Cursor c = db.query(
-                ZenPathDbHelper.T_MOOD,
-                new String[]{ZenPathDbHelper.M_ID},
-                ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.M_DATE + "=?",
-                new String[]{String.valueOf(userId), date},
-                null, null, null,
-                "1"
-        );
-
-        boolean exists = c.moveToFirst();
-        long rowId = exists ? c.getLong(0) : -1;
-        c.close();
-
-        ContentValues cv = new ContentValues();
-        cv.put(ZenPathDbHelper.COL_USER_ID, userId);
-        cv.put(ZenPathDbHelper.M_DATE, date);
-        cv.put(ZenPathDbHelper.M_TEXT, moodText == null ? "" : moodText);
-        cv.put(ZenPathDbHelper.M_REFLECTION, reflection);
-        cv.put(ZenPathDbHelper.M_CREATED_AT, System.currentTimeMillis());
-
-        if (exists) {
-            db.update(ZenPathDbHelper.T_MOOD, cv,
-                    ZenPathDbHelper.M_ID + "=?",
-                    new String[]{String.valueOf(rowId)});
-            return rowId;
-        } else {
-            return db.insert(ZenPathDbHelper.T_MOOD, null, cv);
+        SQLiteDatabase db = writableDb();
+        db.beginTransaction();
+        try {
+            String text = moodText == null ? "" : moodText;
+            long result = upsert(SQL_MOOD_UPSERT, SQL_MOOD_UPDATE, SQL_MOOD_INSERT,
+                    userId, date, text, reflection, System.currentTimeMillis());
+
+            // ✅ streak summary changes in the same transaction as the mood row
+            boolean counted = moodText != null && !moodText.trim().isEmpty();
+            updateMoodStreak(db, userId, date, counted);
+
+            db.setTransactionSuccessful();
+            return result;
+        } finally {
+            db.endTransaction();
         }
     }
 
@@ -435,7 +760,7 @@ public class ZenPathRepository {
     }
 
     public String[] getMoodByDate(long userId, String date) {
-        SQLiteDatabase db = helper.getReadableDatabase();
+        SQLiteDatabase db = readableDb();
 
         Cursor c = db.query(
                 ZenPathDbHelper.T_MOOD,
@@ -459,48 +784,290 @@ public class ZenPathRepository {
     }
 
     // =========================
-    // ===== STRESS (PER USER) ==
+    // ===== MOOD STREAK ========
     // =========================
-    public long upsertStress(String date, int stressLevel, int starSweepSec, int lanternSec, int planetSec) {
-        long userId = currentUserId();
-        return upsertStress(userId, date, stressLevel, starSweepSec, lanternSec, planetSec);
+    public static final class MoodStreak {
+        public final int current;     // run length ending at lastDate
+        public final int best;
+        public final String lastDate; // yyyyMMdd, null if the user never checked in
+
+        MoodStreak(int current, int best, String lastDate) {
+            this.current = current;
+            this.best = best;
+            this.lastDate = lastDate;
+        }
     }
 
-    public long upsertStress(long userId, String date, int stressLevel, int starSweepSec, int lanternSec, int planetSec) {
-        if (userId <= 0) return -1;
+    /** Summary row for the user; built once from the mood table if it does not exist yet. */
+    public MoodStreak getMoodStreak(long userId) {
+        if (userId <= 0) return new MoodStreak(0, 0, null);
 
-        SQLiteDatabase db = helper.getWritableDatabase();
+        MoodStreak s = readMoodStreak(readableDb(), userId);
+        if (s != null) return s;
+
+        SQLiteDatabase db = writableDb();
+        db.beginTransaction();
+        try {
+            s = backfillMoodStreak(db, userId);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return s;
+    }
 
+    /** Consecutive check-in days ending today (0 if today has no check-in), like the old day-by-day walk. */
+    public int getCurrentMoodStreak(long userId, String todayKey) {
+        MoodStreak s = getMoodStreak(userId);
+        if (s.lastDate == null) return 0;
+        long last = epochDay(s.lastDate);
+        return (last >= 0 && last == epochDay(todayKey)) ? s.current : 0;
+    }
+
+    private void updateMoodStreak(SQLiteDatabase db, long userId, String date, boolean counted) {
+        MoodStreak s = readMoodStreak(db, userId);
+        long day = epochDay(date);
+
+        // no summary yet, a cleared mood, or an edit to an older day (may join two runs): recount
+        if (s == null || !counted || day < 0) {
+            backfillMoodStreak(db, userId);
+            return;
+        }
+
+        long last = (s.lastDate == null) ? -1 : epochDay(s.lastDate);
+        if (last >= 0 && day < last) {
+            backfillMoodStreak(db, userId);
+            return;
+        }
+        if (day == last) return; // same day edited again
+
+        int current = (last >= 0 && day == last + 1) ? s.current + 1 : 1;
+        writeMoodStreak(db, userId, current, Math.max(s.best, current), date);
+    }
+
+    private MoodStreak readMoodStreak(SQLiteDatabase db, long userId) {
         Cursor c = db.query(
-                ZenPathDbHelper.T_STRESS,
-                new String[]{ZenPathDbHelper.S_ID},
-                ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.S_DATE + "=?",
-                new String[]{String.valueOf(userId), date},
+                ZenPathDbHelper.T_MOOD_STREAK,
+                new String[]{ZenPathDbHelper.MS_CURRENT, ZenPathDbHelper.MS_BEST, ZenPathDbHelper.MS_LAST_DATE},
+                ZenPathDbHelper.COL_USER_ID + "=?",
+                new String[]{String.valueOf(userId)},
                 null, null, null,
                 "1"
         );
 
-        boolean exists = c.moveToFirst();
-        long rowId = exists ? c.getLong(0) : -1;
+        MoodStreak s = null;
+        if (c.moveToFirst()) s = new MoodStreak(c.getInt(0), c.getInt(1), c.isNull(2) ? null : c.getString(2));
         c.close();
+        return s;
+    }
+
+    // one ordered query over the user's check-in dates
+    private MoodStreak backfillMoodStreak(SQLiteDatabase db, long userId) {
+        Cursor c = db.query(
+                true,
+                ZenPathDbHelper.T_MOOD,
+                new String[]{ZenPathDbHelper.M_DATE},
+                ZenPathDbHelper.COL_USER_ID + "=? AND " +
+                        ZenPathDbHelper.M_TEXT + " IS NOT NULL AND length(trim(" + ZenPathDbHelper.M_TEXT + "))>0",
+                new String[]{String.valueOf(userId)},
+                null, null,
+                ZenPathDbHelper.M_DATE + " ASC",
+                null
+        );
+
+        int run = 0;
+        int best = 0;
+        long prev = Long.MIN_VALUE;
+        String lastKey = null;
+
+        while (c.moveToNext()) {
+            String key = c.getString(0);
+            long day = epochDay(key);
+            if (day < 0) continue;
+
+            run = (prev != Long.MIN_VALUE && day == prev + 1) ? run + 1 : 1;
+            if (run > best) best = run;
+            prev = day;
+            lastKey = key;
+        }
+        c.close();
+
+        writeMoodStreak(db, userId, run, best, lastKey);
+        return new MoodStreak(run, best, lastKey);
+    }
 
+    private void writeMoodStreak(SQLiteDatabase db, long userId, int current, int best, String lastDate) {
         ContentValues cv = new ContentValues();
         cv.put(ZenPathDbHelper.COL_USER_ID, userId);
-        cv.put(ZenPathDbHelper.S_DATE, date);
-        cv.put(ZenPathDbHelper.S_LEVEL, stressLevel);
-        cv.put(ZenPathDbHelper.S_PLAY_STAR, starSweepSec);
-        cv.put(ZenPathDbHelper.S_PLAY_LANTERN, lanternSec);
-        cv.put(ZenPathDbHelper.S_PLAY_PLANET, planetSec);
-        cv.put(ZenPathDbHelper.S_CREATED_AT, System.currentTimeMillis());
+        cv.put(ZenPathDbHelper.MS_CURRENT, current);
+        cv.put(ZenPathDbHelper.MS_BEST, best);
+        cv.put(ZenPathDbHelper.MS_LAST_DATE, lastDate);
+        cv.put(ZenPathDbHelper.MS_UPDATED_AT, System.currentTimeMillis());
+        db.insertWithOnConflict(ZenPathDbHelper.T_MOOD_STREAK, null, cv, SQLiteDatabase.CONFLICT_REPLACE);
+    }
 
-        if (exists) {
-            db.update(ZenPathDbHelper.T_STRESS, cv,
-                    ZenPathDbHelper.S_ID + "=?",
-                    new String[]{String.valueOf(rowId)});
-            return rowId;
-        } else {
-            return db.insert(ZenPathDbHelper.T_STRESS, null, cv);
+    // =========================
+    // ===== RANGE QUERIES ======
+    // =========================
+    /**
+     * Mood rows for every day in [fromKey..toKey] (yyyyMMdd), indexed by day offset from fromKey.
+     * Days without a row have has[i] == false and empty strings.
+     */
+    public static final class MoodRange {
+        public final String fromKey;
+        public final boolean[] has;
+        public final String[] moodText;
+        public final String[] reflection;
+
+        MoodRange(String fromKey, int days) {
+            this.fromKey = fromKey;
+            has = new boolean[days];
+            moodText = new String[days];
+            reflection = new String[days];
+            Arrays.fill(moodText, "");
+            Arrays.fill(reflection, "");
         }
+
+        public int size() { return has.length; }
+    }
+
+    /** Stress rows for every day in [fromKey..toKey]; playtimes are seconds, like the table. */
+    public static final class StressRange {
+        public final String fromKey;
+        public final boolean[] has;
+        public final int[] level;
+        public final int[] starSec;
+        public final int[] lanternSec;
+        public final int[] planetSec;
+
+        StressRange(String fromKey, int days) {
+            this.fromKey = fromKey;
+            has = new boolean[days];
+            level = new int[days];
+            starSec = new int[days];
+            lanternSec = new int[days];
+            planetSec = new int[days];
+        }
+
+        public int size() { return has.length; }
+
+        public int totalSec(int i) { return starSec[i] + lanternSec[i] + planetSec[i]; }
+    }
+
+    /** One query on ux_mood_user_date. Returns null for an invalid range. */
+    public MoodRange getMoodRange(long userId, String fromKey, String toKey) {
+        long from = epochDay(fromKey);
+        long to = epochDay(toKey);
+        if (from < 0 || to < from) return null;
+
+        MoodRange out = new MoodRange(fromKey, (int) (to - from + 1));
+        if (userId <= 0) return out;
+
+        SQLiteDatabase db = readableDb();
+        // oldest first, so when a day has several rows the newest one wins (same as getMoodByDate)
+        Cursor c = db.query(
+                ZenPathDbHelper.T_MOOD,
+                new String[]{ZenPathDbHelper.M_DATE, ZenPathDbHelper.M_TEXT, ZenPathDbHelper.M_REFLECTION},
+                ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.M_DATE + " BETWEEN ? AND ?",
+                new String[]{String.valueOf(userId), fromKey, toKey},
+                null, null,
+                ZenPathDbHelper.M_DATE + " ASC, " + ZenPathDbHelper.M_CREATED_AT + " ASC"
+        );
+
+        try {
+            while (c.moveToNext()) {
+                int i = (int) (epochDay(c.getString(0)) - from);
+                if (i < 0 || i >= out.size()) continue;
+
+                out.has[i] = true;
+                out.moodText[i] = c.isNull(1) ? "" : c.getString(1);
+                out.reflection[i] = c.isNull(2) ? "" : c.getString(2);
+            }
+        } finally {
+            c.close();
+        }
+        return out;
+    }
+
+    /** One query on ux_stress_user_date. Returns null for an invalid range. */
+    public StressRange getStressRange(long userId, String fromKey, String toKey) {
+        long from = epochDay(fromKey);
+        long to = epochDay(toKey);
+        if (from < 0 || to < from) return null;
+
+        StressRange out = new StressRange(fromKey, (int) (to - from + 1));
+        if (userId <= 0) return out;
+
+        SQLiteDatabase db = readableDb();
+        Cursor c = db.query(
+                ZenPathDbHelper.T_STRESS,
+                new String[]{
+                        ZenPathDbHelper.S_DATE,
+                        ZenPathDbHelper.S_LEVEL,
+                        ZenPathDbHelper.S_PLAY_STAR,
+                        ZenPathDbHelper.S_PLAY_LANTERN,
+                        ZenPathDbHelper.S_PLAY_PLANET
+                },
+                ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.S_DATE + " BETWEEN ? AND ?",
+                new String[]{String.valueOf(userId), fromKey, toKey},
+                null, null,
+                ZenPathDbHelper.S_DATE + " ASC, " + ZenPathDbHelper.S_CREATED_AT + " ASC"
+        );
+
+        try {
+            while (c.moveToNext()) {
+                int i = (int) (epochDay(c.getString(0)) - from);
+                if (i < 0 || i >= out.size()) continue;
+
+                out.has[i] = true;
+                out.level[i] = c.getInt(1);
+                out.starSec[i] = c.getInt(2);
+                out.lanternSec[i] = c.getInt(3);
+                out.planetSec[i] = c.getInt(4);
+            }
+        } finally {
+            c.close();
+        }
+        return out;
+    }
+
+    // yyyyMMdd -> days since 1970-01-01 (proleptic Gregorian), -1 if malformed
+    static long epochDay(String key) {
+        if (key == null || key.length() != 8) return -1;
+        int v = 0;
+        for (int i = 0; i < 8; i++) {
+            int d = Character.digit(key.charAt(i), 10);
+            if (d < 0) return -1;
+            v = v * 10 + d;
+        }
+        int y = v / 10000;
+        int m = (v / 100) % 100;
+        int d = v % 100;
+        if (m < 1 || m > 12 || d < 1 || d > 31) return -1;
+
+        // days-from-civil (H. Hinnant)
+        y -= m <= 2 ? 1 : 0;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (m + (m > 2 ? -3 : 9)) + 2) / 5 + d - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return (long) era * 146097 + doe - 719468;
+    }
+
+    // =========================
+    // ===== STRESS (PER USER) ==
+    // =========================
+    public long upsertStress(String date, int stressLevel, int starSweepSec, int lanternSec, int planetSec) {
+        long userId = currentUserId();
+        return upsertStress(userId, date, stressLevel, starSweepSec, lanternSec, planetSec);
+    }
+
+    public long upsertStress(long userId, String date, int stressLevel, int starSweepSec, int lanternSec, int planetSec) {
+        if (userId <= 0) return -1;
+
+        writableDb(); // opens the db, runs the main-thread check
+        return upsert(SQL_STRESS_UPSERT, SQL_STRESS_UPDATE, SQL_STRESS_INSERT,
+                userId, date, stressLevel, starSweepSec, lanternSec, planetSec, System.currentTimeMillis());
     }
 
     // =========================
@@ -512,47 +1079,119 @@ public class ZenPathRepository {
     }
 
     public void addGamePlaytime(long userId, String date, String gameKey, int secondsToAdd) {
-        if (userId <= 0) return;
+        ArrayList<PlaytimeJournal.Entry> one = new ArrayList<>(1);
+        one.add(new PlaytimeJournal.Entry(userId, date, gameKey, secondsToAdd));
+        addGamePlaytime(one);
+    }
 
-        SQLiteDatabase db = helper.getWritableDatabase();
+    /** Adds a batch of (user, day, game) seconds in one transaction, one upsert per entry. */
+    public void addGamePlaytime(List<PlaytimeJournal.Entry> entries) {
+        if (entries == null || entries.isEmpty()) return;
 
-        String col;
-        if ("STAR_SWEEP".equals(gameKey)) col = ZenPathDbHelper.S_PLAY_STAR;
-        else if ("LANTERN_RELEASE".equals(gameKey)) col = ZenPathDbHelper.S_PLAY_LANTERN;
-        else if ("PLANET".equals(gameKey)) col = ZenPathDbHelper.S_PLAY_PLANET;
-        else return;
+        SQLiteDatabase db = writableDb();
+        db.beginTransaction();
+        try {
+            long now = System.currentTimeMillis();
+
+            for (PlaytimeJournal.Entry e : entries) {
+                if (e.userId <= 0 || e.seconds <= 0) continue;
+
+                int star = 0, lantern = 0, planet = 0;
+                if ("STAR_SWEEP".equals(e.gameKey)) star = e.seconds;
+                else if ("LANTERN_RELEASE".equals(e.gameKey)) lantern = e.seconds;
+                else if ("PLANET".equals(e.gameKey)) planet = e.seconds;
+                else continue;
+
+                upsert(SQL_PLAY_UPSERT, SQL_PLAY_UPDATE, SQL_PLAY_INSERT,
+                        e.userId, e.date, star, lantern, planet, now);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
 
-        Cursor c = db.query(
-                ZenPathDbHelper.T_STRESS,
-                new String[]{ZenPathDbHelper.S_ID},
-                ZenPathDbHelper.COL_USER_ID + "=? AND " + ZenPathDbHelper.S_DATE + "=?",
-                new String[]{String.valueOf(userId), date},
-                null, null, null,
-                "1"
+    // =========================
+    // ===== FRAME STATS ========
+    // =========================
+    private static final int FRAME_STATS_KEEP = 500;
+
+    public static final class FrameStatsRow {
+        public final String appVersion;
+        public final FrameProfiler.Summary stats;
+
+        FrameStatsRow(String appVersion, FrameProfiler.Summary stats) {
+            this.appVersion = appVersion;
+            this.stats = stats;
+        }
+    }
+
+    /** Stores one profiler session; only the newest FRAME_STATS_KEEP rows are kept. */
+    public long insertFrameStats(FrameProfiler.Summary s, String appVersion) {
+        if (s == null) return -1;
+
+        ContentValues cv = new ContentValues();
+        cv.put(ZenPathDbHelper.FS_VIEW, s.name);
+        cv.put(ZenPathDbHelper.FS_APP_VERSION, appVersion);
+        cv.put(ZenPathDbHelper.FS_STARTED_AT, s.startedAt);
+        cv.put(ZenPathDbHelper.FS_ENDED_AT, s.endedAt);
+        cv.put(ZenPathDbHelper.FS_FRAMES, s.frames);
+        cv.put(ZenPathDbHelper.FS_JANK, s.jankFrames);
+        cv.put(ZenPathDbHelper.FS_P50_US, s.p50Us);
+        cv.put(ZenPathDbHelper.FS_P95_US, s.p95Us);
+        cv.put(ZenPathDbHelper.FS_P99_US, s.p99Us);
+        cv.put(ZenPathDbHelper.FS_MAX_US, s.maxUs);
+        cv.put(ZenPathDbHelper.FS_AVG_UPDATE_US, s.avgUpdateUs);
+        cv.put(ZenPathDbHelper.FS_AVG_DRAW_US, s.avgDrawUs);
+        cv.put(ZenPathDbHelper.FS_AVG_OBJECTS, s.avgObjects);
+
+        SQLiteDatabase db = writableDb();
+        db.beginTransaction();
+        try {
+            long id = db.insert(ZenPathDbHelper.T_FRAME_STATS, null, cv);
+            db.delete(ZenPathDbHelper.T_FRAME_STATS,
+                    ZenPathDbHelper.FS_ID + " <= ?",
+                    new String[]{String.valueOf(id - FRAME_STATS_KEEP)});
+            db.setTransactionSuccessful();
+            return id;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Newest sessions first. */
+    public ArrayList<FrameStatsRow> getRecentFrameStats(int limit) {
+        ArrayList<FrameStatsRow> out = new ArrayList<>();
+
+        Cursor c = readableDb().query(
+                ZenPathDbHelper.T_FRAME_STATS,
+                new String[]{
+                        ZenPathDbHelper.FS_VIEW, ZenPathDbHelper.FS_APP_VERSION,
+                        ZenPathDbHelper.FS_STARTED_AT, ZenPathDbHelper.FS_ENDED_AT,
+                        ZenPathDbHelper.FS_FRAMES, ZenPathDbHelper.FS_JANK,
+                        ZenPathDbHelper.FS_P50_US, ZenPathDbHelper.FS_P95_US,
+                        ZenPathDbHelper.FS_P99_US, ZenPathDbHelper.FS_MAX_US,
+                        ZenPathDbHelper.FS_AVG_UPDATE_US, ZenPathDbHelper.FS_AVG_DRAW_US,
+                        ZenPathDbHelper.FS_AVG_OBJECTS
+                },
+                null, null, null, null,
+                ZenPathDbHelper.FS_ID + " DESC",
+                String.valueOf(Math.max(1, limit))
         );
 
-        boolean exists = c.moveToFirst();
-        long rowId = exists ? c.getLong(0) : -1;
+        while (c.moveToNext()) {
+            FrameProfiler.Summary s = new FrameProfiler.Summary(
+                    c.getString(0), c.getLong(2), c.getLong(3),
+                    c.getInt(4), c.getInt(5),
+                    c.getInt(6), c.getInt(7), c.getInt(8), c.getInt(9),
+                    c.getInt(10), c.getInt(11), c.getInt(12));
+            out.add(new FrameStatsRow(c.isNull(1) ? null : c.getString(1), s));
+        }
         c.close();
+        return out;
+    }
 
-        if (!exists) {
-            ContentValues cv = new ContentValues();
-            cv.put(ZenPathDbHelper.COL_USER_ID, userId);
-            cv.put(ZenPathDbHelper.S_DATE, date);
-            cv.put(ZenPathDbHelper.S_LEVEL, 0);
-            cv.put(ZenPathDbHelper.S_PLAY_STAR, 0);
-            cv.put(ZenPathDbHelper.S_PLAY_LANTERN, 0);
-            cv.put(ZenPathDbHelper.S_PLAY_PLANET, 0);
-            cv.put(ZenPathDbHelper.S_CREATED_AT, System.currentTimeMillis());
-            rowId = db.insert(ZenPathDbHelper.T_STRESS, null, cv);
-        }
-
-        db.execSQL(
-                "UPDATE " + ZenPathDbHelper.T_STRESS +
-                        " SET " + col + " = " + col + " + ?, " +
-                        ZenPathDbHelper.S_CREATED_AT + " = ? " +
-                        " WHERE " + ZenPathDbHelper.S_ID + " = ?",
-                new Object[]{secondsToAdd, System.currentTimeMillis(), rowId}
-        );
+    public void clearFrameStats() {
+        writableDb().delete(ZenPathDbHelper.T_FRAME_STATS, null, null);
     }
 }
\ No newline at end of file
@@ -1,9 +1,8 @@
 package com.example.zenpath;
 
+import android.annotation.SuppressLint;
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.BlurMaskFilter;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.LinearGradient;
@@ -12,21 +11,19 @@ import android.graphics.Paint;
 import android.graphics.PointF;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
 import android.graphics.Shader;
-import android.os.SystemClock;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.ScaleGestureDetector;
 import android.view.View;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
-public class ZoomSpaceView extends View {
+public class ZoomSpaceView extends View implements GameSurfaceView.Game {
 
     public enum Body {
         SUN, MOON,
@@ -36,15 +33,14 @@ public class ZoomSpaceView extends View {
     public enum Mode { MOVE, STARS, SUN, MOON, MARKER, ERASER, PLANET }
     private Mode mode = Mode.MOVE;
 
-    private Body selectedBody = Body.MERCURY;
+    // set from the UI thread, read by the game
+    private volatile Body selectedBody = Body.MERCURY;
 
-    private Bitmap sunBmp, moonBmp, starBmp;
+    private SpriteSheet sprites;   // null until the atlas is decoded
 
     // ✅ NOW: true orbit animation (revolve around sun)
     private boolean planetAnimationEnabled = false;
 
-    private Bitmap mercuryBmp, venusBmp, earthBmp, marsBmp, jupiterBmp, saturnBmp, uranusBmp, neptuneBmp;
-
     private static final float SPACE_W = 2200f;
     private static final float SPACE_H = 3800f;
 
@@ -59,51 +55,143 @@ public class ZoomSpaceView extends View {
     private float offsetY = 0f;
 
     private ScaleGestureDetector scaleDetector;
+    // the detector's isInProgress() as seen by the game (the detector runs on the UI thread)
+    private boolean pinching = false;
     private float lastX, lastY;
     private boolean isPanning = false;
 
     private final Paint pLine = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint pRing = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final List<PointF> stars = new ArrayList<>();
-    private final List<Line> links = new ArrayList<>();
-    private int selectedStar = -1;
+    // ✅ stars + links with stable ids, grid hit-testing and an O(1) "already linked" check
+    private static final float STAR_GRID_CELL = 256f;
+    private final Constellation constellation = new Constellation(STAR_GRID_CELL);
+    private Constellation.Star selectedStar = null;
 
     private final Paint pBg = new Paint(Paint.ANTI_ALIAS_FLAG);
     private LinearGradient bgGrad = null;
 
     private final Paint pBgStar = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final ArrayList<BgStar> bgStars = new ArrayList<>();
-    private long lastFrameTime = 0L;
 
     private PointF sunPos = null;
     private PointF moonPos = null;
 
     private final ArrayList<PlanetInstance> planets = new ArrayList<>();
+    // planet base positions (what hit-testing uses), kept in sync through addPlanet/movePlanet/removePlanetAt
+    private static final float PLANET_GRID_CELL = 256f;
+    private final SpatialGrid<PlanetInstance> planetGrid = new SpatialGrid<>(PLANET_GRID_CELL);
+    private final ArrayList<PlanetInstance> planetHits = new ArrayList<>();
+    private int planetSeq = 0;
 
     private final Paint pMoonGlow = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint pSunGlow  = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private GlowSpriteCache glow = GlowSpriteCache.get();
+    private float bodyGlowBlur;
 
-    private float sunPhaseA, sunPhaseB, moonPhaseA, moonPhaseB;
+    // ✅ bitmap paints with drop shadows (reused every frame; shadow only rebuilt when zoom changes)
+    private final Paint pStarBmp   = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Paint pPlanetBmp = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Paint pSunBmp    = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Paint pMoonBmp   = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Paint pPlainBmp  = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private float shadowScale = -1f;
 
-    private int inkColor = Color.parseColor("#BFD6FF");
-    private int markerSizeProgress = 35;
+    private static final int BG_FALLBACK = 0xFF070716;
+    private final RectF tmpDst = new RectF();
+    private final PointF worldOrigin = new PointF(0f, 0f);
 
-    private Bitmap dustBitmap;
-    private Canvas dustCanvas;
+    private float sunPhaseA, sunPhaseB, moonPhaseA, moonPhaseB;
+
+    private volatile int inkColor = Color.parseColor("#BFD6FF");
+    private volatile int markerSizeProgress = 35;
+
+    // ✅ sparse tiled dust layer (tiles allocated on demand instead of one SPACE_W x SPACE_H bitmap)
+    private DustTileLayer dustLayer;
+    // viewport in world coordinates (inverse of worldToScreen), refreshed at the start of every frame
+    private final RectF visibleWorld = new RectF();
+
+    // ✅ level of detail (thresholds are on-screen pixels)
+    private float lodShadowMinPx; // bitmaps with a smaller half size are drawn without their drop shadow
+    private float lodGlowMinPx;   // glows with a smaller radius are skipped
+    private static final float LOD_POINT_MAX_PX = 1.6f; // bg stars up to this radius are batched into drawPoints
+    private static final int BG_POINT_BUCKETS = 8;      // drawPoints has one paint, so twinkle alpha is bucketed
+    private final Paint pBgPoint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float[][] bgPoints = new float[BG_POINT_BUCKETS][0];
+    private final int[] bgPointCount = new int[BG_POINT_BUCKETS];
+
+    // ✅ debug overlay: drawn / culled counts of the last frame
+    private volatile boolean debugOverlay = false;
+    private int frameDrawn, frameCulled, frameBatched, frameLodSkips;
+    private final Paint pDebugText = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint pDebugBg = new Paint();
+    private final StringBuilder debugLine = new StringBuilder(64);
+
+    // ✅ frame timing (update = twinkle + orbits, draw = the rest), saved when the view goes away
+    private final FrameProfiler profiler = new FrameProfiler("ZoomSpaceView");
+
+    // ✅ render mode: null = drawn by onDraw; otherwise stepped and drawn on the host's render thread
+    private GameSurfaceView host;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // View mode clock (the host has its own); both step at the same fixed rate
+    private final FixedStepClock clock =
+            new FixedStepClock(GameSurfaceView.STEPS_PER_SECOND, GameSurfaceView.MAX_STEPS_PER_FRAME);
+    private long simNow = 0;
+
+    private int gameW, gameH;
+
+    // ✅ undo checkpoints for the dust layer (every 8 strokes, max ~16 MB of tile copies)
+    private static final int DUST_CHECKPOINT_INTERVAL = 8;
+    private static final long DUST_CHECKPOINT_BUDGET = 16L * 1024L * 1024L;
+    private final DustHistory<DustTileLayer.Snapshot> dustHistory =
+            new DustHistory<>(new DustHistory.Raster<DustTileLayer.Snapshot>() {
+                @Override public DustTileLayer.Snapshot capture() {
+                    ensureDustLayer();
+                    return dustLayer.snapshot();
+                }
+                @Override public long sizeOf(DustTileLayer.Snapshot cp) { return cp.getBytes(); }
+                @Override public void restore(DustTileLayer.Snapshot cp) {
+                    ensureDustLayer();
+                    dustLayer.restore(cp);
+                }
+                @Override public void replay(int strokeIndex) {
+                    if (strokeIndex >= 0 && strokeIndex < strokes.size()) drawStrokeToLayer(strokes.get(strokeIndex));
+                }
+                @Override public void release(DustTileLayer.Snapshot cp) { DustTileLayer.release(cp); }
+            }, DUST_CHECKPOINT_INTERVAL, DUST_CHECKPOINT_BUDGET);
 
     private final Paint pDustCore = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint pDustGlow = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private float dustGlowBlur;
     private final Paint pDustClear = new Paint(Paint.ANTI_ALIAS_FLAG);
 
     private final ArrayList<Stroke> strokes = new ArrayList<>();
     private final ArrayList<Action> undo = new ArrayList<>();
 
+    // seeds of new marker strokes (their particles are replayed from the seed, see MarkerStroke)
     private final Random brushRand = new Random();
+    private final MarkerBrush.Sink dustSink = this::drawDust;
     private PointF lastBrush = null;
 
+    // ✅ lets the activity schedule an autosave after edits
+    public interface OnCanvasChangedListener {
+        void onCanvasChanged();
+    }
+    private OnCanvasChangedListener canvasChangedListener;
+
+    public void setOnCanvasChangedListener(OnCanvasChangedListener l) {
+        canvasChangedListener = l;
+    }
+
+    private void notifyCanvasChanged() {
+        onMain(() -> {
+            if (canvasChangedListener != null) canvasChangedListener.onCanvasChanged();
+        });
+    }
+
     private enum DragTarget { NONE, SUN, MOON, STAR, PLANET }
     private DragTarget dragTarget = DragTarget.NONE;
-    private int activeStarIndex = -1;
+    private Constellation.Star activeStar = null;
     private int activePlanetIndex = -1;
 
     public ZoomSpaceView(Context context, AttributeSet attrs) {
@@ -112,20 +200,7 @@ public class ZoomSpaceView extends View {
     }
 
     private void init() {
-        // ✅ SAFE bitmap loading by name
-        sunBmp = loadBitmapByName("sun");
-        moonBmp = loadBitmapByName("moon");
-        mercuryBmp = loadBitmapByName("mercury");
-        venusBmp   = loadBitmapByName("venus");
-        earthBmp   = loadBitmapByName("earth");
-        marsBmp    = loadBitmapByName("mars");
-        jupiterBmp = loadBitmapByName("jupiter");
-        saturnBmp  = loadBitmapByName("saturn");
-        uranusBmp  = loadBitmapByName("uranus");
-        neptuneBmp = loadBitmapByName("neptune");
-
-        Bitmap rawStar = loadBitmapByName("star");
-        starBmp = trimTransparent(rawStar);
+        SpriteSheet.load(getContext(), sheet -> onGame(() -> { sprites = sheet; redraw(); }));
 
         pLine.setStrokeWidth(dp(2.2f));
         pLine.setAlpha(220);
@@ -139,17 +214,27 @@ public class ZoomSpaceView extends View {
         pBgStar.setStyle(Paint.Style.FILL);
         pBgStar.setColor(Color.WHITE);
 
-        pMoonGlow.setStyle(Paint.Style.FILL);
-        pMoonGlow.setMaskFilter(new BlurMaskFilter(dp(38), BlurMaskFilter.Blur.NORMAL));
+        pBgPoint.setStyle(Paint.Style.STROKE);
+        pBgPoint.setStrokeCap(Paint.Cap.ROUND);
+        pBgPoint.setColor(Color.WHITE);
+
+        lodShadowMinPx = dp(12);
+        lodGlowMinPx = dp(20);
+
+        pDebugText.setColor(Color.WHITE);
+        pDebugText.setTextSize(dp(12));
+        pDebugBg.setColor(Color.argb(150, 0, 0, 0));
 
+        // sun / moon / dust glows are GlowSpriteCache sprites tinted by these paints
+        pMoonGlow.setStyle(Paint.Style.FILL);
         pSunGlow.setStyle(Paint.Style.FILL);
-        pSunGlow.setMaskFilter(new BlurMaskFilter(dp(38), BlurMaskFilter.Blur.NORMAL));
+        bodyGlowBlur = dp(38);
+        dustGlowBlur = dp(10);
 
         pDustCore.setStyle(Paint.Style.FILL);
         pDustCore.setFilterBitmap(true);
 
         pDustGlow.setStyle(Paint.Style.FILL);
-        pDustGlow.setMaskFilter(new BlurMaskFilter(dp(10), BlurMaskFilter.Blur.NORMAL));
 
         pDustClear.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
         pDustClear.setAntiAlias(true);
@@ -164,65 +249,131 @@ public class ZoomSpaceView extends View {
 
         scaleDetector = new ScaleGestureDetector(getContext(),
                 new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+                    // UI thread: the zoom itself is applied by the game, like the touches
                     @Override
-                    public boolean onScale(ScaleGestureDetector detector) {
-                        float newScale = scale * detector.getScaleFactor();
-                        newScale = clamp(newScale, minScale, maxScale);
+                    public boolean onScaleBegin(ScaleGestureDetector detector) {
+                        onGame(() -> pinching = true);
+                        return true;
+                    }
 
+                    @Override
+                    public boolean onScale(ScaleGestureDetector detector) {
+                        float factor = detector.getScaleFactor();
                         float fx = detector.getFocusX();
                         float fy = detector.getFocusY();
-
-                        PointF before = screenToWorld(fx, fy);
-
-                        scale = newScale;
-                        clampOffsetsToSpace();
-                        rebuildMatrices();
-
-                        PointF after = screenToWorld(fx, fy);
-
-                        offsetX += (after.x - before.x);
-                        offsetY += (after.y - before.y);
-
-                        clampOffsetsToSpace();
-                        rebuildMatrices();
-                        invalidate();
+                        onGame(() -> zoomBy(factor, fx, fy));
                         return true;
                     }
+
+                    @Override
+                    public void onScaleEnd(ScaleGestureDetector detector) {
+                        onGame(() -> pinching = false);
+                    }
                 });
 
         seedBackgroundStars();
-        lastFrameTime = SystemClock.uptimeMillis();
         setClickable(true);
     }
 
-    // ✅ SAFE drawable lookup (returns 0 if missing)
-    private int getDrawableIdByName(String name) {
-        return getResources().getIdentifier(name, "drawable", getContext().getPackageName());
+    /** Hands stepping and drawing to {@code surface} (call once, before the canvas is loaded). */
+    @SuppressLint("ClickableViewAccessibility")
+    public void setRenderHost(GameSurfaceView surface) {
+        host = surface;
+        // the shared sprite cache is main thread only
+        glow = GlowSpriteCache.newForThread();
+        // pinch needs whole MotionEvents: the detector sees them here, the surface still queues the touch
+        surface.setOnTouchListener((v, e) -> {
+            scaleDetector.onTouchEvent(e);
+            return false;
+        });
+    }
+
+    private void zoomBy(float factor, float fx, float fy) {
+        float newScale = scale * factor;
+        newScale = clamp(newScale, minScale, maxScale);
+
+        PointF before = screenToWorld(fx, fy);
+
+        scale = newScale;
+        clampOffsetsToSpace();
+        rebuildMatrices();
+
+        PointF after = screenToWorld(fx, fy);
+
+        offsetX += (after.x - before.x);
+        offsetY += (after.y - before.y);
+
+        clampOffsetsToSpace();
+        rebuildMatrices();
+        redraw();
     }
 
-    // ✅ SAFE bitmap decode (returns null if missing)
-    private Bitmap loadBitmapByName(String name) {
-        int id = getDrawableIdByName(name);
-        if (id == 0) return null;
-        try {
-            return BitmapFactory.decodeResource(getResources(), id);
-        } catch (Exception e) {
-            return null;
+    // changes to the canvas run where it is stepped (the render thread in host mode)
+    private void onGame(Runnable r) {
+        if (host != null) host.queueEvent(r);
+        else r.run();
+    }
+
+    // listener callbacks always run on the main thread
+    private void onMain(Runnable r) {
+        if (Looper.myLooper() == Looper.getMainLooper()) r.run();
+        else mainHandler.post(r);
+    }
+
+    // the render thread draws every frame anyway
+    private void redraw() {
+        if (host == null) invalidate();
+    }
+
+    // atlas ids of the bodies (build time sprite atlas, see SpriteSheet)
+    static int spriteFor(Body body) {
+        switch (body) {
+            case SUN: return SpriteAtlas.SUN;
+            case MOON: return SpriteAtlas.MOON;
+            case MERCURY: return SpriteAtlas.MERCURY;
+            case VENUS: return SpriteAtlas.VENUS;
+            case EARTH: return SpriteAtlas.EARTH;
+            case MARS: return SpriteAtlas.MARS;
+            case JUPITER: return SpriteAtlas.JUPITER;
+            case SATURN: return SpriteAtlas.SATURN;
+            case URANUS: return SpriteAtlas.URANUS;
+            default: return SpriteAtlas.NEPTUNE;
         }
     }
 
     // -------- public API --------
     public void setMode(Mode m) {
-        mode = m;
-        lastBrush = null;
-        dragTarget = DragTarget.NONE;
-        activeStarIndex = -1;
-        activePlanetIndex = -1;
-        invalidate();
+        onGame(() -> {
+            mode = m;
+            lastBrush = null;
+            dragTarget = DragTarget.NONE;
+            activeStar = null;
+            activePlanetIndex = -1;
+            redraw();
+        });
     }
 
+    // ✅ Debug overlay with the drawn / culled counts of each frame
+    public void setDebugOverlayEnabled(boolean enabled) {
+        debugOverlay = enabled;
+        redraw();
+    }
+
+    public boolean isDebugOverlayEnabled() {
+        return debugOverlay;
+    }
+
+    // counts of the last frame (debug overlay / tests)
+    public int getLastFrameDrawnCount() { return frameDrawn; }
+
+    public int getLastFrameCulledCount() { return frameCulled; }
+
     // ✅ Orbit animation toggle
     public void setPlanetAnimationEnabled(boolean enabled) {
+        onGame(() -> setPlanetAnimationEnabledNow(enabled));
+    }
+
+    private void setPlanetAnimationEnabledNow(boolean enabled) {
         planetAnimationEnabled = enabled;
 
         if (enabled) {
@@ -233,7 +384,7 @@ public class ZoomSpaceView extends View {
             }
         }
 
-        invalidate();
+        redraw();
     }
 
     public void setSelectedBody(Body body) {
@@ -248,205 +399,158 @@ public class ZoomSpaceView extends View {
 
     public void setInkColor(int color) {
         inkColor = color;
-        applyInkColorToPaints();
-        invalidate();
+        onGame(() -> {
+            applyInkColorToPaints();
+            redraw();
+        });
     }
 
     public void setMarkerSize(int progress) {
         markerSizeProgress = clampInt(progress, 5, 100);
-        invalidate();
+        redraw();
     }
 
     public int getMarkerSizeProgress() { return markerSizeProgress; }
 
     public Bitmap exportBitmap() {
-        Bitmap b = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-        Canvas c = new Canvas(b);
-        draw(c);
-        return b;
+        if (host == null) {
+            Bitmap b = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+            Canvas c = new Canvas(b);
+            draw(c);
+            return b;
+        }
+
+        // the current frame, drawn by the render thread while the UI thread waits
+        Bitmap[] out = new Bitmap[1];
+        host.queueEventAndWait(() -> {
+            if (gameW <= 0 || gameH <= 0) return;
+            out[0] = Bitmap.createBitmap(gameW, gameH, Bitmap.Config.ARGB_8888);
+            render(new Canvas(out[0]), simNow);
+        });
+        if (out[0] == null) throw new IllegalStateException("canvas has no size yet");
+        return out[0];
     }
 
-    public String exportStateJson() throws Exception {
-        JSONObject root = new JSONObject();
+    // =========================
+    // ✅ STATE (plain copy, saved by CanvasStateCodec)
+    // =========================
+    public CanvasState exportState() {
+        if (host == null) return exportStateNow();
 
-        root.put("inkColor", inkColor);
-        root.put("markerSizeProgress", markerSizeProgress);
+        // copied on the render thread between frames; the copy shares nothing with the canvas
+        CanvasState[] out = new CanvasState[1];
+        host.queueEventAndWait(() -> out[0] = exportStateNow());
+        return out[0];
+    }
 
-        if (sunPos != null) {
-            JSONObject s = new JSONObject();
-            s.put("x", sunPos.x);
-            s.put("y", sunPos.y);
-            root.put("sun", s);
-        } else root.put("sun", JSONObject.NULL);
+    private CanvasState exportStateNow() {
+        CanvasState st = new CanvasState();
 
-        if (moonPos != null) {
-            JSONObject m = new JSONObject();
-            m.put("x", moonPos.x);
-            m.put("y", moonPos.y);
-            root.put("moon", m);
-        } else root.put("moon", JSONObject.NULL);
-
-        JSONArray planetArr = new JSONArray();
-        for (PlanetInstance p : planets) {
-            JSONObject o = new JSONObject();
-            o.put("body", p.body.name());
-            // Save the user's base position (not the animated orbital pose)
-            o.put("x", p.pos.x);
-            o.put("y", p.pos.y);
-            planetArr.put(o);
-        }
-        root.put("planets", planetArr);
-
-        JSONArray starArr = new JSONArray();
-        for (PointF p : stars) {
-            JSONObject o = new JSONObject();
-            o.put("x", p.x);
-            o.put("y", p.y);
-            starArr.put(o);
+        st.inkColor = inkColor;
+        st.markerSizeProgress = markerSizeProgress;
+
+        if (sunPos != null) { st.hasSun = true; st.sunX = sunPos.x; st.sunY = sunPos.y; }
+        if (moonPos != null) { st.hasMoon = true; st.moonX = moonPos.x; st.moonY = moonPos.y; }
+
+        // Save the user's base position (not the animated orbital pose)
+        for (PlanetInstance p : planets) st.planets.add(new CanvasState.Planet(p.body.name(), p.pos.x, p.pos.y));
+
+        // saves store list positions, not ids
+        constellation.indexStars();
+        int starCount = constellation.starCount();
+        st.starXY = new float[starCount * 2];
+        for (int i = 0; i < starCount; i++) {
+            Constellation.Star s = constellation.starAt(i);
+            st.starXY[i * 2] = s.x;
+            st.starXY[i * 2 + 1] = s.y;
         }
-        root.put("stars", starArr);
-
-        JSONArray linkArr = new JSONArray();
-        for (Line l : links) {
-            JSONObject o = new JSONObject();
-            o.put("a", l.a);
-            o.put("b", l.b);
-            linkArr.put(o);
+
+        int linkCount = constellation.linkCount();
+        st.linkAB = new int[linkCount * 2];
+        for (int i = 0; i < linkCount; i++) {
+            Constellation.Link l = constellation.linkAt(i);
+            st.linkAB[i * 2] = l.a.order;
+            st.linkAB[i * 2 + 1] = l.b.order;
         }
-        root.put("links", linkArr);
 
-        JSONArray strokeArr = new JSONArray();
         for (Stroke s : strokes) {
-            JSONObject so = new JSONObject();
-            so.put("isErase", s.isErase);
-
-            JSONArray dustArr = new JSONArray();
-            for (Dust d : s.dust) {
-                JSONObject o = new JSONObject();
-                o.put("x", d.x);
-                o.put("y", d.y);
-                o.put("radius", d.radius);
-                o.put("coreColor", d.coreColor);
-                o.put("glowColor", d.glowColor);
-                o.put("coreAlpha", d.coreAlpha);
-                o.put("glowAlpha", d.glowAlpha);
-                dustArr.put(o);
+            ParticleBuffer dust = s.dust;
+            ParticleBuffer erasers = s.erasers;
+            CanvasState.StrokeData sd = new CanvasState.StrokeData(s.isErase, dust.size(), erasers.size());
+            if (s.brush != null) sd.brush = brushData(s.brush);
+            for (int i = 0; i < sd.dustCount; i++) {
+                sd.dustX[i] = dust.x(i);
+                sd.dustY[i] = dust.y(i);
+                sd.dustR[i] = dust.radius(i);
+                // the saved colors stay opaque, alphas are stored on their own
+                int core = dust.coreArgb(i);
+                int glow = dust.glowArgb(i);
+                sd.coreColor[i] = core | 0xFF000000;
+                sd.glowColor[i] = glow | 0xFF000000;
+                sd.coreAlpha[i] = core >>> 24;
+                sd.glowAlpha[i] = glow >>> 24;
             }
-            so.put("dust", dustArr);
-
-            JSONArray erArr = new JSONArray();
-            for (EraseDot e : s.erasers) {
-                JSONObject o = new JSONObject();
-                o.put("x", e.x);
-                o.put("y", e.y);
-                o.put("r", e.r);
-                erArr.put(o);
+            for (int i = 0; i < sd.eraserCount; i++) {
+                sd.eraserX[i] = erasers.x(i);
+                sd.eraserY[i] = erasers.y(i);
+                sd.eraserR[i] = erasers.radius(i);
             }
-            so.put("erasers", erArr);
-
-            strokeArr.put(so);
+            st.strokes.add(sd);
         }
-        root.put("strokes", strokeArr);
 
-        return root.toString();
+        return st;
     }
 
-    public void importStateJson(String json) throws Exception {
-        JSONObject root = new JSONObject(json);
+    public void importState(CanvasState st) {
+        if (st == null) return;
+        onGame(() -> importStateNow(st));
+    }
 
-        inkColor = root.optInt("inkColor", inkColor);
-        markerSizeProgress = root.optInt("markerSizeProgress", markerSizeProgress);
+    private void importStateNow(CanvasState st) {
+        inkColor = st.inkColor;
+        markerSizeProgress = st.markerSizeProgress;
         applyInkColorToPaints();
 
-        stars.clear();
-        links.clear();
+        constellation.clear();
         strokes.clear();
-        planets.clear();
-        selectedStar = -1;
-        sunPos = null;
-        moonPos = null;
+        clearPlanets();
+        selectedStar = null;
 
-        Object sunObj = root.opt("sun");
-        if (sunObj instanceof JSONObject) {
-            JSONObject s = (JSONObject) sunObj;
-            sunPos = new PointF((float) s.optDouble("x", 0), (float) s.optDouble("y", 0));
-        }
+        sunPos = st.hasSun ? new PointF(st.sunX, st.sunY) : null;
+        moonPos = st.hasMoon ? new PointF(st.moonX, st.moonY) : null;
 
-        Object moonObj = root.opt("moon");
-        if (moonObj instanceof JSONObject) {
-            JSONObject m = (JSONObject) moonObj;
-            moonPos = new PointF((float) m.optDouble("x", 0), (float) m.optDouble("y", 0));
+        for (CanvasState.Planet p : st.planets) {
+            Body body = safeBodyFromName(p.body);
+            if (body != null) addPlanet(new PlanetInstance(body, new PointF(p.x, p.y)));
         }
 
-        JSONArray planetArr = root.optJSONArray("planets");
-        if (planetArr != null) {
-            for (int i = 0; i < planetArr.length(); i++) {
-                JSONObject o = planetArr.getJSONObject(i);
-                String b = o.optString("body", "");
-                Body body = safeBodyFromName(b);
-                float x = (float) o.optDouble("x", 0);
-                float y = (float) o.optDouble("y", 0);
-                if (body != null) planets.add(new PlanetInstance(body, new PointF(x, y)));
-            }
+        Constellation.Star[] loaded = new Constellation.Star[st.starCount()];
+        for (int i = 0; i < loaded.length; i++) {
+            loaded[i] = constellation.addStar(st.starXY[i * 2], st.starXY[i * 2 + 1]);
         }
 
-        JSONArray starArr = root.optJSONArray("stars");
-        if (starArr != null) {
-            for (int i = 0; i < starArr.length(); i++) {
-                JSONObject o = starArr.getJSONObject(i);
-                stars.add(new PointF((float) o.optDouble("x", 0), (float) o.optDouble("y", 0)));
-            }
+        for (int i = 0; i < st.linkCount(); i++) {
+            int la = st.linkAB[i * 2];
+            int lb = st.linkAB[i * 2 + 1];
+            // skip links pointing at missing stars (damaged save) instead of crashing in onDraw
+            if (la < 0 || lb < 0 || la >= loaded.length || lb >= loaded.length) continue;
+            constellation.addLink(loaded[la], loaded[lb]);
         }
 
-        JSONArray linkArr = root.optJSONArray("links");
-        if (linkArr != null) {
-            for (int i = 0; i < linkArr.length(); i++) {
-                JSONObject o = linkArr.getJSONObject(i);
-                links.add(new Line(o.optInt("a", 0), o.optInt("b", 0)));
+        for (CanvasState.StrokeData sd : st.strokes) {
+            Stroke s = new Stroke(sd.isErase, sd.brush == null ? null : markerStroke(sd.brush));
+            for (int i = 0; i < sd.dustCount; i++) {
+                s.dust.add(sd.dustX[i], sd.dustY[i], sd.dustR[i],
+                        sd.coreColor[i], sd.glowColor[i], sd.coreAlpha[i], sd.glowAlpha[i]);
             }
-        }
-
-        JSONArray strokeArr = root.optJSONArray("strokes");
-        if (strokeArr != null) {
-            for (int i = 0; i < strokeArr.length(); i++) {
-                JSONObject so = strokeArr.getJSONObject(i);
-                boolean isErase = so.optBoolean("isErase", false);
-                Stroke s = new Stroke(isErase);
-
-                JSONArray dustArr = so.optJSONArray("dust");
-                if (dustArr != null) {
-                    for (int j = 0; j < dustArr.length(); j++) {
-                        JSONObject o = dustArr.getJSONObject(j);
-                        s.dust.add(new Dust(
-                                (float) o.optDouble("x", 0),
-                                (float) o.optDouble("y", 0),
-                                (float) o.optDouble("radius", 0),
-                                o.optInt("coreColor", Color.WHITE),
-                                o.optInt("glowColor", Color.WHITE),
-                                o.optInt("coreAlpha", 20),
-                                o.optInt("glowAlpha", 10)
-                        ));
-                    }
-                }
-
-                JSONArray erArr = so.optJSONArray("erasers");
-                if (erArr != null) {
-                    for (int j = 0; j < erArr.length(); j++) {
-                        JSONObject o = erArr.getJSONObject(j);
-                        s.erasers.add(new EraseDot(
-                                (float) o.optDouble("x", 0),
-                                (float) o.optDouble("y", 0),
-                                (float) o.optDouble("r", 0)
-                        ));
-                    }
-                }
-
-                strokes.add(s);
+            for (int i = 0; i < sd.eraserCount; i++) {
+                s.erasers.add(sd.eraserX[i], sd.eraserY[i], sd.eraserR[i]);
             }
+            strokes.add(s);
         }
 
-        ensureDustBitmap();
-        rebuildDustBitmapFromStrokes();
+        ensureDustLayer();
+        rebuildDustLayerFromStrokes();
 
         undo.clear();
         lastBrush = null;
@@ -457,7 +561,32 @@ public class ZoomSpaceView extends View {
             for (int i = 0; i < planets.size(); i++) initOrbitForPlanet(planets.get(i), c, i);
         }
 
-        invalidate();
+        redraw();
+    }
+
+    private static CanvasState.Brush brushData(MarkerStroke m) {
+        CanvasState.Brush b = new CanvasState.Brush(m.seed, m.inkColor, m.sizeProgress, m.stampCount());
+        for (int i = 0; i < b.stampCount; i++) {
+            b.stampX[i] = m.stampX(i);
+            b.stampY[i] = m.stampY(i);
+            b.stampHeavy[i] = m.isHeavy(i);
+        }
+        return b;
+    }
+
+    private static MarkerStroke markerStroke(CanvasState.Brush b) {
+        MarkerStroke m = new MarkerStroke(b.seed, b.inkColor, b.sizeProgress);
+        for (int i = 0; i < b.stampCount; i++) m.addStamp(b.stampX[i], b.stampY[i], b.stampHeavy[i]);
+        return m;
+    }
+
+    // Legacy JSON (old saves in SharedPreferences)
+    public String exportStateJson() throws Exception {
+        return CanvasStateJson.toJson(exportState());
+    }
+
+    public void importStateJson(String json) throws Exception {
+        importState(CanvasStateJson.fromJson(json, inkColor, markerSizeProgress));
     }
 
     private Body safeBodyFromName(String n) {
@@ -467,22 +596,22 @@ public class ZoomSpaceView extends View {
 
     // ✅ Undo (supports planets)
     public void undo() {
+        onGame(this::undoNow);
+    }
+
+    private void undoNow() {
         if (undo.isEmpty()) return;
 
         Action a = undo.remove(undo.size() - 1);
         switch (a.type) {
             case ADD_STAR:
-                if (a.starIndex >= 0 && a.starIndex < stars.size()) {
-                    removeStarAndLinks(a.starIndex);
-                }
-                selectedStar = -1;
+                constellation.removeStar(a.starId);
+                selectedStar = null;
                 break;
 
             case ADD_LINK:
-                if (a.linkIndex >= 0 && a.linkIndex < links.size()) {
-                    links.remove(a.linkIndex);
-                }
-                selectedStar = -1;
+                constellation.removeLink(a.linkStarA, a.linkStarB);
+                selectedStar = null;
                 break;
 
             case SET_SUN:
@@ -497,16 +626,17 @@ public class ZoomSpaceView extends View {
 
             case ADD_PLANET:
                 if (a.planetIndex >= 0 && a.planetIndex < planets.size()) {
-                    planets.remove(a.planetIndex);
+                    removePlanetAt(a.planetIndex);
                 } else if (!planets.isEmpty()) {
-                    planets.remove(planets.size() - 1);
+                    removePlanetAt(planets.size() - 1);
                 }
                 break;
 
             case ADD_STROKE:
                 if (!strokes.isEmpty()) {
                     strokes.remove(strokes.size() - 1);
-                    rebuildDustBitmapFromStrokes();
+                    // only replays strokes after the nearest checkpoint
+                    dustHistory.rollbackTo(strokes.size());
                 }
                 break;
 
@@ -515,56 +645,63 @@ public class ZoomSpaceView extends View {
                 restoreSnapshot(a.snapshot);
                 break;
         }
-        invalidate();
+        redraw();
+        notifyCanvasChanged();
     }
 
     public void clearObjectsOnly() {
+        onGame(this::clearObjectsOnlyNow);
+    }
+
+    private void clearObjectsOnlyNow() {
         Snapshot snap = makeSnapshot(true);
         Action clear = Action.clearObjects(snap);
 
-        stars.clear();
-        links.clear();
-        planets.clear();
-        selectedStar = -1;
+        constellation.clear();
+        clearPlanets();
+        selectedStar = null;
         sunPos = null;
         moonPos = null;
 
         undo.clear();
         undo.add(clear);
 
-        invalidate();
+        redraw();
+        notifyCanvasChanged();
     }
 
     public void clearAllObjects() {
+        onGame(this::clearAllObjectsNow);
+    }
+
+    private void clearAllObjectsNow() {
         Snapshot snap = makeSnapshot(true);
         Action clear = Action.clearAll(snap);
 
-        stars.clear();
-        links.clear();
-        planets.clear();
-        selectedStar = -1;
+        constellation.clear();
+        clearPlanets();
+        selectedStar = null;
         sunPos = null;
         moonPos = null;
 
         strokes.clear();
-        if (dustCanvas != null) {
-            dustCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
-        }
+        if (dustLayer != null) dustLayer.clearAll();
+        dustHistory.reset();
         lastBrush = null;
 
         undo.clear();
         undo.add(clear);
 
-        invalidate();
+        redraw();
+        notifyCanvasChanged();
     }
 
     private void restoreSnapshot(Snapshot s) {
         if (s == null) return;
 
-        stars.clear();
-        links.clear();
+        constellation.clear();
         strokes.clear();
-        planets.clear();
+        clearPlanets();
 
         if (s.sunPos != null) sunPos = new PointF(s.sunPos.x, s.sunPos.y);
         else sunPos = null;
@@ -572,17 +709,19 @@ public class ZoomSpaceView extends View {
         if (s.moonPos != null) moonPos = new PointF(s.moonPos.x, s.moonPos.y);
         else moonPos = null;
 
-        for (PlanetInstance p : s.planets) planets.add(new PlanetInstance(p.body, new PointF(p.pos.x, p.pos.y)));
+        for (PlanetInstance p : s.planets) addPlanet(new PlanetInstance(p.body, new PointF(p.pos.x, p.pos.y)));
 
-        for (PointF p : s.stars) stars.add(new PointF(p.x, p.y));
-        for (Line l : s.links) links.add(new Line(l.a, l.b));
+        Constellation.Star[] restored = new Constellation.Star[s.stars.size()];
+        for (int i = 0; i < restored.length; i++) restored[i] = constellation.addStar(s.stars.get(i).x, s.stars.get(i).y);
+        for (Line l : s.links) constellation.addLink(restored[l.a], restored[l.b]);
 
-        for (Stroke st : s.strokes) strokes.add(st.deepCopy());
+        // copy again: the snapshot stays in the undo list and must not see new dust
+        for (Stroke st : s.strokes) strokes.add(st.copy());
 
-        ensureDustBitmap();
-        rebuildDustBitmapFromStrokes();
+        ensureDustLayer();
+        rebuildDustLayerFromStrokes();
 
-        selectedStar = -1;
+        selectedStar = null;
         lastBrush = null;
 
         if (planetAnimationEnabled) reinitAllOrbits();
@@ -596,11 +735,18 @@ public class ZoomSpaceView extends View {
 
         for (PlanetInstance p : planets) s.planets.add(new PlanetInstance(p.body, new PointF(p.pos.x, p.pos.y)));
 
-        for (PointF p : stars) s.stars.add(new PointF(p.x, p.y));
-        for (Line l : links) s.links.add(new Line(l.a, l.b));
+        constellation.indexStars();
+        for (int i = 0; i < constellation.starCount(); i++) {
+            Constellation.Star st = constellation.starAt(i);
+            s.stars.add(new PointF(st.x, st.y));
+        }
+        for (int i = 0; i < constellation.linkCount(); i++) {
+            Constellation.Link l = constellation.linkAt(i);
+            s.links.add(new Line(l.a.order, l.b.order));
+        }
 
         if (includeMarker) {
-            for (Stroke st : strokes) s.strokes.add(st.deepCopy());
+            for (Stroke st : strokes) s.strokes.add(st.copy());
         }
 
         return s;
@@ -612,20 +758,20 @@ public class ZoomSpaceView extends View {
 
     // -------- matrices --------
     private void computeCoverMinScale() {
-        if (getWidth() == 0 || getHeight() == 0) return;
-        float cover = Math.max(getWidth() / SPACE_W, getHeight() / SPACE_H);
+        if (gameW == 0 || gameH == 0) return;
+        float cover = Math.max(gameW / SPACE_W, gameH / SPACE_H);
         minScale = cover;
         if (scale < minScale) scale = minScale;
     }
 
     private void clampOffsetsToSpace() {
-        if (getWidth() == 0 || getHeight() == 0) return;
+        if (gameW == 0 || gameH == 0) return;
 
         float halfW = SPACE_W * 0.5f;
         float halfH = SPACE_H * 0.5f;
 
-        float viewHalfWWorld = (getWidth() * 0.5f) / scale;
-        float viewHalfHWorld = (getHeight() * 0.5f) / scale;
+        float viewHalfWWorld = (gameW * 0.5f) / scale;
+        float viewHalfHWorld = (gameH * 0.5f) / scale;
 
         float maxX = Math.max(0, halfW - viewHalfWWorld);
         float maxY = Math.max(0, halfH - viewHalfHWorld);
@@ -636,8 +782,8 @@ public class ZoomSpaceView extends View {
 
     private void rebuildMatrices() {
         worldToScreen.reset();
-        float cx = getWidth() * 0.5f;
-        float cy = getHeight() * 0.5f;
+        float cx = gameW * 0.5f;
+        float cy = gameH * 0.5f;
 
         worldToScreen.postTranslate(-offsetX, -offsetY);
         worldToScreen.postScale(scale, scale);
@@ -654,6 +800,13 @@ public class ZoomSpaceView extends View {
 
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        if (host == null) onGameSize(w, h);
+    }
+
+    @Override
+    public void onGameSize(int w, int h) {
+        gameW = w;
+        gameH = h;
         computeCoverMinScale();
         clampOffsetsToSpace();
         rebuildMatrices();
@@ -666,21 +819,34 @@ public class ZoomSpaceView extends View {
         );
         pBg.setShader(bgGrad);
 
-        ensureDustBitmap();
-        rebuildDustBitmapFromStrokes();
+        ensureDustLayer();
+        rebuildDustLayerFromStrokes();
     }
 
-    private void ensureDustBitmap() {
+    private void ensureDustLayer() {
         int bw = (int) SPACE_W;
         int bh = (int) SPACE_H;
 
-        if (dustBitmap == null || dustBitmap.getWidth() != bw || dustBitmap.getHeight() != bh) {
-            dustBitmap = Bitmap.createBitmap(bw, bh, Bitmap.Config.ARGB_8888);
-            dustCanvas = new Canvas(dustBitmap);
-            dustCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        if (dustLayer == null || dustLayer.getWidth() != bw || dustLayer.getHeight() != bh) {
+            // pad = how far the dust glow spills, so blurred edges don't get cut at tile borders
+            dustLayer = new DustTileLayer(bw, bh, GlowSpriteCache.reachOf(dustGlowBlur));
         }
     }
 
+    // ✅ heap used by the dust layer right now (bytes)
+    public long getDustLayerBytes() {
+        return dustLayer == null ? 0L : dustLayer.getAllocatedBytes();
+    }
+
+    public int getDustTileCount() {
+        return dustLayer == null ? 0 : dustLayer.getAllocatedTileCount();
+    }
+
+    // tests compare the rasterized dust of two views
+    DustTileLayer dustLayerForTest() {
+        return dustLayer;
+    }
+
     // -------- background stars --------
     private void seedBackgroundStars() {
         bgStars.clear();
@@ -697,13 +863,17 @@ public class ZoomSpaceView extends View {
             s.tw = r.nextFloat() * 10f;
             bgStars.add(s);
         }
+
+        // worst case: every point star lands in the same alpha bucket
+        for (int b = 0; b < BG_POINT_BUCKETS; b++) bgPoints[b] = new float[bgStars.size() * 2];
     }
 
     private void updateBackgroundStars(float dtSec, float t) {
         float halfW = SPACE_W * 0.5f;
         float halfH = SPACE_H * 0.5f;
 
-        for (BgStar s : bgStars) {
+        for (int i = 0; i < bgStars.size(); i++) {
+            BgStar s = bgStars.get(i);
             s.x += s.vx * dtSec;
             s.y += s.vy * dtSec;
 
@@ -720,17 +890,31 @@ public class ZoomSpaceView extends View {
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        if (host != null) return;
+
+        profiler.beginFrame();
+
+        // same fixed steps as the render thread, just driven by vsync on the UI thread
+        int n = clock.advance(System.nanoTime());
+        float dt = clock.stepSec();
+        for (int i = 0; i < n; i++) step(clock.nextStep(), dt);
+        profiler.updateDone();
+
+        render(canvas, clock.simTimeMs());
+        profiler.endFrame(frameObjectCount());
 
-        long now = SystemClock.uptimeMillis();
-        float dt = Math.min(0.05f, (now - lastFrameTime) / 1000f);
-        lastFrameTime = now;
+        // ✅ keep animating (background twinkle + orbits)
+        postInvalidateOnAnimation();
+    }
+
+    // one fixed step: twinkle + orbits
+    @Override
+    public void step(long now, float dt) {
+        simNow = now;
 
         float t = now / 1000f;
         updateBackgroundStars(dt, t);
 
-        if (bgGrad != null) canvas.drawRect(0, 0, getWidth(), getHeight(), pBg);
-        else canvas.drawColor(Color.parseColor("#070716"));
-
         // ✅ update orbit angles
         if (planetAnimationEnabled) {
             PointF c = getOrbitCenter();
@@ -742,37 +926,63 @@ public class ZoomSpaceView extends View {
                 p.angleRad += p.angularSpeedRad * dt;
             }
         }
+    }
+
+    @Override
+    public int frameObjectCount() {
+        return frameDrawn;
+    }
+
+    @Override
+    public void render(Canvas canvas, long now) {
+        float t = now / 1000f;
+
+        if (bgGrad != null) canvas.drawRect(0, 0, gameW, gameH, pBg);
+        else canvas.drawColor(BG_FALLBACK);
 
         canvas.save();
         canvas.concat(worldToScreen);
 
-        for (BgStar s : bgStars) {
-            pBgStar.setAlpha(s.curA);
-            canvas.drawCircle(s.x, s.y, (s.r / scale), pBgStar);
-        }
+        // while pinching the zoom changes every frame: skip the shadows instead of rebuilding them each time
+        if (!pinching && shadowScale != scale) updateShadowPaints();
+
+        // ✅ viewport in world units, everything outside it is culled
+        visibleWorld.set(0, 0, gameW, gameH);
+        screenToWorld.mapRect(visibleWorld);
+        frameDrawn = frameCulled = frameBatched = frameLodSkips = 0;
+
+        drawBackgroundStars(canvas);
 
-        if (dustBitmap != null) {
+        if (dustLayer != null && dustLayer.getAllocatedTileCount() > 0) {
             float halfW = SPACE_W * 0.5f;
             float halfH = SPACE_H * 0.5f;
-            canvas.drawBitmap(dustBitmap, -halfW, -halfH, null);
+
+            // only composite tiles inside the viewport
+            dustLayer.draw(canvas, -halfW, -halfH,
+                    visibleWorld.left + halfW, visibleWorld.top + halfH,
+                    visibleWorld.right + halfW, visibleWorld.bottom + halfH, null);
         }
 
-        for (Line l : links) {
-            PointF a = stars.get(l.a);
-            PointF b = stars.get(l.b);
-            canvas.drawLine(a.x, a.y, b.x, b.y, pLine);
+        for (int i = 0; i < constellation.linkCount(); i++) {
+            Constellation.Link l = constellation.linkAt(i);
+            // bounding box of the segment vs the viewport
+            if (Math.max(l.a.x, l.b.x) < visibleWorld.left || Math.min(l.a.x, l.b.x) > visibleWorld.right
+                    || Math.max(l.a.y, l.b.y) < visibleWorld.top || Math.min(l.a.y, l.b.y) > visibleWorld.bottom) {
+                frameCulled++;
+                continue;
+            }
+            canvas.drawLine(l.a.x, l.a.y, l.b.x, l.b.y, pLine);
+            frameDrawn++;
         }
 
-        for (int i = 0; i < stars.size(); i++) {
-            PointF s = stars.get(i);
+        float starHalf = dp(34) / scale;
+        for (int i = 0; i < constellation.starCount(); i++) {
+            Constellation.Star s = constellation.starAt(i);
+            if (isOffscreen(s.x, s.y, starHalf)) { frameCulled++; continue; }
 
-            float starHalf = dp(34) / scale;
-            Paint starPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            starPaint.setFilterBitmap(true);
-            starPaint.setShadowLayer(dp(3) / scale, 0, dp(1) / scale, Color.argb(120, 0, 0, 0));
-            drawBitmapCenteredKeepAspect(canvas, starBmp, s.x, s.y, starHalf, starPaint);
+            drawBitmapLod(canvas, SpriteAtlas.STAR, s.x, s.y, starHalf, pStarBmp, pinching);
 
-            if (i == selectedStar) {
+            if (s == selectedStar) {
                 canvas.drawCircle(s.x, s.y, starHalf * 0.95f, pRing);
             }
         }
@@ -780,9 +990,7 @@ public class ZoomSpaceView extends View {
         // ✅ draw planets (orbiting when Play is ON)
         for (int i = 0; i < planets.size(); i++) {
             PlanetInstance p = planets.get(i);
-
-            Bitmap bmp = bitmapForBody(p.body);
-            if (bmp == null) continue;
+            if (sprites == null) break;
 
             float half = planetHalfSizeDp(p.body) / scale;
 
@@ -810,14 +1018,11 @@ public class ZoomSpaceView extends View {
                 py += dy;
             }
 
-            Paint planetPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            planetPaint.setFilterBitmap(true);
-            planetPaint.setShadowLayer(dp(4) / scale, 0, dp(2) / scale, Color.argb(70, 0, 0, 0));
-
-            drawBitmapCenteredKeepAspect(canvas, bmp, px, py, half, planetPaint);
+            if (isOffscreen(px, py, half)) { frameCulled++; continue; }
+            drawBitmapLod(canvas, spriteFor(p.body), px, py, half, pPlanetBmp, pinching);
         }
 
-        if (sunPos != null && sunBmp != null) {
+        if (sunPos != null) {
             float sunHalf = dp(135) / scale;
 
             float dx = 18f * (float) Math.sin(t * 0.18f + sunPhaseA);
@@ -827,20 +1032,27 @@ public class ZoomSpaceView extends View {
             float sy = sunPos.y + dy;
 
             float glowR = sunHalf * 0.55f;
-            int glowA = (int) (70 + 20 * (0.5f + 0.5f * Math.sin(t * 0.45f + sunPhaseA)));
-            pSunGlow.setColor(Color.argb(glowA, 255, 185, 90));
-            canvas.drawCircle(sx, sy, glowR, pSunGlow);
+            float reach = Math.max(sunHalf, glowR * 1.35f + GlowSpriteCache.reachOf(bodyGlowBlur));
 
-            pSunGlow.setColor(Color.argb((int)(glowA * 0.5f), 255, 170, 70));
-            canvas.drawCircle(sx, sy, glowR * 1.35f, pSunGlow);
+            if (isOffscreen(sx, sy, reach)) {
+                frameCulled++;
+            } else {
+                if (glowR * scale >= lodGlowMinPx) {
+                    int glowA = (int) (70 + 20 * (0.5f + 0.5f * Math.sin(t * 0.45f + sunPhaseA)));
+                    pSunGlow.setColor(Color.argb(glowA, 255, 185, 90));
+                    glow.drawCircle(canvas, sx, sy, glowR, bodyGlowBlur, pSunGlow);
+
+                    pSunGlow.setColor(Color.argb((int)(glowA * 0.5f), 255, 170, 70));
+                    glow.drawCircle(canvas, sx, sy, glowR * 1.35f, bodyGlowBlur, pSunGlow);
+                } else {
+                    frameLodSkips++;
+                }
 
-            Paint sunPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            sunPaint.setFilterBitmap(true);
-            sunPaint.setShadowLayer(dp(7) / scale, 0, dp(2) / scale, Color.argb(90, 0, 0, 0));
-            drawBitmapCenteredKeepAspect(canvas, sunBmp, sx, sy, sunHalf, sunPaint);
+                drawBitmapLod(canvas, SpriteAtlas.SUN, sx, sy, sunHalf, pSunBmp, pinching);
+            }
         }
 
-        if (moonPos != null && moonBmp != null) {
+        if (moonPos != null) {
             float moonHalf = dp(125) / scale;
 
             float dx = 14f * (float) Math.sin(t * 0.16f + moonPhaseA);
@@ -850,108 +1062,201 @@ public class ZoomSpaceView extends View {
             float my = moonPos.y + dy;
 
             float haloR = moonHalf * 0.50f;
-            int haloA = (int) (60 + 18 * (0.5f + 0.5f * Math.sin(t * 0.35f + moonPhaseA)));
-            pMoonGlow.setColor(Color.argb(haloA, 140, 170, 255));
-            canvas.drawCircle(mx, my, haloR, pMoonGlow);
+            float reach = Math.max(moonHalf, haloR * 1.25f + GlowSpriteCache.reachOf(bodyGlowBlur));
 
-            pMoonGlow.setColor(Color.argb((int)(haloA * 0.45f), 100, 140, 240));
-            canvas.drawCircle(mx, my, haloR * 1.25f, pMoonGlow);
+            if (isOffscreen(mx, my, reach)) {
+                frameCulled++;
+            } else {
+                if (haloR * scale >= lodGlowMinPx) {
+                    int haloA = (int) (60 + 18 * (0.5f + 0.5f * Math.sin(t * 0.35f + moonPhaseA)));
+                    pMoonGlow.setColor(Color.argb(haloA, 140, 170, 255));
+                    glow.drawCircle(canvas, mx, my, haloR, bodyGlowBlur, pMoonGlow);
+
+                    pMoonGlow.setColor(Color.argb((int)(haloA * 0.45f), 100, 140, 240));
+                    glow.drawCircle(canvas, mx, my, haloR * 1.25f, bodyGlowBlur, pMoonGlow);
+                } else {
+                    frameLodSkips++;
+                }
 
-            Paint moonPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            moonPaint.setFilterBitmap(true);
-            moonPaint.setShadowLayer(dp(7) / scale, 0, dp(2) / scale, Color.argb(90, 0, 0, 0));
-            drawBitmapCenteredKeepAspect(canvas, moonBmp, mx, my, moonHalf, moonPaint);
+                drawBitmapLod(canvas, SpriteAtlas.MOON, mx, my, moonHalf, pMoonBmp, pinching);
+            }
         }
 
         canvas.restore();
 
-        // ✅ keep animating (background twinkle + orbits)
-        postInvalidateOnAnimation();
+        if (debugOverlay) drawDebugOverlay(canvas);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        FrameStatsRecorder.endSession(getContext(), profiler);
+    }
+
+    // Tiny stars go into per-alpha drawPoints batches, the rest are drawn as circles.
+    private void drawBackgroundStars(Canvas canvas) {
+        for (int b = 0; b < BG_POINT_BUCKETS; b++) bgPointCount[b] = 0;
+
+        for (int i = 0; i < bgStars.size(); i++) {
+            BgStar s = bgStars.get(i);
+            float rWorld = s.r / scale;
+            if (isOffscreen(s.x, s.y, rWorld)) { frameCulled++; continue; }
+
+            if (s.r <= LOD_POINT_MAX_PX) {
+                int b = Math.min(BG_POINT_BUCKETS - 1, (s.curA * BG_POINT_BUCKETS) >> 8);
+                float[] buf = bgPoints[b];
+                int n = bgPointCount[b];
+                if (n + 2 > buf.length) continue;
+                buf[n] = s.x;
+                buf[n + 1] = s.y;
+                bgPointCount[b] = n + 2;
+                frameBatched++;
+            } else {
+                pBgStar.setAlpha(s.curA);
+                canvas.drawCircle(s.x, s.y, rWorld, pBgStar);
+            }
+            frameDrawn++;
+        }
+
+        // point stars are 1..LOD_POINT_MAX_PX px in radius, drawn at the middle of that range
+        pBgPoint.setStrokeWidth((1f + LOD_POINT_MAX_PX) / scale);
+        for (int b = 0; b < BG_POINT_BUCKETS; b++) {
+            if (bgPointCount[b] == 0) continue;
+            pBgPoint.setAlpha(((b << 8) + 128) / BG_POINT_BUCKETS);
+            canvas.drawPoints(bgPoints[b], 0, bgPointCount[b], pBgPoint);
+        }
+    }
+
+    // (x, y) +- extent is entirely outside the viewport (world units)
+    private boolean isOffscreen(float x, float y, float extent) {
+        return x + extent < visibleWorld.left || x - extent > visibleWorld.right
+                || y + extent < visibleWorld.top || y - extent > visibleWorld.bottom;
+    }
+
+    // Drop shadows are skipped for small bitmaps and while pinching (their blur is rebuilt per zoom level)
+    private void drawBitmapLod(Canvas c, int sprite, float x, float y, float halfWorld, Paint withShadow, boolean pinching) {
+        Paint paint = withShadow;
+        if (pinching || shadowScale != scale || halfWorld * scale < lodShadowMinPx) {
+            paint = pPlainBmp;
+            frameLodSkips++;
+        }
+        drawBitmapCenteredKeepAspect(c, sprite, x, y, halfWorld, paint);
+        frameDrawn++;
+    }
+
+    private void drawDebugOverlay(Canvas canvas) {
+        float pad = dp(6);
+        float lineH = pDebugText.getTextSize() * 1.25f;
+        canvas.drawRect(0, 0, dp(230), pad * 2 + lineH * 2, pDebugBg);
+
+        debugLine.setLength(0);
+        debugLine.append("drawn ").append(frameDrawn)
+                .append("  culled ").append(frameCulled)
+                .append("  points ").append(frameBatched);
+        canvas.drawText(debugLine, 0, debugLine.length(), pad, pad + lineH - dp(3), pDebugText);
+
+        debugLine.setLength(0);
+        debugLine.append("lod skips ").append(frameLodSkips)
+                .append("  zoom ").append((int) (scale * 100f)).append('%');
+        canvas.drawText(debugLine, 0, debugLine.length(), pad, pad + lineH * 2 - dp(3), pDebugText);
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
         scaleDetector.onTouchEvent(event);
+        onGameTouch(event.getActionMasked(), event.getX(), event.getY());
+        return true;
+    }
+
+    @Override
+    public boolean acceptsTouch(float x, float y) {
+        return true;
+    }
 
-        float sx = event.getX();
-        float sy = event.getY();
+    @Override
+    public void onGameTouch(int action, float sx, float sy) {
         PointF w = screenToWorld(sx, sy);
 
-        switch (event.getActionMasked()) {
+        // end of a gesture that may have edited something (pure panning changes nothing saved)
+        if (action == MotionEvent.ACTION_UP && !isPanning) notifyCanvasChanged();
+
+        switch (action) {
             case MotionEvent.ACTION_DOWN: {
                 lastX = sx;
                 lastY = sy;
                 isPanning = false;
 
                 dragTarget = DragTarget.NONE;
-                activeStarIndex = -1;
+                activeStar = null;
                 activePlanetIndex = -1;
 
-                if (mode == Mode.MOVE && !scaleDetector.isInProgress()) {
-                    if (hitSun(w)) { dragTarget = DragTarget.SUN; return true; }
-                    if (hitMoon(w)) { dragTarget = DragTarget.MOON; return true; }
+                if (mode == Mode.MOVE && !pinching) {
+                    if (hitSun(w)) { dragTarget = DragTarget.SUN; return; }
+                    if (hitMoon(w)) { dragTarget = DragTarget.MOON; return; }
 
                     int hitP = findNearestPlanetIndex(w);
                     if (hitP != -1) {
                         dragTarget = DragTarget.PLANET;
                         activePlanetIndex = hitP;
-                        return true;
+                        return;
                     }
 
-                    int hit = findNearestStarIndex(w, dp(70) / scale);
-                    if (hit != -1) { dragTarget = DragTarget.STAR; activeStarIndex = hit; return true; }
+                    Constellation.Star hit = constellation.hitTest(w.x, w.y, dp(70) / scale);
+                    if (hit != null) { dragTarget = DragTarget.STAR; activeStar = hit; return; }
 
                     isPanning = true;
-                    return true;
+                    return;
                 }
 
-                if (mode == Mode.MARKER && !scaleDetector.isInProgress()) {
-                    strokes.add(new Stroke(false));
+                if (mode == Mode.MARKER && !pinching) {
+                    dustHistory.beforeStroke(strokes.size());
+                    strokes.add(newMarkerStroke());
                     undo.add(Action.addStroke());
                     lastBrush = new PointF(w.x, w.y);
                     stampMarker(w.x, w.y, true);
-                    invalidate();
-                    return true;
+                    redraw();
+                    return;
                 }
 
-                if (mode == Mode.ERASER && !scaleDetector.isInProgress()) {
+                if (mode == Mode.ERASER && !pinching) {
+                    dustHistory.beforeStroke(strokes.size());
                     strokes.add(new Stroke(true));
                     undo.add(Action.addStroke());
                     lastBrush = new PointF(w.x, w.y);
                     stampEraser(w.x, w.y, true);
-                    invalidate();
-                    return true;
+                    redraw();
+                    return;
                 }
 
-                return true;
+                return;
             }
 
             case MotionEvent.ACTION_MOVE: {
-                if (scaleDetector.isInProgress()) return true;
+                if (pinching) return;
 
                 if (mode == Mode.MARKER && lastBrush != null) {
                     drawBrushPath(w, false);
-                    return true;
+                    return;
                 }
 
                 if (mode == Mode.ERASER && lastBrush != null) {
                     drawBrushPath(w, true);
-                    return true;
+                    return;
                 }
 
                 if (mode == Mode.MOVE) {
                     if (dragTarget == DragTarget.SUN) {
                         sunPos = w;
                         if (planetAnimationEnabled) reinitAllOrbits();
-                        invalidate();
-                        return true;
+                        redraw();
+                        return;
                     }
                     if (dragTarget == DragTarget.MOON) {
-                        moonPos = w; invalidate(); return true;
+                        moonPos = w; redraw(); return;
                     }
                     if (dragTarget == DragTarget.PLANET && activePlanetIndex >= 0 && activePlanetIndex < planets.size()) {
                         PlanetInstance p = planets.get(activePlanetIndex);
-                        p.pos = new PointF(w.x, w.y);
+                        movePlanet(p, w.x, w.y);
 
                         // If anim ON, update orbit params based on new position
                         if (planetAnimationEnabled) {
@@ -959,11 +1264,11 @@ public class ZoomSpaceView extends View {
                             initOrbitForPlanet(p, c, activePlanetIndex);
                         }
 
-                        invalidate();
-                        return true;
+                        redraw();
+                        return;
                     }
-                    if (dragTarget == DragTarget.STAR && activeStarIndex >= 0 && activeStarIndex < stars.size()) {
-                        stars.set(activeStarIndex, w); invalidate(); return true;
+                    if (dragTarget == DragTarget.STAR && activeStar != null) {
+                        constellation.moveStar(activeStar, w.x, w.y); redraw(); return;
                     }
                 }
 
@@ -975,29 +1280,29 @@ public class ZoomSpaceView extends View {
 
                 clampOffsetsToSpace();
                 rebuildMatrices();
-                invalidate();
+                redraw();
 
                 lastX = sx;
                 lastY = sy;
-                return true;
+                return;
             }
 
             case MotionEvent.ACTION_UP: {
-                if (!scaleDetector.isInProgress()) {
+                if (!pinching) {
 
                     if (mode == Mode.SUN) {
                         undo.add(Action.setSun(sunPos));
                         sunPos = w;
                         if (planetAnimationEnabled) reinitAllOrbits();
-                        invalidate();
-                        return true;
+                        redraw();
+                        return;
                     }
 
                     if (mode == Mode.MOON) {
                         undo.add(Action.setMoon(moonPos));
                         moonPos = w;
-                        invalidate();
-                        return true;
+                        redraw();
+                        return;
                     }
 
                     if (mode == Mode.PLANET) {
@@ -1005,18 +1310,18 @@ public class ZoomSpaceView extends View {
                             undo.add(Action.setSun(sunPos));
                             sunPos = w;
                             if (planetAnimationEnabled) reinitAllOrbits();
-                            invalidate();
-                            return true;
+                            redraw();
+                            return;
                         }
                         if (selectedBody == Body.MOON) {
                             undo.add(Action.setMoon(moonPos));
                             moonPos = w;
-                            invalidate();
-                            return true;
+                            redraw();
+                            return;
                         }
 
                         PlanetInstance inst = new PlanetInstance(selectedBody, new PointF(w.x, w.y));
-                        planets.add(inst);
+                        addPlanet(inst);
                         undo.add(Action.addPlanet(planets.size() - 1));
 
                         if (planetAnimationEnabled) {
@@ -1024,47 +1329,31 @@ public class ZoomSpaceView extends View {
                             initOrbitForPlanet(inst, c, planets.size() - 1);
                         }
 
-                        invalidate();
-                        return true;
+                        redraw();
+                        return;
                     }
 
                     if (mode == Mode.STARS) {
-                        int hit = findNearestStarIndex(w, dp(70) / scale);
-                        if (hit != -1) {
+                        Constellation.Star hit = constellation.hitTest(w.x, w.y, dp(70) / scale);
+                        if (hit != null) {
                             onStarTapped(hit);
-                            return true;
+                            return;
                         }
 
-                        stars.add(w);
-                        undo.add(Action.addStar(stars.size() - 1));
-                        invalidate();
-                        return true;
+                        Constellation.Star added = constellation.addStar(w.x, w.y);
+                        undo.add(Action.addStar(added.id));
+                        redraw();
+                        return;
                     }
                 }
 
                 lastBrush = null;
                 dragTarget = DragTarget.NONE;
-                activeStarIndex = -1;
+                activeStar = null;
                 activePlanetIndex = -1;
-                return true;
+                return;
             }
         }
-
-        return super.onTouchEvent(event);
-    }
-
-    private Bitmap bitmapForBody(Body b) {
-        switch (b) {
-            case MERCURY: return mercuryBmp;
-            case VENUS: return venusBmp;
-            case EARTH: return earthBmp;
-            case MARS: return marsBmp;
-            case JUPITER: return jupiterBmp;
-            case SATURN: return saturnBmp;
-            case URANUS: return uranusBmp;
-            case NEPTUNE: return neptuneBmp;
-            default: return null;
-        }
     }
 
     private float planetHalfSizeDp(Body b) {
@@ -1084,13 +1373,43 @@ public class ZoomSpaceView extends View {
         }
     }
 
+    // topmost (last added) planet under the finger
     private int findNearestPlanetIndex(PointF w) {
-        for (int i = planets.size() - 1; i >= 0; i--) {
-            PlanetInstance p = planets.get(i);
+        // grid query with the biggest planet's reach, then the exact per-body radius
+        float reach = dp(62) * 1.15f / scale;
+        planetHits.clear();
+        planetGrid.query(w.x, w.y, reach, planetHits);
+
+        PlanetInstance best = null;
+        for (int i = 0; i < planetHits.size(); i++) {
+            PlanetInstance p = planetHits.get(i);
             float r = planetHalfSizeDp(p.body) / scale;
-            if (dist2(w, p.pos) <= (r * 1.15f) * (r * 1.15f)) return i;
+            if (dist2(w, p.pos) > (r * 1.15f) * (r * 1.15f)) continue;
+            if (best == null || p.seq > best.seq) best = p;
         }
-        return -1;
+        planetHits.clear();
+
+        return best == null ? -1 : planets.indexOf(best);
+    }
+
+    private void addPlanet(PlanetInstance p) {
+        p.seq = ++planetSeq;
+        planets.add(p);
+        planetGrid.put(p, p.pos.x, p.pos.y);
+    }
+
+    private void movePlanet(PlanetInstance p, float x, float y) {
+        p.pos = new PointF(x, y);
+        planetGrid.put(p, x, y);
+    }
+
+    private void removePlanetAt(int index) {
+        planetGrid.remove(planets.remove(index));
+    }
+
+    private void clearPlanets() {
+        planets.clear();
+        planetGrid.clear();
     }
 
     private void drawBrushPath(PointF w, boolean erase) {
@@ -1113,97 +1432,54 @@ public class ZoomSpaceView extends View {
         }
 
         lastBrush.set(w.x, w.y);
-        invalidate();
+        redraw();
     }
 
-    private void onStarTapped(int idx) {
-        if (selectedStar == -1) {
-            selectedStar = idx;
-        } else if (selectedStar == idx) {
-            selectedStar = -1;
+    private void onStarTapped(Constellation.Star star) {
+        if (selectedStar == null) {
+            selectedStar = star;
+        } else if (selectedStar == star) {
+            selectedStar = null;
         } else {
-            if (!linkExists(selectedStar, idx)) {
-                links.add(new Line(selectedStar, idx));
-                undo.add(Action.addLink(links.size() - 1));
+            if (constellation.addLink(selectedStar, star) != null) {
+                undo.add(Action.addLink(selectedStar.id, star.id));
             }
-            selectedStar = -1;
+            selectedStar = null;
         }
-        invalidate();
+        redraw();
     }
 
-    private void removeStarAndLinks(int idx) {
-        for (int i = links.size() - 1; i >= 0; i--) {
-            Line l = links.get(i);
-            if (l.a == idx || l.b == idx) {
-                links.remove(i);
-            }
-        }
-
-        for (Line l : links) {
-            if (l.a > idx) l.a--;
-            if (l.b > idx) l.b--;
-        }
-
-        stars.remove(idx);
+    private Stroke newMarkerStroke() {
+        return new Stroke(false, new MarkerStroke(brushRand.nextLong(), inkColor, markerSizeProgress));
     }
 
     private void stampMarker(float x, float y, boolean heavier) {
-        ensureDustBitmap();
-        if (dustCanvas == null) return;
-
-        if (strokes.isEmpty()) strokes.add(new Stroke(false));
-        Stroke stroke = strokes.get(strokes.size() - 1);
-
-        float sizeMul = 0.45f + (markerSizeProgress / 100f) * 1.35f;
-
-        float base = 55f * sizeMul;
-        float spread = heavier ? 1.2f : 1.0f;
-        int count = (int)((heavier ? 70 : 35) * (0.75f + sizeMul * 0.55f));
-
-        float[] hsv = new float[3];
-        Color.colorToHSV(inkColor, hsv);
+        ensureDustLayer();
 
-        float halfW = SPACE_W * 0.5f;
-        float halfH = SPACE_H * 0.5f;
-
-        for (int i = 0; i < count; i++) {
-            float ox = (float) (brushRand.nextGaussian() * base * spread);
-            float oy = (float) (brushRand.nextGaussian() * base * 0.55f * spread);
-
-            float px = x + ox;
-            float py = y + oy;
-
-            float r = (6f + brushRand.nextFloat() * (heavier ? 20f : 14f)) * sizeMul;
-
-            float hue = (hsv[0] + (brushRand.nextFloat() * 10f - 5f) + 360f) % 360f;
-            float sat = clamp(hsv[1] * (0.35f + brushRand.nextFloat() * 0.45f), 0f, 1f);
-            float val = clamp(0.80f + brushRand.nextFloat() * 0.18f, 0f, 1f);
-
-            int core = Color.HSVToColor(new float[]{hue, sat, val});
-            int glow = Color.HSVToColor(new float[]{hue, clamp(sat * 0.85f, 0f, 1f), clamp(val * 0.90f, 0f, 1f)});
-
-            int coreA = 18 + brushRand.nextInt(40);
-            int glowA = 10 + brushRand.nextInt(22);
+        Stroke stroke = strokes.isEmpty() ? null : strokes.get(strokes.size() - 1);
+        if (stroke == null || stroke.brush == null) {
+            stroke = newMarkerStroke();
+            strokes.add(stroke);
+        }
 
-            Dust d = new Dust(px, py, r, core, glow, coreA, glowA);
-            stroke.dust.add(d);
+        // only the stamp point is kept; the particles go straight into the dust layer
+        stroke.brush.stamp(x, y, heavier, dustSink);
+    }
 
-            float bx = px + halfW;
-            float by = py + halfH;
+    // MarkerBrush.Sink for live stamps and replays alike, so both rasterize identically
+    private void drawDust(float px, float py, float r, int core, int glowColor, int coreA, int glowA) {
+        float bx = px + SPACE_W * 0.5f;
+        float by = py + SPACE_H * 0.5f;
 
-            pDustGlow.setColor(d.glowColor);
-            pDustGlow.setAlpha(d.glowAlpha);
-            dustCanvas.drawCircle(bx, by, r * 1.35f, pDustGlow);
+        pDustGlow.setColor(ParticleBuffer.withAlpha(glowColor, glowA));
+        dustLayer.drawGlow(glow, bx, by, r * 1.35f, dustGlowBlur, pDustGlow);
 
-            pDustCore.setColor(d.coreColor);
-            pDustCore.setAlpha(d.coreAlpha);
-            dustCanvas.drawCircle(bx, by, r, pDustCore);
-        }
+        pDustCore.setColor(ParticleBuffer.withAlpha(core, coreA));
+        dustLayer.drawCircle(bx, by, r, pDustCore);
     }
 
     private void stampEraser(float x, float y, boolean heavier) {
-        ensureDustBitmap();
-        if (dustCanvas == null) return;
+        ensureDustLayer();
 
         if (strokes.isEmpty()) strokes.add(new Stroke(true));
         Stroke stroke = strokes.get(strokes.size() - 1);
@@ -1214,43 +1490,49 @@ public class ZoomSpaceView extends View {
         float halfW = SPACE_W * 0.5f;
         float halfH = SPACE_H * 0.5f;
 
-        stroke.erasers.add(new EraseDot(x, y, er));
+        stroke.erasers.add(x, y, er);
 
         float bx = x + halfW;
         float by = y + halfH;
 
-        dustCanvas.drawCircle(bx, by, er, pDustClear);
+        dustLayer.clearCircle(bx, by, er, pDustClear);
     }
 
-    private void rebuildDustBitmapFromStrokes() {
-        ensureDustBitmap();
-        if (dustCanvas == null) return;
+    private void rebuildDustLayerFromStrokes() {
+        ensureDustLayer();
+        dustLayer.clearAll();
+        dustHistory.reset();
 
-        dustCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        for (Stroke s : strokes) drawStrokeToLayer(s);
+    }
 
+    private void drawStrokeToLayer(Stroke s) {
         float halfW = SPACE_W * 0.5f;
         float halfH = SPACE_H * 0.5f;
 
-        for (Stroke s : strokes) {
-            if (!s.isErase) {
-                for (Dust d : s.dust) {
-                    float bx = d.x + halfW;
-                    float by = d.y + halfH;
-
-                    pDustGlow.setColor(d.glowColor);
-                    pDustGlow.setAlpha(d.glowAlpha);
-                    dustCanvas.drawCircle(bx, by, d.radius * 1.35f, pDustGlow);
-
-                    pDustCore.setColor(d.coreColor);
-                    pDustCore.setAlpha(d.coreAlpha);
-                    dustCanvas.drawCircle(bx, by, d.radius, pDustCore);
-                }
-            } else {
-                for (EraseDot e : s.erasers) {
-                    float bx = e.x + halfW;
-                    float by = e.y + halfH;
-                    dustCanvas.drawCircle(bx, by, e.r, pDustClear);
-                }
+        if (!s.isErase) {
+            if (s.brush != null) s.brush.replay(dustSink);
+
+            // particles of strokes saved before replay
+            ParticleBuffer dust = s.dust;
+            for (int i = 0, n = dust.size(); i < n; i++) {
+                float bx = dust.x(i) + halfW;
+                float by = dust.y(i) + halfH;
+                float r = dust.radius(i);
+
+                // colors carry the particle alpha
+                pDustGlow.setColor(dust.glowArgb(i));
+                dustLayer.drawGlow(glow, bx, by, r * 1.35f, dustGlowBlur, pDustGlow);
+
+                pDustCore.setColor(dust.coreArgb(i));
+                dustLayer.drawCircle(bx, by, r, pDustCore);
+            }
+        } else {
+            ParticleBuffer erasers = s.erasers;
+            for (int i = 0, n = erasers.size(); i < n; i++) {
+                float bx = erasers.x(i) + halfW;
+                float by = erasers.y(i) + halfH;
+                dustLayer.clearCircle(bx, by, erasers.radius(i), pDustClear);
             }
         }
     }
@@ -1267,23 +1549,6 @@ public class ZoomSpaceView extends View {
         return dist2(w, moonPos) <= r * r;
     }
 
-    private int findNearestStarIndex(PointF w, float radiusWorld) {
-        for (int i = stars.size() - 1; i >= 0; i--) {
-            PointF s = stars.get(i);
-            float dx = w.x - s.x;
-            float dy = w.y - s.y;
-            if (dx * dx + dy * dy <= radiusWorld * radiusWorld) return i;
-        }
-        return -1;
-    }
-
-    private boolean linkExists(int a, int b) {
-        for (Line l : links) {
-            if ((l.a == a && l.b == b) || (l.a == b && l.b == a)) return true;
-        }
-        return false;
-    }
-
     private float dist2(PointF a, PointF b) {
         float dx = a.x - b.x;
         float dy = a.y - b.y;
@@ -1314,14 +1579,10 @@ public class ZoomSpaceView extends View {
         return Math.max(0, Math.min(255, v));
     }
 
-    private void drawBitmapCenteredKeepAspect(Canvas c, Bitmap bmp, float x, float y, float halfSize, Paint paintOpt) {
-        if (bmp == null) return;
-
-        float bw = bmp.getWidth();
-        float bh = bmp.getHeight();
-        if (bw <= 0 || bh <= 0) return;
+    private void drawBitmapCenteredKeepAspect(Canvas c, int sprite, float x, float y, float halfSize, Paint paintOpt) {
+        if (sprites == null) return;
 
-        float aspect = bw / bh;
+        float aspect = SpriteSheet.aspect(sprite);
 
         float halfW, halfH;
         if (aspect >= 1f) {
@@ -1332,46 +1593,19 @@ public class ZoomSpaceView extends View {
             halfW = halfSize * aspect;
         }
 
-        Paint paint = (paintOpt != null) ? paintOpt : new Paint(Paint.ANTI_ALIAS_FLAG);
-        if (paintOpt == null) paint.setFilterBitmap(true);
+        Paint paint = (paintOpt != null) ? paintOpt : pPlainBmp;
 
-        c.drawBitmap(bmp, null,
-                new android.graphics.RectF(x - halfW, y - halfH, x + halfW, y + halfH),
-                paint);
+        tmpDst.set(x - halfW, y - halfH, x + halfW, y + halfH);
+        sprites.draw(c, sprite, tmpDst, paint);
     }
 
-    private Bitmap trimTransparent(Bitmap src) {
-        if (src == null) return null;
-
-        int w = src.getWidth();
-        int h = src.getHeight();
-
-        int minX = w, minY = h, maxX = -1, maxY = -1;
-        final int alphaThreshold = 10;
-
-        int[] row = new int[w];
-        for (int y = 0; y < h; y++) {
-            src.getPixels(row, 0, w, 0, y, w, 1);
-            for (int x = 0; x < w; x++) {
-                int alpha = (row[x] >>> 24);
-                if (alpha > alphaThreshold) {
-                    if (x < minX) minX = x;
-                    if (x > maxX) maxX = x;
-                    if (y < minY) minY = y;
-                    if (y > maxY) maxY = y;
-                }
-            }
-        }
-
-        if (maxX < minX || maxY < minY) return src;
-
-        int pad = 6;
-        minX = Math.max(0, minX - pad);
-        minY = Math.max(0, minY - pad);
-        maxX = Math.min(w - 1, maxX + pad);
-        maxY = Math.min(h - 1, maxY + pad);
-
-        return Bitmap.createBitmap(src, minX, minY, (maxX - minX + 1), (maxY - minY + 1));
+    // Shadow sizes are in world units (divided by zoom), so only redo them when the zoom changes
+    private void updateShadowPaints() {
+        shadowScale = scale;
+        pStarBmp.setShadowLayer(dp(3) / scale, 0, dp(1) / scale, Color.argb(120, 0, 0, 0));
+        pPlanetBmp.setShadowLayer(dp(4) / scale, 0, dp(2) / scale, Color.argb(70, 0, 0, 0));
+        pSunBmp.setShadowLayer(dp(7) / scale, 0, dp(2) / scale, Color.argb(90, 0, 0, 0));
+        pMoonBmp.setShadowLayer(dp(7) / scale, 0, dp(2) / scale, Color.argb(90, 0, 0, 0));
     }
 
     // =========================
@@ -1380,7 +1614,8 @@ public class ZoomSpaceView extends View {
     private PointF getOrbitCenter() {
         // Orbit around sun if placed. Otherwise orbit around space center (0,0 world).
         if (sunPos != null) return sunPos;
-        return new PointF(0f, 0f);
+        worldOrigin.set(0f, 0f); // shared, callers only read it
+        return worldOrigin;
     }
 
     private void reinitAllOrbits() {
@@ -1403,7 +1638,7 @@ public class ZoomSpaceView extends View {
             // keep original direction if possible
             float ang = (float) Math.atan2(dy, dx);
             if (Float.isNaN(ang)) ang = (float) (Math.random() * Math.PI * 2);
-            p.pos = new PointF(center.x + (float)Math.cos(ang) * r,
+            movePlanet(p, center.x + (float)Math.cos(ang) * r,
                     center.y + (float)Math.sin(ang) * r);
             dx = p.pos.x - center.x;
             dy = p.pos.y - center.y;
@@ -1439,6 +1674,7 @@ public class ZoomSpaceView extends View {
     // =========================
     // Models
     // =========================
+    // star list positions (snapshots only; live links use Constellation ids)
     private static class Line {
         int a, b;
         Line(int a, int b) { this.a = a; this.b = b; }
@@ -1456,6 +1692,7 @@ public class ZoomSpaceView extends View {
     private static class PlanetInstance {
         Body body;
         PointF pos;
+        int seq; // add order, higher = drawn on top
 
         // idle drift phases
         float phaseA;
@@ -1482,39 +1719,30 @@ public class ZoomSpaceView extends View {
         }
     }
 
-    private static class Dust {
-        float x, y;
-        float radius;
-        int coreColor, glowColor;
-        int coreAlpha, glowAlpha;
-
-        Dust(float x, float y, float radius, int coreColor, int glowColor, int coreAlpha, int glowAlpha) {
-            this.x = x; this.y = y; this.radius = radius;
-            this.coreColor = coreColor; this.glowColor = glowColor;
-            this.coreAlpha = coreAlpha; this.glowAlpha = glowAlpha;
+    private static class Stroke {
+        final boolean isErase;
+        final MarkerStroke brush;        // null for erasers and marker strokes of old saves
+        final ParticleBuffer dust;       // marker particles of old saves
+        final ParticleBuffer erasers;
+
+        Stroke(boolean erase) {
+            this(erase, null);
         }
-    }
 
-    private static class EraseDot {
-        float x, y, r;
-        EraseDot(float x, float y, float r) { this.x = x; this.y = y; this.r = r; }
-    }
+        Stroke(boolean erase, MarkerStroke brush) {
+            this(erase, brush, new ParticleBuffer(true), new ParticleBuffer(false));
+        }
 
-    private static class Stroke {
-        boolean isErase;
-        ArrayList<Dust> dust = new ArrayList<>();
-        ArrayList<EraseDot> erasers = new ArrayList<>();
-        Stroke(boolean erase) { isErase = erase; }
-
-        Stroke deepCopy() {
-            Stroke s = new Stroke(isErase);
-            for (Dust d : dust) {
-                s.dust.add(new Dust(d.x, d.y, d.radius, d.coreColor, d.glowColor, d.coreAlpha, d.glowAlpha));
-            }
-            for (EraseDot e : erasers) {
-                s.erasers.add(new EraseDot(e.x, e.y, e.r));
-            }
-            return s;
+        private Stroke(boolean erase, MarkerStroke brush, ParticleBuffer dust, ParticleBuffer erasers) {
+            this.isErase = erase;
+            this.brush = brush;
+            this.dust = dust;
+            this.erasers = erasers;
+        }
+
+        // O(1): stamps and particle buffers are copy-on-write
+        Stroke copy() {
+            return new Stroke(isErase, brush == null ? null : brush.copy(), dust.copy(), erasers.copy());
         }
     }
 
@@ -1531,23 +1759,24 @@ public class ZoomSpaceView extends View {
 
     private static class Action {
         ActionType type;
-        int starIndex;
-        int linkIndex;
+        int starId;
+        int linkStarA, linkStarB;
         int planetIndex;
         PointF prevPos;
         Snapshot snapshot;
 
-        static Action addStar(int idx) {
+        static Action addStar(int starId) {
             Action a = new Action();
             a.type = ActionType.ADD_STAR;
-            a.starIndex = idx;
+            a.starId = starId;
             return a;
         }
 
-        static Action addLink(int idx) {
+        static Action addLink(int starA, int starB) {
             Action a = new Action();
             a.type = ActionType.ADD_LINK;
-            a.linkIndex = idx;
+            a.linkStarA = starA;
+            a.linkStarB = starB;
             return a;
         }
 
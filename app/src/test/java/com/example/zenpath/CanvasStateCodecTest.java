@@ -0,0 +1,230 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CanvasStateCodecTest {
+
+    /** Roughly what stampMarker produces: opaque HSV colors, small alphas, gaussian spread. */
+    private static CanvasState makeState(int strokes, int dustPerStroke, long seed) {
+        Random r = new Random(seed);
+        CanvasState st = new CanvasState();
+        st.inkColor = 0xFFBFD6FF;
+        st.markerSizeProgress = 35;
+        st.hasSun = true;
+        st.sunX = 12.5f;
+        st.sunY = -40.25f;
+        st.hasMoon = false;
+
+        st.planets.add(new CanvasState.Planet("EARTH", 100f, 200f));
+        st.planets.add(new CanvasState.Planet("SATURN", -300.5f, 50f));
+
+        st.starXY = new float[]{1f, 2f, 3f, 4f, -5.5f, 6.25f};
+        st.linkAB = new int[]{0, 1, 1, 2};
+
+        for (int s = 0; s < strokes; s++) {
+            boolean erase = (s % 5 == 4);
+            CanvasState.StrokeData sd = new CanvasState.StrokeData(erase, erase ? 0 : dustPerStroke, erase ? 12 : 0);
+            float cx = (r.nextFloat() - 0.5f) * 2000f;
+            float cy = (r.nextFloat() - 0.5f) * 3600f;
+            for (int i = 0; i < sd.dustCount; i++) {
+                sd.dustX[i] = cx + (float) r.nextGaussian() * 55f;
+                sd.dustY[i] = cy + (float) r.nextGaussian() * 30f;
+                sd.dustR[i] = 6f + r.nextFloat() * 14f;
+                sd.coreColor[i] = 0xFF000000 | r.nextInt(0x1000000);
+                sd.glowColor[i] = 0xFF000000 | r.nextInt(0x1000000);
+                sd.coreAlpha[i] = 18 + r.nextInt(40);
+                sd.glowAlpha[i] = 10 + r.nextInt(22);
+            }
+            for (int i = 0; i < sd.eraserCount; i++) {
+                sd.eraserX[i] = cx + i * 18f;
+                sd.eraserY[i] = cy;
+                sd.eraserR[i] = 38f;
+            }
+            st.strokes.add(sd);
+        }
+        return st;
+    }
+
+    private static byte[] encode(CanvasState st, boolean deflate) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        CanvasStateCodec.write(st, bos, deflate);
+        return bos.toByteArray();
+    }
+
+    private static CanvasState decode(byte[] bytes) throws IOException {
+        return CanvasStateCodec.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertSameState(CanvasState a, CanvasState b) {
+        assertEquals(a.inkColor, b.inkColor);
+        assertEquals(a.markerSizeProgress, b.markerSizeProgress);
+        assertEquals(a.hasSun, b.hasSun);
+        assertEquals(a.sunX, b.sunX, 0f);
+        assertEquals(a.sunY, b.sunY, 0f);
+        assertEquals(a.hasMoon, b.hasMoon);
+
+        assertEquals(a.planets.size(), b.planets.size());
+        for (int i = 0; i < a.planets.size(); i++) {
+            assertEquals(a.planets.get(i).body, b.planets.get(i).body);
+            assertEquals(a.planets.get(i).x, b.planets.get(i).x, 0f);
+            assertEquals(a.planets.get(i).y, b.planets.get(i).y, 0f);
+        }
+
+        assertArrayEquals(a.starXY, b.starXY, 0f);
+        assertArrayEquals(a.linkAB, b.linkAB);
+
+        assertEquals(a.strokes.size(), b.strokes.size());
+        for (int s = 0; s < a.strokes.size(); s++) {
+            CanvasState.StrokeData x = a.strokes.get(s);
+            CanvasState.StrokeData y = b.strokes.get(s);
+            assertEquals(x.isErase, y.isErase);
+            assertArrayEquals(x.dustX, y.dustX, 0f);
+            assertArrayEquals(x.dustY, y.dustY, 0f);
+            assertArrayEquals(x.dustR, y.dustR, 0f);
+            assertArrayEquals(x.coreColor, y.coreColor);
+            assertArrayEquals(x.glowColor, y.glowColor);
+            assertArrayEquals(x.coreAlpha, y.coreAlpha);
+            assertArrayEquals(x.glowAlpha, y.glowAlpha);
+            assertArrayEquals(x.eraserX, y.eraserX, 0f);
+            assertArrayEquals(x.eraserY, y.eraserY, 0f);
+            assertArrayEquals(x.eraserR, y.eraserR, 0f);
+
+            assertEquals(x.brush == null, y.brush == null);
+            if (x.brush != null) {
+                assertEquals(x.brush.seed, y.brush.seed);
+                assertEquals(x.brush.inkColor, y.brush.inkColor);
+                assertEquals(x.brush.sizeProgress, y.brush.sizeProgress);
+                assertArrayEquals(x.brush.stampX, y.brush.stampX, 0f);
+                assertArrayEquals(x.brush.stampY, y.brush.stampY, 0f);
+                assertEquals(java.util.Arrays.toString(x.brush.stampHeavy), java.util.Arrays.toString(y.brush.stampHeavy));
+            }
+        }
+    }
+
+    /** Adds a replayed marker stroke (what the Planet screen saves now). */
+    private static CanvasState withBrushStroke(CanvasState st, long seed) {
+        Random r = new Random(seed);
+        CanvasState.Brush b = new CanvasState.Brush(r.nextLong(), 0xFFFF8040, 60, 80);
+        for (int i = 0; i < b.stampCount; i++) {
+            b.stampX[i] = i * 18f;
+            b.stampY[i] = (float) Math.sin(i / 5.0) * 100f;
+            b.stampHeavy[i] = i == 0;
+        }
+        CanvasState.StrokeData sd = new CanvasState.StrokeData(false, 0, 0);
+        sd.brush = b;
+        st.strokes.add(sd);
+        return st;
+    }
+
+    @Test
+    public void roundTrip_plain() throws Exception {
+        CanvasState st = makeState(20, 50, 1L);
+        assertSameState(st, decode(encode(st, false)));
+    }
+
+    @Test
+    public void roundTrip_deflated() throws Exception {
+        CanvasState st = makeState(20, 50, 2L);
+        assertSameState(st, decode(encode(st, true)));
+    }
+
+    @Test
+    public void roundTrip_empty() throws Exception {
+        CanvasState st = new CanvasState();
+        assertSameState(st, decode(encode(st, true)));
+    }
+
+    @Test
+    public void roundTrip_brushStrokes() throws Exception {
+        CanvasState st = withBrushStroke(makeState(4, 20, 6L), 7L);
+        assertSameState(st, decode(encode(st, false)));
+        assertSameState(st, decode(encode(st, true)));
+        assertSameState(st, CanvasStateJson.fromJson(CanvasStateJson.toJson(st), 0, 0));
+    }
+
+    /** A file written before brush replay (format version 1) still loads as particle strokes. */
+    @Test
+    public void readsVersion1() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeInt(CanvasStateCodec.MAGIC);
+        out.writeByte(1);
+        out.writeByte(0);
+        out.writeInt(0xFFBFD6FF);
+        out.writeInt(35);
+        out.writeBoolean(false);
+        out.writeBoolean(false);
+        out.writeInt(0);                // planets
+        out.writeInt(0);                // stars
+        out.writeInt(0);                // links
+        out.writeInt(1);                // strokes
+        out.writeBoolean(false);        // isErase, no brush byte in v1
+        out.writeInt(1);
+        out.writeFloat(1.5f);
+        out.writeFloat(-2f);
+        out.writeFloat(7f);
+        out.write(new byte[]{0x11, 0x22, 0x33});
+        out.write(new byte[]{0x44, 0x55, 0x66});
+        out.writeByte(40);
+        out.writeByte(12);
+        out.writeInt(0);                // erasers
+        out.flush();
+
+        CanvasState st = decode(bos.toByteArray());
+        assertEquals(1, st.strokes.size());
+        CanvasState.StrokeData sd = st.strokes.get(0);
+        assertNull(sd.brush);
+        assertEquals(1, sd.dustCount);
+        assertEquals(1.5f, sd.dustX[0], 0f);
+        assertEquals(0xFF112233, sd.coreColor[0]);
+        assertEquals(0xFF445566, sd.glowColor[0]);
+        assertEquals(40, sd.coreAlpha[0]);
+        assertEquals(12, sd.glowAlpha[0]);
+    }
+
+    @Test
+    public void jsonMigration_matchesBinary() throws Exception {
+        CanvasState st = makeState(10, 40, 3L);
+        String json = CanvasStateJson.toJson(st);
+        CanvasState fromJson = CanvasStateJson.fromJson(json, 0, 0);
+        assertSameState(st, decode(encode(fromJson, true)));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignData() throws Exception {
+        decode("{\"inkColor\":1}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedFile() throws Exception {
+        byte[] full = encode(makeState(5, 30, 4L), false);
+        byte[] cut = new byte[full.length / 2];
+        System.arraycopy(full, 0, cut, 0, cut.length);
+        decode(cut);
+    }
+
+    /**
+     * Size against the old JSON path for a "big drawing" (~200 strokes x 60 particles).
+     * Timings live in the JMH module (benchmark/.../CanvasStateBenchmark).
+     */
+    @Test
+    public void binaryIsSmallerThanJson() throws Exception {
+        CanvasState st = makeState(200, 60, 5L);
+
+        int jsonBytes = CanvasStateJson.toJson(st).getBytes(StandardCharsets.UTF_8).length;
+        byte[] raw = encode(st, false);
+        byte[] packed = encode(st, true);
+
+        assertTrue(raw.length * 3 < jsonBytes);
+        assertTrue(packed.length < raw.length);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ConstellationIndexTest {
+
+    private static final float CELL = 256f;
+    private static final float WORLD = 6000f;
+    private static final float TAP_RADIUS = 70f;
+
+    /** The old ZoomSpaceView lookup: last star within radius wins. */
+    private static int linearHit(List<float[]> pts, float x, float y, float r) {
+        for (int i = pts.size() - 1; i >= 0; i--) {
+            float dx = pts.get(i)[0] - x;
+            float dy = pts.get(i)[1] - y;
+            if (dx * dx + dy * dy <= r * r) return i;
+        }
+        return -1;
+    }
+
+    @Test
+    public void hitTest_matchesLinearScan() {
+        Random rnd = new Random(12);
+        Constellation c = new Constellation(CELL);
+        List<float[]> pts = new ArrayList<>();
+        List<Constellation.Star> added = new ArrayList<>();
+
+        for (int i = 0; i < 800; i++) {
+            float x = rnd.nextFloat() * WORLD - WORLD / 2f;
+            float y = rnd.nextFloat() * WORLD - WORLD / 2f;
+            pts.add(new float[]{x, y});
+            added.add(c.addStar(x, y));
+        }
+
+        for (int q = 0; q < 2000; q++) {
+            float x = rnd.nextFloat() * WORLD - WORLD / 2f;
+            float y = rnd.nextFloat() * WORLD - WORLD / 2f;
+            int expected = linearHit(pts, x, y, TAP_RADIUS);
+            Constellation.Star hit = c.hitTest(x, y, TAP_RADIUS);
+            if (expected < 0) assertNull(hit);
+            else assertSame(added.get(expected), hit);
+        }
+    }
+
+    @Test
+    public void hitTest_followsMovedStar() {
+        Constellation c = new Constellation(CELL);
+        Constellation.Star s = c.addStar(10f, 10f);
+
+        c.moveStar(s, 2000f, -900f);
+
+        assertNull(c.hitTest(10f, 10f, TAP_RADIUS));
+        assertSame(s, c.hitTest(2010f, -905f, TAP_RADIUS));
+    }
+
+    @Test
+    public void hitTest_topmostWinsWhenOverlapping() {
+        Constellation c = new Constellation(CELL);
+        c.addStar(0f, 0f);
+        Constellation.Star top = c.addStar(5f, 5f);
+
+        assertSame(top, c.hitTest(2f, 2f, TAP_RADIUS));
+    }
+
+    @Test
+    public void addLink_rejectsDuplicatesInEitherDirection() {
+        Constellation c = new Constellation(CELL);
+        Constellation.Star a = c.addStar(0f, 0f);
+        Constellation.Star b = c.addStar(100f, 0f);
+
+        assertNotNull(c.addLink(a, b));
+        assertNull(c.addLink(a, b));
+        assertNull(c.addLink(b, a));
+        assertNull(c.addLink(a, a));
+
+        assertEquals(1, c.linkCount());
+        assertTrue(c.hasLink(b.id, a.id));
+    }
+
+    @Test
+    public void removeStar_dropsOnlyItsLinksAndKeepsIds() {
+        Constellation c = new Constellation(CELL);
+        Constellation.Star a = c.addStar(0f, 0f);
+        Constellation.Star b = c.addStar(100f, 0f);
+        Constellation.Star d = c.addStar(200f, 0f);
+        Constellation.Star e = c.addStar(300f, 0f);
+        c.addLink(a, b);
+        c.addLink(b, d);
+        c.addLink(d, e);
+
+        assertTrue(c.removeStar(b.id));
+
+        assertEquals(3, c.starCount());
+        assertEquals(1, c.linkCount());
+        assertFalse(c.hasLink(a.id, b.id));
+        assertFalse(c.hasLink(b.id, d.id));
+        assertTrue(c.hasLink(d.id, e.id));
+        assertSame(e, c.star(e.id));
+        assertNull(c.hitTest(100f, 0f, 10f));
+    }
+
+    @Test
+    public void removeLink_undoesAddLink() {
+        Constellation c = new Constellation(CELL);
+        Constellation.Star a = c.addStar(0f, 0f);
+        Constellation.Star b = c.addStar(100f, 0f);
+        c.addLink(a, b);
+
+        assertTrue(c.removeLink(b.id, a.id));
+        assertEquals(0, c.linkCount());
+        assertEquals(0, a.links.size());
+        assertNotNull(c.addLink(a, b));
+    }
+
+    @Test
+    public void indexStars_givesDrawOrderPositions() {
+        Constellation c = new Constellation(CELL);
+        Constellation.Star a = c.addStar(0f, 0f);
+        Constellation.Star b = c.addStar(1f, 0f);
+        Constellation.Star d = c.addStar(2f, 0f);
+        c.removeStar(b.id);
+
+        c.indexStars();
+
+        assertEquals(0, a.order);
+        assertEquals(1, d.order);
+    }
+
+    @Test
+    public void gridQuery_hugeRadiusStillFindsEverything() {
+        SpatialGrid<Integer> g = new SpatialGrid<>(CELL);
+        for (int i = 0; i < 50; i++) g.put(i, i * 1000f, -i * 1000f);
+
+        ArrayList<Integer> out = new ArrayList<>();
+        g.query(0f, 0f, 1e9f, out);
+
+        assertEquals(50, out.size());
+    }
+
+    /** Tap + link check at 10k stars answers like the old linear scans (timings: ConstellationBenchmark). */
+    @Test
+    public void tapAndLink_matchLinearScansAtScale() {
+        int n = 10_000;
+        Random rnd = new Random(n);
+        Constellation c = new Constellation(CELL);
+        List<float[]> pts = new ArrayList<>(n);
+        List<int[]> linkList = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            float x = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            float y = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            pts.add(new float[]{x, y});
+            c.addStar(x, y);
+        }
+        for (int i = 1; i < n; i++) {
+            c.addLink(c.starAt(i - 1), c.starAt(i));
+            linkList.add(new int[]{i - 1, i});
+        }
+
+        int linked = 0;
+        for (int q = 0; q < 2_000; q++) {
+            float x = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            float y = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            int a = linearHit(pts, x, y, TAP_RADIUS);
+            // every other tap asks about the next star in the chain, which is linked
+            int b = a >= 0 && a + 1 < n && q % 2 == 0 ? a + 1 : (q * 7) % n;
+
+            boolean linearLinked = false;
+            for (int[] l : linkList) {
+                if ((l[0] == a && l[1] == b) || (l[0] == b && l[1] == a)) { linearLinked = true; break; }
+            }
+
+            Constellation.Star hit = c.hitTest(x, y, TAP_RADIUS);
+            if (a < 0) assertNull(hit);
+            else assertSame(c.starAt(a), hit);
+            boolean gridLinked = hit != null && c.hasLink(hit.id, c.starAt(b).id);
+            assertEquals(linearLinked, gridLinked);
+            if (gridLinked) linked++;
+        }
+        assertTrue("no tap hit a linked pair", linked > 0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class DiaryPagesTest {
+
+    @Test
+    public void emptyTextIsOneEmptyPage() {
+        assertEquals(Collections.singletonList(""), DiaryPages.split(null));
+        assertEquals(Collections.singletonList(""), DiaryPages.split(""));
+        assertEquals(Collections.singletonList(""), DiaryPages.split("  \n "));
+    }
+
+    @Test
+    public void splitMatchesStringSplit() {
+        String[] samples = {
+                "one page",
+                "a" + DiaryPages.PAGE_BREAK + "b",
+                "a" + DiaryPages.PAGE_BREAK + DiaryPages.PAGE_BREAK + "c",
+                "a" + DiaryPages.PAGE_BREAK,
+                DiaryPages.PAGE_BREAK + "b",
+                "x\n<<PAGE_BREAK>>y" + DiaryPages.PAGE_BREAK + "z",
+        };
+        for (String s : samples) {
+            assertEquals(s, Arrays.asList(s.split("\n<<PAGE_BREAK>>\n", -1)), DiaryPages.split(s));
+        }
+    }
+
+    @Test
+    public void joinThenSplitRoundTrips() {
+        ArrayList<String> pages = new ArrayList<>(Arrays.asList("first", "", "third\nline", ""));
+        assertEquals(pages, DiaryPages.split(DiaryPages.join(pages)));
+    }
+
+    @Test
+    public void joinHandlesNulls() {
+        assertEquals("", DiaryPages.join(null));
+        assertEquals("", DiaryPages.join(new ArrayList<>()));
+        assertEquals("a" + DiaryPages.PAGE_BREAK, DiaryPages.join(Arrays.asList("a", null)));
+    }
+
+    @Test
+    public void previewIsTheTrimmedStartOfAllPages() {
+        assertEquals("", DiaryPages.preview(null));
+        assertEquals("calm day", DiaryPages.preview(Arrays.asList("  calm day \n")));
+        assertEquals("one\n\nthree", DiaryPages.preview(Arrays.asList(" ", "one", null, "three", "")));
+
+        StringBuilder longPage = new StringBuilder();
+        for (int i = 0; i < 50; i++) longPage.append("word ");
+        String p = DiaryPages.preview(Arrays.asList(longPage.toString(), "more"));
+        assertTrue(p.endsWith("…"));
+        assertEquals(DiaryPages.PREVIEW_CHARS, p.length());   // 119 chars (trailing space trimmed) + "…"
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DiarySearchTest {
+
+    @Test
+    public void wordsAreQuotedAndTheLastOneIsAPrefixWhileTyping() {
+        assertEquals("\"calm\" \"sea*\"", DiarySearch.matchQuery("Calm sea"));
+        assertEquals("\"calm\" \"sea\"", DiarySearch.matchQuery("calm sea "));
+        assertEquals("\"walk*\"", DiarySearch.matchQuery("  walk"));
+    }
+
+    @Test
+    public void operatorsAndPunctuationArePlainText() {
+        assertEquals("\"not\" \"or\" \"near*\"", DiarySearch.matchQuery("NOT OR NEAR"));
+        assertEquals("\"don\" \"t\" \"panic\"", DiarySearch.matchQuery("\"don't\" (panic)!"));
+        assertEquals("\"a\" \"b\"", DiarySearch.matchQuery("a* -b:"));
+    }
+
+    @Test
+    public void nothingToSearch() {
+        assertNull(DiarySearch.matchQuery(null));
+        assertNull(DiarySearch.matchQuery(""));
+        assertNull(DiarySearch.matchQuery("  *\"- "));
+    }
+
+    @Test
+    public void termCountIsCapped() {
+        String q = DiarySearch.matchQuery("a b c d e f g h i j k");
+        assertEquals(DiarySearch.MAX_TERMS, q.split(" ").length);
+    }
+
+    @Test
+    public void moreHitsAndShorterEntriesRankHigher() {
+        // 1 phrase, 100 rows, 20 of them contain it, average length 50
+        double once = DiarySearch.bm25(matchinfo(100, 50, 50, 1, 20), 0);
+        double thrice = DiarySearch.bm25(matchinfo(100, 50, 50, 3, 20), 0);
+        double onceShort = DiarySearch.bm25(matchinfo(100, 50, 10, 1, 20), 0);
+        double rarer = DiarySearch.bm25(matchinfo(100, 50, 50, 1, 2), 0);
+
+        assertTrue(once > 0);
+        assertTrue(thrice > once);
+        assertTrue(onceShort > once);
+        assertTrue(rarer > once);
+        assertEquals(0, DiarySearch.bm25(matchinfo(100, 50, 50, 0, 20), 0), 0);
+    }
+
+    @Test
+    public void veryCommonTermsStillScorePositive() {
+        assertTrue(DiarySearch.bm25(matchinfo(10, 50, 50, 1, 9), 0) > 0);
+    }
+
+    @Test
+    public void bestFirstThenNewestFirst() {
+        List<DiarySearch.Hit> hits = new ArrayList<>(Arrays.asList(
+                new DiarySearch.Hit(DiarySearch.pageDocId(1), "2026-01-01", 1.0, ""),
+                new DiarySearch.Hit(DiarySearch.reflectionDocId(1), "20260103", 1.0, ""),
+                new DiarySearch.Hit(DiarySearch.pageDocId(2), "2026-01-02", 2.0, ""),
+                new DiarySearch.Hit(DiarySearch.pageDocId(3), "2026-01-04", 1.0, "")));
+        DiarySearch.sort(hits);
+
+        assertEquals("2026-01-02", hits.get(0).date);
+        assertEquals("2026-01-04", hits.get(1).date);
+        assertEquals("20260103", hits.get(2).date);
+        assertTrue(hits.get(2).isReflection());
+        assertEquals("2026-01-01", hits.get(3).date);
+    }
+
+    @Test
+    public void anEntryCountsOnceWithItsBestPage() {
+        List<DiarySearch.Hit> hits = Arrays.asList(
+                new DiarySearch.Hit(DiarySearch.pageDocId(1), "2026-01-01", 1.0, ""),
+                new DiarySearch.Hit(DiarySearch.pageDocId(2), "2026-01-01", 3.0, ""),
+                new DiarySearch.Hit(DiarySearch.pageDocId(3), "2026-01-01", 2.0, ""),
+                new DiarySearch.Hit(DiarySearch.reflectionDocId(1), "20260101", 0.5, ""),
+                new DiarySearch.Hit(DiarySearch.pageDocId(4), "2026-01-02", 1.0, ""));
+        List<DiarySearch.Hit> best = DiarySearch.bestPerEntry(hits);
+
+        assertEquals(3, best.size());
+        assertEquals(DiarySearch.pageDocId(2), best.get(0).docId);
+        assertTrue(best.get(1).isReflection());
+        assertEquals("2026-01-02", best.get(2).date);
+    }
+
+    @Test
+    public void pageKnowsWhetherMoreFollow() {
+        List<DiarySearch.Hit> two = Arrays.asList(
+                new DiarySearch.Hit(2, "2026-01-01", 1, ""), new DiarySearch.Hit(4, "2026-01-02", 1, ""));
+        assertTrue(new DiarySearch.Page(two, 0, 5).hasMore());
+        assertFalse(new DiarySearch.Page(two, 3, 5).hasMore());
+        assertFalse(DiarySearch.Page.empty(0).hasMore());
+    }
+
+    // matchinfo(fts, 'pcnalx') of one phrase over (body, user_id, day), only body indexed
+    private static byte[] matchinfo(int rows, int avgLen, int len, int hitsInRow, int rowsWithHits) {
+        int[] v = {
+                1, 3, rows,
+                avgLen, 0, 0,
+                len, 0, 0,
+                hitsInRow, hitsInRow * 2, rowsWithHits, 0, 0, 0, 0, 0, 0,
+        };
+        ByteBuffer b = ByteBuffer.allocate(v.length * 4).order(ByteOrder.nativeOrder());
+        for (int x : v) b.putInt(x);
+        return b.array();
+    }
+}
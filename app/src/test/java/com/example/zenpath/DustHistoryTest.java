@@ -0,0 +1,124 @@
+package com.example.zenpath;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DustHistoryTest {
+
+    /** Raster = list of stroke ids drawn so far. Each checkpoint "costs" 100 bytes. */
+    private static class FakeRaster implements DustHistory.Raster<List<Integer>> {
+        final List<Integer> drawn = new ArrayList<>();
+        int replays = 0;
+        int released = 0;
+
+        @Override public List<Integer> capture() { return new ArrayList<>(drawn); }
+        @Override public long sizeOf(List<Integer> cp) { return 100L; }
+        @Override public void restore(List<Integer> cp) {
+            drawn.clear();
+            if (cp != null) drawn.addAll(cp);
+        }
+        @Override public void replay(int strokeIndex) {
+            replays++;
+            drawn.add(strokeIndex);
+        }
+        @Override public void release(List<Integer> cp) { released++; }
+    }
+
+    private FakeRaster raster;
+
+    @Before
+    public void setUp() {
+        raster = new FakeRaster();
+    }
+
+    private void drawStrokes(DustHistory<List<Integer>> h, int from, int to) {
+        for (int i = from; i < to; i++) {
+            h.beforeStroke(i);
+            raster.drawn.add(i);
+        }
+    }
+
+    private static List<Integer> range(int n) {
+        List<Integer> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) out.add(i);
+        return out;
+    }
+
+    @Test
+    public void undo_replaysOnlyStrokesAfterCheckpoint() {
+        DustHistory<List<Integer>> h = new DustHistory<>(raster, 4, 10_000L);
+        drawStrokes(h, 0, 11);
+
+        assertEquals(2, h.getCheckpointCount()); // at 4 and 8
+
+        int replayed = h.rollbackTo(10);
+        assertEquals(2, replayed);               // strokes 8, 9
+        assertEquals(range(10), raster.drawn);
+    }
+
+    @Test
+    public void undo_withoutCheckpoint_replaysFromEmpty() {
+        DustHistory<List<Integer>> h = new DustHistory<>(raster, 8, 10_000L);
+        drawStrokes(h, 0, 5);
+
+        assertEquals(0, h.getCheckpointCount());
+        assertEquals(4, h.rollbackTo(4));
+        assertEquals(range(4), raster.drawn);
+    }
+
+    @Test
+    public void undo_pastCheckpoint_dropsIt() {
+        DustHistory<List<Integer>> h = new DustHistory<>(raster, 2, 10_000L);
+        drawStrokes(h, 0, 5); // checkpoints at 2, 4
+
+        h.rollbackTo(3);
+        assertEquals(1, h.getCheckpointCount());
+        assertEquals(range(3), raster.drawn);
+        assertEquals(1, raster.released);
+    }
+
+    @Test
+    public void budget_evictsOldestCheckpoints() {
+        DustHistory<List<Integer>> h = new DustHistory<>(raster, 2, 250L);
+        drawStrokes(h, 0, 12); // would be 2,4,6,8,10
+
+        assertEquals(2, h.getCheckpointCount());
+        assertTrue(h.getCheckpointBytes() <= 250L);
+        assertEquals(3, raster.released);
+
+        // newest checkpoints survive, so undo is still cheap
+        assertEquals(1, h.rollbackTo(11));
+        assertEquals(range(11), raster.drawn);
+
+        // going further back than the oldest kept checkpoint still gives the right result
+        h.rollbackTo(5);
+        assertEquals(range(5), raster.drawn);
+    }
+
+    @Test
+    public void checkpointLargerThanBudget_isNotKept() {
+        DustHistory<List<Integer>> h = new DustHistory<>(raster, 1, 50L);
+        drawStrokes(h, 0, 3);
+
+        assertEquals(0, h.getCheckpointCount());
+        assertEquals(0L, h.getCheckpointBytes());
+        assertEquals(2, raster.released);
+    }
+
+    @Test
+    public void reset_releasesEverything() {
+        DustHistory<List<Integer>> h = new DustHistory<>(raster, 1, 10_000L);
+        drawStrokes(h, 0, 4);
+        int kept = h.getCheckpointCount();
+
+        h.reset();
+        assertEquals(0, h.getCheckpointCount());
+        assertEquals(0L, h.getCheckpointBytes());
+        assertEquals(kept, raster.released);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FixedStepClockTest {
+
+    private static final long MS = 1_000_000L;
+
+    /** Runs a clock over the given frame times (ms) and returns game time after every step. */
+    private static List<Long> run(long[] frameMs) {
+        FixedStepClock clock = new FixedStepClock(60, 5);
+        List<Long> stepTimes = new ArrayList<>();
+        for (long f : frameMs) {
+            int n = clock.advance(f * MS);
+            for (int i = 0; i < n; i++) stepTimes.add(clock.nextStep());
+        }
+        return stepTimes;
+    }
+
+    @Test
+    public void firstFrameOnlyStartsTheClock() {
+        FixedStepClock clock = new FixedStepClock(60, 5);
+        assertEquals(0, clock.advance(123 * MS));
+        assertEquals(0L, clock.simTimeMs());
+    }
+
+    @Test
+    public void sameStepsAtDifferentFrameRates() {
+        // one second at ~60 fps vs ~30 fps vs uneven frames
+        long[] fps60 = new long[61];
+        for (int i = 0; i <= 60; i++) fps60[i] = Math.round(i * 1000.0 / 60.0);
+        long[] fps30 = new long[31];
+        for (int i = 0; i <= 30; i++) fps30[i] = Math.round(i * 1000.0 / 30.0);
+        long[] jittery = {0, 5, 40, 41, 90, 130, 200, 260, 333, 400, 470, 520, 600, 650, 720, 800, 860, 930, 1000};
+
+        List<Long> a = run(fps60);
+        List<Long> b = run(fps30);
+        List<Long> c = run(jittery);
+
+        assertEquals(60, a.size());
+        assertEquals(a, b);
+        assertEquals(a, c);
+    }
+
+    @Test
+    public void longStallIsCappedNotReplayed() {
+        FixedStepClock clock = new FixedStepClock(60, 5);
+        clock.advance(0);
+
+        assertEquals(5, clock.advance(2000 * MS));  // 2 s stall -> only the cap
+        assertEquals(0, clock.advance(2001 * MS));  // and the backlog was dropped
+    }
+
+    @Test
+    public void resetSkipsPausedTime() {
+        FixedStepClock clock = new FixedStepClock(60, 5);
+        clock.advance(0);
+        clock.advance(50 * MS);
+
+        clock.reset();
+        assertEquals(0, clock.advance(10_000 * MS));
+        assertEquals(1, clock.advance(10_017 * MS));
+    }
+
+    @Test
+    public void simTimeFollowsSteps() {
+        FixedStepClock clock = new FixedStepClock(50, 5);
+        for (int i = 0; i < 50; i++) clock.nextStep();
+        assertEquals(1000L, clock.simTimeMs());
+        assertEquals(0.02f, clock.stepSec(), 1e-6f);
+    }
+}
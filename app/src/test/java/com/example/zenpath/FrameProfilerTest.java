@@ -0,0 +1,117 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameProfilerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void noFramesNoSession() {
+        assertNull(new FrameProfiler("empty").endSession());
+    }
+
+    @Test
+    public void percentilesAndJank() {
+        FrameProfiler p = new FrameProfiler("test");
+        // 90 frames at 4 ms, 8 at 12 ms, 2 janky ones at 40 ms
+        for (int i = 0; i < 90; i++) p.record(1 * MS, 3 * MS, 10);
+        for (int i = 0; i < 8; i++) p.record(2 * MS, 10 * MS, 10);
+        for (int i = 0; i < 2; i++) p.record(5 * MS, 35 * MS, 10);
+
+        FrameProfiler.Summary s = p.endSession();
+        assertEquals("test", s.name);
+        assertEquals(100, s.frames);
+        assertEquals(2, s.jankFrames);
+
+        // histogram buckets are 0.25 ms wide
+        assertEquals(4000, s.p50Us, 250);
+        assertEquals(12000, s.p95Us, 250);
+        assertEquals(40000, s.p99Us, 250);
+        assertEquals(40000, s.maxUs);
+
+        assertEquals((90 * 1000 + 8 * 2000 + 2 * 5000) / 100, s.avgUpdateUs);
+        assertEquals((90 * 3000 + 8 * 10000 + 2 * 35000) / 100, s.avgDrawUs);
+        assertEquals(10, s.avgObjects);
+    }
+
+    @Test
+    public void exactlyOneFrameBudgetIsNotJank() {
+        FrameProfiler p = new FrameProfiler("test");
+        p.record(0, 16 * MS, 0);
+        p.record(0, 17 * MS, 0);
+        assertEquals(1, p.endSession().jankFrames);
+    }
+
+    @Test
+    public void verySlowFramesStillCount() {
+        FrameProfiler p = new FrameProfiler("test");
+        p.record(0, 2000 * MS, 1);
+        FrameProfiler.Summary s = p.endSession();
+        assertEquals(1, s.jankFrames);
+        assertEquals(2_000_000, s.maxUs);
+        assertEquals(2_000_000, s.p50Us);
+    }
+
+    @Test
+    public void ringKeepsTheMostRecentFrames() {
+        FrameProfiler p = new FrameProfiler("test");
+        int total = FrameProfiler.RING_SIZE + 100;
+        for (int i = 0; i < total; i++) p.record(0, i * 1000L, i);
+
+        int[] update = new int[FrameProfiler.RING_SIZE];
+        int[] draw = new int[FrameProfiler.RING_SIZE];
+        int[] objects = new int[FrameProfiler.RING_SIZE];
+        int n = p.copyRecent(update, draw, objects);
+
+        assertEquals(FrameProfiler.RING_SIZE, n);
+        assertEquals(100, objects[0]);            // oldest kept
+        assertEquals(total - 1, objects[n - 1]);  // newest
+        assertEquals(total - 1, draw[n - 1]);
+        assertEquals(total, p.getRecordedFrames());
+    }
+
+    @Test
+    public void copyRecentBeforeTheRingFills() {
+        FrameProfiler p = new FrameProfiler("test");
+        for (int i = 0; i < 3; i++) p.record(0, MS, i + 1);
+
+        int[] a = new int[8], b = new int[8], c = new int[8];
+        assertEquals(3, p.copyRecent(a, b, c));
+        assertArrayEquals(new int[]{1, 2, 3, 0, 0, 0, 0, 0}, c);
+    }
+
+    @Test
+    public void endSessionStartsAFreshSession() {
+        FrameProfiler p = new FrameProfiler("test");
+        for (int i = 0; i < 10; i++) p.record(0, 30 * MS, 1);
+        assertEquals(10, p.endSession().jankFrames);
+
+        p.record(0, MS, 1);
+        FrameProfiler.Summary s = p.endSession();
+        assertEquals(1, s.frames);
+        assertEquals(0, s.jankFrames);
+        assertEquals(1000, s.maxUs);
+        assertEquals(11, p.getRecordedFrames()); // the ring is not reset
+    }
+
+    @Test
+    public void beginEndFrameMeasuresUpdateAndDraw() throws Exception {
+        FrameProfiler p = new FrameProfiler("test");
+        p.beginFrame();
+        Thread.sleep(2);
+        p.updateDone();
+        Thread.sleep(2);
+        p.endFrame(5);
+
+        p.endFrame(5); // without beginFrame: ignored
+
+        FrameProfiler.Summary s = p.endSession();
+        assertEquals(1, s.frames);
+        assertTrue(s.avgUpdateUs >= 2000);
+        assertTrue(s.avgDrawUs >= 2000);
+        assertEquals(5, s.avgObjects);
+    }
+}
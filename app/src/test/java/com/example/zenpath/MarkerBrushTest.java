@@ -0,0 +1,82 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MarkerBrushTest {
+
+    @Test
+    public void hsvToColorPrimaries() {
+        assertEquals(0xFFFF0000, MarkerBrush.hsvToColor(0f, 1f, 1f));
+        assertEquals(0xFF00FF00, MarkerBrush.hsvToColor(120f, 1f, 1f));
+        assertEquals(0xFF0000FF, MarkerBrush.hsvToColor(240f, 1f, 1f));
+        assertEquals(0xFFFFFFFF, MarkerBrush.hsvToColor(77f, 0f, 1f));
+        assertEquals(0xFF000000, MarkerBrush.hsvToColor(300f, 1f, 0f));
+        // 127.5 rounds up like SkScalarRoundToInt
+        assertEquals(0xFF000080, MarkerBrush.hsvToColor(240f, 1f, 0.5f));
+        // out of range hue is treated as 0
+        assertEquals(0xFFFF0000, MarkerBrush.hsvToColor(360f, 1f, 1f));
+    }
+
+    @Test
+    public void colorToHsvRoundTrips() {
+        float[] hsv = new float[3];
+        Random r = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            int c = 0xFF000000 | r.nextInt(0x1000000);
+            MarkerBrush.colorToHsv(c, hsv);
+            assertEquals(Integer.toHexString(c), c, MarkerBrush.hsvToColor(hsv[0], hsv[1], hsv[2]));
+        }
+    }
+
+    @Test
+    public void colorToHsvOfInk() {
+        float[] hsv = new float[3];
+        MarkerBrush.colorToHsv(0xFFBFD6FF, hsv);
+        assertEquals(218.44f, hsv[0], 0.01f);
+        assertEquals(64f / 255f, hsv[1], 1e-6f);
+        assertEquals(1f, hsv[2], 0f);
+    }
+
+    @Test
+    public void sameSeedSameParticles() {
+        float[] ink = new float[3];
+        MarkerBrush.colorToHsv(0xFFBFD6FF, ink);
+
+        List<float[]> a = new ArrayList<>();
+        List<float[]> b = new ArrayList<>();
+        int na = MarkerBrush.stamp(new Random(42), 10f, -20f, 35, true, ink, collect(a));
+        int nb = MarkerBrush.stamp(new Random(42), 10f, -20f, 35, true, ink, collect(b));
+
+        assertEquals(na, nb);
+        assertEquals(na, a.size());
+        for (int i = 0; i < na; i++) assertArrayEquals(a.get(i), b.get(i), 0f);
+    }
+
+    @Test
+    public void particleRanges() {
+        float[] ink = new float[3];
+        MarkerBrush.colorToHsv(0xFFFF8040, ink);
+        List<float[]> out = new ArrayList<>();
+        int n = MarkerBrush.stamp(new Random(1), 0f, 0f, 100, false, ink, collect(out));
+
+        float sizeMul = MarkerBrush.sizeMul(100);
+        assertEquals((int) (35 * (0.75f + sizeMul * 0.55f)), n);
+        for (float[] d : out) {
+            assertTrue(d[2] >= 6f * sizeMul && d[2] <= 20f * sizeMul);
+            assertEquals(0xFF, ((int) d[3]) >>> 24);     // opaque core
+            assertTrue(d[5] >= 18 && d[5] < 58);
+            assertTrue(d[6] >= 10 && d[6] < 32);
+        }
+    }
+
+    private static MarkerBrush.Sink collect(List<float[]> out) {
+        return (x, y, r, core, glow, coreA, glowA) ->
+                out.add(new float[]{x, y, r, core, glow, coreA, glowA});
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replay has to hand the dust layer exactly the particles live drawing did (same values, same
+ * order); the rasterizer then draws the same pixels. On-device check: BrushReplayPixelTest.
+ */
+public class MarkerStrokeTest {
+
+    /** Particles as raw bits, so -0f / NaN / rounding differences can't hide. */
+    private static final class Recorder implements MarkerBrush.Sink {
+        final List<String> particles = new ArrayList<>();
+
+        @Override
+        public void dust(float x, float y, float r, int core, int glow, int coreA, int glowA) {
+            particles.add(Float.floatToRawIntBits(x) + "," + Float.floatToRawIntBits(y) + ","
+                    + Float.floatToRawIntBits(r) + "," + core + "," + glow + "," + coreA + "," + glowA);
+        }
+    }
+
+    private static float px(int i) { return 40f + i * 18f; }
+
+    private static float py(int i) { return (float) Math.cos(i / 7.0) * 120f; }
+
+    private static Recorder drawLive(MarkerStroke s, int from, int to) {
+        Recorder live = new Recorder();
+        for (int i = from; i < to; i++) s.stamp(px(i), py(i), i == 0, live);
+        return live;
+    }
+
+    @Test
+    public void replayMatchesLiveDrawing() {
+        MarkerStroke s = new MarkerStroke(0x5EEDL, 0xFFBFD6FF, 35);
+        Recorder live = drawLive(s, 0, 120);
+
+        Recorder replay = new Recorder();
+        int n = s.replay(replay);
+
+        assertEquals(live.particles.size(), n);
+        assertEquals(live.particles, replay.particles);
+    }
+
+    @Test
+    public void differentSeedsDiffer() {
+        Recorder a = drawLive(new MarkerStroke(1L, 0xFFBFD6FF, 35), 0, 3);
+        Recorder b = drawLive(new MarkerStroke(2L, 0xFFBFD6FF, 35), 0, 3);
+        assertNotEquals(a.particles, b.particles);
+    }
+
+    @Test
+    public void loadedStrokeReplaysAndContinuesLikeTheOriginal() {
+        MarkerStroke original = new MarkerStroke(99L, 0xFF40FF80, 80);
+        drawLive(original, 0, 30);
+
+        MarkerStroke loaded = new MarkerStroke(original.seed, original.inkColor, original.sizeProgress);
+        for (int i = 0; i < original.stampCount(); i++) {
+            loaded.addStamp(original.stampX(i), original.stampY(i), original.isHeavy(i));
+        }
+
+        Recorder a = new Recorder();
+        Recorder b = new Recorder();
+        original.replay(a);
+        loaded.replay(b);
+        assertEquals(a.particles, b.particles);
+
+        // drawing on after a load continues the same random sequence
+        assertEquals(drawLive(original, 30, 40).particles, drawLive(loaded, 30, 40).particles);
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        MarkerStroke live = new MarkerStroke(5L, 0xFFFFFFFF, 50);
+        drawLive(live, 0, 10);
+        MarkerStroke snap = live.copy();
+
+        Recorder more = drawLive(live, 10, 20);
+        assertEquals(10, snap.stampCount());
+        assertEquals(20, live.stampCount());
+
+        // the copy continues exactly like the live stroke did
+        assertEquals(more.particles, drawLive(snap, 10, 20).particles);
+        assertEquals(px(15), live.stampX(15), 0f);
+    }
+
+    @Test
+    public void muchSmallerThanParticles() {
+        MarkerStroke s = new MarkerStroke(3L, 0xFFBFD6FF, 35);
+        Recorder live = drawLive(s, 0, 200);
+        long particleBytes = 20L * live.particles.size();   // ParticleBuffer cost
+        assertTrue(particleBytes / s.bytes() >= 50);
+    }
+}
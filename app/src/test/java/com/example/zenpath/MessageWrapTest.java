@@ -0,0 +1,46 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MessageWrapTest {
+
+    /** Every char is 1 unit wide. */
+    private static final MessageWrap.Measurer MONO = new MessageWrap.Measurer() {
+        @Override
+        public float width(CharSequence text, int start, int end) {
+            return end - start;
+        }
+
+        @Override
+        public int fit(CharSequence text, int start, int end, float maxWidth) {
+            return (int) Math.min(end - start, Math.floor(maxWidth));
+        }
+    };
+
+    @Test
+    public void emptyMessages() {
+        assertNull(MessageWrap.wrap(null, 10f, 5, MONO));
+        assertNull(MessageWrap.wrap("   ", 10f, 5, MONO));
+        assertNull(MessageWrap.wrap("hi", 0f, 5, MONO));
+    }
+
+    @Test
+    public void wrapsOnWords() {
+        assertArrayEquals(new String[]{"let it", "go now"},
+                MessageWrap.wrap("  let   it go now ", 6f, 5, MONO));
+    }
+
+    @Test
+    public void breaksLongWords() {
+        assertArrayEquals(new String[]{"abcd", "efgh", "ij x"},
+                MessageWrap.wrap("abcdefghij x", 4f, 5, MONO));
+    }
+
+    @Test
+    public void ellipsisWhenOutOfLines() {
+        assertArrayEquals(new String[]{"aa bb", "cc d…"},
+                MessageWrap.wrap("aa bb cc dd ee", 5f, 2, MONO));
+    }
+}
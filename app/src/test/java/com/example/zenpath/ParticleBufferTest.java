@@ -0,0 +1,133 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParticleBufferTest {
+
+    private static final int N = ParticleBuffer.CHUNK_SIZE * 3 + 17;
+
+    private static void fill(ParticleBuffer b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            b.add(i, -i, i * 0.5f, 0xFF000000 | i, 0xFF000000 | (i * 7), i & 0xFF, (i * 3) & 0xFF);
+        }
+    }
+
+    private static void assertParticles(ParticleBuffer b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            assertEquals(i, b.x(i), 0f);
+            assertEquals(-i, b.y(i), 0f);
+            assertEquals(i * 0.5f, b.radius(i), 0f);
+            assertEquals(((i & 0xFF) << 24) | (i & 0xFFFFFF), b.coreArgb(i));
+            assertEquals((((i * 3) & 0xFF) << 24) | ((i * 7) & 0xFFFFFF), b.glowArgb(i));
+        }
+    }
+
+    @Test
+    public void addAndReadAcrossChunks() {
+        ParticleBuffer b = new ParticleBuffer(true);
+        fill(b, 0, N);
+        assertEquals(N, b.size());
+        assertParticles(b, 0, N);
+    }
+
+    @Test
+    public void alphaReplacesColorAlphaAndIsClamped() {
+        ParticleBuffer b = new ParticleBuffer(true);
+        b.add(0f, 0f, 1f, 0x80123456, 0xFFABCDEF, 300, -5);
+        assertEquals(0xFF123456, b.coreArgb(0));
+        assertEquals(0x00ABCDEF, b.glowArgb(0));
+    }
+
+    @Test
+    public void erasersHaveNoColors() {
+        ParticleBuffer b = new ParticleBuffer(false);
+        b.add(1f, 2f, 3f);
+        assertEquals(1, b.size());
+        assertEquals(3f, b.radius(0), 0f);
+        try {
+            b.add(0f, 0f, 1f, 0, 0, 0, 0);
+            fail("colored add on an eraser buffer");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void copyIsIsolatedFromLaterAppends() {
+        // stop in the middle of a chunk so both sides share a partly filled tail
+        int half = ParticleBuffer.CHUNK_SIZE * 2 + 100;
+        ParticleBuffer live = new ParticleBuffer(true);
+        fill(live, 0, half);
+
+        ParticleBuffer snap = live.copy();
+        fill(live, half, N);
+        assertEquals(half, snap.size());
+        assertParticles(snap, 0, half);
+        assertParticles(live, 0, N);
+
+        // the snapshot can be written too (undo restores it and drawing continues)
+        ParticleBuffer restored = snap.copy();
+        restored.add(-1f, -1f, -1f, 0, 0, 0, 0);
+        assertEquals(half, snap.size());
+        assertEquals(half + 1, restored.size());
+        assertEquals(-1f, restored.x(half), 0f);
+        assertEquals(half, live.x(half), 0f);
+    }
+
+    @Test
+    public void copyAtChunkBoundary() {
+        ParticleBuffer live = new ParticleBuffer(true);
+        fill(live, 0, ParticleBuffer.CHUNK_SIZE * 4);
+        ParticleBuffer snap = live.copy();
+        fill(live, ParticleBuffer.CHUNK_SIZE * 4, ParticleBuffer.CHUNK_SIZE * 4 + 5);
+        snap.add(9f, 9f, 9f, 0, 0, 0, 0);
+
+        assertEquals(ParticleBuffer.CHUNK_SIZE * 4 + 1, snap.size());
+        assertEquals(9f, snap.x(ParticleBuffer.CHUNK_SIZE * 4), 0f);
+        assertParticles(live, 0, ParticleBuffer.CHUNK_SIZE * 4 + 5);
+    }
+
+    @Test
+    public void clearDoesNotTouchCopies() {
+        ParticleBuffer live = new ParticleBuffer(true);
+        fill(live, 0, N);
+        ParticleBuffer snap = live.copy();
+        live.clear();
+        assertEquals(0, live.size());
+        assertEquals(0L, live.bytes());
+        assertParticles(snap, 0, N);
+
+        fill(live, 0, 10);
+        assertParticles(live, 0, 10);
+        assertParticles(snap, 0, N);
+    }
+
+    @Test
+    public void bytesPerParticle() {
+        ParticleBuffer b = new ParticleBuffer(true);
+        fill(b, 0, ParticleBuffer.CHUNK_SIZE * 8);
+        assertEquals(20L * b.size(), b.bytes());
+    }
+
+    @Test
+    public void smallStrokesStaySmall() {
+        ParticleBuffer b = new ParticleBuffer(true);
+        fill(b, 0, 40);
+        assertTrue(b.bytes() <= 20L * 64);
+        assertEquals(0L, new ParticleBuffer(false).bytes());
+    }
+
+    @Test
+    public void copyWhileTheFirstChunkGrows() {
+        ParticleBuffer live = new ParticleBuffer(true);
+        fill(live, 0, 64);
+        ParticleBuffer snap = live.copy();
+        fill(live, 64, 300);
+        snap.add(7f, 7f, 7f, 0, 0, 0, 0);
+
+        assertParticles(live, 0, 300);
+        assertParticles(snap, 0, 64);
+        assertEquals(7f, snap.x(64), 0f);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.zenpath;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PlaytimeJournalTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("playtime", ".journal");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    private static Map<String, Integer> totals(PlaytimeJournal j) {
+        Map<String, Integer> out = new HashMap<>();
+        for (PlaytimeJournal.Entry e : j.snapshot()) out.put(e.key(), e.seconds);
+        return out;
+    }
+
+    @Test
+    public void sessionsOfTheSameDayAndGameAreSummed() throws IOException {
+        PlaytimeJournal j = new PlaytimeJournal(file);
+        j.add(1, "20260105", "PLANET", 30);
+        j.add(1, "20260105", "PLANET", 12);
+        j.add(1, "20260105", "STAR_SWEEP", 5);
+        j.add(2, "20260105", "PLANET", 7);
+
+        Map<String, Integer> t = totals(j);
+        assertEquals(3, t.size());
+        assertEquals(42, (int) t.get("1\t20260105\tPLANET"));
+        assertEquals(5, (int) t.get("1\t20260105\tSTAR_SWEEP"));
+        assertEquals(7, (int) t.get("2\t20260105\tPLANET"));
+    }
+
+    @Test
+    public void pendingPlaytimeSurvivesARestart() throws IOException {
+        PlaytimeJournal j = new PlaytimeJournal(file);
+        j.add(1, "20260105", "LANTERN_RELEASE", 20);
+        j.add(1, "20260105", "LANTERN_RELEASE", 40);
+
+        // "process death": a new journal over the same file
+        Map<String, Integer> t = totals(new PlaytimeJournal(file));
+        assertEquals(1, t.size());
+        assertEquals(60, (int) t.get("1\t20260105\tLANTERN_RELEASE"));
+    }
+
+    @Test
+    public void commitKeepsWhatWasAddedAfterTheSnapshot() throws IOException {
+        PlaytimeJournal j = new PlaytimeJournal(file);
+        j.add(1, "20260105", "PLANET", 30);
+        List<PlaytimeJournal.Entry> batch = j.snapshot();
+
+        j.add(1, "20260105", "PLANET", 8);
+        j.commit(batch);
+
+        assertEquals(8, (int) totals(j).get("1\t20260105\tPLANET"));
+        assertEquals(8, (int) totals(new PlaytimeJournal(file)).get("1\t20260105\tPLANET"));
+    }
+
+    @Test
+    public void fullCommitRemovesTheJournal() throws IOException {
+        PlaytimeJournal j = new PlaytimeJournal(file);
+        j.add(1, "20260105", "PLANET", 30);
+        j.commit(j.snapshot());
+
+        assertTrue(j.isEmpty());
+        assertFalse(file.exists());
+        assertTrue(new PlaytimeJournal(file).isEmpty());
+    }
+
+    @Test
+    public void tornAndMalformedLinesAreSkipped() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(("1\t20260105\tPLANET\t30\n" +
+                    "garbage\n" +
+                    "0\t20260105\tPLANET\t9\n" +
+                    "1\t20260105\tPLA").getBytes(StandardCharsets.UTF_8));
+        }
+
+        Map<String, Integer> t = totals(new PlaytimeJournal(file));
+        assertEquals(1, t.size());
+        assertEquals(30, (int) t.get("1\t20260105\tPLANET"));
+    }
+
+    @Test
+    public void nonPositiveSecondsAreIgnored() throws IOException {
+        PlaytimeJournal j = new PlaytimeJournal(file);
+        j.add(1, "20260105", "PLANET", 0);
+        j.add(1, "20260105", "PLANET", -4);
+
+        assertTrue(j.isEmpty());
+        assertFalse(file.exists());
+    }
+}
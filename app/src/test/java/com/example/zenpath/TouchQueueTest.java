@@ -0,0 +1,91 @@
+package com.example.zenpath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TouchQueueTest {
+
+    // MotionEvent action values
+    private static final int DOWN = 0;
+    private static final int UP = 1;
+    private static final int MOVE = 2;
+
+    private static List<float[]> drain(TouchQueue q) {
+        List<float[]> out = new ArrayList<>();
+        q.drain((action, x, y) -> out.add(new float[]{action, x, y}));
+        return out;
+    }
+
+    @Test
+    public void deliversInOrderAndEmpties() {
+        TouchQueue q = new TouchQueue(8, MOVE);
+        q.offer(DOWN, 1, 1);
+        q.offer(UP, 2, 2);
+
+        List<float[]> got = drain(q);
+        assertEquals(2, got.size());
+        assertEquals(DOWN, (int) got.get(0)[0]);
+        assertEquals(UP, (int) got.get(1)[0]);
+        assertEquals(0, q.size());
+    }
+
+    @Test
+    public void consecutiveMovesCoalesce() {
+        TouchQueue q = new TouchQueue(8, MOVE);
+        q.offer(DOWN, 0, 0);
+        q.offer(MOVE, 1, 1);
+        q.offer(MOVE, 2, 2);
+        q.offer(MOVE, 3, 4);
+        q.offer(UP, 3, 4);
+
+        List<float[]> got = drain(q);
+        assertEquals(3, got.size());
+        assertEquals(MOVE, (int) got.get(1)[0]);
+        assertEquals(3f, got.get(1)[1], 0f);
+        assertEquals(4f, got.get(1)[2], 0f);
+    }
+
+    @Test
+    public void fullQueueDropsMovesBeforeTaps() {
+        TouchQueue q = new TouchQueue(4, MOVE);
+        q.offer(DOWN, 0, 0);
+        q.offer(MOVE, 1, 1);
+        q.offer(UP, 1, 1);
+        q.offer(DOWN, 5, 5);
+
+        assertTrue(q.offer(UP, 5, 5)); // the MOVE makes room
+        assertFalse(q.offer(DOWN, 9, 9)); // only taps left: refuse
+
+        List<float[]> got = drain(q);
+        assertEquals(4, got.size());
+        assertEquals(DOWN, (int) got.get(0)[0]);
+        assertEquals(UP, (int) got.get(1)[0]);
+        assertEquals(DOWN, (int) got.get(2)[0]);
+        assertEquals(UP, (int) got.get(3)[0]);
+    }
+
+    @Test
+    public void producerThreadEventsAllArrive() throws Exception {
+        TouchQueue q = new TouchQueue(16, MOVE);
+        final int total = 5_000;
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                while (!q.offer(i % 2 == 0 ? DOWN : UP, i, 0)) Thread.yield();
+            }
+        });
+        producer.start();
+
+        List<float[]> got = new ArrayList<>();
+        while (got.size() < total) {
+            q.drain((action, x, y) -> got.add(new float[]{action, x, y}));
+        }
+        producer.join();
+
+        for (int i = 0; i < total; i++) assertEquals(i, (int) got.get(i)[1]);
+    }
+}
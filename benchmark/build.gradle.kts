@@ -0,0 +1,126 @@
+import groovy.json.JsonSlurper
+
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+// JMH benchmarks for the Android-free logic of :app, run on a plain JVM:
+//   ./gradlew :benchmark:jmh :benchmark:checkBenchmarkBaseline
+//
+// An Android module can't be a dependency of a Java one, so the classes under test are
+// compiled straight from the app's source tree. Only list classes that don't touch android.*.
+val appClasses = listOf(
+    "CanvasState",
+    "CanvasStateCodec",
+    "CanvasStateJson",
+    "Constellation",
+    "DiaryPages",
+    "GameRecommender",
+    "MarkerBrush",
+    "MessageWrap",
+    "SpatialGrid",
+    "WeeklyTrend",
+)
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// the app sources carry non-ASCII comments; AGP defaults to UTF-8, plain javac to the locale
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            setIncludes(appClasses.map { "com/example/zenpath/$it.java" })
+        }
+    }
+}
+
+dependencies {
+    // android.jar ships org.json; on the JVM it has to come from Maven
+    implementation(libs.org.json)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
+// =========================
+// Baseline
+// =========================
+// baseline.json is the results.json of a reference run; scores only compare on the machine
+// that recorded it, so re-record it there (-PupdateBaseline) when the runner changes.
+// checkBenchmarkBaseline fails when a score is more than benchmarkTolerance (default 25%)
+// worse than its baseline AND outside the baseline's 99.9% confidence interval, so a noisy
+// benchmark (wide interval) doesn't fail on noise alone. -PupdateBaseline stores the new results
+// as the baseline; a missing baseline fails the check rather than silently becoming the reference.
+val baselineFile = layout.projectDirectory.file("baseline.json")
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+
+// one JMH run: score with its confidence interval [low, high]
+data class BenchScore(val score: Double, val low: Double, val high: Double, val higherIsBetter: Boolean)
+
+tasks.register("checkBenchmarkBaseline") {
+    group = "verification"
+    description = "Compares the last JMH results with baseline.json."
+    mustRunAfter("jmh")
+
+    val update = project.hasProperty("updateBaseline")
+    val tolerance = (project.findProperty("benchmarkTolerance") as String?)?.toDouble() ?: 0.25
+
+    doLast {
+        val results = jmhResults.get().asFile
+        check(results.exists()) { "No JMH results at $results, run :benchmark:jmh first." }
+
+        val baseline = baselineFile.asFile
+        if (!update && !baseline.exists()) {
+            throw GradleException("No benchmark baseline at $baseline, run with -PupdateBaseline to record one.")
+        }
+        if (update) {
+            results.copyTo(baseline, overwrite = true)
+            logger.lifecycle("Benchmark baseline written to $baseline")
+            return@doLast
+        }
+
+        // key = benchmark + params; a run with too few iterations has no interval (NaN) -> the score
+        fun scores(f: File): Map<String, BenchScore> =
+            (JsonSlurper().parse(f) as List<*>).associate { e ->
+                val run = e as Map<*, *>
+                val key = "${run["benchmark"]} ${run["params"] ?: ""}"
+                val metric = run["primaryMetric"] as Map<*, *>
+                val score = (metric["score"] as Number).toDouble()
+                val ci = metric["scoreConfidence"] as List<*>
+                val low = (ci[0] as? Number)?.toDouble()?.takeIf { !it.isNaN() } ?: score
+                val high = (ci[1] as? Number)?.toDouble()?.takeIf { !it.isNaN() } ?: score
+                key to BenchScore(score, low, high, run["mode"] == "thrpt")
+            }
+
+        val before = scores(baseline)
+        val after = scores(results)
+        val regressions = after.mapNotNull { (key, now) ->
+            val old = before[key] ?: return@mapNotNull null
+            val worse = if (now.higherIsBetter) old.score / now.score - 1.0 else now.score / old.score - 1.0
+            val outside = if (now.higherIsBetter) now.score < old.low else now.score > old.high
+            if (worse > tolerance && outside) {
+                "  $key: %.3f [%.3f, %.3f] -> %.3f (%+.0f%%)".format(old.score, old.low, old.high, now.score, worse * 100)
+            } else null
+        }
+
+        after.keys.filter { it !in before }.forEach { logger.lifecycle("New benchmark (no baseline): $it") }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Benchmarks slower than baseline:\n" + regressions.joinToString("\n"))
+        }
+        logger.lifecycle("${after.size} benchmarks within ${(tolerance * 100).toInt()}% or the confidence interval of the baseline")
+    }
+}
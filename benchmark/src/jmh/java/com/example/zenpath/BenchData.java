@@ -0,0 +1,108 @@
+package com.example.zenpath;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/** Deterministic inputs shared by the benchmarks. */
+final class BenchData {
+
+    private BenchData() {}
+
+    /** A canvas like one the Planet screen saves: a few planets, a constellation and marker strokes. */
+    static CanvasState canvas(int strokes, int stampsPerStroke, long seed) {
+        Random rng = new Random(seed);
+        CanvasState st = new CanvasState();
+        st.inkColor = 0xFFBFD6FF;
+        st.markerSizeProgress = 35;
+        st.hasSun = true;
+        st.sunX = 0f;
+        st.sunY = -120f;
+        st.hasMoon = true;
+        st.moonX = 300f;
+        st.moonY = -400f;
+
+        st.planets.add(new CanvasState.Planet("EARTH", 120f, 240f));
+        st.planets.add(new CanvasState.Planet("SATURN", -310f, 60f));
+        st.planets.add(new CanvasState.Planet("MARS", 40f, -500f));
+
+        st.starXY = new float[2 * 40];
+        for (int i = 0; i < st.starXY.length; i++) st.starXY[i] = (rng.nextFloat() - 0.5f) * 1500f;
+        st.linkAB = new int[2 * 39];
+        for (int i = 0; i < 39; i++) {
+            st.linkAB[2 * i] = i;
+            st.linkAB[2 * i + 1] = i + 1;
+        }
+
+        float[] ink = new float[3];
+        MarkerBrush.colorToHsv(st.inkColor, ink);
+        DustCollector dust = new DustCollector();
+        for (int s = 0; s < strokes; s++) {
+            dust.reset();
+            float x = (rng.nextFloat() - 0.5f) * 2000f;
+            float y = (rng.nextFloat() - 0.5f) * 3600f;
+            for (int k = 0; k < stampsPerStroke; k++) {
+                MarkerBrush.stamp(rng, x + k * 12f, y + k * 5f, st.markerSizeProgress, k == 0, ink, dust);
+            }
+            st.strokes.add(dust.toStroke());
+        }
+        return st;
+    }
+
+    /** Diary text of roughly {@code chars} characters per page. */
+    static String page(Random rng, int chars) {
+        String[] words = {"today", "I", "felt", "calm", "after", "the", "walk", "and", "tea,", "then",
+                "work", "got", "busy.", "Breathing", "helped", "a", "lot", "tonight."};
+        StringBuilder sb = new StringBuilder(chars + 16);
+        while (sb.length() < chars) {
+            if (sb.length() > 0) sb.append(rng.nextInt(12) == 0 ? '\n' : ' ');
+            sb.append(words[rng.nextInt(words.length)]);
+        }
+        return sb.toString();
+    }
+
+    static final class DustCollector implements MarkerBrush.Sink {
+        int n;
+        float[] x = new float[256], y = new float[256], r = new float[256];
+        int[] core = new int[256], glow = new int[256], coreA = new int[256], glowA = new int[256];
+
+        void reset() {
+            n = 0;
+        }
+
+        @Override
+        public void dust(float px, float py, float pr, int coreColor, int glowColor, int coreAlpha, int glowAlpha) {
+            if (n == x.length) grow();
+            x[n] = px;
+            y[n] = py;
+            r[n] = pr;
+            core[n] = coreColor;
+            glow[n] = glowColor;
+            coreA[n] = coreAlpha;
+            glowA[n] = glowAlpha;
+            n++;
+        }
+
+        private void grow() {
+            int cap = x.length * 2;
+            x = Arrays.copyOf(x, cap);
+            y = Arrays.copyOf(y, cap);
+            r = Arrays.copyOf(r, cap);
+            core = Arrays.copyOf(core, cap);
+            glow = Arrays.copyOf(glow, cap);
+            coreA = Arrays.copyOf(coreA, cap);
+            glowA = Arrays.copyOf(glowA, cap);
+        }
+
+        CanvasState.StrokeData toStroke() {
+            CanvasState.StrokeData sd = new CanvasState.StrokeData(false, n, 0);
+            System.arraycopy(x, 0, sd.dustX, 0, n);
+            System.arraycopy(y, 0, sd.dustY, 0, n);
+            System.arraycopy(r, 0, sd.dustR, 0, n);
+            System.arraycopy(core, 0, sd.coreColor, 0, n);
+            System.arraycopy(glow, 0, sd.glowColor, 0, n);
+            System.arraycopy(coreA, 0, sd.coreAlpha, 0, n);
+            System.arraycopy(glowA, 0, sd.glowAlpha, 0, n);
+            return sd;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.zenpath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/** Planet canvas save/load: the old JSON format next to the binary codec. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CanvasStateBenchmark {
+
+    // 6 stamps per stroke is ~300 particles, so 200 strokes is a busy drawing
+    @Param({"10", "200"})
+    public int strokes;
+
+    private CanvasState state;
+    private String json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws Exception {
+        state = BenchData.canvas(strokes, 6, 5);
+        json = CanvasStateJson.toJson(state);
+        binary = encode(true);
+    }
+
+    @Benchmark
+    public String jsonExport() throws Exception {
+        return CanvasStateJson.toJson(state);
+    }
+
+    @Benchmark
+    public CanvasState jsonImport() throws Exception {
+        return CanvasStateJson.fromJson(json, 0xFFBFD6FF, 35);
+    }
+
+    @Benchmark
+    public byte[] binaryExport() throws Exception {
+        return encode(true);
+    }
+
+    // without deflate: what the compression costs on top
+    @Benchmark
+    public byte[] binaryExportPlain() throws Exception {
+        return encode(false);
+    }
+
+    @Benchmark
+    public CanvasState binaryImport() throws Exception {
+        return CanvasStateCodec.read(new ByteArrayInputStream(binary));
+    }
+
+    private byte[] encode(boolean deflate) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64 * 1024);
+        CanvasStateCodec.write(state, bos, deflate);
+        return bos.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.zenpath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ZoomSpaceView tap in link mode: find the star under the finger, then check whether it is
+ * already linked to the selected one. The grid path should stay flat as the sky fills up; the
+ * linear path is the old scan over every star and link.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConstellationBenchmark {
+
+    private static final float CELL = 256f;
+    private static final float WORLD = 6000f;
+    private static final float TAP_RADIUS = 70f;
+    private static final int TAPS = 1024;
+
+    @Param({"100", "1000", "10000"})
+    public int stars;
+
+    private Constellation constellation;
+    private List<float[]> points;
+    private List<int[]> links;
+    private float[] tapX, tapY;
+    private int[] selected;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(stars);
+        constellation = new Constellation(CELL);
+        points = new ArrayList<>(stars);
+        links = new ArrayList<>(stars);
+        for (int i = 0; i < stars; i++) {
+            float x = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            float y = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            points.add(new float[]{x, y});
+            constellation.addStar(x, y);
+        }
+        for (int i = 1; i < stars; i++) {
+            constellation.addLink(constellation.starAt(i - 1), constellation.starAt(i));
+            links.add(new int[]{i - 1, i});
+        }
+
+        tapX = new float[TAPS];
+        tapY = new float[TAPS];
+        selected = new int[TAPS];
+        for (int q = 0; q < TAPS; q++) {
+            tapX[q] = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            tapY[q] = rnd.nextFloat() * WORLD * 4 - WORLD * 2;
+            selected[q] = rnd.nextInt(stars);
+        }
+    }
+
+    @Benchmark
+    public boolean gridTap() {
+        int q = next++ & (TAPS - 1);
+        Constellation.Star hit = constellation.hitTest(tapX[q], tapY[q], TAP_RADIUS);
+        return hit != null && constellation.hasLink(hit.id, constellation.starAt(selected[q]).id);
+    }
+
+    @Benchmark
+    public boolean linearTap() {
+        int q = next++ & (TAPS - 1);
+        int a = -1;
+        float r2 = TAP_RADIUS * TAP_RADIUS;
+        for (int i = points.size() - 1; i >= 0; i--) {
+            float dx = points.get(i)[0] - tapX[q];
+            float dy = points.get(i)[1] - tapY[q];
+            if (dx * dx + dy * dy <= r2) { a = i; break; }
+        }
+        if (a < 0) return false;
+        int b = selected[q];
+        for (int[] l : links) {
+            if ((l[0] == a && l[1] == b) || (l[0] == b && l[1] == a)) return true;
+        }
+        return false;
+    }
+}
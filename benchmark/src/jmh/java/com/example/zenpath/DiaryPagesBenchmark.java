@@ -0,0 +1,46 @@
+package com.example.zenpath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** The legacy joined entry_text format (split by the v11 migration, joined for getJournalTextByDate). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiaryPagesBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int pages;
+
+    private ArrayList<String> pageList;
+    private String joined;
+
+    @Setup
+    public void setup() {
+        Random rng = new Random(11);
+        pageList = new ArrayList<>();
+        for (int i = 0; i < pages; i++) pageList.add(BenchData.page(rng, 900));
+        joined = DiaryPages.join(pageList);
+    }
+
+    @Benchmark
+    public List<String> split() {
+        return DiaryPages.split(joined);
+    }
+
+    @Benchmark
+    public String join() {
+        return DiaryPages.join(pageList);
+    }
+}
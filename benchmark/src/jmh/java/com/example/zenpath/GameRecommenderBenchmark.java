@@ -0,0 +1,29 @@
+package com.example.zenpath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameRecommenderBenchmark {
+
+    private static final String[] LAST = {null, "STAR_SWEEP", "LANTERN_RELEASE", "PLANET"};
+
+    /** Every mood/stress/last-game combination the home screen can ask for (5 * 101 * 4). */
+    @Benchmark
+    public void allInputs(Blackhole bh) {
+        for (int mood = 1; mood <= 5; mood++) {
+            for (int stress = 0; stress <= 100; stress++) {
+                for (String last : LAST) bh.consume(GameRecommender.recommend(mood, stress, last));
+            }
+        }
+    }
+}
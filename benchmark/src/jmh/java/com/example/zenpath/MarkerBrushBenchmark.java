@@ -0,0 +1,40 @@
+package com.example.zenpath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** ZoomSpaceView.stampMarker particle math (no drawing). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MarkerBrushBenchmark {
+
+    private final Random rng = new Random(1);
+    private final float[] ink = new float[3];
+    private final BenchData.DustCollector sink = new BenchData.DustCollector();
+
+    @Setup
+    public void setup() {
+        MarkerBrush.colorToHsv(0xFFBFD6FF, ink);
+    }
+
+    @Benchmark
+    public int stamp() {
+        sink.reset();
+        return MarkerBrush.stamp(rng, 10f, 20f, 35, false, ink, sink);
+    }
+
+    @Benchmark
+    public int stampHeavyMaxSize() {
+        sink.reset();
+        return MarkerBrush.stamp(rng, 10f, 20f, 100, true, ink, sink);
+    }
+}
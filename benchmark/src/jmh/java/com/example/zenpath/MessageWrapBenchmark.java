@@ -0,0 +1,62 @@
+package com.example.zenpath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Lantern message layout (LanternReleaseView.layoutMessage). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageWrapBenchmark {
+
+    /** Stands in for TextPaint: per-char widths from a small table, like a proportional font. */
+    private static final MessageWrap.Measurer PROPORTIONAL = new MessageWrap.Measurer() {
+        @Override
+        public float width(CharSequence text, int start, int end) {
+            float w = 0f;
+            for (int i = start; i < end; i++) w += charWidth(text.charAt(i));
+            return w;
+        }
+
+        @Override
+        public int fit(CharSequence text, int start, int end, float maxWidth) {
+            float w = 0f;
+            for (int i = start; i < end; i++) {
+                w += charWidth(text.charAt(i));
+                if (w > maxWidth) return i - start;
+            }
+            return end - start;
+        }
+
+        private float charWidth(char c) {
+            if (c == ' ') return 4f;
+            if (c == 'i' || c == 'l' || c == '.' || c == ',') return 3.5f;
+            if (c == 'm' || c == 'w' || Character.isUpperCase(c)) return 11f;
+            return 8f;
+        }
+    };
+
+    @Param({"40", "400"})
+    public int chars;
+
+    private String message;
+
+    @Setup
+    public void setup() {
+        message = BenchData.page(new Random(9), chars).replace('\n', ' ');
+    }
+
+    @Benchmark
+    public String[] wrap() {
+        return MessageWrap.wrap(message, 150f, 5, PROPORTIONAL);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.zenpath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WeeklyTrendBenchmark {
+
+    private final float[] stress = new float[7];
+    private final float[] playMinutes = new float[7];
+
+    @Setup
+    public void setup() {
+        Random rng = new Random(3);
+        for (int i = 0; i < 7; i++) {
+            stress[i] = rng.nextInt(101);
+            playMinutes[i] = rng.nextFloat() * 90f;
+        }
+    }
+
+    @Benchmark
+    public float pearson() {
+        return WeeklyTrend.pearson(stress, playMinutes, 7);
+    }
+
+    @Benchmark
+    public String message() {
+        return WeeklyTrend.message(stress, playMinutes, 7);
+    }
+}
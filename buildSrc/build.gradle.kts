@@ -0,0 +1,17 @@
+plugins {
+    `java-library`
+}
+
+// Build logic for :app (sprite atlas packing). Plain Java on the Gradle API, no extra dependencies.
+dependencies {
+    implementation(gradleApi())
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
@@ -0,0 +1,163 @@
+package com.example.zenpath.build;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Packs the PNGs of {@code sourceDir} into res/drawable-*dpi/sprite_atlas.png plus a generated
+ * SpriteAtlas index class.
+ *
+ * Every sprite needs a display size in dp (its largest on-screen size, longest frame side); the
+ * atlas is built at xxxhdpi for that size and scaled down for the lower densities.
+ */
+@CacheableTask
+public abstract class PackSpritesTask extends DefaultTask {
+
+    static final String ATLAS_NAME = "sprite_atlas";
+    static final String INDEX_CLASS = "SpriteAtlas";
+    static final int MAX_WIDTH = 2048;
+
+    // densities relative to xxxhdpi (4x mdpi)
+    private static final String[] DENSITIES = {"mdpi", "hdpi", "xhdpi", "xxhdpi", "xxxhdpi"};
+    private static final float[] DENSITY_SCALE = {1f, 1.5f, 2f, 3f, 4f};
+    private static final int ATLAS_DENSITY = DENSITIES.length - 1;
+
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getSourceDir();
+
+    /** sprite name (file name without .png) -> largest on-screen size in dp */
+    @Input
+    public abstract MapProperty<String, Integer> getDisplaySizesDp();
+
+    /** sprites whose frame is their opaque bounds rather than the whole source image */
+    @Input
+    public abstract SetProperty<String> getTrimmedFrames();
+
+    @Input
+    public abstract Property<String> getPackageName();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getJavaOutputDir();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getResOutputDir();
+
+    @TaskAction
+    public void pack() throws IOException {
+        File src = getSourceDir().get().getAsFile();
+        Map<String, Integer> sizes = getDisplaySizesDp().get();
+        Set<String> trimmed = getTrimmedFrames().get();
+        float atlasScale = DENSITY_SCALE[ATLAS_DENSITY];
+
+        File[] files = src.listFiles((dir, name) -> name.endsWith(".png"));
+        if (files == null || files.length == 0) throw new GradleException("No sprites in " + src);
+
+        List<SpritePacker.Sprite> sprites = new ArrayList<>();
+        for (File f : files) {
+            String name = f.getName().substring(0, f.getName().length() - 4);
+            Integer dp = sizes.get(name);
+            if (dp == null) throw new GradleException("No display size for sprite '" + name + "'");
+
+            BufferedImage img = ImageIO.read(f);
+            if (img == null) throw new GradleException("Can't read " + f);
+            sprites.add(SpritePacker.prepare(name, img, Math.round(dp * atlasScale), trimmed.contains(name)));
+        }
+        for (String name : sizes.keySet()) {
+            if (!new File(src, name + ".png").isFile()) {
+                throw new GradleException("Display size given for missing sprite '" + name + "'");
+            }
+        }
+
+        int width = atlasWidth(sprites);
+        int height = SpritePacker.pack(sprites, width);
+        BufferedImage atlas = SpritePacker.render(sprites, width, height);
+
+        // res
+        File resDir = getResOutputDir().get().getAsFile();
+        clean(resDir);
+        for (int i = 0; i < DENSITIES.length; i++) {
+            float k = DENSITY_SCALE[i] / atlasScale;
+            BufferedImage out = (i == ATLAS_DENSITY) ? atlas
+                    : SpritePacker.scale(atlas, Math.max(1, Math.round(width * k)), Math.max(1, Math.round(height * k)));
+            File dir = new File(resDir, "drawable-" + DENSITIES[i]);
+            if (!dir.mkdirs() && !dir.isDirectory()) throw new IOException("Can't create " + dir);
+            writePng(out, new File(dir, ATLAS_NAME + ".png"));
+        }
+
+        // java
+        String pkg = getPackageName().get();
+        File javaDir = getJavaOutputDir().get().getAsFile();
+        clean(javaDir);
+        File pkgDir = new File(javaDir, pkg.replace('.', File.separatorChar));
+        if (!pkgDir.mkdirs() && !pkgDir.isDirectory()) throw new IOException("Can't create " + pkgDir);
+        String source = SpritePacker.indexSource(pkg, INDEX_CLASS, sprites, width, height, DENSITIES[ATLAS_DENSITY]);
+        Files.write(new File(pkgDir, INDEX_CLASS + ".java").toPath(), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // narrowest power of two that fits the widest sprite and keeps the atlas roughly square
+    private static int atlasWidth(List<SpritePacker.Sprite> sprites) {
+        long area = 0;
+        int widest = 0;
+        for (SpritePacker.Sprite s : sprites) {
+            int w = s.pixels.getWidth() + SpritePacker.GUTTER;
+            int h = s.pixels.getHeight() + SpritePacker.GUTTER;
+            area += (long) w * h;
+            widest = Math.max(widest, w + SpritePacker.GUTTER);
+        }
+        int width = 256;
+        while (width < MAX_WIDTH && (width < widest || (long) width * width < area)) width *= 2;
+        if (width < widest) throw new GradleException("A sprite is wider than " + MAX_WIDTH + " px");
+        return width;
+    }
+
+    // strongest deflate level (ImageIO's default is a faster one)
+    private static void writePng(BufferedImage img, File file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(0f);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static void clean(File dir) throws IOException {
+        File[] children = dir.listFiles();
+        if (children == null) return;
+        for (File c : children) {
+            if (c.isDirectory()) clean(c);
+            if (!c.delete()) throw new IOException("Can't delete " + c);
+        }
+    }
+}
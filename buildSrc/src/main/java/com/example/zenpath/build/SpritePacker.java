@@ -0,0 +1,214 @@
+package com.example.zenpath.build;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Trims, scales and shelf-packs sprites into one atlas image (no Gradle types, see PackSpritesTask).
+ *
+ * Every sprite keeps its frame: the rectangle the original image was drawn as. Only the opaque
+ * part is packed, with its offset inside the frame, so the app draws it exactly where the full
+ * image used to be. A sprite with {@code trimFrame} uses its trimmed bounds as the frame instead
+ * (the star, which the app used to trim at runtime).
+ */
+public final class SpritePacker {
+
+    static final int ALPHA_THRESHOLD = 10;
+
+    // transparent pixels kept around packed content, and free space between sprites (atlas pixels)
+    static final int CONTENT_PAD = 2;
+    static final int GUTTER = 8;
+
+    // the star's runtime trim kept 6 px of margin
+    static final int FRAME_TRIM_PAD = 6;
+
+    public static final class Sprite {
+        public final String name;
+        BufferedImage pixels;           // trimmed and scaled content
+        int frameW, frameH;             // in atlas pixels
+        int offsetX, offsetY;           // content position inside the frame
+        int x, y;                       // content position in the atlas
+
+        Sprite(String name) {
+            this.name = name;
+        }
+    }
+
+    private SpritePacker() {}
+
+    // =========================
+    // ✅ PREPARE
+    // =========================
+    /**
+     * @param maxFramePx longest frame side in the atlas (the on-screen size at the atlas density);
+     *                   sources are never scaled up
+     */
+    public static Sprite prepare(String name, BufferedImage src, int maxFramePx, boolean trimFrame) {
+        int[] b = opaqueBounds(src);
+        Sprite s = new Sprite(name);
+
+        // frame and content in source pixels
+        int fx = 0, fy = 0, fw = src.getWidth(), fh = src.getHeight();
+        if (b == null) {
+            b = new int[]{0, 0, fw, fh};
+        } else if (trimFrame) {
+            fx = Math.max(0, b[0] - FRAME_TRIM_PAD);
+            fy = Math.max(0, b[1] - FRAME_TRIM_PAD);
+            fw = Math.min(src.getWidth(), b[2] + FRAME_TRIM_PAD) - fx;
+            fh = Math.min(src.getHeight(), b[3] + FRAME_TRIM_PAD) - fy;
+        }
+        int cx = Math.max(fx, b[0] - CONTENT_PAD);
+        int cy = Math.max(fy, b[1] - CONTENT_PAD);
+        int cw = Math.min(fx + fw, b[2] + CONTENT_PAD) - cx;
+        int ch = Math.min(fy + fh, b[3] + CONTENT_PAD) - cy;
+
+        double k = Math.min(1.0, (double) maxFramePx / Math.max(fw, fh));
+        s.frameW = Math.max(1, (int) Math.round(fw * k));
+        s.frameH = Math.max(1, (int) Math.round(fh * k));
+        s.offsetX = (int) Math.floor((cx - fx) * k);
+        s.offsetY = (int) Math.floor((cy - fy) * k);
+        int outW = Math.max(1, Math.min(s.frameW - s.offsetX, (int) Math.ceil(cw * k)));
+        int outH = Math.max(1, Math.min(s.frameH - s.offsetY, (int) Math.ceil(ch * k)));
+
+        s.pixels = scale(src.getSubimage(cx, cy, cw, ch), outW, outH);
+        return s;
+    }
+
+    /** {left, top, right, bottom} (exclusive) of pixels with alpha above ALPHA_THRESHOLD, or null. */
+    static int[] opaqueBounds(BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int minX = w, minY = h, maxX = -1, maxY = -1;
+
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                if ((row[x] >>> 24) > ALPHA_THRESHOLD) {
+                    if (x < minX) minX = x;
+                    if (x > maxX) maxX = x;
+                    if (y < minY) minY = y;
+                    if (y > maxY) maxY = y;
+                }
+            }
+        }
+        if (maxX < minX) return null;
+        return new int[]{minX, minY, maxX + 1, maxY + 1};
+    }
+
+    /** Halves with bilinear filtering until close, then one bicubic step (plain bicubic aliases at 4x+). */
+    public static BufferedImage scale(BufferedImage src, int w, int h) {
+        BufferedImage cur = toArgb(src);
+        while (cur.getWidth() / 2 >= w && cur.getHeight() / 2 >= h) {
+            cur = draw(cur, cur.getWidth() / 2, cur.getHeight() / 2, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        if (cur.getWidth() == w && cur.getHeight() == h) return cur;
+        return draw(cur, w, h, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    // =========================
+    // ✅ PACK
+    // =========================
+    /**
+     * Shelf packing, tallest first, into {@code width} columns; sets each sprite's x / y and returns
+     * the atlas height.
+     */
+    public static int pack(List<Sprite> sprites, int width) {
+        List<Sprite> order = new ArrayList<>(sprites);
+        order.sort(Comparator.comparingInt((Sprite s) -> s.pixels.getHeight()).reversed()
+                .thenComparing(s -> s.name));
+
+        int x = GUTTER, y = GUTTER, shelfH = 0;
+        for (Sprite s : order) {
+            int w = s.pixels.getWidth();
+            int h = s.pixels.getHeight();
+            if (w + 2 * GUTTER > width) {
+                throw new IllegalArgumentException(s.name + " is wider than the atlas (" + w + " px)");
+            }
+            if (x + w + GUTTER > width) {
+                x = GUTTER;
+                y += shelfH + GUTTER;
+                shelfH = 0;
+            }
+            s.x = x;
+            s.y = y;
+            x += w + GUTTER;
+            shelfH = Math.max(shelfH, h);
+        }
+        return y + shelfH + GUTTER;
+    }
+
+    public static BufferedImage render(List<Sprite> sprites, int width, int height) {
+        BufferedImage atlas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        for (Sprite s : sprites) g.drawImage(s.pixels, s.x, s.y, null);
+        g.dispose();
+        return atlas;
+    }
+
+    // =========================
+    // ✅ INDEX CLASS
+    // =========================
+    /** Java source of the index class: sprite ids, atlas rects and frames (see SpriteAtlas in the app). */
+    public static String indexSource(String pkg, String className, List<Sprite> sprites,
+                                     int width, int height, String densityName) {
+        List<Sprite> byName = new ArrayList<>(sprites);
+        byName.sort(Comparator.comparing(s -> s.name));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("// Generated by the :app:packSprites task from app/src/sprites. Do not edit.\n");
+        sb.append("package ").append(pkg).append(";\n\n");
+        sb.append("final class ").append(className).append(" {\n\n");
+        sb.append("    // size of the ").append(densityName)
+                .append(" atlas; the other densities are scaled copies\n");
+        sb.append("    static final int WIDTH = ").append(width).append(";\n");
+        sb.append("    static final int HEIGHT = ").append(height).append(";\n\n");
+
+        for (int i = 0; i < byName.size(); i++) {
+            sb.append("    static final int ").append(constantName(byName.get(i).name))
+                    .append(" = ").append(i).append(";\n");
+        }
+        sb.append("    static final int COUNT = ").append(byName.size()).append(";\n\n");
+
+        sb.append("    // per sprite, in ").append(densityName).append(" atlas pixels: x, y, w, h of the packed pixels,\n");
+        sb.append("    // then frameW, frameH, offsetX, offsetY (the image it is drawn as, and where the pixels sit in it)\n");
+        sb.append("    static final int[] DATA = {\n");
+        for (Sprite s : byName) {
+            sb.append(String.format(Locale.ROOT, "            %d, %d, %d, %d, %d, %d, %d, %d,   // %s%n",
+                    s.x, s.y, s.pixels.getWidth(), s.pixels.getHeight(),
+                    s.frameW, s.frameH, s.offsetX, s.offsetY, s.name));
+        }
+        sb.append("    };\n\n");
+        sb.append("    static final int STRIDE = 8;\n\n");
+        sb.append("    private ").append(className).append("() {}\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    static String constantName(String spriteName) {
+        return spriteName.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", "_");
+    }
+
+    // =========================
+    // helpers
+    // =========================
+    private static BufferedImage toArgb(BufferedImage src) {
+        if (src.getType() == BufferedImage.TYPE_INT_ARGB) return src;
+        return draw(src, src.getWidth(), src.getHeight(), RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int w, int h, Object interpolation) {
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return out;
+    }
+}
@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "ZenPath"
 include(":app")
+include(":benchmark")